@@ -0,0 +1,47 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The optimization type.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public enum OptType {
+	/**
+	 * Minimize
+	 */
+	MIN,
+	/**
+	 * Maximize
+	 */
+	MAX;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		if (this == MIN) {
+			return "Minimize";
+		} else {
+			return "Maximize";
+		}
+	}
+
+}
@@ -0,0 +1,12 @@
+package net.sf.javailp;
+
+
+public class OptimizationException extends RuntimeException {
+
+	public OptimizationException(String message) {
+		super(message);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+}
@@ -14,11 +14,20 @@
  */
 package net.sf.javailp;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * The {@code AbstractSolver} contains a map for the parameters.
+ * The {@code AbstractSolver} contains a map for the parameters and the
+ * progress listeners.
  * 
  * @author lukasiewycz
  * 
@@ -26,6 +35,17 @@ import java.util.Map;
 public abstract class AbstractSolver implements Solver {
 
 	protected final Map<Integer, Number> parameters = new HashMap<Integer, Number>();
+	protected final List<ProgressListener> progressListeners = new CopyOnWriteArrayList<ProgressListener>();
+	protected volatile Metrics metrics = null;
+
+	/**
+	 * The held problems in access order (least recently used first).
+	 */
+	protected final Map<String, Problem> problems = new LinkedHashMap<String, Problem>(16, 0.75f, true);
+	protected final Map<String, File> snapshots = new HashMap<String, File>();
+	protected int maxProblems = 0;
+	protected long maxNativeMemory = 0;
+	protected File spillDirectory = null;
 
 	/*
 	 * (non-Javadoc)
@@ -46,4 +66,290 @@ public abstract class AbstractSolver implements Solver {
 		parameters.put(identifier, value);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#addProgressListener(net.sf.javailp.ProgressListener)
+	 */
+	public void addProgressListener(ProgressListener listener) {
+		progressListeners.add(listener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#removeProgressListener(net.sf.javailp.ProgressListener)
+	 */
+	public void removeProgressListener(ProgressListener listener) {
+		progressListeners.remove(listener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem,
+	 * net.sf.javailp.Deadline)
+	 */
+	public Result solve(Problem problem, Deadline deadline) {
+		return solve(problem, false, deadline);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#setMetrics(net.sf.javailp.Metrics)
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#getMetrics()
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#getProblem(String)
+	 */
+	public synchronized Problem getProblem(String identifier) {
+		Problem problem = problems.get(identifier);
+		if (problem != null) {
+			return problem;
+		}
+		File file = snapshots.remove(identifier);
+		problem = createProblem(identifier);
+		if (file != null) {
+			try {
+				ModelSnapshot.read(file, problem);
+			} catch (IOException e) {
+				throw new OptimizationException("Cannot rehydrate the problem " + identifier + ": " + e.getMessage());
+			} finally {
+				file.delete();
+			}
+			evict(problem);
+		}
+		return problem;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#getProblemIdentifiers()
+	 */
+	public synchronized Set<String> getProblemIdentifiers() {
+		Set<String> identifiers = new LinkedHashSet<String>(problems.keySet());
+		identifiers.addAll(snapshots.keySet());
+		return identifiers;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#getNativeMemory()
+	 */
+	public synchronized long getNativeMemory() {
+		long bytes = 0;
+		for (Problem problem : problems.values()) {
+			bytes += problem.getNativeMemory();
+		}
+		return bytes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#setMaxProblems(int)
+	 */
+	public synchronized void setMaxProblems(int maxProblems) {
+		this.maxProblems = maxProblems;
+		evict(null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#setMaxNativeMemory(long)
+	 */
+	public synchronized void setMaxNativeMemory(long maxNativeMemory) {
+		this.maxNativeMemory = maxNativeMemory;
+		evict(null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#setSpillDirectory(java.io.File)
+	 */
+	public synchronized void setSpillDirectory(File spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
+	/**
+	 * Evicts the least recently used idle problems until the held problems
+	 * are within the limits. Problems that are built (from their creation
+	 * until their first solve), problems that are solving and the given
+	 * problem are never evicted.
+	 * 
+	 * @param keep
+	 *            the problem to keep or {@code null}
+	 */
+	protected synchronized void evict(Problem keep) {
+		if (maxProblems <= 0 && maxNativeMemory <= 0) {
+			return;
+		}
+		int count = problems.size();
+		long bytes = (maxNativeMemory > 0 ? getNativeMemory() : 0);
+		for (Problem problem : new ArrayList<Problem>(problems.values())) {
+			if ((maxProblems <= 0 || count <= maxProblems) && (maxNativeMemory <= 0 || bytes <= maxNativeMemory)) {
+				break;
+			}
+			if (problem == keep || problem.solving || problem.building) {
+				continue;
+			}
+			long size = problem.getNativeMemory();
+			if (spill(problem)) {
+				count--;
+				bytes -= size;
+			}
+		}
+	}
+
+	/**
+	 * Deletes a problem and, if a spill directory is set, keeps a snapshot
+	 * of its model for the rehydration by {@link #getProblem(String)}.
+	 * Returns {@code false} if the snapshot cannot be written; the problem is
+	 * kept in this case.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return {@code true} if the problem was evicted
+	 */
+	protected boolean spill(Problem problem) {
+		String identifier = problem.getIdentifier();
+		File file = null;
+		if (spillDirectory != null) {
+			try {
+				file = File.createTempFile("javailp-", ".snapshot", spillDirectory);
+				file.deleteOnExit();
+				ModelSnapshot.write(problem, file);
+			} catch (IOException e) {
+				System.err.println("cannot spill problem '" + identifier + "': " + e.getMessage());
+				if (file != null) {
+					file.delete();
+				}
+				return false;
+			}
+		}
+		deleteProblem(identifier);
+		if (file != null) {
+			snapshots.put(identifier, file);
+		}
+		return true;
+	}
+
+	/**
+	 * Deletes the snapshot of an evicted problem.
+	 * 
+	 * @param identifier
+	 *            the identifier of the problem
+	 */
+	protected synchronized void discardSnapshot(String identifier) {
+		File file = snapshots.remove(identifier);
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Marks a problem as recently used and solving (it is not evicted until
+	 * {@link #endSolve(Problem)}), then enforces the limits.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected synchronized void beginSolve(Problem problem) {
+		problems.get(problem.getIdentifier());
+		problem.solving = true;
+		evict(problem);
+	}
+
+	/**
+	 * Marks a problem as idle (also if it was built since its creation).
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected void endSolve(Problem problem) {
+		problem.building = false;
+		problem.solving = false;
+	}
+
+	/**
+	 * Deletes a closed problem if it is (still) held by this solver under its
+	 * identifier.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected synchronized void release(Problem problem) {
+		if (problems.get(problem.getIdentifier()) == problem) {
+			deleteProblem(problem.getIdentifier());
+		}
+	}
+
+	/**
+	 * Registers a new problem of this solver: sets the metrics recorder,
+	 * releases the native models of unreachable problems, and enforces the
+	 * limits. The problem is not evicted until its first solve ends.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected void register(Problem problem) {
+		Reclaimer.reclaim();
+		problem.solver = this;
+		problem.setMetricsRecorder(getMetricsRecorder(problem));
+		problem.building = true;
+		problems.put(problem.getIdentifier(), problem);
+		evict(problem);
+	}
+
+	/**
+	 * Returns the metrics recorder for a problem: the current recorder of the
+	 * problem if it records to the metrics of this solver, a new recorder
+	 * otherwise, or {@link MetricsRecorder#NONE} if there are no metrics.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the metrics recorder
+	 */
+	protected MetricsRecorder getMetricsRecorder(Problem problem) {
+		Metrics metrics = this.metrics;
+		if (metrics == null) {
+			return MetricsRecorder.NONE;
+		} else if (problem.metricsRecorder.getMetrics() == metrics) {
+			return problem.metricsRecorder;
+		}
+		return new MetricsRecorder(problem.getIdentifier(), metrics);
+	}
+
+	/**
+	 * Returns a new monitor for the progress of the next optimization or
+	 * {@link ProgressMonitor#NONE} if there are no listeners.
+	 * 
+	 * @return the progress monitor
+	 */
+	protected ProgressMonitor createProgressMonitor() {
+		if (progressListeners.isEmpty()) {
+			return ProgressMonitor.NONE;
+		}
+		return new ProgressMonitor(progressListeners);
+	}
+
 }
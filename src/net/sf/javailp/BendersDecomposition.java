@@ -0,0 +1,674 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code BendersDecomposition} solves two-stage problems consisting of a
+ * master {@link Problem} with the first-stage decisions {@code y} and a set of
+ * continuous {@link BendersSubproblem}s.
+ * <p>
+ * In each iteration, the master problem is solved and all sub-problems are
+ * solved for the master solution (in parallel if more than one thread is
+ * set). The dual values of the coupling constraints yield optimality cuts
+ * {@code eta >= Q(y') - pi T (y - y')} which are added to the master problem
+ * by {@link Problem#addConstraint(String, Linear, Operator, Number)}. If a
+ * sub-problem is proven infeasible ({@link Status#INFEASIBLE}), an elastic
+ * version of it is solved which yields a feasibility cut of the same form;
+ * other failures of a sub-problem are passed on. The algorithm stops if the gap between
+ * the lower and the upper bound is closed or no cut is violated.
+ * <p>
+ * The master variables have to be added to the master problem before
+ * {@link #solve()} is called. The objective of the master problem is set by
+ * this class (minimization).
+ *
+ * @author fgenoese
+ *
+ */
+public class BendersDecomposition {
+
+	protected final Solver masterSolver;
+	protected final Solver subSolver;
+	protected final Problem master;
+	protected final Linear masterObjective;
+	protected final List<BendersSubproblem> subproblems = new ArrayList<BendersSubproblem>();
+
+	protected boolean multiCut = true;
+	protected boolean warmStart = false;
+	protected int threads = 1;
+	protected int maxIterations = 100;
+	protected Deadline deadline = null;
+	protected double tolerance = 1e-6;
+	protected Number recourseLowerBound = 0;
+
+	protected double lowerBound;
+	protected double upperBound;
+	protected int iterations;
+	protected List<Result> subproblemResults;
+
+	private boolean initialized = false;
+	private int cutCounter = 0;
+	private final AtomicInteger problemCounter = new AtomicInteger();
+
+	/**
+	 * Constructs a {@code BendersDecomposition} that solves the master and the
+	 * sub-problems with the same solver.
+	 *
+	 * @param solver
+	 *            the solver
+	 * @param master
+	 *            the master problem
+	 * @param masterObjective
+	 *            the first-stage objective function (minimization)
+	 */
+	public BendersDecomposition(Solver solver, Problem master, Linear masterObjective) {
+		this(solver, master, masterObjective, solver);
+	}
+
+	/**
+	 * Constructs a {@code BendersDecomposition}.
+	 *
+	 * @param masterSolver
+	 *            the solver of the master problem
+	 * @param master
+	 *            the master problem
+	 * @param masterObjective
+	 *            the first-stage objective function (minimization)
+	 * @param subSolver
+	 *            the solver of the sub-problems
+	 */
+	public BendersDecomposition(Solver masterSolver, Problem master, Linear masterObjective, Solver subSolver) {
+		super();
+		this.masterSolver = masterSolver;
+		this.master = master;
+		this.masterObjective = masterObjective;
+		this.subSolver = subSolver;
+	}
+
+	/**
+	 * Adds a sub-problem. All sub-problems have to be added before the first
+	 * call of {@link #solve()}.
+	 *
+	 * @param subproblem
+	 *            the sub-problem
+	 */
+	public void addSubproblem(BendersSubproblem subproblem) {
+		if (initialized) {
+			throw new IllegalStateException("Sub-problems must be added before the first solve.");
+		}
+		subproblems.add(subproblem);
+	}
+
+	/**
+	 * Sets the cut mode. In multi-cut mode (default), one recourse variable
+	 * and one optimality cut per sub-problem are used; otherwise, the cuts of
+	 * all sub-problems are aggregated into a single cut.
+	 *
+	 * @param multiCut
+	 *            {@code true} for multi-cut, {@code false} for single-cut
+	 */
+	public void setMultiCut(boolean multiCut) {
+		if (initialized) {
+			throw new IllegalStateException("The cut mode must be set before the first solve.");
+		}
+		this.multiCut = multiCut;
+	}
+
+	/**
+	 * Warm-starts the master problem with the best known solution if
+	 * {@code true} (see {@link Problem#setStartingSolution(Map)}).
+	 *
+	 * @param warmStart
+	 *            the warm start switch
+	 */
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * Sets the number of threads that solve the sub-problems. The sub-problem
+	 * solver has to support concurrent solves if this value is greater than
+	 * one.
+	 *
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the deadline of the whole solve. Each solve of the master problem gets the
+	 * remaining time (its best bound is used as lower bound if it is stopped
+	 * early); once the deadline has passed, the best solution so far is
+	 * returned. Sub-problems are solved without a limit since their duals are
+	 * required.
+	 *
+	 * @param deadline
+	 *            the deadline or {@code null} for no deadline
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the maximal number of iterations.
+	 *
+	 * @param maxIterations
+	 *            the maximal number of iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Sets the relative tolerance of the gap between the bounds.
+	 *
+	 * @param tolerance
+	 *            the tolerance
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Sets the lower bound of the recourse variables (default 0), i.e., a
+	 * lower bound of the objective value of each sub-problem. Use
+	 * {@code null} for no bound.
+	 *
+	 * @param recourseLowerBound
+	 *            the lower bound
+	 */
+	public void setRecourseLowerBound(Number recourseLowerBound) {
+		this.recourseLowerBound = recourseLowerBound;
+	}
+
+	/**
+	 * Returns the lower bound of the last solve.
+	 *
+	 * @return the lower bound
+	 */
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Returns the upper bound (the objective value of the best solution) of
+	 * the last solve.
+	 *
+	 * @return the upper bound
+	 */
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+	/**
+	 * Returns the number of iterations of the last solve.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns the results of the sub-problems for the best solution in the
+	 * order in which the sub-problems were added.
+	 *
+	 * @return the results of the sub-problems
+	 */
+	public List<Result> getSubproblemResults() {
+		return subproblemResults;
+	}
+
+	/**
+	 * Starts the decomposition and returns the master solution with the best
+	 * upper bound. Returns {@code null} if no feasible solution was found
+	 * within the maximal number of iterations.
+	 *
+	 * @return the result of the master problem
+	 */
+	public Result solve() {
+		if (subproblems.isEmpty()) {
+			throw new IllegalStateException("At least one sub-problem must be added.");
+		}
+		initialize();
+
+		lowerBound = Double.NEGATIVE_INFINITY;
+		upperBound = Double.POSITIVE_INFINITY;
+		subproblemResults = null;
+		Result best = null;
+
+		ExecutorService executor = (threads > 1 ? Executors.newFixedThreadPool(threads) : null);
+		try {
+			for (iterations = 1; iterations <= maxIterations; iterations++) {
+				Result masterResult = masterSolver.solve(master, deadline);
+				Number bound = (masterResult.getStatus().isOptimal() ? masterResult.getObjective() : masterResult.getBestBound());
+				if (bound != null) {
+					lowerBound = Math.max(lowerBound, bound.doubleValue());
+				}
+
+				List<Cut> cuts = solveSubproblems(masterResult, executor);
+
+				boolean feasible = true;
+				double value = evaluate(masterObjective, masterResult);
+				for (Cut cut : cuts) {
+					feasible &= cut.feasible;
+					value += cut.value;
+				}
+				if (feasible && value < upperBound) {
+					upperBound = value;
+					best = masterResult;
+					subproblemResults = new ArrayList<Result>();
+					for (Cut cut : cuts) {
+						subproblemResults.add(cut.result);
+					}
+				}
+
+				if (upperBound - lowerBound <= tolerance * Math.max(1.0, Math.abs(upperBound))) {
+					break;
+				}
+				if (deadline != null && deadline.isExpired()) {
+					break;
+				}
+				if (addCuts(cuts, masterResult) == 0) {
+					break;
+				}
+				if (warmStart && best != null) {
+					master.setStartingSolution(getStartingSolution(best));
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		iterations = Math.min(iterations, maxIterations);
+		return best;
+	}
+
+	/**
+	 * Adds the recourse variables to the master problem and sets its
+	 * objective.
+	 */
+	protected void initialize() {
+		if (initialized) {
+			return;
+		}
+		Linear objective = new Linear(masterObjective);
+		int count = (multiCut ? subproblems.size() : 1);
+		for (int k = 0; k < count; k++) {
+			String eta = getRecourseVariable(k);
+			master.addVariable(eta, VarType.REAL, recourseLowerBound, null);
+			objective.add(1, eta);
+		}
+		master.setObjective(objective, OptType.MIN);
+		initialized = true;
+	}
+
+	/**
+	 * Solves all sub-problems for the given master solution.
+	 *
+	 * @param masterResult
+	 *            the master solution
+	 * @param executor
+	 *            the executor or {@code null} for a sequential execution
+	 * @return the cuts of the sub-problems
+	 */
+	protected List<Cut> solveSubproblems(final Result masterResult, ExecutorService executor) {
+		List<Cut> cuts = new ArrayList<Cut>();
+		if (executor == null) {
+			for (BendersSubproblem subproblem : subproblems) {
+				cuts.add(solveSubproblem(subproblem, masterResult));
+			}
+			return cuts;
+		}
+
+		List<Callable<Cut>> tasks = new ArrayList<Callable<Cut>>();
+		for (final BendersSubproblem subproblem : subproblems) {
+			tasks.add(new Callable<Cut>() {
+				public Cut call() {
+					return solveSubproblem(subproblem, masterResult);
+				}
+			});
+		}
+		try {
+			for (Future<Cut> future : executor.invokeAll(tasks)) {
+				cuts.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OptimizationException("Interrupted while solving the sub-problems.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OptimizationException(e.getCause().toString());
+		}
+		return cuts;
+	}
+
+	/**
+	 * Solves a single sub-problem and returns its cut.
+	 *
+	 * @param subproblem
+	 *            the sub-problem
+	 * @param masterResult
+	 *            the master solution
+	 * @return the cut
+	 */
+	protected Cut solveSubproblem(BendersSubproblem subproblem, Result masterResult) {
+		Cut cut = new Cut();
+		String identifier = "benders-" + problemCounter.incrementAndGet();
+		Problem problem = subSolver.createProblem(identifier);
+		try {
+			subproblem.build(problem, masterResult);
+			try {
+				cut.result = subSolver.solve(problem);
+				cut.feasible = true;
+			} catch (OptimizationException e) {
+				if (e.getStatus() != Status.INFEASIBLE) {
+					// limits, errors of the backend, closed problems, ...
+					throw e;
+				}
+				// infeasible: minimize the violation of the constraints instead
+				subSolver.deleteProblem(identifier);
+				problem = subSolver.createProblem(identifier);
+				ElasticProblem elastic = new ElasticProblem(problem);
+				subproblem.build(elastic, masterResult);
+				elastic.setElasticObjective();
+				cut.result = subSolver.solve(problem);
+				cut.feasible = false;
+			}
+		} finally {
+			subSolver.deleteProblem(identifier);
+		}
+
+		Number objective = cut.result.getObjective();
+		cut.value = (objective != null ? objective.doubleValue() : 0.0);
+		if (!cut.feasible && cut.value <= tolerance) {
+			throw new OptimizationException("A sub-problem could not be solved although it is feasible.");
+		}
+
+		for (Entry<String, Linear> entry : subproblem.getCouplingTerms().entrySet()) {
+			Number dual = cut.result.getDualValue(entry.getKey());
+			if (dual == null) {
+				throw new OptimizationException("No dual value for the coupling constraint " + entry.getKey()
+						+ " (sub-problems must be linear programs).");
+			}
+			double pi = dual.doubleValue();
+			for (Term term : entry.getValue()) {
+				Double g = cut.gradient.get(term.getVariableName());
+				double value = pi * term.getCoefficient().doubleValue();
+				cut.gradient.put(term.getVariableName(), (g != null ? g + value : value));
+			}
+		}
+		return cut;
+	}
+
+	/**
+	 * Adds the violated cuts to the master problem.
+	 *
+	 * @param cuts
+	 *            the cuts of the sub-problems
+	 * @param masterResult
+	 *            the master solution
+	 * @return the number of added cuts
+	 */
+	protected int addCuts(List<Cut> cuts, Result masterResult) {
+		int added = 0;
+		boolean feasible = true;
+		for (Cut cut : cuts) {
+			if (!cut.feasible) {
+				feasible = false;
+				// feasibility cut: 0 >= v(y') - g (y - y')
+				addCut(null, cut.gradient, cut.value, masterResult);
+				added++;
+			}
+		}
+
+		if (multiCut) {
+			for (int k = 0; k < cuts.size(); k++) {
+				Cut cut = cuts.get(k);
+				if (cut.feasible && isViolated(getRecourseVariable(k), cut.value, masterResult)) {
+					addCut(getRecourseVariable(k), cut.gradient, cut.value, masterResult);
+					added++;
+				}
+			}
+		} else if (feasible) {
+			Map<String, Double> gradient = new HashMap<String, Double>();
+			double value = 0.0;
+			for (Cut cut : cuts) {
+				value += cut.value;
+				for (Entry<String, Double> entry : cut.gradient.entrySet()) {
+					Double g = gradient.get(entry.getKey());
+					gradient.put(entry.getKey(), (g != null ? g + entry.getValue() : entry.getValue()));
+				}
+			}
+			if (isViolated(getRecourseVariable(0), value, masterResult)) {
+				addCut(getRecourseVariable(0), gradient, value, masterResult);
+				added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Adds the cut {@code eta + g y >= value + g y'} to the master problem.
+	 *
+	 * @param eta
+	 *            the recourse variable or {@code null} for a feasibility cut
+	 * @param gradient
+	 *            the coefficients {@code g}
+	 * @param value
+	 *            the objective value of the sub-problem(s)
+	 * @param masterResult
+	 *            the master solution {@code y'}
+	 */
+	protected void addCut(String eta, Map<String, Double> gradient, double value, Result masterResult) {
+		Linear lhs = new Linear();
+		double rhs = value;
+		if (eta != null) {
+			lhs.add(1, eta);
+		}
+		for (Entry<String, Double> entry : gradient.entrySet()) {
+			double g = entry.getValue();
+			if (g != 0.0) {
+				lhs.add(g, entry.getKey());
+				rhs += g * getValue(masterResult, entry.getKey());
+			}
+		}
+		cutCounter++;
+		String name = (eta != null ? "benders_opt_" : "benders_feas_") + cutCounter;
+		master.addConstraint(name, lhs, Operator.GE, rhs);
+	}
+
+	/**
+	 * Returns the starting solution for the master problem from a result.
+	 *
+	 * @param result
+	 *            the result
+	 * @return the starting solution
+	 */
+	protected Map<String, Number> getStartingSolution(Result result) {
+		Map<String, Number> start = new LinkedHashMap<String, Number>();
+		for (Term term : masterObjective) {
+			if (result.containsVar(term.getVariableName())) {
+				start.put(term.getVariableName(), result.getPrimalValue(term.getVariableName()));
+			}
+		}
+		for (BendersSubproblem subproblem : subproblems) {
+			for (Linear linear : subproblem.getCouplingTerms().values()) {
+				for (Term term : linear) {
+					if (result.containsVar(term.getVariableName())) {
+						start.put(term.getVariableName(), result.getPrimalValue(term.getVariableName()));
+					}
+				}
+			}
+		}
+		return start;
+	}
+
+	private boolean isViolated(String eta, double value, Result masterResult) {
+		double current = getValue(masterResult, eta);
+		return value - current > tolerance * Math.max(1.0, Math.abs(value));
+	}
+
+	private String getRecourseVariable(int k) {
+		return (multiCut ? "benders_eta_" + k : "benders_eta");
+	}
+
+	private static double getValue(Result result, String variableName) {
+		Number value = result.getPrimalValue(variableName);
+		if (value == null) {
+			throw new OptimizationException("The master result contains no value for " + variableName + ".");
+		}
+		return value.doubleValue();
+	}
+
+	private static double evaluate(Linear linear, Result result) {
+		double value = 0.0;
+		for (Term term : linear) {
+			value += term.getCoefficient().doubleValue() * getValue(result, term.getVariableName());
+		}
+		return value;
+	}
+
+	/**
+	 * The {@code Cut} holds the outcome of a sub-problem.
+	 */
+	protected static class Cut {
+		protected boolean feasible;
+		protected double value;
+		protected Result result;
+		protected final Map<String, Double> gradient = new LinkedHashMap<String, Double>();
+	}
+
+	/**
+	 * The {@code ElasticProblem} adds non-negative slack variables to every
+	 * constraint and minimizes their sum.
+	 */
+	protected static class ElasticProblem implements ProblemInterface {
+
+		protected final ProblemInterface problem;
+		protected final Linear slacks = new Linear();
+
+		protected ElasticProblem(ProblemInterface problem) {
+			this.problem = problem;
+		}
+
+		protected void setElasticObjective() {
+			problem.setObjective(slacks, OptType.MIN);
+		}
+
+		public void setObjective(Linear objective, OptType optType) {
+			// replaced by the sum of the slack variables
+		}
+
+		public void setStartingSolution(Map<String, Number> startingSolution) {
+			problem.setStartingSolution(startingSolution);
+		}
+
+		public int getConstraintsCount() {
+			return problem.getConstraintsCount();
+		}
+
+		public int getVariablesCount() {
+			return problem.getVariablesCount();
+		}
+
+		public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+			Linear elastic = new Linear(lhs);
+			if (operator != Operator.LE) {
+				String slack = "benders_slack+_" + name;
+				problem.addVariable(slack, VarType.REAL, 0, null);
+				elastic.add(1, slack);
+				slacks.add(1, slack);
+			}
+			if (operator != Operator.GE) {
+				String slack = "benders_slack-_" + name;
+				problem.addVariable(slack, VarType.REAL, 0, null);
+				elastic.add(-1, slack);
+				slacks.add(1, slack);
+			}
+			problem.addConstraint(name, elastic, operator, rhs);
+		}
+
+		public void addConstraint(String name, Number lb, Linear lhs, Number ub) {
+			Linear elastic = new Linear(lhs);
+			if (lb != null) {
+				String slack = "benders_slack+_" + name;
+				problem.addVariable(slack, VarType.REAL, 0, null);
+				elastic.add(1, slack);
+				slacks.add(1, slack);
+			}
+			if (ub != null) {
+				String slack = "benders_slack-_" + name;
+				problem.addVariable(slack, VarType.REAL, 0, null);
+				elastic.add(-1, slack);
+				slacks.add(1, slack);
+			}
+			problem.addConstraint(name, lb, elastic, ub);
+		}
+
+		public void addSOS(String name, SOSType type, Linear weights) {
+			problem.addSOS(name, type, weights);
+		}
+
+		public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+			problem.addPiecewiseLinear(name, function);
+		}
+
+		public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+				Number rhs) {
+			// not elastic: the indicator variables are variables of the subproblem
+			problem.addIndicatorConstraint(name, indicator, value, lhs, operator, rhs);
+		}
+
+		public void addVariable(String name, VarType type, Number lb, Number ub) {
+			problem.addVariable(name, type, lb, ub);
+		}
+
+		public void addVariable(String name, VarType type) {
+			problem.addVariable(name, type);
+		}
+
+		public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+			problem.addVariable(name, type, lb, ub, column);
+		}
+
+		public void setVariableLowerBound(String name, Number lb) {
+			problem.setVariableLowerBound(name, lb);
+		}
+
+		public void setVariableUpperBound(String name, Number ub) {
+			problem.setVariableUpperBound(name, ub);
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Map;
+
+/**
+ * The {@code BendersSubproblem} is a factory for the (continuous) recourse
+ * problem of one scenario or block of a {@link BendersDecomposition}.
+ * <p>
+ * The sub-problem has to be a minimization problem. Its coupling constraints
+ * are of the form {@code A x (op) h - T y}, where {@code y} are the master
+ * variables; all other constraints must not depend on the master solution.
+ *
+ * @author fgenoese
+ *
+ */
+public interface BendersSubproblem {
+
+	/**
+	 * Returns the technology rows {@code T} of the coupling constraints, i.e.,
+	 * a map from the name of each coupling constraint of the sub-problem to
+	 * the linear expression over the master variables that is subtracted from
+	 * its right-hand side.
+	 *
+	 * @return the coupling constraints
+	 */
+	public Map<String, Linear> getCouplingTerms();
+
+	/**
+	 * Builds the sub-problem for a given master solution. The right-hand side
+	 * of every coupling constraint has to be set to {@code h - T y} using the
+	 * values of the master variables in {@code master}.
+	 *
+	 * @param problem
+	 *            the (empty) problem to be filled
+	 * @param master
+	 *            the current solution of the master problem
+	 */
+	public void build(ProblemInterface problem, Result master);
+
+}
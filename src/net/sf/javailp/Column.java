@@ -0,0 +1,137 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class {@code Column} is the column of a variable, i.e., the
+ * coefficients of the variable in existing constraints and its coefficient
+ * in the objective function.
+ *
+ * @author fgenoese
+ *
+ */
+public class Column {
+
+	protected final List<String> constraintNames = new ArrayList<String>();
+	protected final List<Number> coefficients = new ArrayList<Number>();
+	protected Number objectiveCoefficient = 0;
+
+	/**
+	 * Constructs an empty column.
+	 */
+	public Column() {
+		super();
+	}
+
+	/**
+	 * Constructs a column with an objective coefficient.
+	 *
+	 * @param objectiveCoefficient
+	 *            the objective coefficient
+	 */
+	public Column(Number objectiveCoefficient) {
+		this();
+		setObjectiveCoefficient(objectiveCoefficient);
+	}
+
+	/**
+	 * Adds the coefficient of the variable in a constraint.
+	 *
+	 * @param coefficient
+	 *            the coefficient
+	 * @param constraintName
+	 *            the constraint name
+	 */
+	public void add(Number coefficient, String constraintName) {
+		if (coefficient == null) {
+			throw new IllegalArgumentException("The constraint " + constraintName
+					+ " has no valid coefficient.");
+		}
+		constraintNames.add(constraintName);
+		coefficients.add(coefficient);
+	}
+
+	/**
+	 * Sets the objective coefficient.
+	 *
+	 * @param objectiveCoefficient
+	 *            the objective coefficient
+	 */
+	public void setObjectiveCoefficient(Number objectiveCoefficient) {
+		if (objectiveCoefficient == null) {
+			throw new IllegalArgumentException("The objective coefficient must not be null.");
+		}
+		this.objectiveCoefficient = objectiveCoefficient;
+	}
+
+	/**
+	 * Returns the objective coefficient.
+	 *
+	 * @return the objective coefficient
+	 */
+	public Number getObjectiveCoefficient() {
+		return objectiveCoefficient;
+	}
+
+	/**
+	 * Returns the size (number of constraints) of the column.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return constraintNames.size();
+	}
+
+	/**
+	 * Returns the name of the {@code i}-th constraint.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the constraint name
+	 */
+	public String getConstraintName(int i) {
+		return constraintNames.get(i);
+	}
+
+	/**
+	 * Returns the {@code i}-th coefficient.
+	 *
+	 * @param i
+	 *            the index
+	 * @return the coefficient
+	 */
+	public Number getCoefficient(int i) {
+		return coefficients.get(i);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuffer s = new StringBuffer();
+		s.append("obj:").append(objectiveCoefficient);
+		for (int i = 0; i < size(); i++) {
+			s.append(" + ").append(coefficients.get(i)).append("*").append(constraintNames.get(i));
+		}
+		return s.toString();
+	}
+
+}
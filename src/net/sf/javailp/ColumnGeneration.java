@@ -0,0 +1,280 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code ColumnGeneration} solves the linear relaxation of a (Dantzig-Wolfe)
+ * master problem with a huge number of columns. Starting with a restricted
+ * master problem, the dual values of its constraints are passed to the
+ * {@link PricingOracle}s (in parallel if more than one thread is set), and the
+ * returned columns are added by
+ * {@link Problem#addVariable(String, VarType, Number, Number, Column)} until no
+ * oracle finds a new column.
+ * <p>
+ * The restricted master problem is re-solved in place, i.e., each backend
+ * starts from the basis of the previous solve (warm start). The restricted
+ * master problem has to be a linear program.
+ *
+ * @author fgenoese
+ *
+ */
+public class ColumnGeneration {
+
+	protected final Solver solver;
+	protected final Problem master;
+	protected final List<PricingOracle> oracles = new ArrayList<PricingOracle>();
+
+	protected int threads = 1;
+	protected int maxIterations = 1000;
+	protected int maxColumnsPerIteration = 0;
+	protected Number columnUpperBound = null;
+	protected Deadline deadline = null;
+
+	protected int iterations;
+	protected int columnsAdded;
+	protected final List<Number> objectiveValues = new ArrayList<Number>();
+
+	private final Set<String> generated = new HashSet<String>();
+
+	/**
+	 * Constructs a {@code ColumnGeneration}.
+	 *
+	 * @param solver
+	 *            the solver of the master problem
+	 * @param master
+	 *            the restricted master problem with its initial columns,
+	 *            constraints and objective function
+	 */
+	public ColumnGeneration(Solver solver, Problem master) {
+		super();
+		this.solver = solver;
+		this.master = master;
+	}
+
+	/**
+	 * Adds a pricing oracle.
+	 *
+	 * @param oracle
+	 *            the pricing oracle
+	 */
+	public void addPricingOracle(PricingOracle oracle) {
+		oracles.add(oracle);
+	}
+
+	/**
+	 * Sets the number of threads that run the pricing oracles.
+	 *
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the deadline of the whole solve. Once the deadline has passed, the
+	 * last restricted master problem is returned. The restricted master
+	 * problem is solved without a limit since its duals are required.
+	 *
+	 * @param deadline
+	 *            the deadline or {@code null} for no deadline
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the maximal number of iterations.
+	 *
+	 * @param maxIterations
+	 *            the maximal number of iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Sets the maximal number of columns that are added per iteration (0 for
+	 * no limit, default). The columns are taken in the order of the oracles.
+	 *
+	 * @param maxColumnsPerIteration
+	 *            the maximal number of columns per iteration
+	 */
+	public void setMaxColumnsPerIteration(int maxColumnsPerIteration) {
+		this.maxColumnsPerIteration = maxColumnsPerIteration;
+	}
+
+	/**
+	 * Sets the upper bound of the generated (continuous, non-negative)
+	 * variables. Use {@code null} for no bound (default).
+	 *
+	 * @param columnUpperBound
+	 *            the upper bound
+	 */
+	public void setColumnUpperBound(Number columnUpperBound) {
+		this.columnUpperBound = columnUpperBound;
+	}
+
+	/**
+	 * Returns the number of iterations of the last solve.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns the number of generated columns.
+	 *
+	 * @return the number of generated columns
+	 */
+	public int getColumnsAdded() {
+		return columnsAdded;
+	}
+
+	/**
+	 * Returns the objective values of the restricted master problem in each
+	 * iteration.
+	 *
+	 * @return the objective values
+	 */
+	public List<Number> getObjectiveValues() {
+		return objectiveValues;
+	}
+
+	/**
+	 * Starts the column generation and returns the last solution of the
+	 * restricted master problem.
+	 *
+	 * @return the result of the restricted master problem
+	 */
+	public Result solve() {
+		if (oracles.isEmpty()) {
+			throw new IllegalStateException("At least one pricing oracle must be added.");
+		}
+		objectiveValues.clear();
+
+		Result result = null;
+		ExecutorService executor = (threads > 1 && oracles.size() > 1 ? Executors.newFixedThreadPool(threads) : null);
+		try {
+			for (iterations = 1; iterations <= maxIterations; iterations++) {
+				result = solver.solve(master);
+				objectiveValues.add(result.getObjective());
+				if (deadline != null && deadline.isExpired()) {
+					break;
+				}
+
+				List<Map<String, Column>> columns = price(result, executor);
+				if (addColumns(columns) == 0) {
+					break;
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		iterations = Math.min(iterations, maxIterations);
+		return result;
+	}
+
+	/**
+	 * Runs all pricing oracles for the given solution.
+	 *
+	 * @param result
+	 *            the solution of the restricted master problem
+	 * @param executor
+	 *            the executor or {@code null} for a sequential execution
+	 * @return the columns of each oracle
+	 */
+	protected List<Map<String, Column>> price(final Result result, ExecutorService executor) {
+		List<Map<String, Column>> columns = new ArrayList<Map<String, Column>>();
+		if (executor == null) {
+			for (PricingOracle oracle : oracles) {
+				columns.add(oracle.price(result));
+			}
+			return columns;
+		}
+
+		List<Callable<Map<String, Column>>> tasks = new ArrayList<Callable<Map<String, Column>>>();
+		for (final PricingOracle oracle : oracles) {
+			tasks.add(new Callable<Map<String, Column>>() {
+				public Map<String, Column> call() {
+					return oracle.price(result);
+				}
+			});
+		}
+		try {
+			for (Future<Map<String, Column>> future : executor.invokeAll(tasks)) {
+				columns.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OptimizationException("Interrupted while pricing.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OptimizationException(e.getCause().toString());
+		}
+		return columns;
+	}
+
+	/**
+	 * Adds the new columns to the restricted master problem.
+	 *
+	 * @param columns
+	 *            the columns of each oracle
+	 * @return the number of added columns
+	 */
+	protected int addColumns(List<Map<String, Column>> columns) {
+		int added = 0;
+		for (Map<String, Column> map : columns) {
+			if (map == null) {
+				continue;
+			}
+			for (Entry<String, Column> entry : map.entrySet()) {
+				if (maxColumnsPerIteration > 0 && added >= maxColumnsPerIteration) {
+					return added;
+				}
+				// an oracle that repeats a column has not found an improving one
+				if (generated.add(entry.getKey())) {
+					// the master rejects names it already holds, e.g. initial columns
+					int count = master.getVariablesCount();
+					master.addVariable(entry.getKey(), VarType.REAL, 0, columnUpperBound, entry.getValue());
+					if (master.getVariablesCount() > count) {
+						columnsAdded++;
+						added++;
+					}
+				}
+			}
+		}
+		return added;
+	}
+
+}
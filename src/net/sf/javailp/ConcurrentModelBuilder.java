@@ -0,0 +1,456 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ConcurrentModelBuilder} collects a linear model from many
+ * threads and loads it into a {@link Problem} (which is not thread-safe) at
+ * once. Variables are registered in a concurrent dictionary; each thread
+ * appends its rows to its own buffer in CSR format without
+ * synchronization. {@link #build()} merges the buffers into one
+ * {@link CsrModel} with a deterministic order of the rows: by their keys
+ * and, for equal keys, by their names. Of several rows with the same name,
+ * the first one in the order of their bounds and coefficients is kept,
+ * i.e., independent of the threads that added them. The columns are in the
+ * order of their registration (which is deterministic if the variables are
+ * registered by one thread).
+ * <p>
+ * {@link #build()} and {@link #flush(Problem)} must not run concurrently
+ * with the addition of variables or constraints.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class ConcurrentModelBuilder {
+
+	protected final ConcurrentMap<String, Variable> variables = new ConcurrentHashMap<String, Variable>();
+	protected final AtomicInteger nextVariable = new AtomicInteger();
+	protected final Collection<RowBuffer> buffers = new ConcurrentLinkedQueue<RowBuffer>();
+	protected final ThreadLocal<RowBuffer> buffer = new ThreadLocal<RowBuffer>() {
+		protected RowBuffer initialValue() {
+			RowBuffer buffer = new RowBuffer();
+			buffers.add(buffer);
+			return buffer;
+		}
+	};
+	protected volatile Linear objective = null;
+	protected volatile OptType optType = null;
+
+	/**
+	 * Constructs a {@code ConcurrentModelBuilder}.
+	 */
+	public ConcurrentModelBuilder() {
+		super();
+	}
+
+	/**
+	 * Registers a variable (thread-safe). A variable with an existing name
+	 * is not registered again.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param type
+	 *            the type
+	 * @param lb
+	 *            the lower bound or {@code null}
+	 * @param ub
+	 *            the upper bound or {@code null}
+	 * @return {@code true} if the variable was registered
+	 */
+	public boolean addVariable(String name, VarType type, Number lb, Number ub) {
+		if (type.isSemiContinuous()) {
+			throw new IllegalArgumentException("Semi-continuous variables cannot be part of a CSR model. (in variable: "
+					+ name + ")");
+		}
+		Variable variable = new Variable();
+		variable.id = nextVariable.getAndIncrement();
+		variable.type = type;
+		variable.lb = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
+		variable.ub = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
+		if (type == VarType.BOOL) {
+			variable.lb = Math.max(0.0, variable.lb);
+			variable.ub = Math.min(1.0, variable.ub);
+		}
+		if (variables.putIfAbsent(name, variable) != null) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of registered variables.
+	 * 
+	 * @return the number of variables
+	 */
+	public int getVariablesCount() {
+		return variables.size();
+	}
+
+	/**
+	 * Adds a constraint with the key 0 to the buffer of the calling thread
+	 * (thread-safe).
+	 * 
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 */
+	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+		addConstraint(0, name, lhs, operator, rhs);
+	}
+
+	/**
+	 * Adds a constraint to the buffer of the calling thread (thread-safe).
+	 * The variables of the constraint have to be registered.
+	 * 
+	 * @param key
+	 *            the key of the constraint (for the order of the rows)
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 */
+	public void addConstraint(long key, String name, Linear lhs, Operator operator, Number rhs) {
+		double value = rhs.doubleValue();
+		switch (operator) {
+		case LE:
+			addRow(key, name, lhs, Double.NEGATIVE_INFINITY, value);
+			break;
+		case GE:
+			addRow(key, name, lhs, value, Double.POSITIVE_INFINITY);
+			break;
+		default: // EQ
+			addRow(key, name, lhs, value, value);
+		}
+	}
+
+	/**
+	 * Adds a range constraint to the buffer of the calling thread
+	 * (thread-safe).
+	 * 
+	 * @param key
+	 *            the key of the constraint (for the order of the rows)
+	 * @param name
+	 *            the name of the constraint
+	 * @param lb
+	 *            the lower bound
+	 * @param lhs
+	 *            the linear expression
+	 * @param ub
+	 *            the upper bound
+	 */
+	public void addConstraint(long key, String name, Number lb, Linear lhs, Number ub) {
+		if (lb == null && ub == null) {
+			throw new IllegalArgumentException("A range constraint needs at least one bound. (in constraint: " + name + ")");
+		} else if (lb != null && ub != null && lb.doubleValue() > ub.doubleValue()) {
+			throw new IllegalArgumentException("The lower bound of a range constraint exceeds its upper bound. (in constraint: " + name + ")");
+		}
+		addRow(key, name, lhs, (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY),
+				(ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY));
+	}
+
+	private void addRow(long key, String name, Linear lhs, double lb, double ub) {
+		if (name == null) {
+			throw new IllegalArgumentException("The constraints of a concurrent model need a name.");
+		}
+		RowBuffer buffer = this.buffer.get();
+		int start = buffer.columns.size();
+		for (Term term : lhs) {
+			Variable variable = variables.get(term.getVariableName());
+			if (variable == null) {
+				buffer.columns.size = start;
+				buffer.values.size = start;
+				throw new IllegalArgumentException(
+						"Variables in a linear expression must be added to the model first. " +
+						"(missing: "+term.getVariableName()+", in constraint: "+name+")");
+			}
+			buffer.add(variable.id, term.getCoefficient().doubleValue(), start);
+		}
+		buffer.keys = ensure(buffer.keys, buffer.names.size());
+		buffer.keys[buffer.names.size()] = key;
+		buffer.names.add(name);
+		buffer.rowLower.add(lb);
+		buffer.rowUpper.add(ub);
+		buffer.rowStart.add(buffer.columns.size());
+	}
+
+	private static long[] ensure(long[] array, int index) {
+		return (index < array.length ? array : Arrays.copyOf(array, 2 * array.length));
+	}
+
+	/**
+	 * Sets the objective (from one thread).
+	 * 
+	 * @param objective
+	 *            the objective
+	 * @param optType
+	 *            the optimization type
+	 */
+	public void setObjective(Linear objective, OptType optType) {
+		this.objective = objective;
+		this.optType = optType;
+	}
+
+	/**
+	 * Merges the buffers into a model.
+	 * 
+	 * @return the model
+	 */
+	public CsrModel build() {
+		// the columns in the order of their registration (ids without gaps)
+		int[] ids = new int[nextVariable.get()];
+		Arrays.fill(ids, -1);
+		for (Variable variable : variables.values()) {
+			ids[variable.id] = 0;
+		}
+		int n = 0;
+		for (int id = 0; id < ids.length; id++) {
+			if (ids[id] == 0) {
+				ids[id] = n++;
+			}
+		}
+		String[] columnNames = new String[n];
+		VarType[] columnTypes = new VarType[n];
+		double[] columnLower = new double[n];
+		double[] columnUpper = new double[n];
+		for (Map.Entry<String, Variable> entry : variables.entrySet()) {
+			Variable variable = entry.getValue();
+			int j = ids[variable.id];
+			columnNames[j] = entry.getKey();
+			columnTypes[j] = variable.type;
+			columnLower[j] = variable.lb;
+			columnUpper[j] = variable.ub;
+		}
+		double[] costs = new double[n];
+		Linear objective = this.objective;
+		if (objective != null) {
+			for (Term term : objective) {
+				Variable variable = variables.get(term.getVariableName());
+				if (variable == null) {
+					throw new IllegalArgumentException(
+							"Variables in the objective must be added to the model first. " +
+							"(missing: "+term.getVariableName()+")");
+				}
+				costs[ids[variable.id]] += term.getCoefficient().doubleValue();
+			}
+		}
+
+		// the rows ordered by key and name
+		final List<RowBuffer> buffers = new ArrayList<RowBuffer>(this.buffers);
+		int rows = 0;
+		for (RowBuffer buffer : buffers) {
+			rows += buffer.names.size();
+		}
+		Row[] order = new Row[rows];
+		int r = 0;
+		for (int b = 0; b < buffers.size(); b++) {
+			RowBuffer buffer = buffers.get(b);
+			for (int i = 0; i < buffer.names.size(); i++) {
+				order[r++] = new Row(buffer, i);
+			}
+		}
+		Arrays.sort(order, new Comparator<Row>() {
+			public int compare(Row r1, Row r2) {
+				long k1 = r1.buffer.keys[r1.index];
+				long k2 = r2.buffer.keys[r2.index];
+				if (k1 != k2) {
+					return (k1 < k2 ? -1 : 1);
+				}
+				int c = r1.buffer.names.get(r1.index).compareTo(r2.buffer.names.get(r2.index));
+				// duplicate names by the content of the rows, not by the order of the buffers
+				return (c != 0 ? c : compareContent(r1, r2));
+			}
+		});
+
+		Set<String> names = new HashSet<String>();
+		List<String> rowNames = new ArrayList<String>(rows);
+		ModelReader.DoubleArray rowLower = new ModelReader.DoubleArray();
+		ModelReader.DoubleArray rowUpper = new ModelReader.DoubleArray();
+		ModelReader.IntArray rowStart = new ModelReader.IntArray();
+		ModelReader.IntArray columnIndices = new ModelReader.IntArray();
+		ModelReader.DoubleArray values = new ModelReader.DoubleArray();
+		rowStart.add(0);
+		for (Row row : order) {
+			RowBuffer buffer = row.buffer;
+			String name = buffer.names.get(row.index);
+			if (!names.add(name)) {
+				System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+				continue;
+			}
+			rowNames.add(name);
+			rowLower.add(buffer.rowLower.get(row.index));
+			rowUpper.add(buffer.rowUpper.get(row.index));
+			for (int k = buffer.rowStart.get(row.index); k < buffer.rowStart.get(row.index + 1); k++) {
+				columnIndices.add(ids[buffer.columns.get(k)]);
+				values.add(buffer.values.get(k));
+			}
+			rowStart.add(columnIndices.size());
+		}
+		return new CsrModel(columnNames, columnTypes, columnLower, columnUpper, costs, optType,
+				rowNames.toArray(new String[rowNames.size()]), rowLower.toArray(), rowUpper.toArray(),
+				rowStart.toArray(), columnIndices.toArray(), values.toArray());
+	}
+
+	/**
+	 * Compares two rows by their bounds and coefficients.
+	 */
+	private static int compareContent(Row r1, Row r2) {
+		RowBuffer b1 = r1.buffer;
+		RowBuffer b2 = r2.buffer;
+		int c = Double.compare(b1.rowLower.get(r1.index), b2.rowLower.get(r2.index));
+		if (c == 0) {
+			c = Double.compare(b1.rowUpper.get(r1.index), b2.rowUpper.get(r2.index));
+		}
+		int start1 = b1.rowStart.get(r1.index);
+		int start2 = b2.rowStart.get(r2.index);
+		int size1 = b1.rowStart.get(r1.index + 1) - start1;
+		int size2 = b2.rowStart.get(r2.index + 1) - start2;
+		if (c == 0 && size1 != size2) {
+			c = (size1 < size2 ? -1 : 1);
+		}
+		for (int k = 0; c == 0 && k < size1; k++) {
+			int j1 = b1.columns.get(start1 + k);
+			int j2 = b2.columns.get(start2 + k);
+			c = (j1 != j2 ? (j1 < j2 ? -1 : 1) : Double.compare(b1.values.get(start1 + k), b2.values.get(start2 + k)));
+		}
+		return c;
+	}
+
+	/**
+	 * Merges the buffers and loads the model into a problem (see
+	 * {@link Problem#load(CsrModel)}).
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	public void flush(Problem problem) {
+		problem.load(build());
+	}
+
+	/**
+	 * Removes all constraints (the variables and the objective are kept).
+	 */
+	public void clearConstraints() {
+		for (RowBuffer buffer : buffers) {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * A registered variable.
+	 */
+	protected static class Variable {
+		protected int id;
+		protected VarType type;
+		protected double lb;
+		protected double ub;
+	}
+
+	/**
+	 * A row of a buffer.
+	 */
+	protected static class Row {
+		protected final RowBuffer buffer;
+		protected final int index;
+
+		protected Row(RowBuffer buffer, int index) {
+			this.buffer = buffer;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * The rows of one thread in CSR format (with the ids of the variables).
+	 */
+	protected static class RowBuffer {
+		protected long[] keys = new long[16];
+		protected List<String> names = new ArrayList<String>();
+		protected ModelReader.DoubleArray rowLower = new ModelReader.DoubleArray();
+		protected ModelReader.DoubleArray rowUpper = new ModelReader.DoubleArray();
+		protected ModelReader.IntArray rowStart = new ModelReader.IntArray();
+		protected ModelReader.IntArray columns = new ModelReader.IntArray();
+		protected ModelReader.DoubleArray values = new ModelReader.DoubleArray();
+		protected Map<Integer, Integer> positions = null;
+
+		protected RowBuffer() {
+			rowStart.add(0);
+		}
+
+		/**
+		 * Adds a coefficient to the current row (starting at
+		 * {@code start}); duplicate variables are summed.
+		 */
+		protected void add(int column, double value, int start) {
+			int size = columns.size() - start;
+			if (size < 32) {
+				positions = null;
+				for (int k = start; k < columns.size(); k++) {
+					if (columns.get(k) == column) {
+						values.set(k, values.get(k) + value);
+						return;
+					}
+				}
+			} else {
+				if (positions == null || size == 32) {
+					positions = new HashMap<Integer, Integer>();
+					for (int k = start; k < columns.size(); k++) {
+						positions.put(columns.get(k), k);
+					}
+				}
+				Integer k = positions.get(column);
+				if (k != null) {
+					values.set(k, values.get(k) + value);
+					return;
+				}
+				positions.put(column, columns.size());
+			}
+			columns.add(column);
+			values.add(value);
+		}
+
+		protected void clear() {
+			names.clear();
+			rowLower.size = 0;
+			rowUpper.size = 0;
+			rowStart.size = 1;
+			columns.size = 0;
+			values.size = 0;
+		}
+	}
+
+}
@@ -0,0 +1,322 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code CsrModel} is a model in primitive arrays: the columns with their
+ * names, types, bounds and objective coefficients, and the rows with their
+ * names, bounds and coefficients in compressed sparse row (CSR) format. The
+ * coefficients of row {@code i} are at the positions
+ * {@code rowStart[i] <= k < rowStart[i+1]} of {@code columnIndices} and
+ * {@code values}. Missing bounds are infinite; a row with a finite lower and
+ * upper bound is a range constraint.
+ * <p>
+ * A {@code CsrModel} is loaded into a {@link Problem} with
+ * {@link Problem#load(CsrModel)} (which the backends implement without
+ * intermediate {@link Linear} objects) or into any {@link ProblemInterface}
+ * with {@link #export(ProblemInterface)}. The arrays are not copied.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class CsrModel {
+
+	protected final String[] columnNames;
+	protected final VarType[] columnTypes;
+	protected final double[] columnLower;
+	protected final double[] columnUpper;
+	protected final double[] objective;
+	protected final OptType optType;
+	protected final String[] rowNames;
+	protected final double[] rowLower;
+	protected final double[] rowUpper;
+	protected final int[] rowStart;
+	protected final int[] columnIndices;
+	protected final double[] values;
+
+	/**
+	 * Constructs a {@code CsrModel}.
+	 * 
+	 * @param columnNames
+	 *            the names of the columns
+	 * @param columnTypes
+	 *            the types of the columns
+	 * @param columnLower
+	 *            the lower bounds of the columns
+	 * @param columnUpper
+	 *            the upper bounds of the columns
+	 * @param objective
+	 *            the objective coefficients of the columns
+	 * @param optType
+	 *            the optimization type or {@code null} if the model has no
+	 *            objective
+	 * @param rowNames
+	 *            the names of the rows
+	 * @param rowLower
+	 *            the lower bounds of the rows
+	 * @param rowUpper
+	 *            the upper bounds of the rows
+	 * @param rowStart
+	 *            the start of each row in the coefficients (one more than the
+	 *            number of rows)
+	 * @param columnIndices
+	 *            the column indices of the coefficients
+	 * @param values
+	 *            the coefficients
+	 */
+	public CsrModel(String[] columnNames, VarType[] columnTypes, double[] columnLower, double[] columnUpper,
+			double[] objective, OptType optType, String[] rowNames, double[] rowLower, double[] rowUpper,
+			int[] rowStart, int[] columnIndices, double[] values) {
+		super();
+		int n = columnNames.length;
+		int m = rowNames.length;
+		if (columnTypes.length != n || columnLower.length != n || columnUpper.length != n || objective.length != n) {
+			throw new IllegalArgumentException("The size of the column arrays must be equal.");
+		}
+		if (rowLower.length != m || rowUpper.length != m || rowStart.length != m + 1) {
+			throw new IllegalArgumentException("The size of the row arrays must be equal.");
+		}
+		if (columnIndices.length < rowStart[m] || values.length < rowStart[m]) {
+			throw new IllegalArgumentException("The size of the coefficient arrays must be equal.");
+		}
+		this.columnNames = columnNames;
+		this.columnTypes = columnTypes;
+		this.columnLower = columnLower;
+		this.columnUpper = columnUpper;
+		this.objective = objective;
+		this.optType = optType;
+		this.rowNames = rowNames;
+		this.rowLower = rowLower;
+		this.rowUpper = rowUpper;
+		this.rowStart = rowStart;
+		this.columnIndices = columnIndices;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnsCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRowsCount() {
+		return rowNames.length;
+	}
+
+	/**
+	 * Returns the number of coefficients (nonzeros).
+	 * 
+	 * @return the number of coefficients
+	 */
+	public int getNonzerosCount() {
+		return rowStart[rowNames.length];
+	}
+
+	/**
+	 * Returns the names of the columns.
+	 * 
+	 * @return the names of the columns
+	 */
+	public String[] getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Returns the types of the columns.
+	 * 
+	 * @return the types of the columns
+	 */
+	public VarType[] getColumnTypes() {
+		return columnTypes;
+	}
+
+	/**
+	 * Returns the lower bounds of the columns.
+	 * 
+	 * @return the lower bounds of the columns
+	 */
+	public double[] getColumnLower() {
+		return columnLower;
+	}
+
+	/**
+	 * Returns the upper bounds of the columns.
+	 * 
+	 * @return the upper bounds of the columns
+	 */
+	public double[] getColumnUpper() {
+		return columnUpper;
+	}
+
+	/**
+	 * Returns the objective coefficients of the columns.
+	 * 
+	 * @return the objective coefficients
+	 */
+	public double[] getObjective() {
+		return objective;
+	}
+
+	/**
+	 * Returns the optimization type or {@code null} if the model has no
+	 * objective.
+	 * 
+	 * @return the optimization type
+	 */
+	public OptType getOptType() {
+		return optType;
+	}
+
+	/**
+	 * Returns the names of the rows.
+	 * 
+	 * @return the names of the rows
+	 */
+	public String[] getRowNames() {
+		return rowNames;
+	}
+
+	/**
+	 * Returns the lower bounds of the rows.
+	 * 
+	 * @return the lower bounds of the rows
+	 */
+	public double[] getRowLower() {
+		return rowLower;
+	}
+
+	/**
+	 * Returns the upper bounds of the rows.
+	 * 
+	 * @return the upper bounds of the rows
+	 */
+	public double[] getRowUpper() {
+		return rowUpper;
+	}
+
+	/**
+	 * Returns the start of each row in the coefficients.
+	 * 
+	 * @return the row starts
+	 */
+	public int[] getRowStart() {
+		return rowStart;
+	}
+
+	/**
+	 * Returns the column indices of the coefficients.
+	 * 
+	 * @return the column indices
+	 */
+	public int[] getColumnIndices() {
+		return columnIndices;
+	}
+
+	/**
+	 * Returns the coefficients.
+	 * 
+	 * @return the coefficients
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Adds the model to a problem through the methods of the
+	 * {@link ProblemInterface}: first the variables, then the constraints,
+	 * then the objective (if any).
+	 * 
+	 * @param target
+	 *            the target
+	 */
+	public void export(ProblemInterface target) {
+		for (int j = 0; j < columnNames.length; j++) {
+			target.addVariable(columnNames[j], columnTypes[j], toNumber(columnLower[j]), toNumber(columnUpper[j]));
+		}
+		for (int i = 0; i < rowNames.length; i++) {
+			Linear lhs = new Linear();
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				lhs.add(values[k], columnNames[columnIndices[k]]);
+			}
+			addRow(target, rowNames[i], lhs, rowLower[i], rowUpper[i]);
+		}
+		if (optType != null) {
+			target.setObjective(getObjectiveLinear(), optType);
+		}
+	}
+
+	/**
+	 * Returns the objective as linear expression (without zero
+	 * coefficients).
+	 * 
+	 * @return the objective
+	 */
+	public Linear getObjectiveLinear() {
+		Linear linear = new Linear();
+		for (int j = 0; j < columnNames.length; j++) {
+			if (objective[j] != 0.0) {
+				linear.add(objective[j], columnNames[j]);
+			}
+		}
+		return linear;
+	}
+
+	/**
+	 * Adds a row with the given bounds as constraint; a row without finite
+	 * bounds is skipped.
+	 * 
+	 * @param target
+	 *            the target
+	 * @param name
+	 *            the name of the row
+	 * @param lhs
+	 *            the linear expression
+	 * @param lb
+	 *            the lower bound
+	 * @param ub
+	 *            the upper bound
+	 */
+	protected static void addRow(ProblemInterface target, String name, Linear lhs, double lb, double ub) {
+		if (lb == ub) {
+			target.addConstraint(name, lhs, Operator.EQ, lb);
+		} else if (!Double.isInfinite(lb) && !Double.isInfinite(ub)) {
+			target.addConstraint(name, lb, lhs, ub);
+		} else if (!Double.isInfinite(ub)) {
+			target.addConstraint(name, lhs, Operator.LE, ub);
+		} else if (!Double.isInfinite(lb)) {
+			target.addConstraint(name, lhs, Operator.GE, lb);
+		}
+	}
+
+	/**
+	 * Returns a finite bound as number and an infinite bound as {@code null}.
+	 * 
+	 * @param bound
+	 *            the bound
+	 * @return the number or {@code null}
+	 */
+	protected static Number toNumber(double bound) {
+		return (Double.isInfinite(bound) ? null : bound);
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@code Deadline} is a point in time by which a (chain of) solves
+ * has to finish. It is passed to {@link Solver#solve(Problem, Deadline)} and
+ * the decomposition drivers; each solve gets the remaining time as its time
+ * limit (bounded by {@link Solver#TIMEOUT}), thus, consecutive solves share
+ * one budget. A solve that reaches the deadline returns its incumbent (see
+ * {@link Status#TIME_LIMIT}).
+ * 
+ * @author fgenoese
+ * 
+ */
+public class Deadline {
+
+	protected final long time;
+
+	/**
+	 * Constructs a {@code Deadline} that expires after the given number of
+	 * seconds.
+	 * 
+	 * @param seconds
+	 *            the seconds from now
+	 */
+	public Deadline(double seconds) {
+		this((long) (seconds * 1e9), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Constructs a {@code Deadline} that expires after the given duration.
+	 * 
+	 * @param duration
+	 *            the duration from now
+	 * @param unit
+	 *            the unit of the duration
+	 */
+	public Deadline(long duration, TimeUnit unit) {
+		super();
+		this.time = System.nanoTime() + unit.toNanos(duration);
+	}
+
+	/**
+	 * Returns the remaining time in seconds (0 if expired).
+	 * 
+	 * @return the remaining time
+	 */
+	public double getRemaining() {
+		return Math.max(0, time - System.nanoTime()) / 1e9;
+	}
+
+	/**
+	 * Returns {@code true} if the deadline has passed.
+	 * 
+	 * @return {@code true} if the deadline has passed
+	 */
+	public boolean isExpired() {
+		return time - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Returns the time limit in seconds for a solve that has the given limit
+	 * on its own, i.e., the minimum of the limit and the remaining time.
+	 * 
+	 * @param limit
+	 *            the time limit of the solve in seconds
+	 * @return the time limit with respect to this deadline
+	 */
+	public double getTimeLimit(double limit) {
+		return Math.min(limit, getRemaining());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Deadline (remaining: " + getRemaining() + "s)";
+	}
+
+}
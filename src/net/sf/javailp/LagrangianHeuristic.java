@@ -0,0 +1,42 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Map;
+
+/**
+ * The {@code LagrangianHeuristic} turns the (usually infeasible) solution of
+ * the Lagrangian relaxation into a candidate solution of the original problem
+ * in each iteration of a {@link LagrangianRelaxation}.
+ *
+ * @author fgenoese
+ *
+ */
+public interface LagrangianHeuristic {
+
+	/**
+	 * Returns a candidate solution of the original problem or {@code null}.
+	 * The candidate is only accepted if it satisfies all constraints.
+	 *
+	 * @param relaxed
+	 *            the values of the variables in the Lagrangian relaxation
+	 * @param multipliers
+	 *            the current Lagrangian multipliers of the dualized
+	 *            constraints
+	 * @return the candidate solution or {@code null}
+	 */
+	public Map<String, Number> repair(Map<String, Number> relaxed, Map<String, Double> multipliers);
+
+}
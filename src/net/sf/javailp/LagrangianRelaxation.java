@@ -0,0 +1,960 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code LagrangianRelaxation} computes Lagrangian bounds for problems
+ * with a few coupling constraints. The problem is defined by the methods of
+ * the {@link ProblemInterface}; coupling constraints are marked by
+ * {@link #addConstraint(String, Linear, Operator, Number, boolean)}.
+ * <p>
+ * The dualized constraints are moved into the objective function with the
+ * current multipliers. The remaining constraints decompose the variables into
+ * independent blocks (connected components) that are solved concurrently
+ * with the given {@link Solver}; variables without any remaining constraint
+ * are set to one of their bounds directly. The multipliers are updated by
+ * subgradient steps with the Polyak step length (optionally with a deflected
+ * direction that stabilizes the multipliers). In each iteration, the
+ * relaxed solution and the solution of an optional
+ * {@link LagrangianHeuristic} are checked for feasibility and kept as primal
+ * solution.
+ *
+ * @author fgenoese
+ *
+ */
+public class LagrangianRelaxation implements ProblemInterface {
+
+	protected final Solver solver;
+	protected final Map<String, Variable> variables = new LinkedHashMap<String, Variable>();
+	protected final Map<String, Constraint> constraints = new LinkedHashMap<String, Constraint>();
+	protected Linear objective = new Linear();
+	protected OptType optType = OptType.MIN;
+	protected Map<String, Number> startingSolution = null;
+
+	protected int threads = 1;
+	protected int maxIterations = 200;
+	protected Deadline deadline = null;
+	protected double tolerance = 1e-4;
+	protected double feasibilityTolerance = 1e-6;
+	protected double initialStep = 2.0;
+	protected double minStep = 1e-6;
+	protected int stepHalving = 10;
+	protected boolean deflection = false;
+	protected Number targetValue = null;
+	protected LagrangianHeuristic heuristic = null;
+
+	protected final Map<String, Double> multipliers = new LinkedHashMap<String, Double>();
+	protected final List<Double> bounds = new ArrayList<Double>();
+	protected double bound;
+	protected int iterations;
+
+	private final AtomicInteger problemCounter = new AtomicInteger();
+
+	/**
+	 * Constructs a {@code LagrangianRelaxation}.
+	 *
+	 * @param solver
+	 *            the solver of the sub-problems
+	 */
+	public LagrangianRelaxation(Solver solver) {
+		super();
+		this.solver = solver;
+	}
+
+	/**
+	 * Sets the number of threads that solve the sub-problems. The solver has
+	 * to support concurrent solves if this value is greater than one.
+	 *
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the deadline of the whole solve. Once the deadline has passed, the
+	 * subgradient method stops with the best bound and solution so far. The
+	 * blocks are solved without a limit since only optimal block solutions
+	 * yield valid bounds.
+	 *
+	 * @param deadline
+	 *            the deadline or {@code null} for no deadline
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the maximal number of iterations.
+	 *
+	 * @param maxIterations
+	 *            the maximal number of iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Sets the relative tolerance of the gap between the bound and the best
+	 * primal solution.
+	 *
+	 * @param tolerance
+	 *            the tolerance
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Sets the initial step factor (default 2) and the number of iterations
+	 * without an improvement of the bound after which it is halved (default
+	 * 10).
+	 *
+	 * @param initialStep
+	 *            the initial step factor
+	 * @param stepHalving
+	 *            the number of iterations
+	 */
+	public void setStep(double initialStep, int stepHalving) {
+		this.initialStep = initialStep;
+		this.stepHalving = Math.max(1, stepHalving);
+	}
+
+	/**
+	 * Uses a deflected subgradient direction (Camerini-Fratta-Maffioli) if
+	 * {@code true}. The deflection dampens the zig-zagging of the multipliers
+	 * similar to the stabilization of bundle methods.
+	 *
+	 * @param deflection
+	 *            the deflection switch
+	 */
+	public void setDeflection(boolean deflection) {
+		this.deflection = deflection;
+	}
+
+	/**
+	 * Sets the target value of the Polyak step length. By default, the value
+	 * of the best primal solution is used.
+	 *
+	 * @param targetValue
+	 *            the target value or {@code null}
+	 */
+	public void setTargetValue(Number targetValue) {
+		this.targetValue = targetValue;
+	}
+
+	/**
+	 * Sets the Lagrangian heuristic.
+	 *
+	 * @param heuristic
+	 *            the heuristic or {@code null}
+	 */
+	public void setHeuristic(LagrangianHeuristic heuristic) {
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Sets the multipliers of the dualized constraints (warm start). The
+	 * multipliers of the last solve are kept otherwise.
+	 *
+	 * @param multipliers
+	 *            the multipliers
+	 */
+	public void setMultipliers(Map<String, Double> multipliers) {
+		this.multipliers.clear();
+		this.multipliers.putAll(multipliers);
+	}
+
+	/**
+	 * Returns the multipliers of the dualized constraints.
+	 *
+	 * @return the multipliers
+	 */
+	public Map<String, Double> getMultipliers() {
+		return multipliers;
+	}
+
+	/**
+	 * Returns the best Lagrangian bound of the last solve (a lower bound for
+	 * minimization and an upper bound for maximization).
+	 *
+	 * @return the bound
+	 */
+	public double getBound() {
+		return bound;
+	}
+
+	/**
+	 * Returns the Lagrangian bound of each iteration of the last solve.
+	 *
+	 * @return the bound trajectory
+	 */
+	public List<Double> getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Returns the number of iterations of the last solve.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear,
+	 * net.sf.javailp.OptType)
+	 */
+	public void setObjective(Linear objective, OptType optType) {
+		for (Term term : objective) {
+			checkVariable(term.getVariableName(), "objective");
+		}
+		this.objective = new Linear(objective);
+		this.optType = optType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#setStartingSolution(java.util.Map)
+	 */
+	public void setStartingSolution(Map<String, Number> startingSolution) {
+		this.startingSolution = startingSolution;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#getConstraintsCount()
+	 */
+	public int getConstraintsCount() {
+		return constraints.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#getVariablesCount()
+	 */
+	public int getVariablesCount() {
+		return variables.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String,
+	 * net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+	 */
+	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+		addConstraint(name, lhs, operator, rhs, false);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String,
+	 * java.lang.Number, net.sf.javailp.Linear, java.lang.Number)
+	 */
+	public void addConstraint(String name, Number lb, Linear lhs, Number ub) {
+		if (lb == null || ub == null) {
+			addConstraint(name, lhs, (lb == null ? Operator.LE : Operator.GE), (lb == null ? ub : lb));
+			return;
+		}
+		if (constraints.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		// a range is kept in the sub-problems (a dualized range would need two multipliers)
+		addConstraint(name, lhs, Operator.LE, ub, false);
+		constraints.get(name).lb = lb.doubleValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String,
+	 * net.sf.javailp.SOSType, net.sf.javailp.Linear)
+	 */
+	public void addSOS(String name, SOSType type, Linear weights) {
+		// the linear formulation is kept in the sub-problems
+		Reformulation.addSOS(this, new VariableBounds(), name, type, weights);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String,
+	 * java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator,
+	 * java.lang.Number)
+	 */
+	public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+			Number rhs) {
+		// the linear formulation is kept in the sub-problems
+		Reformulation.addIndicatorConstraint(this, new VariableBounds(), name, indicator, value, lhs, operator, rhs);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String,
+	 * net.sf.javailp.PiecewiseLinear)
+	 */
+	public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+		// the linear formulation is kept in the sub-problems
+		Reformulation.addPiecewiseLinear(this, name, function);
+	}
+
+	/**
+	 * Adds a constraint that is either kept in the sub-problems or dualized,
+	 * i.e., moved into the objective function with a Lagrangian multiplier.
+	 *
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 * @param dualized
+	 *            dualizes the constraint if {@code true}
+	 */
+	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs, boolean dualized) {
+		if (constraints.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		for (Term term : lhs) {
+			checkVariable(term.getVariableName(), "constraint: " + name);
+		}
+		Constraint constraint = new Constraint();
+		constraint.name = name;
+		constraint.lhs = new Linear(lhs);
+		constraint.operator = operator;
+		constraint.rhs = rhs.doubleValue();
+		constraint.dualized = dualized;
+		constraints.put(name, constraint);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String,
+	 * net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub) {
+		if (variables.containsKey(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		Variable variable = new Variable();
+		variable.name = name;
+		variable.type = type;
+		variable.lb = lb;
+		variable.ub = ub;
+		variables.put(name, variable);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String,
+	 * net.sf.javailp.VarType, java.lang.Number, java.lang.Number,
+	 * net.sf.javailp.Column)
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+		if (variables.containsKey(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		for (int i = 0; i < column.size(); i++) {
+			if (!constraints.containsKey(column.getConstraintName(i))) {
+				throw new IllegalArgumentException(
+						"Constraints in a column must be added to the problem first. " +
+						"(missing: "+column.getConstraintName(i)+", in column of: "+name+")");
+			}
+		}
+		addVariable(name, type, lb, ub);
+		for (int i = 0; i < column.size(); i++) {
+			constraints.get(column.getConstraintName(i)).lhs.add(column.getCoefficient(i), name);
+		}
+		if (column.getObjectiveCoefficient().doubleValue() != 0.0) {
+			objective.add(column.getObjectiveCoefficient(), name);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String,
+	 * net.sf.javailp.VarType)
+	 */
+	public void addVariable(String name, VarType type) {
+		addVariable(name, type, null, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String,
+	 * java.lang.Number)
+	 */
+	public void setVariableLowerBound(String name, Number lb) {
+		checkVariable(name, "bound");
+		variables.get(name).lb = lb;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String,
+	 * java.lang.Number)
+	 */
+	public void setVariableUpperBound(String name, Number ub) {
+		checkVariable(name, "bound");
+		variables.get(name).ub = ub;
+	}
+
+	/**
+	 * Starts the subgradient optimization and returns the best primal
+	 * solution that was found or {@code null} if no feasible solution was
+	 * found. The bound is available by {@link #getBound()}.
+	 *
+	 * @return the best primal solution
+	 */
+	public Result solve() {
+		final double sense = (optType == OptType.MIN ? 1.0 : -1.0);
+		final List<Variable> vars = new ArrayList<Variable>(variables.values());
+		final Map<String, Integer> index = new HashMap<String, Integer>();
+		for (int j = 0; j < vars.size(); j++) {
+			index.put(vars.get(j).name, j);
+		}
+		final double[] costs = new double[vars.size()];
+		for (Term term : objective) {
+			costs[index.get(term.getVariableName())] += sense * term.getCoefficient().doubleValue();
+		}
+
+		List<Constraint> dualized = new ArrayList<Constraint>();
+		for (Constraint constraint : constraints.values()) {
+			constraint.compile(index);
+			if (constraint.dualized) {
+				dualized.add(constraint);
+			}
+		}
+		int m = dualized.size();
+		double[] lambda = new double[m];
+		for (int i = 0; i < m; i++) {
+			Double value = multipliers.get(dualized.get(i).name);
+			lambda[i] = (value != null ? value : 0.0);
+		}
+
+		bounds.clear();
+		Best best = new Best();
+		if (startingSolution != null) {
+			consider(startingSolution, vars, sense, best);
+		}
+
+		List<Block> blocks = new ArrayList<Block>();
+		ExecutorService executor = null;
+		double bestBound = Double.NEGATIVE_INFINITY;
+		double step = initialStep;
+		int noImprovement = 0;
+		double[] previous = null;
+		try {
+			createBlocks(vars, blocks);
+			if (threads > 1 && blocks.size() > 1) {
+				executor = Executors.newFixedThreadPool(threads);
+			}
+			for (iterations = 1; iterations <= maxIterations; iterations++) {
+				// modified costs c + lambda A and constant -lambda b
+				double[] reduced = costs.clone();
+				double constant = 0.0;
+				for (int i = 0; i < m; i++) {
+					Constraint constraint = dualized.get(i);
+					double sign = (constraint.operator == Operator.GE ? -1.0 : 1.0);
+					for (int k = 0; k < constraint.indices.length; k++) {
+						reduced[constraint.indices[k]] += lambda[i] * sign * constraint.coefficients[k];
+					}
+					constant -= lambda[i] * sign * constraint.rhs;
+				}
+
+				double[] x = solveRelaxation(blocks, vars, reduced, executor);
+				double value = constant;
+				for (int j = 0; j < x.length; j++) {
+					value += reduced[j] * x[j];
+				}
+				bounds.add(sense * value);
+				if (value > bestBound + feasibilityTolerance * Math.max(1.0, Math.abs(bestBound))) {
+					bestBound = value;
+					noImprovement = 0;
+				} else if (++noImprovement >= stepHalving) {
+					step /= 2.0;
+					noImprovement = 0;
+				}
+
+				Map<String, Number> relaxed = toMap(vars, x);
+				consider(relaxed, vars, sense, best);
+				if (heuristic != null) {
+					Map<String, Number> candidate = heuristic.repair(relaxed, toMultipliers(dualized, lambda));
+					if (candidate != null) {
+						consider(candidate, vars, sense, best);
+					}
+				}
+				if (best.result != null && best.value - bestBound <= tolerance * Math.max(1.0, Math.abs(best.value))) {
+					break;
+				}
+				if (deadline != null && deadline.isExpired()) {
+					break;
+				}
+
+				// projected subgradient
+				double[] direction = new double[m];
+				double norm = 0.0;
+				for (int i = 0; i < m; i++) {
+					Constraint constraint = dualized.get(i);
+					double g = constraint.evaluate(x) - constraint.rhs;
+					if (constraint.operator == Operator.GE) {
+						g = -g;
+					}
+					if (constraint.operator != Operator.EQ && lambda[i] <= 0.0 && g < 0.0) {
+						g = 0.0;
+					}
+					direction[i] = g;
+				}
+				if (deflection && previous != null) {
+					double product = 0.0;
+					double previousNorm = 0.0;
+					for (int i = 0; i < m; i++) {
+						product += direction[i] * previous[i];
+						previousNorm += previous[i] * previous[i];
+					}
+					if (product < 0.0 && previousNorm > 0.0) {
+						double beta = -1.5 * product / previousNorm;
+						for (int i = 0; i < m; i++) {
+							direction[i] += beta * previous[i];
+						}
+					}
+				}
+				for (int i = 0; i < m; i++) {
+					norm += direction[i] * direction[i];
+				}
+				if (norm == 0.0 || step < minStep) {
+					break;
+				}
+				previous = direction;
+
+				double target;
+				if (targetValue != null) {
+					target = sense * targetValue.doubleValue();
+				} else if (best.result != null) {
+					target = best.value;
+				} else {
+					target = value + 0.05 * Math.max(1.0, Math.abs(value));
+				}
+				if (target <= value) {
+					target = value + 0.05 * Math.max(1.0, Math.abs(value));
+				}
+				double t = step * (target - value) / norm;
+				for (int i = 0; i < m; i++) {
+					lambda[i] += t * direction[i];
+					if (dualized.get(i).operator != Operator.EQ && lambda[i] < 0.0) {
+						lambda[i] = 0.0;
+					}
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+			for (Block block : blocks) {
+				if (block.problem != null) {
+					solver.deleteProblem(block.identifier);
+				}
+			}
+		}
+		iterations = Math.min(iterations, maxIterations);
+
+		multipliers.clear();
+		multipliers.putAll(toMultipliers(dualized, lambda));
+		bound = sense * bestBound;
+		if (best.result != null) {
+			best.result.setBestBound(bound);
+		}
+		return best.result;
+	}
+
+	/**
+	 * Partitions the variables into blocks (connected components with respect
+	 * to the constraints that are not dualized) and creates a problem for
+	 * each block with at least one constraint.
+	 *
+	 * @param vars
+	 *            the variables
+	 * @param blocks
+	 *            the list the blocks are added to
+	 */
+	protected void createBlocks(List<Variable> vars, List<Block> blocks) {
+		int[] parent = new int[vars.size()];
+		for (int j = 0; j < parent.length; j++) {
+			parent[j] = j;
+		}
+		for (Constraint constraint : constraints.values()) {
+			if (!constraint.dualized && constraint.indices.length > 0) {
+				int root = find(parent, constraint.indices[0]);
+				for (int k = 1; k < constraint.indices.length; k++) {
+					int other = find(parent, constraint.indices[k]);
+					parent[other] = root;
+				}
+			}
+		}
+
+		Map<Integer, Block> roots = new LinkedHashMap<Integer, Block>();
+		Block isolated = new Block();
+		for (Constraint constraint : constraints.values()) {
+			if (!constraint.dualized && constraint.indices.length > 0) {
+				int root = find(parent, constraint.indices[0]);
+				Block block = roots.get(root);
+				if (block == null) {
+					block = new Block();
+					roots.put(root, block);
+				}
+				block.constraints.add(constraint);
+			}
+		}
+		for (int j = 0; j < vars.size(); j++) {
+			Block block = roots.get(find(parent, j));
+			(block != null ? block : isolated).variables.add(j);
+		}
+
+		blocks.add(isolated);
+		for (Block block : roots.values()) {
+			block.identifier = "lagrange-" + problemCounter.incrementAndGet();
+			blocks.add(block);
+			block.problem = solver.createProblem(block.identifier);
+			for (int j : block.variables) {
+				Variable variable = vars.get(j);
+				block.problem.addVariable(variable.name, variable.type, variable.lb, variable.ub);
+			}
+			for (Constraint constraint : block.constraints) {
+				if (constraint.lb != null) {
+					block.problem.addConstraint(constraint.name, constraint.lb, constraint.lhs, constraint.rhs);
+				} else {
+					block.problem.addConstraint(constraint.name, constraint.lhs, constraint.operator, constraint.rhs);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves the Lagrangian relaxation for the given modified costs.
+	 *
+	 * @param blocks
+	 *            the blocks
+	 * @param vars
+	 *            the variables
+	 * @param reduced
+	 *            the modified costs
+	 * @param executor
+	 *            the executor or {@code null} for a sequential execution
+	 * @return the values of the variables
+	 */
+	protected double[] solveRelaxation(List<Block> blocks, final List<Variable> vars, final double[] reduced,
+			ExecutorService executor) {
+		final double[] x = new double[vars.size()];
+		if (executor == null) {
+			for (Block block : blocks) {
+				solveBlock(block, vars, reduced, x);
+			}
+			return x;
+		}
+
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for (final Block block : blocks) {
+			tasks.add(new Callable<Object>() {
+				public Object call() {
+					solveBlock(block, vars, reduced, x);
+					return null;
+				}
+			});
+		}
+		try {
+			for (Future<Object> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OptimizationException("Interrupted while solving the sub-problems.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OptimizationException(e.getCause().toString());
+		}
+		return x;
+	}
+
+	/**
+	 * Solves a single block and writes the values of its variables to
+	 * {@code x}.
+	 *
+	 * @param block
+	 *            the block
+	 * @param vars
+	 *            the variables
+	 * @param reduced
+	 *            the modified costs
+	 * @param x
+	 *            the values of all variables
+	 */
+	protected void solveBlock(Block block, List<Variable> vars, double[] reduced, double[] x) {
+		if (block.problem == null) {
+			// no constraints: each variable is at one of its bounds
+			for (int j : block.variables) {
+				Variable variable = vars.get(j);
+				Number lb = (variable.type == VarType.BOOL && variable.lb == null ? 0 : variable.lb);
+				Number ub = (variable.type == VarType.BOOL && variable.ub == null ? 1 : variable.ub);
+				if (variable.type.isSemiContinuous()) {
+					// zero or between the bounds
+					lb = Math.min(0.0, (lb != null ? lb.doubleValue() : 0.0));
+					ub = (ub != null ? Math.max(0.0, ub.doubleValue()) : null);
+				}
+				Number value;
+				if (reduced[j] > 0.0) {
+					value = lb;
+				} else if (reduced[j] < 0.0) {
+					value = ub;
+				} else {
+					value = (lb != null ? lb : (ub != null ? ub : 0));
+				}
+				if (value == null) {
+					throw new OptimizationException("The Lagrangian relaxation is unbounded in variable "
+							+ variable.name + " (add bounds).");
+				}
+				x[j] = value.doubleValue();
+			}
+			return;
+		}
+
+		Linear linear = new Linear();
+		for (int j : block.variables) {
+			linear.add(reduced[j], vars.get(j).name);
+		}
+		block.problem.setObjective(linear, OptType.MIN);
+		Result result = solver.solve(block.problem);
+		for (int j : block.variables) {
+			x[j] = result.getPrimalValue(vars.get(j).name).doubleValue();
+		}
+	}
+
+	/**
+	 * Keeps the given solution if it is feasible and better than the best
+	 * solution.
+	 *
+	 * @param values
+	 *            the values of the variables
+	 * @param vars
+	 *            the variables
+	 * @param sense
+	 *            1 for minimization, -1 for maximization
+	 * @param best
+	 *            the best solution
+	 */
+	protected void consider(Map<String, Number> values, List<Variable> vars, double sense, Best best) {
+		double[] x = new double[vars.size()];
+		for (int j = 0; j < x.length; j++) {
+			Variable variable = vars.get(j);
+			Number value = values.get(variable.name);
+			if (value == null) {
+				return;
+			}
+			x[j] = value.doubleValue();
+			double tol = feasibilityTolerance * Math.max(1.0, Math.abs(x[j]));
+			Number lb = (variable.type == VarType.BOOL && variable.lb == null ? 0 : variable.lb);
+			Number ub = (variable.type == VarType.BOOL && variable.ub == null ? 1 : variable.ub);
+			if (variable.type.isSemiContinuous()) {
+				lb = (lb != null ? lb : 0);
+				if (Math.abs(x[j]) <= tol) {
+					continue;
+				}
+			}
+			if ((lb != null && x[j] < lb.doubleValue() - tol) || (ub != null && x[j] > ub.doubleValue() + tol)) {
+				return;
+			}
+			if (variable.type.isInt() && Math.abs(x[j] - Math.rint(x[j])) > feasibilityTolerance) {
+				return;
+			}
+		}
+		for (Constraint constraint : constraints.values()) {
+			double lhs = constraint.evaluate(x);
+			double tol = feasibilityTolerance * Math.max(1.0, Math.abs(constraint.rhs));
+			if ((constraint.operator != Operator.GE && lhs > constraint.rhs + tol)
+					|| (constraint.operator != Operator.LE && lhs < constraint.rhs - tol)) {
+				return;
+			}
+			if (constraint.lb != null && lhs < constraint.lb - feasibilityTolerance * Math.max(1.0, Math.abs(constraint.lb))) {
+				return;
+			}
+		}
+
+		double value = 0.0;
+		for (Term term : objective) {
+			value += term.getCoefficient().doubleValue() * values.get(term.getVariableName()).doubleValue();
+		}
+		if (best.result == null || sense * value < best.value) {
+			ResultImpl result = new ResultImpl(objective);
+			result.setStatus(Status.FEASIBLE);
+			for (Entry<String, Number> entry : toMap(vars, x).entrySet()) {
+				result.putPrimalValue(entry.getKey(), entry.getValue());
+			}
+			best.result = result;
+			best.value = sense * value;
+		}
+	}
+
+	private Map<String, Number> toMap(List<Variable> vars, double[] x) {
+		Map<String, Number> map = new LinkedHashMap<String, Number>();
+		for (int j = 0; j < x.length; j++) {
+			Variable variable = vars.get(j);
+			if (variable.type.isInt()) {
+				map.put(variable.name, (int) Math.round(x[j]));
+			} else {
+				map.put(variable.name, x[j]);
+			}
+		}
+		return map;
+	}
+
+	private Map<String, Double> toMultipliers(List<Constraint> dualized, double[] lambda) {
+		Map<String, Double> map = new LinkedHashMap<String, Double>();
+		for (int i = 0; i < lambda.length; i++) {
+			map.put(dualized.get(i).name, lambda[i]);
+		}
+		return map;
+	}
+
+	private void checkVariable(String name, String context) {
+		if (!variables.containsKey(name)) {
+			throw new IllegalArgumentException(
+					"Variables must be added to the problem first. " +
+					"(missing: "+name+", in "+context+")");
+		}
+	}
+
+	private static int find(int[] parent, int j) {
+		while (parent[j] != j) {
+			parent[j] = parent[parent[j]];
+			j = parent[j];
+		}
+		return j;
+	}
+
+	/**
+	 * A variable of the problem.
+	 */
+	protected static class Variable {
+		protected String name;
+		protected VarType type;
+		protected Number lb;
+		protected Number ub;
+	}
+
+	/**
+	 * The bounds of the variables of the problem.
+	 */
+	protected class VariableBounds implements Reformulation.Bounds {
+		public double getLowerBound(String name) {
+			checkVariable(name, "bounds");
+			Number lb = variables.get(name).lb;
+			return (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
+		}
+
+		public double getUpperBound(String name) {
+			checkVariable(name, "bounds");
+			Number ub = variables.get(name).ub;
+			return (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
+		}
+	}
+
+	/**
+	 * A constraint of the problem with its compiled left-hand side.
+	 */
+	protected static class Constraint {
+		protected String name;
+		protected Linear lhs;
+		protected Operator operator;
+		protected double rhs;
+		protected Double lb; // the lower bound of a range (operator LE)
+		protected boolean dualized;
+		protected int[] indices;
+		protected double[] coefficients;
+
+		protected void compile(Map<String, Integer> index) {
+			indices = new int[lhs.size()];
+			coefficients = new double[lhs.size()];
+			for (int k = 0; k < lhs.size(); k++) {
+				Term term = lhs.get(k);
+				indices[k] = index.get(term.getVariableName());
+				coefficients[k] = term.getCoefficient().doubleValue();
+			}
+		}
+
+		protected double evaluate(double[] x) {
+			double value = 0.0;
+			for (int k = 0; k < indices.length; k++) {
+				value += coefficients[k] * x[indices[k]];
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * A set of variables and constraints that is solved independently.
+	 */
+	protected static class Block {
+		protected final List<Integer> variables = new ArrayList<Integer>();
+		protected final List<Constraint> constraints = new ArrayList<Constraint>();
+		protected String identifier;
+		protected Problem problem;
+	}
+
+	/**
+	 * The best primal solution (value in minimization sense).
+	 */
+	protected static class Best {
+		protected ResultImpl result;
+		protected double value;
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code LatencyHistogram} aggregates latencies (in nanoseconds) in
+ * buckets of powers of two. Percentiles are thus accurate up to a factor of
+ * two, which is sufficient to tell apart the phases of a solve.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class LatencyHistogram {
+
+	protected final long[] buckets = new long[64];
+	protected long count = 0;
+	protected long sum = 0;
+	protected long min = Long.MAX_VALUE;
+	protected long max = 0;
+
+	/**
+	 * Adds a latency.
+	 * 
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public synchronized void add(long nanos) {
+		nanos = Math.max(0, nanos);
+		buckets[nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos)]++;
+		count++;
+		sum += nanos;
+		min = Math.min(min, nanos);
+		max = Math.max(max, nanos);
+	}
+
+	/**
+	 * Returns the number of latencies.
+	 * 
+	 * @return the number of latencies
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the sum of all latencies in nanoseconds.
+	 * 
+	 * @return the sum of all latencies
+	 */
+	public synchronized long getSum() {
+		return sum;
+	}
+
+	/**
+	 * Returns the minimal latency in nanoseconds (0 if empty).
+	 * 
+	 * @return the minimal latency
+	 */
+	public synchronized long getMin() {
+		return (count == 0 ? 0 : min);
+	}
+
+	/**
+	 * Returns the maximal latency in nanoseconds.
+	 * 
+	 * @return the maximal latency
+	 */
+	public synchronized long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the mean latency in nanoseconds (0 if empty).
+	 * 
+	 * @return the mean latency
+	 */
+	public synchronized double getMean() {
+		return (count == 0 ? 0.0 : (double) sum / count);
+	}
+
+	/**
+	 * Returns the upper bound of the bucket that contains the given
+	 * percentile in nanoseconds (at most the maximal latency).
+	 * 
+	 * @param percentile
+	 *            the percentile in [0,100]
+	 * @return the latency of the percentile
+	 */
+	public synchronized long getPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100.0 * count);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				long upper = (i >= 62 ? Long.MAX_VALUE : (2L << i) - 1);
+				return Math.min(upper, max);
+			}
+		}
+		return max;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "Count: " + count + " Mean: " + getMean() + "ns p50: " + getPercentile(50) + "ns p99: "
+				+ getPercentile(99) + "ns Max: " + max + "ns";
+	}
+
+}
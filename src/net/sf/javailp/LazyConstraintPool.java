@@ -0,0 +1,390 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code LazyConstraintPool} holds constraints of a {@link Problem} that
+ * are only added to the problem (and thus to the backend) once a solution
+ * violates them. This is useful for formulations with a huge number of
+ * potential constraints of which only a few are binding (e.g., subtour
+ * elimination or capacity cuts).
+ * <p>
+ * {@link #solve()} iterates solving the problem, checking all pooled
+ * constraints against the solution (in parallel chunks if more than one
+ * thread is set), and adding the most violated constraints until the
+ * solution satisfies the whole pool.
+ *
+ * @author fgenoese
+ *
+ */
+public class LazyConstraintPool {
+
+	protected final Solver solver;
+	protected final Problem problem;
+	protected final List<PooledConstraint> pool = new ArrayList<PooledConstraint>();
+	protected final Map<String, PooledConstraint> names = new HashMap<String, PooledConstraint>();
+
+	protected int threads = 1;
+	protected int maxIterations = 1000;
+	protected int maxConstraintsPerIteration = 0;
+	protected double tolerance = 1e-6;
+	protected boolean warmStart = false;
+	protected Deadline deadline = null;
+
+	protected int iterations;
+	protected int materialized;
+
+	/**
+	 * Constructs a {@code LazyConstraintPool} for a problem.
+	 *
+	 * @param solver
+	 *            the solver of the problem
+	 * @param problem
+	 *            the problem
+	 */
+	public LazyConstraintPool(Solver solver, Problem problem) {
+		super();
+		this.solver = solver;
+		this.problem = problem;
+	}
+
+	/**
+	 * Adds a constraint to the pool. The variables of the constraint have to
+	 * be added to the problem.
+	 *
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 */
+	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+		if (names.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		PooledConstraint constraint = new PooledConstraint();
+		constraint.name = name;
+		constraint.variables = new String[lhs.size()];
+		constraint.coefficients = new double[lhs.size()];
+		for (int k = 0; k < lhs.size(); k++) {
+			Term term = lhs.get(k);
+			constraint.variables[k] = term.getVariableName();
+			constraint.coefficients[k] = term.getCoefficient().doubleValue();
+		}
+		constraint.operator = operator;
+		constraint.rhs = rhs.doubleValue();
+		pool.add(constraint);
+		names.put(name, constraint);
+	}
+
+	/**
+	 * Sets the number of threads that check the pool.
+	 *
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the deadline of the whole solve. Each solve of the problem gets the
+	 * remaining time; once the deadline has passed, the last result is
+	 * returned even if it violates pooled constraints.
+	 *
+	 * @param deadline
+	 *            the deadline or {@code null} for no deadline
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the maximal number of iterations.
+	 *
+	 * @param maxIterations
+	 *            the maximal number of iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Sets the maximal number of constraints that are added per iteration (0
+	 * for no limit, default). The most violated constraints are added first.
+	 *
+	 * @param maxConstraintsPerIteration
+	 *            the maximal number of constraints per iteration
+	 */
+	public void setMaxConstraintsPerIteration(int maxConstraintsPerIteration) {
+		this.maxConstraintsPerIteration = maxConstraintsPerIteration;
+	}
+
+	/**
+	 * Sets the absolute violation tolerance (scaled by the right-hand side if
+	 * its absolute value is greater than one).
+	 *
+	 * @param tolerance
+	 *            the tolerance
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Passes the previous solution as starting solution to the problem if
+	 * {@code true} (see {@link Problem#setStartingSolution(Map)}). Linear
+	 * programs are always re-solved from the previous basis.
+	 *
+	 * @param warmStart
+	 *            the warm start switch
+	 */
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * Returns the number of pooled constraints.
+	 *
+	 * @return the number of pooled constraints
+	 */
+	public int size() {
+		return pool.size();
+	}
+
+	/**
+	 * Returns the number of pooled constraints that were added to the
+	 * problem.
+	 *
+	 * @return the number of added constraints
+	 */
+	public int getMaterializedCount() {
+		return materialized;
+	}
+
+	/**
+	 * Returns the number of iterations of the last solve.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Solves the problem until no pooled constraint is violated and returns
+	 * the last result. If the maximal number of iterations is reached, the
+	 * returned result may still violate pooled constraints.
+	 *
+	 * @return the result
+	 */
+	public Result solve() {
+		Result result = null;
+		ExecutorService executor = (threads > 1 ? Executors.newFixedThreadPool(threads) : null);
+		try {
+			for (iterations = 1; iterations <= maxIterations; iterations++) {
+				result = solver.solve(problem, deadline);
+				if (deadline != null && deadline.isExpired()) {
+					break;
+				}
+
+				List<Violation> violations = separate(result, executor);
+				if (violations.isEmpty()) {
+					break;
+				}
+				Collections.sort(violations, new Comparator<Violation>() {
+					public int compare(Violation v1, Violation v2) {
+						return Double.compare(v2.value, v1.value);
+					}
+				});
+				int count = violations.size();
+				if (maxConstraintsPerIteration > 0) {
+					count = Math.min(count, maxConstraintsPerIteration);
+				}
+				for (int i = 0; i < count; i++) {
+					materialize(violations.get(i).constraint);
+				}
+				if (warmStart) {
+					problem.setStartingSolution(getStartingSolution(result));
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		iterations = Math.min(iterations, maxIterations);
+		return result;
+	}
+
+	/**
+	 * Returns the violated constraints of the pool that are not yet added to
+	 * the problem.
+	 *
+	 * @param result
+	 *            the result
+	 * @param executor
+	 *            the executor or {@code null} for a sequential execution
+	 * @return the violated constraints
+	 */
+	protected List<Violation> separate(final Result result, ExecutorService executor) {
+		if (executor == null) {
+			return separate(result, 0, pool.size());
+		}
+
+		List<Callable<List<Violation>>> tasks = new ArrayList<Callable<List<Violation>>>();
+		int chunk = (pool.size() + threads - 1) / threads;
+		for (int i = 0; i < pool.size(); i += chunk) {
+			final int from = i;
+			final int to = Math.min(pool.size(), i + chunk);
+			tasks.add(new Callable<List<Violation>>() {
+				public List<Violation> call() {
+					return separate(result, from, to);
+				}
+			});
+		}
+		List<Violation> violations = new ArrayList<Violation>();
+		try {
+			for (Future<List<Violation>> future : executor.invokeAll(tasks)) {
+				violations.addAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OptimizationException("Interrupted while checking the constraint pool.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OptimizationException(e.getCause().toString());
+		}
+		return violations;
+	}
+
+	/**
+	 * Returns the violated constraints in the range {@code [from, to)} of the
+	 * pool.
+	 *
+	 * @param result
+	 *            the result
+	 * @param from
+	 *            the first index
+	 * @param to
+	 *            the last index (exclusive)
+	 * @return the violated constraints
+	 */
+	protected List<Violation> separate(Result result, int from, int to) {
+		List<Violation> violations = new ArrayList<Violation>();
+		for (int i = from; i < to; i++) {
+			PooledConstraint constraint = pool.get(i);
+			if (constraint.materialized) {
+				continue;
+			}
+			double value = constraint.violation(result);
+			if (value > tolerance * Math.max(1.0, Math.abs(constraint.rhs))) {
+				Violation violation = new Violation();
+				violation.constraint = constraint;
+				violation.value = value;
+				violations.add(violation);
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Adds a pooled constraint to the problem.
+	 *
+	 * @param constraint
+	 *            the constraint
+	 */
+	protected void materialize(PooledConstraint constraint) {
+		Linear lhs = new Linear();
+		for (int k = 0; k < constraint.variables.length; k++) {
+			lhs.add(constraint.coefficients[k], constraint.variables[k]);
+		}
+		problem.addConstraint(constraint.name, lhs, constraint.operator, constraint.rhs);
+		constraint.materialized = true;
+		materialized++;
+	}
+
+	private Map<String, Number> getStartingSolution(Result result) {
+		Map<String, Number> start = new LinkedHashMap<String, Number>();
+		for (PooledConstraint constraint : pool) {
+			for (String variable : constraint.variables) {
+				if (!start.containsKey(variable) && result.containsVar(variable)) {
+					start.put(variable, result.getPrimalValue(variable));
+				}
+			}
+		}
+		return start;
+	}
+
+	/**
+	 * A pooled constraint with its compiled left-hand side.
+	 */
+	protected static class PooledConstraint {
+		protected String name;
+		protected String[] variables;
+		protected double[] coefficients;
+		protected Operator operator;
+		protected double rhs;
+		protected volatile boolean materialized = false;
+
+		protected double violation(Result result) {
+			double lhs = 0.0;
+			for (int k = 0; k < variables.length; k++) {
+				Number value = result.getPrimalValue(variables[k]);
+				if (value == null) {
+					throw new IllegalArgumentException("The variable " + variables[k]
+							+ " is missing in the given result (in constraint: " + name + ").");
+				}
+				lhs += coefficients[k] * value.doubleValue();
+			}
+			switch (operator) {
+			case LE:
+				return lhs - rhs;
+			case GE:
+				return rhs - lhs;
+			default: // EQ
+				return Math.abs(lhs - rhs);
+			}
+		}
+	}
+
+	/**
+	 * A violated constraint.
+	 */
+	protected static class Violation {
+		protected PooledConstraint constraint;
+		protected double value;
+	}
+
+}
@@ -112,6 +112,22 @@ public class Linear implements Iterable<Term> {
 		add(term);
 	}
 
+	/**
+	 * Adds an element of a variable array to the linear expression.
+	 * 
+	 * @param coefficient
+	 *            the coefficient
+	 * @param array
+	 *            the variable array
+	 * @param offset
+	 *            the offset of the element (see
+	 *            {@link VariableArray#offset(int...)})
+	 */
+	public void add(Number coefficient, VariableArray array, int offset) {
+		Term term = new Term(array, offset, coefficient);
+		add(term);
+	}
+
 	/**
 	 * Adds terms.
 	 * 
@@ -189,10 +205,14 @@ public class Linear implements Iterable<Term> {
 		boolean asDouble = false;
 
 		for (Term term : terms) {
-			String variableName = term.getVariableName();
-
 			Number coeff = term.getCoefficient();
-			Number value = result.get(variableName);
+			Number value;
+			if (term.getArray() != null && result instanceof NameDictionary.Values) {
+				// elements of variable arrays by their offset, without their names
+				value = ((NameDictionary.Values) result).get(term.getArray(), term.getOffset());
+			} else {
+				value = result.get(term.getVariableName());
+			}
 			if (coeff instanceof Double || value instanceof Double) {
 				asDouble = true;
 			}
@@ -201,7 +221,7 @@ public class Linear implements Iterable<Term> {
 				d += coeff.doubleValue() * value.doubleValue();
 			} else {
 				if (!ignoreMissingValues) {
-					throw new IllegalArgumentException("The variable " + variableName
+					throw new IllegalArgumentException("The variable " + term.getVariableName()
 							+ " is missing in the given result.");
 				}
 			}
@@ -0,0 +1,570 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code MappedSnapshot} writes a {@link CsrModel} (or the model of a
+ * {@link Problem}) and a {@link Result} to a binary file that is written and
+ * read through memory-mapped sections, i.e., the arrays are transferred in
+ * bulk without parsing. A file consists of a header with the counts and the
+ * offsets of the sections, a name dictionary, and the arrays (all
+ * little-endian and aligned to eight bytes):
+ * 
+ * <pre>
+ * model:  names, types, column lower, column upper, objective,
+ *         row lower, row upper, row start, column indices, values
+ * result: names (primal, then dual), primal values, dual values,
+ *         primal types, dual types
+ * </pre>
+ * 
+ * Unlike a {@link ModelSnapshot}, a model file holds no special ordered
+ * sets, indicator constraints or piecewise-linear functions.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class MappedSnapshot {
+
+	protected static final int MAGIC = 0x4D4C494A; // "JILM" (little-endian)
+	protected static final int VERSION = 2; // 2: types of the result values
+	protected static final int MODEL = 1;
+	protected static final int RESULT = 2;
+
+	protected static final byte DOUBLE = 0;
+	protected static final byte INTEGER = 1;
+	protected static final byte LONG = 2;
+
+	protected static final int HEADER_SIZE = 256;
+	protected static final int WINDOW = 1 << 30;
+	protected static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private MappedSnapshot() {
+		super();
+	}
+
+	/**
+	 * Writes the model of a problem to a file.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written or the problem has general
+	 *             constraints
+	 */
+	public static void write(Problem problem, File file) throws IOException {
+		ModelWriter.Model model = new ModelWriter.Model();
+		problem.export(model);
+		if (model.hasGeneralConstraints()) {
+			throw new IOException("The problem " + problem.getIdentifier()
+					+ " has general constraints, which a mapped snapshot cannot hold.");
+		}
+		write(model.toCsrModel(), file);
+	}
+
+	/**
+	 * Writes a model to a file.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(CsrModel model, File file) throws IOException {
+		int n = model.getColumnsCount();
+		int m = model.getRowsCount();
+		int nnz = model.getNonzerosCount();
+		String[] names = new String[n + m];
+		System.arraycopy(model.getColumnNames(), 0, names, 0, n);
+		System.arraycopy(model.getRowNames(), 0, names, n, m);
+		byte[] types = new byte[n];
+		for (int j = 0; j < n; j++) {
+			types[j] = (byte) model.getColumnTypes()[j].ordinal();
+		}
+
+		Layout layout = new Layout();
+		Dictionary dictionary = layout.addDictionary(names);
+		long typesOffset = layout.add(n);
+		long columnLowerOffset = layout.add(8L * n);
+		long columnUpperOffset = layout.add(8L * n);
+		long objectiveOffset = layout.add(8L * n);
+		long rowLowerOffset = layout.add(8L * m);
+		long rowUpperOffset = layout.add(8L * m);
+		long rowStartOffset = layout.add(4L * (m + 1));
+		long columnIndicesOffset = layout.add(4L * nnz);
+		long valuesOffset = layout.add(8L * nnz);
+
+		FileChannel channel = open(file, layout.size);
+		try {
+			ByteBuffer header = header(channel, MODEL);
+			header.putInt(n);
+			header.putInt(m);
+			header.putInt(nnz);
+			header.putInt(model.getOptType() == null ? -1 : model.getOptType().ordinal());
+			header.putLong(dictionary.offset);
+			for (long offset : new long[] { typesOffset, columnLowerOffset, columnUpperOffset, objectiveOffset,
+					rowLowerOffset, rowUpperOffset, rowStartOffset, columnIndicesOffset, valuesOffset }) {
+				header.putLong(offset);
+			}
+			dictionary.write(channel);
+			putBytes(channel, typesOffset, types, n);
+			putDoubles(channel, columnLowerOffset, model.getColumnLower(), n);
+			putDoubles(channel, columnUpperOffset, model.getColumnUpper(), n);
+			putDoubles(channel, objectiveOffset, model.getObjective(), n);
+			putDoubles(channel, rowLowerOffset, model.getRowLower(), m);
+			putDoubles(channel, rowUpperOffset, model.getRowUpper(), m);
+			putInts(channel, rowStartOffset, model.getRowStart(), m + 1);
+			putInts(channel, columnIndicesOffset, model.getColumnIndices(), nnz);
+			putDoubles(channel, valuesOffset, model.getValues(), nnz);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads a model file into a problem with {@link Problem#load(CsrModel)}.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param problem
+	 *            the (empty) problem
+	 * @throws IOException
+	 *             if the file cannot be read or is not a model file
+	 */
+	public static void read(File file, Problem problem) throws IOException {
+		problem.load(readModel(file));
+	}
+
+	/**
+	 * Reads a model file.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the model
+	 * @throws IOException
+	 *             if the file cannot be read or is not a model file
+	 */
+	public static CsrModel readModel(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			ByteBuffer header = header(channel, MODEL, file);
+			int n = header.getInt();
+			int m = header.getInt();
+			int nnz = header.getInt();
+			int optType = header.getInt();
+			long dictionaryOffset = header.getLong();
+			long[] offsets = new long[9];
+			for (int k = 0; k < offsets.length; k++) {
+				offsets[k] = header.getLong();
+			}
+			if (n < 0 || m < 0 || nnz < 0 || optType >= OptType.values().length
+					|| offsets[8] + 8L * nnz > channel.size()) {
+				throw new IOException("The model file " + file + " is truncated.");
+			}
+
+			String[] names = readDictionary(channel, dictionaryOffset, n + m, file);
+			String[] columnNames = new String[n];
+			String[] rowNames = new String[m];
+			System.arraycopy(names, 0, columnNames, 0, n);
+			System.arraycopy(names, n, rowNames, 0, m);
+			byte[] types = getBytes(channel, offsets[0], n);
+			VarType[] columnTypes = new VarType[n];
+			for (int j = 0; j < n; j++) {
+				if (types[j] < 0 || types[j] >= VarType.values().length) {
+					throw new IOException("The model file " + file + " has an unknown variable type.");
+				}
+				columnTypes[j] = VarType.values()[types[j]];
+			}
+			int[] rowStart = getInts(channel, offsets[6], m + 1);
+			if (rowStart[m] != nnz) {
+				throw new IOException("The model file " + file + " is corrupt.");
+			}
+			return new CsrModel(columnNames, columnTypes, getDoubles(channel, offsets[1], n), getDoubles(channel,
+					offsets[2], n), getDoubles(channel, offsets[3], n), (optType < 0 ? null
+					: OptType.values()[optType]), rowNames, getDoubles(channel, offsets[4], m), getDoubles(channel,
+					offsets[5], m), rowStart, getInts(channel, offsets[7], nnz), getDoubles(channel, offsets[8],
+					nnz));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Writes a result to a file: its status, objective, statistics, and the
+	 * primal and dual values (of a {@link ResultImpl}).
+	 * 
+	 * @param result
+	 *            the result
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Result result, File file) throws IOException {
+		if (!(result instanceof ResultImpl)) {
+			throw new IllegalArgumentException("Only results of type ResultImpl can be written.");
+		}
+		ResultImpl impl = (ResultImpl) result;
+		List<String> names = new ArrayList<String>();
+		byte[] primalTypes = new byte[impl.primalValues.size()];
+		byte[] dualTypes = new byte[impl.dualValues.size()];
+		double[] primal = values(impl.primalValues, names, primalTypes);
+		double[] dual = values(impl.dualValues, names, dualTypes);
+		Number objective = result.getObjective();
+
+		Layout layout = new Layout();
+		Dictionary dictionary = layout.addDictionary(names.toArray(new String[names.size()]));
+		long primalOffset = layout.add(8L * primal.length);
+		long dualOffset = layout.add(8L * dual.length);
+		long primalTypesOffset = layout.add(primalTypes.length);
+		long dualTypesOffset = layout.add(dualTypes.length);
+
+		FileChannel channel = open(file, layout.size);
+		try {
+			ByteBuffer header = header(channel, RESULT);
+			header.putInt(primal.length);
+			header.putInt(dual.length);
+			header.putInt(result.getStatus().ordinal());
+			header.putInt(type(objective));
+			for (Number number : new Number[] { objective, result.getBestBound(), result.getRuntime(),
+					result.getIterationCount(), result.getNodeCount() }) {
+				header.putDouble(number == null ? Double.NaN : number.doubleValue());
+			}
+			header.putLong(dictionary.offset);
+			header.putLong(primalOffset);
+			header.putLong(dualOffset);
+			header.putLong(primalTypesOffset);
+			header.putLong(dualTypesOffset);
+			dictionary.write(channel);
+			putDoubles(channel, primalOffset, primal, primal.length);
+			putDoubles(channel, dualOffset, dual, dual.length);
+			putBytes(channel, primalTypesOffset, primalTypes, primalTypes.length);
+			putBytes(channel, dualTypesOffset, dualTypes, dualTypes.length);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads a result file. The values are restored with their types
+	 * ({@code Integer}, {@code Long} or {@code Double}).
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the result
+	 * @throws IOException
+	 *             if the file cannot be read or is not a result file
+	 */
+	public static Result readResult(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			ByteBuffer header = header(channel, RESULT, file);
+			int primalCount = header.getInt();
+			int dualCount = header.getInt();
+			int status = header.getInt();
+			byte objectiveType = (byte) header.getInt();
+			double[] numbers = new double[5];
+			for (int k = 0; k < numbers.length; k++) {
+				numbers[k] = header.getDouble();
+			}
+			long dictionaryOffset = header.getLong();
+			long primalOffset = header.getLong();
+			long dualOffset = header.getLong();
+			long primalTypesOffset = header.getLong();
+			long dualTypesOffset = header.getLong();
+			if (primalCount < 0 || dualCount < 0 || status < 0 || status >= Status.values().length
+					|| dualOffset + 8L * dualCount > channel.size() || dualTypesOffset + dualCount > channel.size()) {
+				throw new IOException("The result file " + file + " is truncated.");
+			}
+
+			String[] names = readDictionary(channel, dictionaryOffset, primalCount + dualCount, file);
+			double[] primal = getDoubles(channel, primalOffset, primalCount);
+			double[] dual = getDoubles(channel, dualOffset, dualCount);
+			byte[] primalTypes = getBytes(channel, primalTypesOffset, primalCount);
+			byte[] dualTypes = getBytes(channel, dualTypesOffset, dualCount);
+			ResultImpl result = new ResultImpl(null);
+			for (int k = 0; k < primalCount; k++) {
+				result.putPrimalValue(names[k], toNumber(primal[k], primalTypes[k]));
+			}
+			for (int k = 0; k < dualCount; k++) {
+				result.putDualValue(names[primalCount + k], toNumber(dual[k], dualTypes[k]));
+			}
+			result.setStatus(Status.values()[status]);
+			result.objectiveValue = (Double.isNaN(numbers[0]) ? null : toNumber(numbers[0], objectiveType));
+			result.setBestBound(toNumber(numbers[1]));
+			result.setRuntime(toNumber(numbers[2]));
+			result.setIterationCount(Double.isNaN(numbers[3]) ? null : (Number) (long) numbers[3]);
+			result.setNodeCount(Double.isNaN(numbers[4]) ? null : (Number) (long) numbers[4]);
+			return result;
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static double[] values(Map<String, Number> map, List<String> names, byte[] types) {
+		double[] values = new double[types.length];
+		int k = 0;
+		for (Map.Entry<String, Number> entry : map.entrySet()) {
+			names.add(entry.getKey());
+			types[k] = type(entry.getValue());
+			values[k++] = entry.getValue().doubleValue();
+		}
+		return values;
+	}
+
+	private static byte type(Number number) {
+		if (number instanceof Integer) {
+			return INTEGER;
+		} else if (number instanceof Long) {
+			return LONG;
+		}
+		return DOUBLE;
+	}
+
+	private static Number toNumber(double value, byte type) {
+		switch (type) {
+		case INTEGER:
+			return (int) value;
+		case LONG:
+			return (long) value;
+		default:
+			return value;
+		}
+	}
+
+	private static Number toNumber(double value) {
+		return (Double.isNaN(value) ? null : (Number) value);
+	}
+
+	private static FileChannel open(File file, long size) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(size);
+		return raf.getChannel();
+	}
+
+	/**
+	 * Writes the common part of the header and returns the header buffer
+	 * positioned behind it.
+	 */
+	private static ByteBuffer header(FileChannel channel, int kind) throws IOException {
+		ByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(kind);
+		header.putInt(0);
+		return header;
+	}
+
+	/**
+	 * Checks the common part of the header and returns the header buffer
+	 * positioned behind it.
+	 */
+	private static ByteBuffer header(FileChannel channel, int kind, File file) throws IOException {
+		if (channel.size() < HEADER_SIZE) {
+			throw new IOException("The file " + file + " is not a mapped snapshot.");
+		}
+		ByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if (header.getInt() != MAGIC) {
+			throw new IOException("The file " + file + " is not a mapped snapshot.");
+		} else if (header.getInt() != VERSION) {
+			throw new IOException("The mapped snapshot " + file + " has an unsupported version.");
+		} else if (header.getInt() != kind) {
+			throw new IOException("The mapped snapshot " + file + " does not hold a "
+					+ (kind == MODEL ? "model." : "result."));
+		}
+		header.getInt();
+		return header;
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long size)
+			throws IOException {
+		MappedByteBuffer buffer = channel.map(mode, offset, size);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	private static String[] readDictionary(FileChannel channel, long offset, int count, File file)
+			throws IOException {
+		long[] starts = getLongs(channel, offset, count + 1);
+		long length = starts[count];
+		if (length < 0 || length > Integer.MAX_VALUE
+				|| offset + 8L * (count + 1) + length > channel.size()) {
+			throw new IOException("The name dictionary of " + file + " is corrupt.");
+		}
+		byte[] bytes = getBytes(channel, offset + 8L * (count + 1), (int) length);
+		String[] names = new String[count];
+		for (int k = 0; k < count; k++) {
+			if (starts[k] < 0 || starts[k] > starts[k + 1]) {
+				throw new IOException("The name dictionary of " + file + " is corrupt.");
+			}
+			names[k] = new String(bytes, (int) starts[k], (int) (starts[k + 1] - starts[k]), UTF8);
+		}
+		return names;
+	}
+
+	/*
+	 * Bulk transfers in windows of at most WINDOW bytes (a mapped buffer is
+	 * limited to 2GB).
+	 */
+
+	private static void putBytes(FileChannel channel, long offset, byte[] array, int length) throws IOException {
+		for (int k = 0; k < length; k += WINDOW) {
+			int count = Math.min(WINDOW, length - k);
+			map(channel, FileChannel.MapMode.READ_WRITE, offset + k, count).put(array, k, count);
+		}
+	}
+
+	private static void putInts(FileChannel channel, long offset, int[] array, int length) throws IOException {
+		for (int k = 0; k < length; k += WINDOW / 4) {
+			int count = Math.min(WINDOW / 4, length - k);
+			map(channel, FileChannel.MapMode.READ_WRITE, offset + 4L * k, 4L * count).asIntBuffer()
+					.put(array, k, count);
+		}
+	}
+
+	private static void putLongs(FileChannel channel, long offset, long[] array, int length) throws IOException {
+		for (int k = 0; k < length; k += WINDOW / 8) {
+			int count = Math.min(WINDOW / 8, length - k);
+			map(channel, FileChannel.MapMode.READ_WRITE, offset + 8L * k, 8L * count).asLongBuffer()
+					.put(array, k, count);
+		}
+	}
+
+	private static void putDoubles(FileChannel channel, long offset, double[] array, int length) throws IOException {
+		for (int k = 0; k < length; k += WINDOW / 8) {
+			int count = Math.min(WINDOW / 8, length - k);
+			map(channel, FileChannel.MapMode.READ_WRITE, offset + 8L * k, 8L * count).asDoubleBuffer()
+					.put(array, k, count);
+		}
+	}
+
+	private static byte[] getBytes(FileChannel channel, long offset, int length) throws IOException {
+		byte[] array = new byte[length];
+		for (int k = 0; k < length; k += WINDOW) {
+			int count = Math.min(WINDOW, length - k);
+			map(channel, FileChannel.MapMode.READ_ONLY, offset + k, count).get(array, k, count);
+		}
+		return array;
+	}
+
+	private static int[] getInts(FileChannel channel, long offset, int length) throws IOException {
+		int[] array = new int[length];
+		for (int k = 0; k < length; k += WINDOW / 4) {
+			int count = Math.min(WINDOW / 4, length - k);
+			map(channel, FileChannel.MapMode.READ_ONLY, offset + 4L * k, 4L * count).asIntBuffer()
+					.get(array, k, count);
+		}
+		return array;
+	}
+
+	private static long[] getLongs(FileChannel channel, long offset, int length) throws IOException {
+		long[] array = new long[length];
+		for (int k = 0; k < length; k += WINDOW / 8) {
+			int count = Math.min(WINDOW / 8, length - k);
+			map(channel, FileChannel.MapMode.READ_ONLY, offset + 8L * k, 8L * count).asLongBuffer()
+					.get(array, k, count);
+		}
+		return array;
+	}
+
+	private static double[] getDoubles(FileChannel channel, long offset, int length) throws IOException {
+		double[] array = new double[length];
+		for (int k = 0; k < length; k += WINDOW / 8) {
+			int count = Math.min(WINDOW / 8, length - k);
+			map(channel, FileChannel.MapMode.READ_ONLY, offset + 8L * k, 8L * count).asDoubleBuffer()
+					.get(array, k, count);
+		}
+		return array;
+	}
+
+	/**
+	 * The offsets of the sections of a file.
+	 */
+	protected static class Layout {
+		protected long size = HEADER_SIZE;
+
+		/**
+		 * Adds a section and returns its offset.
+		 */
+		protected long add(long bytes) {
+			long offset = size;
+			size = (size + bytes + 7) & ~7L;
+			return offset;
+		}
+
+		protected Dictionary addDictionary(String[] names) {
+			Dictionary dictionary = new Dictionary(names);
+			dictionary.offset = add(8L * (names.length + 1) + dictionary.length);
+			return dictionary;
+		}
+	}
+
+	/**
+	 * The name dictionary: the byte offsets of the names (one more than the
+	 * number of names) followed by the UTF-8 bytes of all names.
+	 */
+	protected static class Dictionary {
+		protected final byte[][] names;
+		protected final long[] starts;
+		protected final long length;
+		protected long offset;
+
+		protected Dictionary(String[] names) {
+			this.names = new byte[names.length][];
+			this.starts = new long[names.length + 1];
+			for (int k = 0; k < names.length; k++) {
+				this.names[k] = names[k].getBytes(UTF8);
+				starts[k + 1] = starts[k] + this.names[k].length;
+			}
+			this.length = starts[names.length];
+		}
+
+		protected void write(FileChannel channel) throws IOException {
+			putLongs(channel, offset, starts, starts.length);
+			long position = offset + 8L * starts.length;
+			for (long k = 0; k < length; k += WINDOW) {
+				int count = (int) Math.min(WINDOW, length - k);
+				ByteBuffer buffer = map(channel, FileChannel.MapMode.READ_WRITE, position + k, count);
+				// the names that overlap the window
+				for (int i = 0; i < names.length; i++) {
+					long from = Math.max(starts[i], k);
+					long to = Math.min(starts[i + 1], k + count);
+					if (from < to) {
+						buffer.position((int) (from - k));
+						buffer.put(names[i], (int) (from - starts[i]), (int) (to - from));
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The class {@code Metrics} is the opt-in instrumentation of a {@link Solver}
+ * (see {@link Solver#setMetrics(Metrics)}). It aggregates the
+ * {@link SolveMetrics} of each solve in latency histograms per problem
+ * identifier and phase and forwards them to its {@link MetricsListener}s.
+ * <p>
+ * A {@code Metrics} object may be shared by several solvers.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class Metrics {
+
+	protected final Map<String, LatencyHistogram[]> histograms = new HashMap<String, LatencyHistogram[]>();
+	protected final List<MetricsListener> listeners = new CopyOnWriteArrayList<MetricsListener>();
+
+	/**
+	 * Adds a listener that receives the metrics of each solve.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addListener(MetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void removeListener(MetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Records the metrics of a solve.
+	 * 
+	 * @param metrics
+	 *            the metrics of the solve
+	 */
+	public void record(SolveMetrics metrics) {
+		LatencyHistogram[] histogram = getHistograms(metrics.getIdentifier());
+		for (Phase phase : Phase.values()) {
+			histogram[phase.ordinal()].add(metrics.getWallTime(phase));
+		}
+		histogram[histogram.length - 1].add(metrics.getWallTime());
+		for (MetricsListener listener : listeners) {
+			listener.solved(metrics);
+		}
+	}
+
+	/**
+	 * Returns the identifiers of the problems with recorded solves.
+	 * 
+	 * @return the identifiers
+	 */
+	public synchronized Set<String> getIdentifiers() {
+		return Collections.unmodifiableSet(new TreeSet<String>(histograms.keySet()));
+	}
+
+	/**
+	 * Returns the histogram of the total latencies (all phases) of the
+	 * solves of a problem or {@code null} if no solve was recorded.
+	 * 
+	 * @param identifier
+	 *            the identifier of the problem
+	 * @return the histogram
+	 */
+	public synchronized LatencyHistogram getHistogram(String identifier) {
+		LatencyHistogram[] histogram = histograms.get(identifier);
+		return (histogram != null ? histogram[histogram.length - 1] : null);
+	}
+
+	/**
+	 * Returns the histogram of the latencies of a phase of the solves of a
+	 * problem or {@code null} if no solve was recorded.
+	 * 
+	 * @param identifier
+	 *            the identifier of the problem
+	 * @param phase
+	 *            the phase
+	 * @return the histogram
+	 */
+	public synchronized LatencyHistogram getHistogram(String identifier, Phase phase) {
+		LatencyHistogram[] histogram = histograms.get(identifier);
+		return (histogram != null ? histogram[phase.ordinal()] : null);
+	}
+
+	/**
+	 * Removes all histograms.
+	 */
+	public synchronized void clear() {
+		histograms.clear();
+	}
+
+	/**
+	 * Returns the histograms of a problem (one per phase and the total).
+	 */
+	protected synchronized LatencyHistogram[] getHistograms(String identifier) {
+		LatencyHistogram[] histogram = histograms.get(identifier);
+		if (histogram == null) {
+			histogram = new LatencyHistogram[Phase.values().length + 1];
+			for (int i = 0; i < histogram.length; i++) {
+				histogram[i] = new LatencyHistogram();
+			}
+			histograms.put(identifier, histogram);
+		}
+		return histogram;
+	}
+
+}
@@ -0,0 +1,36 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code MetricsListener} receives the {@link SolveMetrics} of each solve
+ * of a {@link Solver} with {@link Metrics}. It is called on the solving
+ * thread, e.g., to emit flight recorder events or to export the values to a
+ * monitoring system.
+ * 
+ * @author fgenoese
+ * 
+ */
+public interface MetricsListener {
+
+	/**
+	 * Receives the metrics of a solve.
+	 * 
+	 * @param metrics
+	 *            the metrics of the solve
+	 */
+	public void solved(SolveMetrics metrics);
+
+}
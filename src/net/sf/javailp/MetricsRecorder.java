@@ -0,0 +1,180 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The {@code MetricsRecorder} accumulates the measurements of a problem per
+ * {@link Phase} between {@link #begin()} and {@link #end(Phase, long, long)}
+ * and publishes them as {@link SolveMetrics} after each solve. The recorder
+ * {@link #NONE} (used if the solver has no {@link Metrics}) ignores all calls.
+ * <p>
+ * A problem is built and solved by one thread at a time, thus, the recorder
+ * is not thread-safe. Calls of {@code begin} and {@code end} must not be
+ * nested.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class MetricsRecorder {
+
+	/**
+	 * A recorder that ignores all calls.
+	 */
+	public static final MetricsRecorder NONE = new MetricsRecorder(null, null);
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	protected final String identifier;
+	protected final Metrics metrics;
+
+	protected long[] wallTime;
+	protected long[] cpuTime;
+	protected long[] allocatedBytes;
+	protected long[] nativeCalls;
+	protected long[] nonzeros;
+
+	private long startWallTime;
+	private long startCpuTime;
+	private long startAllocatedBytes;
+
+	/**
+	 * Constructs a {@code MetricsRecorder}.
+	 * 
+	 * @param identifier
+	 *            the identifier of the problem
+	 * @param metrics
+	 *            the metrics that receive the measurements
+	 */
+	public MetricsRecorder(String identifier, Metrics metrics) {
+		super();
+		this.identifier = identifier;
+		this.metrics = metrics;
+		reset();
+	}
+
+	/**
+	 * Returns {@code true} if this recorder records measurements.
+	 * 
+	 * @return {@code true} if active
+	 */
+	public boolean isActive() {
+		return metrics != null;
+	}
+
+	/**
+	 * Returns the metrics that receive the measurements.
+	 * 
+	 * @return the metrics
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Starts the measurement of a phase.
+	 */
+	public void begin() {
+		if (metrics == null) {
+			return;
+		}
+		startWallTime = System.nanoTime();
+		startCpuTime = getCpuTime();
+		startAllocatedBytes = getAllocatedBytes();
+	}
+
+	/**
+	 * Ends the measurement of a phase started by {@link #begin()}.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @param calls
+	 *            the number of native calls
+	 * @param nnz
+	 *            the number of transferred nonzeros
+	 */
+	public void end(Phase phase, long calls, long nnz) {
+		if (metrics == null) {
+			return;
+		}
+		int i = phase.ordinal();
+		wallTime[i] += System.nanoTime() - startWallTime;
+		cpuTime[i] = add(cpuTime[i], startCpuTime, getCpuTime());
+		allocatedBytes[i] = add(allocatedBytes[i], startAllocatedBytes, getAllocatedBytes());
+		nativeCalls[i] += calls;
+		nonzeros[i] += nnz;
+	}
+
+	/**
+	 * Publishes the measurements since the last call to the {@link Metrics}
+	 * and starts new measurements.
+	 * 
+	 * @return the published measurements or {@code null} if inactive
+	 */
+	public SolveMetrics publish() {
+		if (metrics == null) {
+			return null;
+		}
+		SolveMetrics solveMetrics = new SolveMetrics(identifier, wallTime, cpuTime, allocatedBytes, nativeCalls,
+				nonzeros);
+		reset();
+		metrics.record(solveMetrics);
+		return solveMetrics;
+	}
+
+	private void reset() {
+		int n = Phase.values().length;
+		wallTime = new long[n];
+		cpuTime = new long[n];
+		allocatedBytes = new long[n];
+		nativeCalls = new long[n];
+		nonzeros = new long[n];
+	}
+
+	private static long add(long sum, long start, long end) {
+		if (sum < 0 || start < 0 || end < 0) {
+			return -1;
+		}
+		return sum + end - start;
+	}
+
+	/**
+	 * Returns the CPU time of the current thread or -1 if not supported.
+	 */
+	private static long getCpuTime() {
+		if (!threads.isCurrentThreadCpuTimeSupported()) {
+			return -1;
+		}
+		return threads.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread or -1 if not
+	 * supported (HotSpot only).
+	 */
+	private static long getAllocatedBytes() {
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+		if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+		return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
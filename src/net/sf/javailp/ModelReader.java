@@ -0,0 +1,1629 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The {@code ModelReader} reads models in MPS (free, whitespace separated)
+ * and CPLEX LP format into a {@link CsrModel} without intermediate
+ * {@link Linear} objects. The file is memory-mapped in blocks that end at a
+ * line break ({@code .gz} files are decompressed as a stream into blocks);
+ * names are resolved directly from the bytes of the file.
+ * <p>
+ * The COLUMNS section of an MPS file (which holds nearly all of its bytes) is
+ * parsed in parallel chunks if more than one thread is set; the chunks are
+ * merged in file order into the CSR arrays. LP files are parsed sequentially.
+ * <p>
+ * Values with an absolute value of at least {@code 1e30} are infinite. In MPS
+ * files, the first N row is the objective and further N rows are ignored;
+ * integer columns (between INTORG and INTEND markers) have the default bounds
+ * {@code [0, inf)}.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class ModelReader {
+
+	protected static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+	protected static final double INFINITY = 1e30;
+	protected static final int MIN_CHUNK = 1 << 20; // 1MB
+
+	protected int threads = 1;
+	protected int blockSize = 1 << 24; // 16MB
+
+	protected long bytesRead = 0;
+	protected double elapsedTime = 0;
+
+	/**
+	 * Constructs a {@code ModelReader}.
+	 */
+	public ModelReader() {
+		super();
+	}
+
+	/**
+	 * Sets the number of threads that parse the COLUMNS section of MPS files.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the size of the blocks in bytes that are mapped (or decompressed)
+	 * at once.
+	 * 
+	 * @param blockSize
+	 *            the block size
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = Math.max(1024, blockSize);
+	}
+
+	/**
+	 * Returns the number of (uncompressed) bytes of the last read.
+	 * 
+	 * @return the number of bytes
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the time of the last read in seconds.
+	 * 
+	 * @return the elapsed time
+	 */
+	public double getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns the throughput of the last read in MB/s.
+	 * 
+	 * @return the throughput
+	 */
+	public double getThroughput() {
+		return (elapsedTime > 0 ? bytesRead / 1e6 / elapsedTime : 0);
+	}
+
+	/**
+	 * Reads a model into a problem: with {@link Problem#load(CsrModel)} if the
+	 * target is a {@link Problem}, otherwise with
+	 * {@link CsrModel#export(ProblemInterface)}.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param target
+	 *            the target
+	 * @throws IOException
+	 */
+	public void read(File file, ProblemInterface target) throws IOException {
+		CsrModel model = read(file);
+		if (target instanceof Problem) {
+			((Problem) target).load(model);
+		} else {
+			model.export(target);
+		}
+	}
+
+	/**
+	 * Reads a model. The format is determined by the extension: {@code .lp}
+	 * for LP files, MPS otherwise; a trailing {@code .gz} is decompressed.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the model
+	 * @throws IOException
+	 */
+	public CsrModel read(File file) throws IOException {
+		String name = file.getName().toLowerCase();
+		if (name.endsWith(".bz2")) {
+			throw new IOException("Cannot read " + file + ": bzip2 is not supported, decompress the file first.");
+		}
+		boolean gzip = name.endsWith(".gz");
+		if (gzip) {
+			name = name.substring(0, name.length() - 3);
+		}
+
+		long start = System.nanoTime();
+		bytesRead = 0;
+		Blocks blocks = (gzip ? new StreamBlocks(new GZIPInputStream(new FileInputStream(file), 1 << 16))
+				: new MappedBlocks(file));
+		try {
+			CsrModel model;
+			if (name.endsWith(".lp")) {
+				model = readLp(blocks);
+			} else {
+				model = readMps(blocks);
+			}
+			return model;
+		} finally {
+			blocks.close();
+			elapsedTime = (System.nanoTime() - start) / 1e9;
+		}
+	}
+
+	/**
+	 * Reads an MPS model.
+	 * 
+	 * @param blocks
+	 *            the blocks of the file
+	 * @return the model
+	 * @throws IOException
+	 */
+	protected CsrModel readMps(Blocks blocks) throws IOException {
+		ExecutorService executor = (threads > 1 ? Executors.newFixedThreadPool(threads) : null);
+		try {
+			MpsParser parser = new MpsParser(executor);
+			ByteBuffer block;
+			while ((block = blocks.next()) != null) {
+				bytesRead += block.remaining();
+				parser.parse(block);
+			}
+			return parser.finish();
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Reads an LP model.
+	 * 
+	 * @param blocks
+	 *            the blocks of the file
+	 * @return the model
+	 * @throws IOException
+	 */
+	protected CsrModel readLp(Blocks blocks) throws IOException {
+		LpParser parser = new LpParser();
+		ByteBuffer block;
+		while ((block = blocks.next()) != null) {
+			bytesRead += block.remaining();
+			parser.parse(block);
+		}
+		return parser.finish();
+	}
+
+	/**
+	 * The parser of MPS files. Header lines start in the first column; data
+	 * lines are indented.
+	 */
+	protected class MpsParser {
+		protected static final int NONE = 0;
+		protected static final int ROWS = 1;
+		protected static final int COLUMNS = 2;
+		protected static final int RHS = 3;
+		protected static final int RANGES = 4;
+		protected static final int BOUNDS = 5;
+		protected static final int OBJSENSE = 6;
+		protected static final int END = 7;
+
+		protected final ExecutorService executor;
+		protected final List<Future<ColumnChunk>> futures = new ArrayList<Future<ColumnChunk>>();
+		protected int waited = 0;
+
+		protected final int[] starts = new int[8];
+		protected final int[] ends = new int[8];
+
+		protected int section = NONE;
+		protected OptType optType = OptType.MIN;
+		protected boolean objective = false;
+
+		protected final NameIndex rowIndex = new NameIndex(1024);
+		protected final List<String> rowNames = new ArrayList<String>();
+		protected final IntArray rowTypes = new IntArray();
+		protected double[] rhs;
+		protected double[] ranges;
+
+		protected NameIndex columnIndex = null;
+		protected String[] columnNames;
+		protected VarType[] columnTypes;
+		protected double[] columnLower;
+		protected double[] columnUpper;
+		protected double[] columnObjective;
+		protected int[] rowStart;
+		protected int[] columnIndices;
+		protected double[] values;
+
+		protected MpsParser(ExecutorService executor) {
+			this.executor = executor;
+		}
+
+		protected void parse(ByteBuffer block) throws IOException {
+			int pos = block.position();
+			int limit = block.limit();
+			int columnsFrom = (section == COLUMNS ? pos : -1);
+			while (pos < limit) {
+				int end = pos;
+				while (end < limit && block.get(end) != '\n') {
+					end++;
+				}
+				byte first = block.get(pos);
+				if (first == '*' || section == END) {
+					// comment
+				} else if (first != ' ' && first != '\t' && first != '\r' && first != '\n') {
+					if (section == COLUMNS) {
+						submitColumns(block, columnsFrom, pos);
+						finishColumns();
+					}
+					header(block, pos, end);
+					if (section == COLUMNS) {
+						columnsFrom = Math.min(end + 1, limit);
+					}
+				} else if (section != COLUMNS) {
+					data(block, pos, end);
+				}
+				pos = end + 1;
+			}
+			if (section == COLUMNS) {
+				submitColumns(block, columnsFrom, limit);
+			}
+		}
+
+		protected void header(ByteBuffer block, int from, int to) throws IOException {
+			int count = tokenize(block, from, to, starts, ends);
+			if (equals(block, 0, "NAME")) {
+				section = NONE;
+			} else if (equals(block, 0, "ROWS")) {
+				section = ROWS;
+			} else if (equals(block, 0, "COLUMNS")) {
+				section = COLUMNS;
+				rhs = new double[rowNames.size()];
+				ranges = new double[rowNames.size()];
+				Arrays.fill(ranges, Double.NaN);
+			} else if (equals(block, 0, "RHS")) {
+				finishColumns();
+				section = RHS;
+			} else if (equals(block, 0, "RANGES")) {
+				finishColumns();
+				section = RANGES;
+			} else if (equals(block, 0, "BOUNDS")) {
+				finishColumns();
+				section = BOUNDS;
+			} else if (equals(block, 0, "OBJSENSE")) {
+				section = OBJSENSE;
+				if (count > 1) {
+					sense(block, 1);
+				}
+			} else if (equals(block, 0, "ENDATA")) {
+				section = END;
+			} else {
+				throw new IOException("Unsupported MPS section " + string(block, starts[0], ends[0]) + ".");
+			}
+		}
+
+		protected void data(ByteBuffer block, int from, int to) throws IOException {
+			int count = tokenize(block, from, to, starts, ends);
+			if (count == 0) {
+				return;
+			}
+			switch (section) {
+			case ROWS:
+				if (count < 2) {
+					throw new IOException("Invalid row: " + string(block, from, to));
+				}
+				String name = string(block, starts[1], ends[1]);
+				byte type = block.get(starts[0]);
+				if (type == 'N' || type == 'n') {
+					rowIndex.put(name, (objective ? FREE_ROW : OBJECTIVE_ROW));
+					objective = true;
+				} else if (type == 'L' || type == 'l' || type == 'G' || type == 'g' || type == 'E' || type == 'e') {
+					rowIndex.put(name, rowNames.size());
+					rowNames.add(name);
+					rowTypes.add(Character.toUpperCase((char) type));
+				} else {
+					throw new IOException("Invalid row type: " + string(block, from, to));
+				}
+				break;
+			case RHS:
+			case RANGES:
+				for (int t = count % 2; t + 1 < count; t += 2) {
+					int i = row(block, t);
+					double value = parseDouble(block, starts[t + 1], ends[t + 1]);
+					if (i >= 0 && section == RHS) {
+						rhs[i] = value;
+					} else if (i >= 0) {
+						ranges[i] = value;
+					} else if (i == OBJECTIVE_ROW && section == RHS && value != 0) {
+						// the right-hand side of the objective is the negated constant
+						System.err.println("the constant " + (-value) + " of the objective is ignored");
+					}
+				}
+				break;
+			case BOUNDS:
+				bound(block, count);
+				break;
+			case OBJSENSE:
+				sense(block, 0);
+				break;
+			default:
+				throw new IOException("Data outside of a section: " + string(block, from, to));
+			}
+		}
+
+		protected void bound(ByteBuffer block, int count) throws IOException {
+			String type = string(block, starts[0], ends[0]).toUpperCase();
+			boolean value = !(type.equals("FR") || type.equals("MI") || type.equals("PL") || type.equals("BV"));
+			// with or without bound set name
+			int t = ((value ? count >= 4 : count >= 3) ? 2 : 1);
+			if (type.equals("BV") && count >= 4) {
+				t = 2;
+			}
+			if (t >= count) {
+				throw new IOException("Invalid bound: " + type);
+			}
+			int j = columnIndex.get(block, starts[t], ends[t]);
+			if (j == NameIndex.NOT_FOUND) {
+				throw new IOException("Unknown column " + string(block, starts[t], ends[t]) + " in BOUNDS.");
+			}
+			double v = Double.NaN;
+			if (value && t + 1 < count) {
+				v = infinity(parseDouble(block, starts[t + 1], ends[t + 1]));
+			} else if (value && !type.equals("SC")) {
+				throw new IOException("Missing value of bound " + type + " of column " + columnNames[j] + ".");
+			}
+
+			if (type.equals("UP")) {
+				columnUpper[j] = v;
+				if (v < 0 && columnLower[j] == 0) {
+					columnLower[j] = Double.NEGATIVE_INFINITY;
+				}
+			} else if (type.equals("LO")) {
+				columnLower[j] = v;
+			} else if (type.equals("FX")) {
+				columnLower[j] = v;
+				columnUpper[j] = v;
+			} else if (type.equals("FR")) {
+				columnLower[j] = Double.NEGATIVE_INFINITY;
+				columnUpper[j] = Double.POSITIVE_INFINITY;
+			} else if (type.equals("MI")) {
+				columnLower[j] = Double.NEGATIVE_INFINITY;
+			} else if (type.equals("PL")) {
+				columnUpper[j] = Double.POSITIVE_INFINITY;
+			} else if (type.equals("BV")) {
+				columnTypes[j] = VarType.BOOL;
+				columnLower[j] = 0;
+				columnUpper[j] = 1;
+			} else if (type.equals("LI")) {
+				columnTypes[j] = VarType.INT;
+				columnLower[j] = v;
+			} else if (type.equals("UI")) {
+				columnTypes[j] = VarType.INT;
+				columnUpper[j] = v;
+			} else if (type.equals("SC")) {
+				columnTypes[j] = (columnTypes[j].isInt() ? VarType.SEMIINT : VarType.SEMICONT);
+				columnUpper[j] = (Double.isNaN(v) ? Double.POSITIVE_INFINITY : v);
+			} else {
+				throw new IOException("Unsupported bound type " + type + ".");
+			}
+		}
+
+		protected void sense(ByteBuffer block, int t) throws IOException {
+			String sense = string(block, starts[t], ends[t]).toUpperCase();
+			if (sense.startsWith("MAX")) {
+				optType = OptType.MAX;
+			} else if (sense.startsWith("MIN")) {
+				optType = OptType.MIN;
+			} else {
+				throw new IOException("Invalid objective sense " + sense + ".");
+			}
+		}
+
+		protected int row(ByteBuffer block, int t) throws IOException {
+			int i = rowIndex.get(block, starts[t], ends[t]);
+			if (i == NameIndex.NOT_FOUND) {
+				throw new IOException("Unknown row " + string(block, starts[t], ends[t]) + ".");
+			}
+			return i;
+		}
+
+		/**
+		 * Submits the COLUMNS lines in {@code [from, to)} of a block, split
+		 * into up to {@code threads} chunks at line breaks. At most
+		 * {@code 2 * threads} chunks are pending at once.
+		 */
+		protected void submitColumns(final ByteBuffer block, int from, int to) throws IOException {
+			if (from < 0 || from >= to) {
+				return;
+			}
+			int size = Math.max(MIN_CHUNK, (to - from + threads - 1) / threads);
+			while (from < to) {
+				int end = Math.min(to, from + size);
+				while (end < to && block.get(end - 1) != '\n') {
+					end++;
+				}
+				final int chunkFrom = from;
+				final int chunkTo = end;
+				Callable<ColumnChunk> task = new Callable<ColumnChunk>() {
+					public ColumnChunk call() throws IOException {
+						return ColumnChunk.parse(block, chunkFrom, chunkTo, rowIndex);
+					}
+				};
+				if (executor == null) {
+					futures.add(new Done<ColumnChunk>(call(task)));
+				} else {
+					futures.add(executor.submit(task));
+					while (futures.size() - waited > 2 * threads) {
+						get(futures.get(waited++));
+					}
+				}
+				from = end;
+			}
+		}
+
+		/**
+		 * Merges the parsed chunks in file order into the CSR arrays. The
+		 * integer marker state is carried from chunk to chunk; duplicate
+		 * coefficients are summed.
+		 */
+		protected void finishColumns() throws IOException {
+			if (columnIndex != null) {
+				return;
+			}
+			if (rhs == null) {
+				rhs = new double[rowNames.size()];
+				ranges = new double[rowNames.size()];
+				Arrays.fill(ranges, Double.NaN);
+			}
+			List<ColumnChunk> chunks = new ArrayList<ColumnChunk>();
+			for (Future<ColumnChunk> future : futures) {
+				chunks.add(get(future));
+			}
+			futures.clear();
+
+			int m = rowNames.size();
+			columnIndex = new NameIndex(1024);
+			List<String> names = new ArrayList<String>();
+			IntArray integer = new IntArray();
+			DoubleArray costs = new DoubleArray();
+			int[] counts = new int[m + 1];
+			int state = ColumnChunk.CONTINUOUS;
+			for (ColumnChunk chunk : chunks) {
+				chunk.map = new int[chunk.names.size()];
+				for (int c = 0; c < chunk.names.size(); c++) {
+					int s = chunk.states.get(c);
+					if (s == ColumnChunk.INHERIT) {
+						s = state;
+					}
+					String name = chunk.names.get(c);
+					int j = columnIndex.get(name);
+					if (j == NameIndex.NOT_FOUND) {
+						j = names.size();
+						columnIndex.put(name, j);
+						names.add(name);
+						integer.add(s);
+						costs.add(0);
+					}
+					chunk.map[c] = j;
+					costs.set(j, costs.get(j) + chunk.objective.get(c));
+				}
+				if (chunk.state != ColumnChunk.INHERIT) {
+					state = chunk.state;
+				}
+				for (int k = 0; k < chunk.rows.size(); k++) {
+					counts[chunk.rows.get(k) + 1]++;
+				}
+			}
+
+			int n = names.size();
+			rowStart = new int[m + 1];
+			for (int i = 0; i < m; i++) {
+				rowStart[i + 1] = rowStart[i] + counts[i + 1];
+			}
+			int[] next = Arrays.copyOf(rowStart, m);
+			columnIndices = new int[rowStart[m]];
+			values = new double[rowStart[m]];
+			for (ColumnChunk chunk : chunks) {
+				for (int c = 0; c < chunk.names.size(); c++) {
+					int to = (c + 1 < chunk.starts.size() ? chunk.starts.get(c + 1) : chunk.rows.size());
+					for (int k = chunk.starts.get(c); k < to; k++) {
+						int p = next[chunk.rows.get(k)]++;
+						columnIndices[p] = chunk.map[c];
+						values[p] = chunk.values.get(k);
+					}
+				}
+			}
+			chunks.clear();
+			sumDuplicates(n);
+
+			columnNames = names.toArray(new String[n]);
+			columnTypes = new VarType[n];
+			columnLower = new double[n];
+			columnUpper = new double[n];
+			columnObjective = costs.toArray();
+			for (int j = 0; j < n; j++) {
+				columnTypes[j] = (integer.get(j) == ColumnChunk.INTEGER ? VarType.INT : VarType.REAL);
+				columnUpper[j] = Double.POSITIVE_INFINITY;
+			}
+		}
+
+		protected void sumDuplicates(int n) {
+			int[] mark = new int[n];
+			int[] position = new int[n];
+			Arrays.fill(mark, -1);
+			int m = rowStart.length - 1;
+			int p = 0;
+			int from = 0;
+			for (int i = 0; i < m; i++) {
+				int to = rowStart[i + 1];
+				rowStart[i] = p;
+				for (int k = from; k < to; k++) {
+					int j = columnIndices[k];
+					if (mark[j] == i) {
+						values[position[j]] += values[k];
+					} else {
+						mark[j] = i;
+						position[j] = p;
+						columnIndices[p] = j;
+						values[p] = values[k];
+						p++;
+					}
+				}
+				from = to;
+			}
+			rowStart[m] = p;
+		}
+
+		protected CsrModel finish() throws IOException {
+			finishColumns();
+			int m = rowNames.size();
+			double[] rowLower = new double[m];
+			double[] rowUpper = new double[m];
+			for (int i = 0; i < m; i++) {
+				double b = infinity(rhs[i]);
+				double r = ranges[i];
+				switch (rowTypes.get(i)) {
+				case 'L':
+					rowLower[i] = (Double.isNaN(r) ? Double.NEGATIVE_INFINITY : b - Math.abs(r));
+					rowUpper[i] = b;
+					break;
+				case 'G':
+					rowLower[i] = b;
+					rowUpper[i] = (Double.isNaN(r) ? Double.POSITIVE_INFINITY : b + Math.abs(r));
+					break;
+				default: // E
+					rowLower[i] = (!Double.isNaN(r) && r < 0 ? b + r : b);
+					rowUpper[i] = (!Double.isNaN(r) && r > 0 ? b + r : b);
+				}
+			}
+			return new CsrModel(columnNames, columnTypes, columnLower, columnUpper, columnObjective,
+					(objective ? optType : null), rowNames.toArray(new String[m]), rowLower, rowUpper, rowStart,
+					columnIndices, values);
+		}
+
+		private boolean equals(ByteBuffer block, int t, String keyword) {
+			return ModelReader.equals(block, starts[t], ends[t], keyword);
+		}
+	}
+
+	/**
+	 * The coefficients of a chunk of the COLUMNS section in coordinate format.
+	 * The integer state of a column is {@link #INHERIT} if the chunk has no
+	 * marker before the column; it is resolved by the merge.
+	 */
+	protected static class ColumnChunk {
+		protected static final int CONTINUOUS = 0;
+		protected static final int INTEGER = 1;
+		protected static final int INHERIT = 2;
+
+		protected final List<String> names = new ArrayList<String>();
+		protected final IntArray states = new IntArray();
+		protected final IntArray starts = new IntArray();
+		protected final DoubleArray objective = new DoubleArray();
+		protected final IntArray rows = new IntArray();
+		protected final DoubleArray values = new DoubleArray();
+		protected int state = INHERIT;
+		protected int[] map;
+
+		protected static ColumnChunk parse(ByteBuffer block, int from, int to, NameIndex rowIndex)
+				throws IOException {
+			ColumnChunk chunk = new ColumnChunk();
+			int[] starts = new int[8];
+			int[] ends = new int[8];
+			int nameFrom = -1;
+			int nameTo = -1;
+			int pos = from;
+			while (pos < to) {
+				int end = pos;
+				while (end < to && block.get(end) != '\n') {
+					end++;
+				}
+				int count = tokenize(block, pos, end, starts, ends);
+				pos = end + 1;
+				if (count == 0 || block.get(starts[0]) == '*') {
+					continue;
+				}
+				if (count >= 3 && ModelReader.equals(block, starts[1], ends[1], "'MARKER'")) {
+					if (ModelReader.equals(block, starts[2], ends[2], "'INTORG'")) {
+						chunk.state = INTEGER;
+					} else if (ModelReader.equals(block, starts[2], ends[2], "'INTEND'")) {
+						chunk.state = CONTINUOUS;
+					}
+					continue;
+				}
+				if (nameFrom < 0 || !regionEquals(block, nameFrom, nameTo, starts[0], ends[0])) {
+					chunk.names.add(string(block, starts[0], ends[0]));
+					chunk.states.add(chunk.state);
+					chunk.starts.add(chunk.rows.size());
+					chunk.objective.add(0);
+					nameFrom = starts[0];
+					nameTo = ends[0];
+				}
+				int c = chunk.names.size() - 1;
+				for (int t = 1; t + 1 < count; t += 2) {
+					int i = rowIndex.get(block, starts[t], ends[t]);
+					if (i == NameIndex.NOT_FOUND) {
+						throw new IOException("Unknown row " + string(block, starts[t], ends[t]) + " in column "
+								+ chunk.names.get(c) + ".");
+					}
+					double value = parseDouble(block, starts[t + 1], ends[t + 1]);
+					if (i == OBJECTIVE_ROW) {
+						chunk.objective.set(c, chunk.objective.get(c) + value);
+					} else if (i >= 0) {
+						chunk.rows.add(i);
+						chunk.values.add(value);
+					}
+				}
+			}
+			return chunk;
+		}
+	}
+
+	/**
+	 * The parser of LP files. Statements may span several lines; a
+	 * constraint ends with its right-hand side.
+	 */
+	protected class LpParser {
+		protected static final int OBJECTIVE = 1;
+		protected static final int CONSTRAINTS = 2;
+		protected static final int BOUNDS = 3;
+		protected static final int GENERALS = 4;
+		protected static final int BINARIES = 5;
+		protected static final int SEMIS = 6;
+		protected static final int END = 7;
+
+		protected int section = 0;
+		protected OptType optType = null;
+
+		protected final NameIndex columnIndex = new NameIndex(1024);
+		protected final List<String> columnNames = new ArrayList<String>();
+		protected final DoubleArray columnLower = new DoubleArray();
+		protected final DoubleArray columnUpper = new DoubleArray();
+		protected final DoubleArray columnObjective = new DoubleArray();
+		protected final IntArray integer = new IntArray();
+		protected final IntArray binary = new IntArray();
+		protected final IntArray semi = new IntArray();
+
+		protected final List<String> rowNames = new ArrayList<String>();
+		protected final DoubleArray rowLower = new DoubleArray();
+		protected final DoubleArray rowUpper = new DoubleArray();
+		protected final IntArray rowStart = new IntArray();
+		protected final IntArray columnIndices = new IntArray();
+		protected final DoubleArray values = new DoubleArray();
+		protected final IntArray mark = new IntArray();
+		protected final IntArray position = new IntArray();
+
+		protected final List<Token> line = new ArrayList<Token>();
+		protected final List<Token> statement = new ArrayList<Token>();
+
+		protected LpParser() {
+			rowStart.add(0);
+		}
+
+		protected void parse(ByteBuffer block) throws IOException {
+			int pos = block.position();
+			int limit = block.limit();
+			while (pos < limit && section != END) {
+				int end = pos;
+				while (end < limit && block.get(end) != '\n') {
+					end++;
+				}
+				tokenize(block, pos, end);
+				line();
+				pos = end + 1;
+			}
+		}
+
+		protected void tokenize(ByteBuffer block, int from, int to) throws IOException {
+			line.clear();
+			int i = from;
+			while (i < to) {
+				byte c = block.get(i);
+				if (c == ' ' || c == '\t' || c == '\r') {
+					i++;
+				} else if (c == '\\') {
+					break;
+				} else if (c == '<' || c == '>' || c == '=') {
+					int j = i + 1;
+					if (j < to && (block.get(j) == '=' || block.get(j) == '<' || block.get(j) == '>')) {
+						j++;
+					}
+					String op = string(block, i, j);
+					line.add(new Token(Token.OPERATOR, (op.indexOf('<') >= 0 ? Operator.LE
+							: (op.indexOf('>') >= 0 ? Operator.GE : Operator.EQ))));
+					i = j;
+				} else if (c == ':') {
+					line.add(new Token(Token.COLON, null));
+					i++;
+				} else if (c == '+' || c == '-') {
+					line.add(new Token(c == '+' ? Token.PLUS : Token.MINUS, null));
+					i++;
+				} else if ((c >= '0' && c <= '9') || c == '.') {
+					int j = i + 1;
+					while (j < to) {
+						byte d = block.get(j);
+						if ((d >= '0' && d <= '9') || d == '.') {
+							j++;
+						} else if ((d == 'e' || d == 'E') && j + 1 < to) {
+							byte s = block.get(j + 1);
+							if ((s >= '0' && s <= '9') || s == '+' || s == '-') {
+								j += 2;
+							} else {
+								break;
+							}
+						} else {
+							break;
+						}
+					}
+					Token token = new Token(Token.NUMBER, null);
+					token.value = parseDouble(block, i, j);
+					line.add(token);
+					i = j;
+				} else if (c == '[' || c == ']' || c == '*' || c == '^') {
+					throw new IOException("Quadratic terms are not supported.");
+				} else {
+					int j = i + 1;
+					while (j < to) {
+						byte d = block.get(j);
+						if (d == ' ' || d == '\t' || d == '\r' || d == '\\' || d == '<' || d == '>' || d == '='
+								|| d == ':' || d == '+' || d == '-') {
+							break;
+						}
+						j++;
+					}
+					line.add(new Token(Token.NAME, string(block, i, j)));
+					i = j;
+				}
+			}
+		}
+
+		protected void line() throws IOException {
+			int t = keyword();
+			for (; t < line.size() && section != END; t++) {
+				Token token = line.get(t);
+				switch (section) {
+				case OBJECTIVE:
+				case CONSTRAINTS:
+					statement.add(token);
+					if (section == CONSTRAINTS && isComplete()) {
+						constraint();
+						statement.clear();
+					}
+					break;
+				case BOUNDS:
+					statement.add(token);
+					break;
+				case GENERALS:
+				case BINARIES:
+				case SEMIS:
+					if (token.type != Token.NAME) {
+						throw new IOException("Invalid token in variable list.");
+					}
+					int j = column(token.text);
+					(section == GENERALS ? integer : (section == BINARIES ? binary : semi)).set(j, 1);
+					break;
+				default:
+					throw new IOException("Statement outside of a section.");
+				}
+			}
+			if (section == BOUNDS && !statement.isEmpty()) {
+				bound();
+				statement.clear();
+			}
+		}
+
+		/**
+		 * Switches the section if the line starts with a keyword and returns
+		 * the number of tokens of the keyword.
+		 */
+		protected int keyword() throws IOException {
+			if (line.isEmpty() || line.get(0).type != Token.NAME) {
+				return 0;
+			}
+			String word = line.get(0).text.toLowerCase();
+			String second = (line.size() > 1 && line.get(1).type == Token.NAME ? line.get(1).text.toLowerCase()
+					: "");
+			int section;
+			int length = 1;
+			if (word.equals("minimize") || word.equals("minimum") || word.equals("min")) {
+				section = OBJECTIVE;
+				optType = OptType.MIN;
+			} else if (word.equals("maximize") || word.equals("maximum") || word.equals("max")) {
+				section = OBJECTIVE;
+				optType = OptType.MAX;
+			} else if ((word.equals("subject") && second.equals("to")) || (word.equals("such") && second.equals("that"))) {
+				section = CONSTRAINTS;
+				length = 2;
+			} else if (word.equals("st") || word.equals("s.t.")) {
+				section = CONSTRAINTS;
+			} else if ((word.equals("bounds") || word.equals("bound")) && line.size() == 1) {
+				section = BOUNDS;
+			} else if (word.equals("general") || word.equals("generals") || word.equals("gen")
+					|| word.equals("integer") || word.equals("integers")) {
+				section = GENERALS;
+			} else if (word.equals("binary") || word.equals("binaries") || word.equals("bin")) {
+				section = BINARIES;
+			} else if ((word.equals("semi") && line.size() > 2 && line.get(1).type == Token.MINUS)
+					|| word.equals("semis")) {
+				section = SEMIS;
+				length = (word.equals("semi") ? 3 : 1);
+			} else if (word.equals("end") && line.size() == 1) {
+				section = END;
+			} else if (word.equals("sos") && line.size() == 1) {
+				throw new IOException("Unsupported LP section SOS.");
+			} else {
+				return 0;
+			}
+			if (this.section == OBJECTIVE) {
+				objective();
+			} else if (!statement.isEmpty()) {
+				throw new IOException("Incomplete constraint at the end of a section.");
+			}
+			statement.clear();
+			this.section = section;
+			return length;
+		}
+
+		/**
+		 * Returns {@code true} if the statement ends with an operator followed
+		 * by a (signed) number and a variable occurs before the operator.
+		 */
+		protected boolean isComplete() {
+			int t = statement.size() - 1;
+			if (t < 0 || !statement.get(t).isNumber()) {
+				return false;
+			}
+			t--;
+			while (t >= 0 && (statement.get(t).type == Token.PLUS || statement.get(t).type == Token.MINUS)) {
+				t--;
+			}
+			if (t < 0 || statement.get(t).type != Token.OPERATOR) {
+				return false;
+			}
+			for (int k = label(); k < t; k++) {
+				if (statement.get(k).type == Token.NAME && !statement.get(k).isNumber()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Returns the index of the first token after the label of the
+		 * statement.
+		 */
+		protected int label() {
+			if (statement.size() > 1 && statement.get(0).type == Token.NAME && statement.get(1).type == Token.COLON) {
+				return 2;
+			}
+			return 0;
+		}
+
+		protected void objective() throws IOException {
+			int t = label();
+			int[] end = new int[1];
+			double constant = expression(t, statement.size(), end, true);
+			if (end[0] != statement.size()) {
+				throw new IOException("Invalid objective.");
+			}
+			if (constant != 0) {
+				System.err.println("the constant " + constant + " of the objective is ignored");
+			}
+		}
+
+		protected void constraint() throws IOException {
+			int t = label();
+			// unnamed rows are named at the end (after all explicit names)
+			String name = (t == 2 ? statement.get(0).text : null);
+			int size = statement.size();
+			double lower = Double.NEGATIVE_INFINITY;
+			double upper = Double.POSITIVE_INFINITY;
+			int[] end = new int[1];
+
+			// optional left-hand side bound
+			int o = t;
+			while (o < size && (statement.get(o).type == Token.PLUS || statement.get(o).type == Token.MINUS)) {
+				o++;
+			}
+			double left = Double.NaN;
+			Operator leftOperator = null;
+			if (o + 1 < size && statement.get(o).isNumber() && statement.get(o + 1).type == Token.OPERATOR) {
+				left = number(t, o + 1);
+				leftOperator = statement.get(o + 1).operator;
+				t = o + 2;
+			}
+
+			double constant = expression(t, size, end, false);
+			t = end[0];
+			if (t >= size || statement.get(t).type != Token.OPERATOR) {
+				throw new IOException("Invalid constraint " + (name != null ? name : "c" + (rowNames.size() + 1)) + ".");
+			}
+			Operator operator = statement.get(t).operator;
+			double right = number(t + 1, size) - constant;
+			if (operator != Operator.GE) {
+				upper = right;
+			}
+			if (operator != Operator.LE) {
+				lower = right;
+			}
+			if (leftOperator != null) {
+				left -= constant;
+				if (leftOperator != Operator.GE) {
+					lower = Math.max(lower, left);
+				}
+				if (leftOperator != Operator.LE) {
+					upper = Math.min(upper, left);
+				}
+			}
+			rowNames.add(name);
+			rowLower.add(lower);
+			rowUpper.add(upper);
+			rowStart.add(columnIndices.size());
+		}
+
+		/**
+		 * Names the unnamed rows {@code c<i>} after their position; a name
+		 * that is taken by another row is skipped to the next free number.
+		 */
+		protected void nameRows() {
+			int m = rowNames.size();
+			NameIndex taken = new NameIndex(m);
+			for (int i = 0; i < m; i++) {
+				if (rowNames.get(i) != null) {
+					taken.put(rowNames.get(i), i);
+				}
+			}
+			int k = 0;
+			for (int i = 0; i < m; i++) {
+				if (rowNames.get(i) != null) {
+					continue;
+				}
+				k = Math.max(k, i + 1);
+				while (taken.get("c" + k) != NameIndex.NOT_FOUND) {
+					k++;
+				}
+				rowNames.set(i, "c" + k);
+				taken.put("c" + k, i);
+			}
+		}
+
+		/**
+		 * Parses the terms in {@code [from, to)} up to the first operator
+		 * (into the objective or the current row) and returns the sum of the
+		 * constants.
+		 */
+		protected double expression(int from, int to, int[] end, boolean objective) throws IOException {
+			double constant = 0;
+			double sign = 1;
+			double coefficient = Double.NaN;
+			int row = rowNames.size();
+			int t = from;
+			for (; t < to; t++) {
+				Token token = statement.get(t);
+				if (token.type == Token.OPERATOR) {
+					break;
+				} else if (token.type == Token.PLUS) {
+					continue;
+				} else if (token.type == Token.MINUS) {
+					sign = -sign;
+				} else if (token.type == Token.NUMBER) {
+					if (!Double.isNaN(coefficient)) {
+						constant += sign * coefficient;
+						sign = 1;
+					}
+					coefficient = token.value;
+				} else if (token.type == Token.NAME) {
+					int j = column(token.text);
+					double value = sign * (Double.isNaN(coefficient) ? 1 : coefficient);
+					if (objective) {
+						columnObjective.set(j, columnObjective.get(j) + value);
+					} else if (mark.get(j) == row) {
+						values.set(position.get(j), values.get(position.get(j)) + value);
+					} else {
+						mark.set(j, row);
+						position.set(j, columnIndices.size());
+						columnIndices.add(j);
+						values.add(value);
+					}
+					sign = 1;
+					coefficient = Double.NaN;
+				} else {
+					throw new IOException("Invalid token in expression.");
+				}
+			}
+			if (!Double.isNaN(coefficient)) {
+				constant += sign * coefficient;
+			}
+			end[0] = t;
+			return constant;
+		}
+
+		/**
+		 * Returns the signed number in {@code [from, to)}.
+		 */
+		protected double number(int from, int to) throws IOException {
+			double sign = 1;
+			int t = from;
+			for (; t < to - 1; t++) {
+				if (statement.get(t).type == Token.MINUS) {
+					sign = -sign;
+				} else if (statement.get(t).type != Token.PLUS) {
+					break;
+				}
+			}
+			if (t != to - 1 || !statement.get(t).isNumber()) {
+				throw new IOException("Invalid number.");
+			}
+			return sign * statement.get(t).getNumber();
+		}
+
+		/**
+		 * Applies a bound statement: {@code x free}, {@code x op v},
+		 * {@code v op x} or {@code v op x op v}.
+		 */
+		protected void bound() throws IOException {
+			List<Token> tokens = new ArrayList<Token>();
+			for (int t = 0; t < statement.size(); t++) {
+				Token token = statement.get(t);
+				if (token.type == Token.PLUS || token.type == Token.MINUS) {
+					int s = t;
+					while (t < statement.size() - 1
+							&& (statement.get(t + 1).type == Token.PLUS || statement.get(t + 1).type == Token.MINUS)) {
+						t++;
+					}
+					if (t + 1 >= statement.size()) {
+						throw new IOException("Invalid bound.");
+					}
+					Token number = new Token(Token.NUMBER, null);
+					number.value = number(s, t + 2);
+					tokens.add(number);
+					t++;
+				} else if (token.isNumber()) {
+					Token number = new Token(Token.NUMBER, null);
+					number.value = token.getNumber();
+					tokens.add(number);
+				} else {
+					tokens.add(token);
+				}
+			}
+
+			int size = tokens.size();
+			if (size == 2 && tokens.get(0).type == Token.NAME && tokens.get(1).type == Token.NAME
+					&& tokens.get(1).text.equalsIgnoreCase("free")) {
+				int j = column(tokens.get(0).text);
+				columnLower.set(j, Double.NEGATIVE_INFINITY);
+				columnUpper.set(j, Double.POSITIVE_INFINITY);
+			} else if (size == 3 && tokens.get(0).type == Token.NAME && tokens.get(1).type == Token.OPERATOR
+					&& tokens.get(2).type == Token.NUMBER) {
+				bound(column(tokens.get(0).text), tokens.get(1).operator, tokens.get(2).value);
+			} else if ((size == 3 || size == 5) && tokens.get(0).type == Token.NUMBER
+					&& tokens.get(1).type == Token.OPERATOR && tokens.get(2).type == Token.NAME) {
+				int j = column(tokens.get(2).text);
+				bound(j, reverse(tokens.get(1).operator), tokens.get(0).value);
+				if (size == 5) {
+					if (tokens.get(3).type != Token.OPERATOR || tokens.get(4).type != Token.NUMBER) {
+						throw new IOException("Invalid bound of " + tokens.get(2).text + ".");
+					}
+					bound(j, tokens.get(3).operator, tokens.get(4).value);
+				}
+			} else {
+				throw new IOException("Invalid bound.");
+			}
+		}
+
+		protected void bound(int j, Operator operator, double value) {
+			if (operator != Operator.GE) {
+				columnUpper.set(j, value);
+			}
+			if (operator != Operator.LE) {
+				columnLower.set(j, value);
+			}
+		}
+
+		protected Operator reverse(Operator operator) {
+			switch (operator) {
+			case LE:
+				return Operator.GE;
+			case GE:
+				return Operator.LE;
+			default: // EQ
+				return Operator.EQ;
+			}
+		}
+
+		protected int column(String name) {
+			int j = columnIndex.get(name);
+			if (j == NameIndex.NOT_FOUND) {
+				j = columnNames.size();
+				columnIndex.put(name, j);
+				columnNames.add(name);
+				columnLower.add(0);
+				columnUpper.add(Double.POSITIVE_INFINITY);
+				columnObjective.add(0);
+				integer.add(0);
+				binary.add(0);
+				semi.add(0);
+				mark.add(-1);
+				position.add(0);
+			}
+			return j;
+		}
+
+		protected CsrModel finish() throws IOException {
+			if (section == OBJECTIVE) {
+				objective();
+			} else if (!statement.isEmpty()) {
+				throw new IOException("Incomplete constraint at the end of the file.");
+			}
+			int n = columnNames.size();
+			VarType[] columnTypes = new VarType[n];
+			double[] lower = columnLower.toArray();
+			double[] upper = columnUpper.toArray();
+			for (int j = 0; j < n; j++) {
+				if (binary.get(j) == 1) {
+					columnTypes[j] = VarType.BOOL;
+					lower[j] = Math.max(lower[j], 0);
+					upper[j] = Math.min(upper[j], 1);
+				} else if (semi.get(j) == 1) {
+					columnTypes[j] = (integer.get(j) == 1 ? VarType.SEMIINT : VarType.SEMICONT);
+				} else {
+					columnTypes[j] = (integer.get(j) == 1 ? VarType.INT : VarType.REAL);
+				}
+			}
+			nameRows();
+			int m = rowNames.size();
+			return new CsrModel(columnNames.toArray(new String[n]), columnTypes, lower, upper,
+					columnObjective.toArray(), optType, rowNames.toArray(new String[m]), rowLower.toArray(),
+					rowUpper.toArray(), rowStart.toArray(), columnIndices.toArray(), values.toArray());
+		}
+	}
+
+	/**
+	 * A token of an LP file.
+	 */
+	protected static class Token {
+		protected static final int NAME = 0;
+		protected static final int NUMBER = 1;
+		protected static final int OPERATOR = 2;
+		protected static final int COLON = 3;
+		protected static final int PLUS = 4;
+		protected static final int MINUS = 5;
+
+		protected final int type;
+		protected final String text;
+		protected final Operator operator;
+		protected double value;
+
+		protected Token(int type, Object object) {
+			this.type = type;
+			this.text = (object instanceof String ? (String) object : null);
+			this.operator = (object instanceof Operator ? (Operator) object : null);
+		}
+
+		/**
+		 * Returns {@code true} for numbers and {@code inf}/{@code infinity}.
+		 */
+		protected boolean isNumber() {
+			return type == NUMBER
+					|| (type == NAME && (text.equalsIgnoreCase("inf") || text.equalsIgnoreCase("infinity")));
+		}
+
+		protected double getNumber() {
+			return (type == NUMBER ? infinity(value) : Double.POSITIVE_INFINITY);
+		}
+	}
+
+	/**
+	 * A source of blocks that end at a line break (except the last block).
+	 */
+	protected interface Blocks {
+		/**
+		 * Returns the next block or {@code null} at the end of the file.
+		 */
+		ByteBuffer next() throws IOException;
+
+		void close() throws IOException;
+	}
+
+	/**
+	 * Maps the blocks of a file.
+	 */
+	protected class MappedBlocks implements Blocks {
+		protected final RandomAccessFile file;
+		protected final FileChannel channel;
+		protected final long size;
+		protected long position = 0;
+
+		protected MappedBlocks(File file) throws IOException {
+			this.file = new RandomAccessFile(file, "r");
+			this.channel = this.file.getChannel();
+			this.size = channel.size();
+		}
+
+		public ByteBuffer next() throws IOException {
+			long length = Math.min(blockSize, size - position);
+			while (length > 0) {
+				ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				if (position + length == size) {
+					position = size;
+					return block;
+				}
+				for (int k = (int) length - 1; k >= 0; k--) {
+					if (block.get(k) == '\n') {
+						block.limit(k + 1);
+						position += k + 1;
+						return block;
+					}
+				}
+				// a line longer than the block
+				length = Math.min(2 * length, size - position);
+			}
+			return null;
+		}
+
+		public void close() throws IOException {
+			file.close();
+		}
+	}
+
+	/**
+	 * Reads the blocks of a stream into arrays.
+	 */
+	protected class StreamBlocks implements Blocks {
+		protected final InputStream in;
+		protected byte[] rest = new byte[0];
+		protected boolean eof = false;
+
+		protected StreamBlocks(InputStream in) {
+			this.in = in;
+		}
+
+		public ByteBuffer next() throws IOException {
+			if (eof && rest.length == 0) {
+				return null;
+			}
+			byte[] buffer = Arrays.copyOf(rest, Math.max(blockSize, 2 * rest.length));
+			int length = rest.length;
+			while (!eof) {
+				while (length < buffer.length) {
+					int r = in.read(buffer, length, buffer.length - length);
+					if (r < 0) {
+						eof = true;
+						break;
+					}
+					length += r;
+				}
+				if (eof) {
+					break;
+				}
+				for (int k = length - 1; k >= rest.length; k--) {
+					if (buffer[k] == '\n') {
+						rest = Arrays.copyOfRange(buffer, k + 1, length);
+						return ByteBuffer.wrap(buffer, 0, k + 1);
+					}
+				}
+				// a line longer than the block
+				buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+			}
+			rest = new byte[0];
+			return (length > 0 ? ByteBuffer.wrap(buffer, 0, length) : null);
+		}
+
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * A growable array of ints.
+	 */
+	protected static class IntArray {
+		protected int[] array = new int[16];
+		protected int size = 0;
+
+		protected void add(int value) {
+			if (size == array.length) {
+				array = Arrays.copyOf(array, 2 * size);
+			}
+			array[size++] = value;
+		}
+
+		protected int get(int index) {
+			return array[index];
+		}
+
+		protected void set(int index, int value) {
+			array[index] = value;
+		}
+
+		protected int size() {
+			return size;
+		}
+
+		protected int[] toArray() {
+			return Arrays.copyOf(array, size);
+		}
+	}
+
+	/**
+	 * A growable array of doubles.
+	 */
+	protected static class DoubleArray {
+		protected double[] array = new double[16];
+		protected int size = 0;
+
+		protected void add(double value) {
+			if (size == array.length) {
+				array = Arrays.copyOf(array, 2 * size);
+			}
+			array[size++] = value;
+		}
+
+		protected double get(int index) {
+			return array[index];
+		}
+
+		protected void set(int index, double value) {
+			array[index] = value;
+		}
+
+		protected int size() {
+			return size;
+		}
+
+		protected double[] toArray() {
+			return Arrays.copyOf(array, size);
+		}
+	}
+
+	/**
+	 * A completed future for the sequential execution.
+	 */
+	protected static class Done<T> implements Future<T> {
+		protected final T value;
+
+		protected Done(T value) {
+			this.value = value;
+		}
+
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		public boolean isCancelled() {
+			return false;
+		}
+
+		public boolean isDone() {
+			return true;
+		}
+
+		public T get() {
+			return value;
+		}
+
+		public T get(long timeout, java.util.concurrent.TimeUnit unit) {
+			return value;
+		}
+	}
+
+	protected static final int OBJECTIVE_ROW = -1;
+	protected static final int FREE_ROW = -2;
+
+	protected static final double[] POWERS_OF_TEN = new double[23];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int k = 1; k < POWERS_OF_TEN.length; k++) {
+			POWERS_OF_TEN[k] = POWERS_OF_TEN[k - 1] * 10;
+		}
+	}
+
+	/**
+	 * Splits the bytes {@code [from, to)} at whitespace into at most
+	 * {@code starts.length} tokens and returns their number.
+	 */
+	protected static int tokenize(ByteBuffer block, int from, int to, int[] starts, int[] ends) {
+		int count = 0;
+		int i = from;
+		while (i < to && count < starts.length) {
+			byte c = block.get(i);
+			if (c == ' ' || c == '\t' || c == '\r') {
+				i++;
+				continue;
+			}
+			starts[count] = i;
+			while (i < to && (c = block.get(i)) != ' ' && c != '\t' && c != '\r') {
+				i++;
+			}
+			ends[count++] = i;
+		}
+		return count;
+	}
+
+	/**
+	 * Parses the number in {@code [from, to)}. Numbers with at most 15
+	 * significant digits and a decimal exponent of at most 22 are exact
+	 * products (or quotients) of two doubles; all others are parsed by
+	 * {@link Double#parseDouble(String)}.
+	 */
+	protected static double parseDouble(ByteBuffer block, int from, int to) throws IOException {
+		int i = from;
+		boolean negative = false;
+		if (i < to && (block.get(i) == '-' || block.get(i) == '+')) {
+			negative = (block.get(i) == '-');
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		byte c;
+		while (i < to && (c = block.get(i)) >= '0' && c <= '9') {
+			mantissa = 10 * mantissa + (c - '0');
+			digits += (mantissa != 0 ? 1 : 0);
+			any = true;
+			i++;
+		}
+		if (i < to && block.get(i) == '.') {
+			i++;
+			while (i < to && (c = block.get(i)) >= '0' && c <= '9') {
+				mantissa = 10 * mantissa + (c - '0');
+				digits += (mantissa != 0 ? 1 : 0);
+				exponent--;
+				any = true;
+				i++;
+			}
+		}
+		if (any && i < to && (block.get(i) == 'e' || block.get(i) == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < to && (block.get(i) == '-' || block.get(i) == '+')) {
+				negativeExponent = (block.get(i) == '-');
+				i++;
+			}
+			int e = 0;
+			boolean anyExponent = false;
+			while (i < to && (c = block.get(i)) >= '0' && c <= '9' && e < 10000) {
+				e = 10 * e + (c - '0');
+				anyExponent = true;
+				i++;
+			}
+			any = anyExponent;
+			exponent += (negativeExponent ? -e : e);
+		}
+		if (any && i == to && digits <= 15) {
+			double value = (negative ? -(double) mantissa : (double) mantissa);
+			if (exponent == 0) {
+				return value;
+			} else if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+				return value * POWERS_OF_TEN[exponent];
+			} else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+				return value / POWERS_OF_TEN[-exponent];
+			}
+		}
+		String text = string(block, from, to);
+		try {
+			return Double.parseDouble(text);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid number " + text + ".");
+		}
+	}
+
+	/**
+	 * Returns an infinite value for values with an absolute value of at least
+	 * {@link #INFINITY}.
+	 */
+	protected static double infinity(double value) {
+		if (value >= INFINITY) {
+			return Double.POSITIVE_INFINITY;
+		} else if (value <= -INFINITY) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return value;
+	}
+
+	protected static String string(ByteBuffer block, int from, int to) {
+		byte[] bytes = new byte[to - from];
+		for (int k = 0; k < bytes.length; k++) {
+			bytes[k] = block.get(from + k);
+		}
+		return new String(bytes, LATIN1);
+	}
+
+	protected static boolean equals(ByteBuffer block, int from, int to, String keyword) {
+		if (to - from != keyword.length()) {
+			return false;
+		}
+		for (int k = 0; k < keyword.length(); k++) {
+			if (Character.toUpperCase((char) (block.get(from + k) & 0xff)) != keyword.charAt(k)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static boolean regionEquals(ByteBuffer block, int from1, int to1, int from2, int to2) {
+		if (to1 - from1 != to2 - from2) {
+			return false;
+		}
+		for (int k = 0; k < to1 - from1; k++) {
+			if (block.get(from1 + k) != block.get(from2 + k)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static <T> T call(Callable<T> task) throws IOException {
+		try {
+			return task.call();
+		} catch (IOException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e.toString());
+		}
+	}
+
+	protected static <T> T get(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading the model.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause().toString());
+		}
+	}
+
+}
@@ -0,0 +1,499 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code ModelSnapshot} writes the model of a {@link Problem} to a
+ * compact (gzipped binary) file and replays a file into any
+ * {@link ProblemInterface}. A snapshot holds the variables with their types
+ * and bounds, the piecewise-linear functions, the constraints (including
+ * special ordered sets and indicator constraints), and the objective; starting solutions and
+ * solver parameters are not part of it.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class ModelSnapshot {
+
+	protected static final int MAGIC = 0x4A494C50; // "JILP"
+	protected static final int VERSION = 2; // 2: ranges, SOS, indicator and piecewise-linear records
+
+	protected static final byte END = 0;
+	protected static final byte VARIABLE = 1;
+	protected static final byte CONSTRAINT = 2;
+	protected static final byte OBJECTIVE = 3;
+	protected static final byte LOWER_BOUND = 4;
+	protected static final byte UPPER_BOUND = 5;
+	protected static final byte COLUMN = 6;
+	protected static final byte RANGE = 7;
+	protected static final byte SOS = 8;
+	protected static final byte INDICATOR = 9;
+	protected static final byte PIECEWISE_LINEAR = 10;
+
+	private ModelSnapshot() {
+		super();
+	}
+
+	/**
+	 * Writes the model of a problem to a file.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Problem problem, File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+				new FileOutputStream(file), 1 << 16)));
+		try {
+			write(problem, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes the (uncompressed) model of a problem to a stream.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param out
+	 *            the stream
+	 * @throws IOException
+	 *             if the stream cannot be written
+	 */
+	public static void write(Problem problem, DataOutputStream out) throws IOException {
+		Writer writer = new Writer(out);
+		problem.export(writer);
+		if (writer.exception != null) {
+			throw writer.exception;
+		}
+		out.writeByte(END);
+		out.flush();
+	}
+
+	/**
+	 * Replays a snapshot file into a problem.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param problem
+	 *            the (empty) problem
+	 * @throws IOException
+	 *             if the file cannot be read or is not a snapshot
+	 */
+	public static void read(File file, ProblemInterface problem) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(
+				new FileInputStream(file), 1 << 16)));
+		try {
+			read(in, problem, "The snapshot " + file);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Replays an (uncompressed) snapshot stream into a problem.
+	 * 
+	 * @param in
+	 *            the stream
+	 * @param problem
+	 *            the (empty) problem
+	 * @param source
+	 *            the description of the stream in error messages
+	 * @throws IOException
+	 *             if the stream cannot be read or is not a snapshot
+	 */
+	public static void read(DataInputStream in, ProblemInterface problem, String source) throws IOException {
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(source + " is not a model snapshot.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException(source + " has the unsupported snapshot version " + version + ".");
+			}
+			for (byte op = in.readByte(); op != END; op = in.readByte()) {
+				switch (op) {
+				case VARIABLE: {
+					String name = in.readUTF();
+					VarType type = VarType.values()[in.readByte()];
+					problem.addVariable(name, type, readNumber(in), readNumber(in));
+					break;
+				}
+				case CONSTRAINT: {
+					String name = in.readUTF();
+					Operator operator = Operator.values()[in.readByte()];
+					double rhs = in.readDouble();
+					problem.addConstraint(name, readLinear(in), operator, rhs);
+					break;
+				}
+				case RANGE: {
+					String name = in.readUTF();
+					double lb = in.readDouble();
+					double ub = in.readDouble();
+					problem.addConstraint(name, lb, readLinear(in), ub);
+					break;
+				}
+				case SOS: {
+					String name = in.readUTF();
+					SOSType type = SOSType.values()[in.readByte()];
+					problem.addSOS(name, type, readLinear(in));
+					break;
+				}
+				case PIECEWISE_LINEAR: {
+					String name = in.readUTF();
+					PiecewiseLinear function = new PiecewiseLinear(in.readUTF());
+					int size = in.readInt();
+					for (int i = 0; i < size; i++) {
+						double point = in.readDouble();
+						function.add(point, in.readDouble());
+					}
+					problem.addPiecewiseLinear(name, function);
+					break;
+				}
+				case INDICATOR: {
+					String name = in.readUTF();
+					String indicator = in.readUTF();
+					int value = in.readByte();
+					Operator operator = Operator.values()[in.readByte()];
+					double rhs = in.readDouble();
+					problem.addIndicatorConstraint(name, indicator, value, readLinear(in), operator, rhs);
+					break;
+				}
+				case OBJECTIVE: {
+					OptType optType = OptType.values()[in.readByte()];
+					problem.setObjective(readLinear(in), optType);
+					break;
+				}
+				case LOWER_BOUND:
+					problem.setVariableLowerBound(in.readUTF(), readNumber(in));
+					break;
+				case UPPER_BOUND:
+					problem.setVariableUpperBound(in.readUTF(), readNumber(in));
+					break;
+				case COLUMN: {
+					String name = in.readUTF();
+					VarType type = VarType.values()[in.readByte()];
+					Number lb = readNumber(in);
+					Number ub = readNumber(in);
+					Column column = new Column(in.readDouble());
+					int size = in.readInt();
+					for (int i = 0; i < size; i++) {
+						String constraintName = in.readUTF();
+						column.add(in.readDouble(), constraintName);
+					}
+					problem.addVariable(name, type, lb, ub, column);
+					break;
+				}
+				default:
+					throw new IOException(source + " has the unknown operation " + op + ".");
+				}
+			}
+		} catch (EOFException e) {
+			throw new IOException(source + " is truncated.");
+		}
+	}
+
+	private static Number readNumber(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readDouble() : null);
+	}
+
+	private static Linear readLinear(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		Linear linear = new Linear();
+		for (int i = 0; i < size; i++) {
+			String variableName = in.readUTF();
+			linear.add(in.readDouble(), variableName);
+		}
+		return linear;
+	}
+
+	/**
+	 * The {@code Writer} is the {@code ProblemInterface} that a problem
+	 * exports its model to. The first {@code IOException} is kept and
+	 * rethrown by {@link ModelSnapshot#write(Problem, File)}.
+	 */
+	protected static class Writer implements ProblemInterface {
+
+		protected final DataOutputStream out;
+		protected IOException exception = null;
+		protected int constraints = 0;
+		protected int variables = 0;
+
+		protected Writer(DataOutputStream out) throws IOException {
+			this.out = out;
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear, net.sf.javailp.OptType)
+		 */
+		public void setObjective(Linear objective, OptType optType) {
+			try {
+				out.writeByte(OBJECTIVE);
+				out.writeByte(optType.ordinal());
+				writeLinear(objective);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setStartingSolution(java.util.Map)
+		 */
+		public void setStartingSolution(Map<String, Number> startingSolution) {
+			// not part of a snapshot
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#getConstraintsCount()
+		 */
+		public int getConstraintsCount() {
+			return constraints;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#getVariablesCount()
+		 */
+		public int getVariablesCount() {
+			return variables;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+		 */
+		public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+			try {
+				out.writeByte(CONSTRAINT);
+				out.writeUTF(name);
+				out.writeByte(operator.ordinal());
+				out.writeDouble(rhs.doubleValue());
+				writeLinear(lhs);
+				constraints++;
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, java.lang.Number, net.sf.javailp.Linear, java.lang.Number)
+		 */
+		public void addConstraint(String name, Number lb, Linear lhs, Number ub) {
+			if (lb == null || ub == null) {
+				addConstraint(name, lhs, (lb == null ? Operator.LE : Operator.GE), (lb == null ? ub : lb));
+				return;
+			}
+			try {
+				out.writeByte(RANGE);
+				out.writeUTF(name);
+				out.writeDouble(lb.doubleValue());
+				out.writeDouble(ub.doubleValue());
+				writeLinear(lhs);
+				constraints++;
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String, net.sf.javailp.SOSType, net.sf.javailp.Linear)
+		 */
+		public void addSOS(String name, SOSType type, Linear weights) {
+			try {
+				out.writeByte(SOS);
+				out.writeUTF(name);
+				out.writeByte(type.ordinal());
+				writeLinear(weights);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String, java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+		 */
+		public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+				Number rhs) {
+			try {
+				out.writeByte(INDICATOR);
+				out.writeUTF(name);
+				out.writeUTF(indicator);
+				out.writeByte(value);
+				out.writeByte(operator.ordinal());
+				out.writeDouble(rhs.doubleValue());
+				writeLinear(lhs);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String, net.sf.javailp.PiecewiseLinear)
+		 */
+		public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+			try {
+				out.writeByte(PIECEWISE_LINEAR);
+				out.writeUTF(name);
+				out.writeUTF(function.getVariableName());
+				out.writeInt(function.size());
+				for (int i = 0; i < function.size(); i++) {
+					out.writeDouble(function.getPoint(i).doubleValue());
+					out.writeDouble(function.getValue(i).doubleValue());
+				}
+				variables++;
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
+		 */
+		public void addVariable(String name, VarType type, Number lb, Number ub) {
+			try {
+				out.writeByte(VARIABLE);
+				writeVariable(name, type, lb, ub);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, net.sf.javailp.Column)
+		 */
+		public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+			try {
+				out.writeByte(COLUMN);
+				writeVariable(name, type, lb, ub);
+				out.writeDouble(column.getObjectiveCoefficient().doubleValue());
+				out.writeInt(column.size());
+				for (int i = 0; i < column.size(); i++) {
+					out.writeUTF(column.getConstraintName(i));
+					out.writeDouble(column.getCoefficient(i).doubleValue());
+				}
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType)
+		 */
+		public void addVariable(String name, VarType type) {
+			addVariable(name, type, null, null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String, java.lang.Number)
+		 */
+		public void setVariableLowerBound(String name, Number lb) {
+			try {
+				out.writeByte(LOWER_BOUND);
+				out.writeUTF(name);
+				writeNumber(lb);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String, java.lang.Number)
+		 */
+		public void setVariableUpperBound(String name, Number ub) {
+			try {
+				out.writeByte(UPPER_BOUND);
+				out.writeUTF(name);
+				writeNumber(ub);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		protected void writeVariable(String name, VarType type, Number lb, Number ub) throws IOException {
+			out.writeUTF(name);
+			out.writeByte(type.ordinal());
+			writeNumber(lb);
+			writeNumber(ub);
+			variables++;
+		}
+
+		protected void writeNumber(Number number) throws IOException {
+			out.writeBoolean(number != null);
+			if (number != null) {
+				out.writeDouble(number.doubleValue());
+			}
+		}
+
+		protected void writeLinear(Linear linear) throws IOException {
+			out.writeInt(linear.size());
+			for (Term term : linear) {
+				out.writeUTF(term.getVariableName());
+				out.writeDouble(term.getCoefficient().doubleValue());
+			}
+		}
+
+		protected void fail(IOException e) {
+			if (exception == null) {
+				exception = e;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,398 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Arrays;
+
+/**
+ * The {@code ModelTemplate} is the compiled structure of a linear model: the
+ * names and types of the columns, the names and operators of the rows, and
+ * the sparsity pattern of the coefficients (in CSR format, see
+ * {@link CsrModel}). Instances of the template are produced by binding
+ * primitive arrays for the coefficients, bounds, objective and right-hand
+ * sides ({@link #bind(double[], double[], double[], double[], double[])})
+ * and loaded with the bulk path of the backends. An {@link Instance} keeps
+ * its problem and pushes only the changed values of new data into the
+ * native model if the backend supports it (GLPK); otherwise, the problem is
+ * rebuilt.
+ * <p>
+ * The right-hand side of a row is its bound according to its operator. A
+ * range row (two finite bounds) is compiled as {@code GE} row with the
+ * range {@code ub - lb}, i.e., its bounds are {@code [rhs, rhs + range]}
+ * (as in the {@code RANGES} section of MPS).
+ * 
+ * @author fgenoese
+ * 
+ */
+public class ModelTemplate {
+
+	protected final String[] columnNames;
+	protected final VarType[] columnTypes;
+	protected final OptType optType;
+	protected final String[] rowNames;
+	protected final Operator[] rowOperators;
+	protected final double[] ranges;
+	protected final int[] rowStart;
+	protected final int[] columnIndices;
+
+	// the data of the compiled model
+	protected final double[] values;
+	protected final double[] columnLower;
+	protected final double[] columnUpper;
+	protected final double[] objective;
+	protected final double[] rhs;
+
+	/**
+	 * Compiles the structure of a model; its data is the default data of the
+	 * template.
+	 * 
+	 * @param model
+	 *            the model
+	 */
+	public ModelTemplate(CsrModel model) {
+		super();
+		int m = model.rowNames.length;
+		int nnz = model.getNonzerosCount();
+		this.columnNames = model.columnNames.clone();
+		this.columnTypes = model.columnTypes.clone();
+		this.optType = model.optType;
+		this.rowNames = model.rowNames.clone();
+		this.rowStart = model.rowStart.clone();
+		this.columnIndices = Arrays.copyOf(model.columnIndices, nnz);
+		this.values = Arrays.copyOf(model.values, nnz);
+		this.columnLower = model.columnLower.clone();
+		this.columnUpper = model.columnUpper.clone();
+		this.objective = model.objective.clone();
+
+		this.rowOperators = new Operator[m];
+		this.ranges = new double[m];
+		this.rhs = new double[m];
+		for (int i = 0; i < m; i++) {
+			double lb = model.rowLower[i];
+			double ub = model.rowUpper[i];
+			if (lb == ub) {
+				rowOperators[i] = Operator.EQ;
+				rhs[i] = lb;
+			} else if (!Double.isInfinite(lb) && !Double.isInfinite(ub)) {
+				rowOperators[i] = Operator.GE;
+				rhs[i] = lb;
+				ranges[i] = ub - lb;
+			} else if (!Double.isInfinite(ub)) {
+				rowOperators[i] = Operator.LE;
+				rhs[i] = ub;
+			} else if (!Double.isInfinite(lb)) {
+				rowOperators[i] = Operator.GE;
+				rhs[i] = lb;
+			} else {
+				// free row
+				rhs[i] = Double.NaN;
+			}
+		}
+	}
+
+	/**
+	 * Compiles the structure of the model of a problem; its data is the
+	 * default data of the template.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	public ModelTemplate(Problem problem) {
+		this(toCsrModel(problem));
+	}
+
+	private static CsrModel toCsrModel(Problem problem) {
+		ModelWriter.Model model = new ModelWriter.Model();
+		problem.export(model);
+		if (model.hasGeneralConstraints()) {
+			throw new IllegalArgumentException("The problem " + problem.getIdentifier()
+					+ " has general constraints, which a template cannot hold.");
+		}
+		return model.toCsrModel();
+	}
+
+	/**
+	 * Returns the number of columns.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnsCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRowsCount() {
+		return rowNames.length;
+	}
+
+	/**
+	 * Returns the number of coefficients.
+	 * 
+	 * @return the number of coefficients
+	 */
+	public int getNonzerosCount() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the names of the columns (not to be modified).
+	 * 
+	 * @return the names of the columns
+	 */
+	public String[] getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Returns the names of the rows (not to be modified).
+	 * 
+	 * @return the names of the rows
+	 */
+	public String[] getRowNames() {
+		return rowNames;
+	}
+
+	/**
+	 * Returns the operators of the rows ({@code null} for free rows; not to
+	 * be modified).
+	 * 
+	 * @return the operators of the rows
+	 */
+	public Operator[] getRowOperators() {
+		return rowOperators;
+	}
+
+	/**
+	 * Returns the start of each row in the coefficients (not to be
+	 * modified).
+	 * 
+	 * @return the start of each row
+	 */
+	public int[] getRowStart() {
+		return rowStart;
+	}
+
+	/**
+	 * Returns the column indices of the coefficients (not to be modified).
+	 * 
+	 * @return the column indices
+	 */
+	public int[] getColumnIndices() {
+		return columnIndices;
+	}
+
+	/**
+	 * Binds data to the structure and returns the model. A {@code null}
+	 * array keeps the data of the compiled model; the arrays are copied,
+	 * thus, they can be modified and bound again.
+	 * 
+	 * @param values
+	 *            the coefficients (in the order of the sparsity pattern)
+	 * @param columnLower
+	 *            the lower bounds of the columns
+	 * @param columnUpper
+	 *            the upper bounds of the columns
+	 * @param objective
+	 *            the objective coefficients of the columns
+	 * @param rhs
+	 *            the right-hand sides of the rows
+	 * @return the model
+	 */
+	public CsrModel bind(double[] values, double[] columnLower, double[] columnUpper, double[] objective,
+			double[] rhs) {
+		values = check("coefficients", values, this.values);
+		columnLower = check("lower bounds", columnLower, this.columnLower);
+		columnUpper = check("upper bounds", columnUpper, this.columnUpper);
+		objective = check("objective", objective, this.objective);
+		rhs = check("right-hand sides", rhs, this.rhs);
+
+		int m = rowNames.length;
+		double[] rowLower = new double[m];
+		double[] rowUpper = new double[m];
+		for (int i = 0; i < m; i++) {
+			if (rowOperators[i] == null) {
+				rowLower[i] = Double.NEGATIVE_INFINITY;
+				rowUpper[i] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			switch (rowOperators[i]) {
+			case LE:
+				rowLower[i] = (ranges[i] > 0 ? rhs[i] - ranges[i] : Double.NEGATIVE_INFINITY);
+				rowUpper[i] = rhs[i];
+				break;
+			case GE:
+				rowLower[i] = rhs[i];
+				rowUpper[i] = (ranges[i] > 0 ? rhs[i] + ranges[i] : Double.POSITIVE_INFINITY);
+				break;
+			default: // EQ
+				rowLower[i] = rhs[i];
+				rowUpper[i] = rhs[i];
+			}
+		}
+		return new CsrModel(columnNames, columnTypes, columnLower, columnUpper, objective, optType, rowNames,
+				rowLower, rowUpper, rowStart, columnIndices, values);
+	}
+
+	private static double[] check(String name, double[] array, double[] compiled) {
+		if (array == null) {
+			return compiled;
+		} else if (array.length != compiled.length) {
+			throw new IllegalArgumentException("The size of the " + name + " (" + array.length
+					+ ") does not match the template (" + compiled.length + ").");
+		}
+		// an update compares the new data with the bound data
+		return array.clone();
+	}
+
+	/**
+	 * Loads a model that was bound to this template into a new problem of a
+	 * solver.
+	 * 
+	 * @param solver
+	 *            the solver
+	 * @param identifier
+	 *            the identifier of the problem
+	 * @param data
+	 *            the model
+	 * @return the instance
+	 */
+	public Instance instantiate(Solver solver, String identifier, CsrModel data) {
+		checkBound(data);
+		Problem problem = solver.createProblem(identifier);
+		problem.load(data);
+		return new Instance(this, solver, identifier, problem, data);
+	}
+
+	/**
+	 * Throws an {@code IllegalArgumentException} if a model is not bound to
+	 * this template.
+	 */
+	protected void checkBound(CsrModel data) {
+		if (data.columnNames != columnNames || data.rowNames != rowNames || data.rowStart != rowStart
+				|| data.columnIndices != columnIndices) {
+			throw new IllegalArgumentException("The model is not bound to this template.");
+		}
+	}
+
+	/**
+	 * The {@code Instance} is a problem that was loaded from a template with
+	 * the data it currently holds.
+	 */
+	public static class Instance implements AutoCloseable {
+
+		protected final ModelTemplate template;
+		protected final Solver solver;
+		protected final String identifier;
+		protected Problem problem;
+		protected CsrModel data;
+		protected int rebuilds = 0;
+
+		/**
+		 * Constructs an {@code Instance}.
+		 * 
+		 * @param template
+		 *            the template
+		 * @param solver
+		 *            the solver
+		 * @param identifier
+		 *            the identifier of the problem
+		 * @param problem
+		 *            the problem
+		 * @param data
+		 *            the model that was loaded into the problem
+		 */
+		protected Instance(ModelTemplate template, Solver solver, String identifier, Problem problem, CsrModel data) {
+			super();
+			this.template = template;
+			this.solver = solver;
+			this.identifier = identifier;
+			this.problem = problem;
+			this.data = data;
+		}
+
+		/**
+		 * Returns the problem (which is replaced if an update rebuilds it).
+		 * 
+		 * @return the problem
+		 */
+		public Problem getProblem() {
+			return problem;
+		}
+
+		/**
+		 * Returns the model that the problem currently holds.
+		 * 
+		 * @return the model
+		 */
+		public CsrModel getData() {
+			return data;
+		}
+
+		/**
+		 * Returns the number of updates that rebuilt the problem.
+		 * 
+		 * @return the number of rebuilds
+		 */
+		public int getRebuildsCount() {
+			return rebuilds;
+		}
+
+		/**
+		 * Updates the problem to a model that was bound to the same template.
+		 * Only the changed values are pushed into the native model if the
+		 * backend supports it; otherwise, the problem is closed and rebuilt.
+		 * 
+		 * @param data
+		 *            the model
+		 * @return {@code true} if the problem was updated in place
+		 */
+		public boolean update(CsrModel data) {
+			template.checkBound(data);
+			if (problem.update(this.data, data)) {
+				this.data = data;
+				return true;
+			}
+			problem.close();
+			problem = solver.createProblem(identifier);
+			problem.load(data);
+			this.data = data;
+			rebuilds++;
+			return false;
+		}
+
+		/**
+		 * Solves the problem.
+		 * 
+		 * @return the result
+		 */
+		public Result solve() {
+			return solver.solve(problem);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.AutoCloseable#close()
+		 */
+		public void close() {
+			problem.close();
+		}
+	}
+
+}
@@ -0,0 +1,843 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code ModelWriter} writes the model of a {@link Problem} in CPLEX LP
+ * or free MPS format (gzipped if the file name ends with {@code .gz}).
+ * <p>
+ * {@link #submit(Problem, File...)} takes an uncompressed
+ * {@link ModelSnapshot} of the problem on the calling thread and formats,
+ * compresses, and writes the files on a background thread. The queue of
+ * pending dumps is bounded; a dump is dropped (and counted) if the queue is
+ * full. The default writer is used for {@code activateLog} by all backends.
+ * <p>
+ * Piecewise-linear functions are written as comments; ranges are written as
+ * {@code lb <= expr <= ub} in LP files and with RANGES in MPS files.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class ModelWriter {
+
+	protected static ModelWriter defaultWriter = null;
+
+	protected final ThreadPoolExecutor executor;
+	protected final AtomicInteger dropped = new AtomicInteger();
+
+	/**
+	 * Returns the default writer (with up to four pending dumps).
+	 * 
+	 * @return the default writer
+	 */
+	public static synchronized ModelWriter getDefault() {
+		if (defaultWriter == null) {
+			defaultWriter = new ModelWriter(4);
+		}
+		return defaultWriter;
+	}
+
+	/**
+	 * Constructs a {@code ModelWriter} with one background thread.
+	 * 
+	 * @param capacity
+	 *            the maximal number of pending dumps
+	 */
+	public ModelWriter(int capacity) {
+		super();
+		executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+				Math.max(1, capacity)), new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "javailp-model-writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Snapshots the model of a problem and writes it to the files in the
+	 * background. Returns {@code false} if the dump was dropped because the
+	 * queue is full.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param files
+	 *            the files (LP if the name ends with {@code .lp} or
+	 *            {@code .lp.gz}, MPS otherwise)
+	 * @return {@code true} if the dump was queued
+	 */
+	public boolean submit(Problem problem, final File... files) {
+		if (executor.getQueue().remainingCapacity() == 0) {
+			return drop(files);
+		}
+		final String name = problem.getIdentifier();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		try {
+			ModelSnapshot.write(problem, new DataOutputStream(bytes));
+		} catch (IOException e) {
+			System.err.println("cannot dump model '" + name + "': " + e.getMessage());
+			return false;
+		}
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						Model model = new Model();
+						ModelSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), model,
+								"The dump of " + name);
+						for (File file : files) {
+							write(model, name, file);
+						}
+					} catch (IOException e) {
+						System.err.println("cannot dump model '" + name + "': " + e.getMessage());
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return drop(files);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of dropped dumps.
+	 * 
+	 * @return the number of dropped dumps
+	 */
+	public int getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Waits until all pending dumps are written and stops the background
+	 * thread.
+	 * 
+	 * @throws InterruptedException
+	 */
+	public void close() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	private boolean drop(File... files) {
+		dropped.incrementAndGet();
+		System.err.println("cannot dump model to " + files[0] + ": the queue of the model writer is full");
+		return false;
+	}
+
+	/**
+	 * Writes the model of a problem to a file on the calling thread.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param file
+	 *            the file (LP if the name ends with {@code .lp} or
+	 *            {@code .lp.gz}, MPS otherwise)
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Problem problem, File file) throws IOException {
+		Model model = new Model();
+		problem.export(model);
+		write(model, problem.getIdentifier(), file);
+	}
+
+	/**
+	 * Writes a model to a file.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param name
+	 *            the name of the model
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	protected static void write(Model model, String name, File file) throws IOException {
+		String fileName = file.getName().toLowerCase();
+		boolean gzip = fileName.endsWith(".gz");
+		OutputStream stream = new FileOutputStream(file);
+		if (gzip) {
+			stream = new GZIPOutputStream(stream, 1 << 16);
+			fileName = fileName.substring(0, fileName.length() - 3);
+		}
+		Writer out = new BufferedWriter(new OutputStreamWriter(stream, "ISO-8859-1"), 1 << 16);
+		try {
+			if (fileName.endsWith(".lp")) {
+				writeLp(model, name, out);
+			} else {
+				writeMps(model, name, out);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes a model in CPLEX LP format.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param name
+	 *            the name of the model
+	 * @param out
+	 *            the writer
+	 * @throws IOException
+	 */
+	protected static void writeLp(Model model, String name, Writer out) throws IOException {
+		out.write("\\ Problem: " + name + "\n");
+		for (Map.Entry<String, PiecewiseLinear> entry : model.functions.entrySet()) {
+			out.write("\\ Piecewise-linear " + entry.getKey() + ": " + entry.getValue() + "\n");
+		}
+
+		out.write(model.optType == OptType.MAX ? "Maximize\n" : "Minimize\n");
+		StringBuilder line = new StringBuilder(" obj:");
+		int terms = 0;
+		for (Variable variable : model.variables.values()) {
+			double coefficient = model.getObjectiveCoefficient(variable);
+			if (coefficient != 0) {
+				terms = appendTerm(out, line, coefficient, variable.name, terms);
+			}
+		}
+		out.write(line.append('\n').toString());
+
+		out.write("Subject To\n");
+		for (Row row : model.rows.values()) {
+			if (Double.isInfinite(row.lb) && Double.isInfinite(row.ub)) {
+				continue;
+			} else if (row.lhs.size() == 0 && model.variables.isEmpty()) {
+				// without variables, an empty row has no term to be written with
+				if (row.lb > 0 || row.ub < 0) {
+					throw new IOException("The empty constraint " + row.name
+							+ " is infeasible and cannot be written without variables.");
+				}
+				out.write("\\ " + row.name + ": empty\n");
+				continue;
+			}
+			line.setLength(0);
+			line.append(' ').append(row.name).append(':');
+			if (row.indicator != null) {
+				line.append(' ').append(row.indicator).append(" = ").append(row.value).append(" ->");
+			} else if (!Double.isInfinite(row.lb) && !Double.isInfinite(row.ub) && row.lb != row.ub) {
+				line.append(' ').append(format(row.lb)).append(" <=");
+			}
+			terms = 0;
+			for (int k = 0; k < row.lhs.size(); k++) {
+				Term term = row.lhs.get(k);
+				terms = appendTerm(out, line, term.getCoefficient().doubleValue(), term.getVariableName(), terms);
+			}
+			if (row.lhs.size() == 0) {
+				line.append(" 0 ").append(model.variables.keySet().iterator().next());
+			}
+			if (row.lb == row.ub) {
+				line.append(" = ").append(format(row.lb));
+			} else if (Double.isInfinite(row.lb)) {
+				line.append(" <= ").append(format(row.ub));
+			} else if (Double.isInfinite(row.ub)) {
+				line.append(" >= ").append(format(row.lb));
+			} else {
+				line.append(" <= ").append(format(row.ub));
+			}
+			out.write(line.append('\n').toString());
+		}
+
+		out.write("Bounds\n");
+		for (Variable variable : model.variables.values()) {
+			double lb = variable.lb;
+			double ub = variable.ub;
+			if (variable.type == VarType.BOOL) {
+				// binary variables are within [0, 1] (e.g., without bounds in an export)
+				lb = Math.max(lb, 0);
+				ub = Math.min(ub, 1);
+			}
+			if (variable.type == VarType.BOOL && lb == 0 && ub == 1) {
+				continue;
+			} else if (lb == ub) {
+				out.write(" " + variable.name + " = " + format(lb) + "\n");
+			} else if (Double.isInfinite(lb) && Double.isInfinite(ub)) {
+				out.write(" " + variable.name + " free\n");
+			} else if (Double.isInfinite(ub)) {
+				if (lb != 0) {
+					out.write(" " + variable.name + " >= " + format(lb) + "\n");
+				}
+			} else {
+				out.write(" " + format(lb) + " <= " + variable.name + " <= " + format(ub) + "\n");
+			}
+		}
+		writeLpSection(out, model, "Generals", VarType.INT, VarType.SEMIINT);
+		writeLpSection(out, model, "Binaries", VarType.BOOL, VarType.BOOL);
+		writeLpSection(out, model, "Semi-continuous", VarType.SEMICONT, VarType.SEMIINT);
+
+		if (!model.sets.isEmpty()) {
+			out.write("SOS\n");
+			for (Sos sos : model.sets) {
+				line.setLength(0);
+				line.append(' ').append(sos.name).append(": ").append(sos.type == SOSType.SOS1 ? "S1::" : "S2::");
+				for (int k = 0; k < sos.weights.size(); k++) {
+					Term term = sos.weights.get(k);
+					line.append(' ').append(term.getVariableName()).append(':')
+							.append(format(term.getCoefficient().doubleValue()));
+				}
+				out.write(line.append('\n').toString());
+			}
+		}
+		out.write("End\n");
+	}
+
+	private static void writeLpSection(Writer out, Model model, String section, VarType type1, VarType type2)
+			throws IOException {
+		boolean empty = true;
+		for (Variable variable : model.variables.values()) {
+			if (variable.type == type1 || variable.type == type2) {
+				if (empty) {
+					out.write(section + "\n");
+					empty = false;
+				}
+				out.write(" " + variable.name + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Appends a term to the line (and writes the line after every eighth
+	 * term) and returns the number of terms.
+	 */
+	private static int appendTerm(Writer out, StringBuilder line, double coefficient, String variable, int terms)
+			throws IOException {
+		if (terms > 0 && terms % 8 == 0) {
+			out.write(line.append('\n').toString());
+			line.setLength(0);
+			line.append("   ");
+		}
+		line.append(coefficient < 0 ? " - " : (terms > 0 ? " + " : " "));
+		if (Math.abs(coefficient) != 1) {
+			line.append(format(Math.abs(coefficient))).append(' ');
+		}
+		line.append(variable);
+		return terms + 1;
+	}
+
+	/**
+	 * Writes a model in free MPS format. Indicator constraints are written
+	 * to the INDICATORS section.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param name
+	 *            the name of the model
+	 * @param out
+	 *            the writer
+	 * @throws IOException
+	 */
+	protected static void writeMps(Model model, String name, Writer out) throws IOException {
+		out.write("NAME " + name + "\n");
+		for (Map.Entry<String, PiecewiseLinear> entry : model.functions.entrySet()) {
+			out.write("* Piecewise-linear " + entry.getKey() + ": " + entry.getValue() + "\n");
+		}
+		if (model.optType == OptType.MAX) {
+			out.write("OBJSENSE\n    MAX\n");
+		}
+
+		// rows and the transposed coefficients
+		Map<String, Integer> indices = new LinkedHashMap<String, Integer>();
+		for (String variable : model.variables.keySet()) {
+			indices.put(variable, indices.size());
+		}
+		List<ModelReader.IntArray> columnRows = new ArrayList<ModelReader.IntArray>();
+		List<ModelReader.DoubleArray> columnValues = new ArrayList<ModelReader.DoubleArray>();
+		for (int j = 0; j < indices.size(); j++) {
+			columnRows.add(new ModelReader.IntArray());
+			columnValues.add(new ModelReader.DoubleArray());
+		}
+		List<Row> rows = new ArrayList<Row>();
+		out.write("ROWS\n N  obj\n");
+		for (Row row : model.rows.values()) {
+			if (Double.isInfinite(row.lb) && Double.isInfinite(row.ub)) {
+				continue;
+			}
+			char type = (row.lb == row.ub ? 'E' : (Double.isInfinite(row.lb) ? 'L' : 'G'));
+			out.write(" " + type + "  " + row.name + "\n");
+			for (int k = 0; k < row.lhs.size(); k++) {
+				Term term = row.lhs.get(k);
+				int j = indices.get(term.getVariableName());
+				columnRows.get(j).add(rows.size());
+				columnValues.get(j).add(term.getCoefficient().doubleValue());
+			}
+			rows.add(row);
+		}
+
+		out.write("COLUMNS\n");
+		boolean integer = false;
+		int markers = 0;
+		for (Variable variable : model.variables.values()) {
+			int j = indices.get(variable.name);
+			if (variable.type.isInt() != integer) {
+				integer = variable.type.isInt();
+				out.write("    MARKER" + markers++ + " 'MARKER' " + (integer ? "'INTORG'\n" : "'INTEND'\n"));
+			}
+			double coefficient = model.getObjectiveCoefficient(variable);
+			ModelReader.IntArray entries = columnRows.get(j);
+			if (coefficient != 0 || entries.size() == 0) {
+				out.write("    " + variable.name + " obj " + format(coefficient) + "\n");
+			}
+			for (int k = 0; k < entries.size(); k++) {
+				out.write("    " + variable.name + " " + rows.get(entries.get(k)).name + " "
+						+ format(columnValues.get(j).get(k)) + "\n");
+			}
+		}
+		if (integer) {
+			out.write("    MARKER" + markers + " 'MARKER' 'INTEND'\n");
+		}
+
+		out.write("RHS\n");
+		for (Row row : rows) {
+			double rhs = (Double.isInfinite(row.lb) ? row.ub : row.lb);
+			if (rhs != 0) {
+				out.write("    RHS " + row.name + " " + format(rhs) + "\n");
+			}
+		}
+		boolean ranges = false;
+		for (Row row : rows) {
+			if (!Double.isInfinite(row.lb) && !Double.isInfinite(row.ub) && row.lb != row.ub) {
+				if (!ranges) {
+					out.write("RANGES\n");
+					ranges = true;
+				}
+				out.write("    RNG " + row.name + " " + format(row.ub - row.lb) + "\n");
+			}
+		}
+
+		out.write("BOUNDS\n");
+		for (Variable variable : model.variables.values()) {
+			String bound = " BND " + variable.name;
+			double lb = variable.lb;
+			double ub = variable.ub;
+			if (variable.type == VarType.BOOL) {
+				// binary variables are within [0, 1] (e.g., without bounds in an export)
+				out.write(" BV" + bound + "\n");
+				lb = Math.max(lb, 0);
+				ub = Math.min(ub, 1);
+				if (lb == ub) {
+					out.write(" FX" + bound + " " + format(lb) + "\n");
+				} else {
+					if (lb > 0) {
+						out.write(" LO" + bound + " " + format(lb) + "\n");
+					}
+					if (ub < 1) {
+						out.write(" UP" + bound + " " + format(ub) + "\n");
+					}
+				}
+			} else if (variable.type.isSemiContinuous()) {
+				out.write(" SC" + bound + (Double.isInfinite(ub) ? "" : " " + format(ub)) + "\n");
+				if (lb != 0) {
+					out.write(" LO" + bound + " " + format(lb) + "\n");
+				}
+			} else if (lb == ub) {
+				out.write(" FX" + bound + " " + format(lb) + "\n");
+			} else if (Double.isInfinite(lb) && Double.isInfinite(ub)) {
+				out.write(" FR" + bound + "\n");
+			} else {
+				// the upper bound first: a negative UP implies MI
+				if (!Double.isInfinite(ub)) {
+					out.write(" UP" + bound + " " + format(ub) + "\n");
+				} else if (variable.type.isInt()) {
+					out.write(" PL" + bound + "\n");
+				}
+				if (Double.isInfinite(lb)) {
+					out.write(" MI" + bound + "\n");
+				} else if (lb != 0 || ub < 0) {
+					out.write(" LO" + bound + " " + format(lb) + "\n");
+				}
+			}
+		}
+
+		if (!model.sets.isEmpty()) {
+			out.write("SOS\n");
+			for (Sos sos : model.sets) {
+				out.write(" " + (sos.type == SOSType.SOS1 ? "S1" : "S2") + " SOS " + sos.name + "\n");
+				for (int k = 0; k < sos.weights.size(); k++) {
+					Term term = sos.weights.get(k);
+					out.write("    " + term.getVariableName() + " "
+							+ format(term.getCoefficient().doubleValue()) + "\n");
+				}
+			}
+		}
+		boolean indicators = false;
+		for (Row row : rows) {
+			if (row.indicator != null) {
+				if (!indicators) {
+					out.write("INDICATORS\n");
+					indicators = true;
+				}
+				out.write(" IF " + row.name + " " + row.indicator + " " + row.value + "\n");
+			}
+		}
+		out.write("ENDATA\n");
+	}
+
+	/**
+	 * Formats a number (integers without decimal places).
+	 */
+	protected static String format(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		} else if (Double.isInfinite(value)) {
+			return (value > 0 ? "inf" : "-inf");
+		}
+		return Double.toString(value);
+	}
+
+	/**
+	 * The {@code Model} is the {@code ProblemInterface} that collects a
+	 * model for writing.
+	 */
+	protected static class Model implements ProblemInterface {
+
+		protected final Map<String, Variable> variables = new LinkedHashMap<String, Variable>();
+		protected final Map<String, Row> rows = new LinkedHashMap<String, Row>();
+		protected final List<Sos> sets = new ArrayList<Sos>();
+		protected final Map<String, PiecewiseLinear> functions = new LinkedHashMap<String, PiecewiseLinear>();
+		protected Linear objective = null;
+		protected OptType optType = null;
+		protected Map<String, Double> objectiveCoefficients = null;
+
+		protected double getObjectiveCoefficient(Variable variable) {
+			if (objectiveCoefficients == null) {
+				objectiveCoefficients = new LinkedHashMap<String, Double>();
+				if (objective != null) {
+					for (int k = 0; k < objective.size(); k++) {
+						Term term = objective.get(k);
+						Double value = objectiveCoefficients.get(term.getVariableName());
+						objectiveCoefficients.put(term.getVariableName(), (value == null ? 0 : value)
+								+ term.getCoefficient().doubleValue());
+					}
+				}
+			}
+			Double value = objectiveCoefficients.get(variable.name);
+			return variable.objective + (value == null ? 0 : value);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear, net.sf.javailp.OptType)
+		 */
+		public void setObjective(Linear objective, OptType optType) {
+			this.objective = objective;
+			this.optType = optType;
+			this.objectiveCoefficients = null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setStartingSolution(java.util.Map)
+		 */
+		public void setStartingSolution(Map<String, Number> startingSolution) {
+			// not part of a dump
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#getConstraintsCount()
+		 */
+		public int getConstraintsCount() {
+			return rows.size();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#getVariablesCount()
+		 */
+		public int getVariablesCount() {
+			return variables.size();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+		 */
+		public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+			double value = rhs.doubleValue();
+			addRow(name, lhs, (operator == Operator.LE ? Double.NEGATIVE_INFINITY : value),
+					(operator == Operator.GE ? Double.POSITIVE_INFINITY : value));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, java.lang.Number, net.sf.javailp.Linear, java.lang.Number)
+		 */
+		public void addConstraint(String name, Number lb, Linear lhs, Number ub) {
+			addRow(name, lhs, (lb == null ? Double.NEGATIVE_INFINITY : lb.doubleValue()),
+					(ub == null ? Double.POSITIVE_INFINITY : ub.doubleValue()));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String, net.sf.javailp.SOSType, net.sf.javailp.Linear)
+		 */
+		public void addSOS(String name, SOSType type, Linear weights) {
+			Sos sos = new Sos();
+			sos.name = name;
+			sos.type = type;
+			sos.weights = weights;
+			sets.add(sos);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String, java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+		 */
+		public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+				Number rhs) {
+			addConstraint(name, lhs, operator, rhs);
+			Row row = rows.get(name);
+			row.indicator = indicator;
+			row.value = value;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String, net.sf.javailp.PiecewiseLinear)
+		 */
+		public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+			functions.put(name, function);
+			addVariable(name, VarType.REAL, null, null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
+		 */
+		public void addVariable(String name, VarType type, Number lb, Number ub) {
+			Variable variable = new Variable();
+			variable.name = name;
+			variable.type = type;
+			variables.put(name, variable);
+			setVariableLowerBound(name, lb);
+			setVariableUpperBound(name, ub);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, net.sf.javailp.Column)
+		 */
+		public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+			addVariable(name, type, lb, ub);
+			variables.get(name).objective = column.getObjectiveCoefficient().doubleValue();
+			for (int i = 0; i < column.size(); i++) {
+				Row row = rows.get(column.getConstraintName(i));
+				if (row != null) {
+					row.lhs.add(column.getCoefficient(i), name);
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType)
+		 */
+		public void addVariable(String name, VarType type) {
+			addVariable(name, type, null, null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String, java.lang.Number)
+		 */
+		public void setVariableLowerBound(String name, Number lb) {
+			Variable variable = variables.get(name);
+			if (variable == null) {
+				throw new IllegalArgumentException("The variable " + name + " is not part of the model.");
+			}
+			if (lb != null) {
+				variable.lb = lb.doubleValue();
+			} else {
+				variable.lb = (variable.type.isSemiContinuous() ? 0 : Double.NEGATIVE_INFINITY);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String, java.lang.Number)
+		 */
+		public void setVariableUpperBound(String name, Number ub) {
+			Variable variable = variables.get(name);
+			if (variable == null) {
+				throw new IllegalArgumentException("The variable " + name + " is not part of the model.");
+			}
+			variable.ub = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
+		}
+
+		/**
+		 * Returns the variables, rows and objective of the model as
+		 * {@link CsrModel} (duplicate coefficients are summed). Special
+		 * ordered sets, indicator constraints and piecewise-linear functions
+		 * are not part of it.
+		 * 
+		 * @return the model
+		 */
+		protected CsrModel toCsrModel() {
+			int n = variables.size();
+			String[] columnNames = new String[n];
+			VarType[] columnTypes = new VarType[n];
+			double[] columnLower = new double[n];
+			double[] columnUpper = new double[n];
+			double[] costs = new double[n];
+			Map<String, Integer> indices = new LinkedHashMap<String, Integer>();
+			for (Variable variable : variables.values()) {
+				int j = indices.size();
+				indices.put(variable.name, j);
+				columnNames[j] = variable.name;
+				columnTypes[j] = variable.type;
+				columnLower[j] = variable.lb;
+				columnUpper[j] = variable.ub;
+				costs[j] = getObjectiveCoefficient(variable);
+			}
+
+			int m = rows.size();
+			String[] rowNames = new String[m];
+			double[] rowLower = new double[m];
+			double[] rowUpper = new double[m];
+			int[] rowStart = new int[m + 1];
+			ModelReader.IntArray columnIndices = new ModelReader.IntArray();
+			ModelReader.DoubleArray values = new ModelReader.DoubleArray();
+			int[] position = new int[n];
+			int i = 0;
+			for (Row row : rows.values()) {
+				rowNames[i] = row.name;
+				rowLower[i] = row.lb;
+				rowUpper[i] = row.ub;
+				for (int k = 0; k < row.lhs.size(); k++) {
+					Term term = row.lhs.get(k);
+					Integer j = indices.get(term.getVariableName());
+					if (j == null) {
+						throw new IllegalArgumentException("The variable " + term.getVariableName()
+								+ " is not part of the model (in constraint: " + row.name + ").");
+					}
+					double value = term.getCoefficient().doubleValue();
+					int p = position[j];
+					if (p >= rowStart[i] && p < columnIndices.size() && columnIndices.get(p) == j) {
+						values.set(p, values.get(p) + value);
+					} else {
+						position[j] = columnIndices.size();
+						columnIndices.add(j);
+						values.add(value);
+					}
+				}
+				rowStart[++i] = columnIndices.size();
+			}
+			return new CsrModel(columnNames, columnTypes, columnLower, columnUpper, costs, optType, rowNames,
+					rowLower, rowUpper, rowStart, columnIndices.toArray(), values.toArray());
+		}
+
+		/**
+		 * Returns {@code true} if the model has special ordered sets,
+		 * indicator constraints or piecewise-linear functions.
+		 * 
+		 * @return {@code true} if the model has general constraints
+		 */
+		protected boolean hasGeneralConstraints() {
+			if (!sets.isEmpty() || !functions.isEmpty()) {
+				return true;
+			}
+			for (Row row : rows.values()) {
+				if (row.indicator != null) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void addRow(String name, Linear lhs, double lb, double ub) {
+			Row row = new Row();
+			row.name = name;
+			row.lhs = new Linear(lhs);
+			row.lb = lb;
+			row.ub = ub;
+			rows.put(name, row);
+		}
+	}
+
+	/**
+	 * A variable of a {@link Model}.
+	 */
+	protected static class Variable {
+		protected String name;
+		protected VarType type;
+		protected double lb;
+		protected double ub;
+		protected double objective = 0;
+	}
+
+	/**
+	 * A row of a {@link Model}.
+	 */
+	protected static class Row {
+		protected String name;
+		protected Linear lhs;
+		protected double lb;
+		protected double ub;
+		protected String indicator = null;
+		protected int value;
+	}
+
+	/**
+	 * A special ordered set of a {@link Model}.
+	 */
+	protected static class Sos {
+		protected String name;
+		protected SOSType type;
+		protected Linear weights;
+	}
+
+}
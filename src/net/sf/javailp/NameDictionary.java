@@ -0,0 +1,680 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The {@code NameDictionary} assigns consecutive ids to names. The names are
+ * kept as UTF-8 bytes in one arena with an open-addressing index of ids,
+ * i.e., without a {@code String} or map entry per name. Names are only
+ * appended, thus, the id of a name never changes and a frozen view of the
+ * current names ({@link #freeze()}) can be shared between a problem and its
+ * results ({@link Values}) without copying.
+ * <p>
+ * A dictionary is not thread-safe; names must not be added while another
+ * thread looks names up in the same dictionary. A frozen view may be read
+ * while names are added to the dictionary it was taken from.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class NameDictionary {
+
+	protected static final Charset UTF8 = Charset.forName("UTF-8");
+
+	protected byte[] arena;
+	protected int arenaSize = 0;
+	protected int[] offsets;
+	protected int[] hashes;
+	protected int[] table;
+	protected int size = 0;
+	protected final boolean frozen;
+
+	/**
+	 * Constructs an empty {@code NameDictionary}.
+	 */
+	public NameDictionary() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty {@code NameDictionary} for the expected number of
+	 * names.
+	 * 
+	 * @param capacity
+	 *            the expected number of names
+	 */
+	public NameDictionary(int capacity) {
+		super();
+		capacity = Math.max(16, capacity);
+		arena = new byte[16 * capacity];
+		offsets = new int[capacity + 1];
+		hashes = new int[capacity];
+		int length = 32;
+		while (length < 2 * capacity) {
+			length <<= 1;
+		}
+		table = new int[length];
+		frozen = false;
+	}
+
+	/**
+	 * Constructs a frozen view of the current names of a dictionary.
+	 */
+	private NameDictionary(NameDictionary dictionary) {
+		super();
+		arena = dictionary.arena;
+		arenaSize = dictionary.arenaSize;
+		offsets = dictionary.offsets;
+		hashes = dictionary.hashes;
+		table = dictionary.table;
+		size = dictionary.size;
+		frozen = true;
+	}
+
+	/**
+	 * Returns an immutable view of the current names that shares the
+	 * storage of this dictionary. Names added to this dictionary later are
+	 * not in the view: they are only appended behind the names of the view
+	 * (and a growing array is replaced, not modified).
+	 * 
+	 * @return the frozen view
+	 */
+	public NameDictionary freeze() {
+		return (frozen ? this : new NameDictionary(this));
+	}
+
+	/**
+	 * Returns {@code true} if this is a frozen view.
+	 * 
+	 * @return {@code true} if this is a frozen view
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Returns the number of names.
+	 * 
+	 * @return the number of names
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a name (if not yet added) and returns its id.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return the id
+	 */
+	public int add(String name) {
+		if (frozen) {
+			throw new UnsupportedOperationException("A frozen dictionary cannot be modified.");
+		}
+		int hash = name.hashCode();
+		int mask = table.length - 1;
+		int i = mix(hash) & mask;
+		for (; table[i] != 0; i = (i + 1) & mask) {
+			int id = table[i] - 1;
+			if (hashes[id] == hash && equals(id, name)) {
+				return id;
+			}
+		}
+
+		int id = size;
+		if (id == hashes.length) {
+			hashes = Arrays.copyOf(hashes, 2 * id);
+			offsets = Arrays.copyOf(offsets, 2 * id + 1);
+		}
+		append(name);
+		hashes[id] = hash;
+		offsets[id + 1] = arenaSize;
+		size++;
+		table[i] = id + 1;
+		if (2 * size > table.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of a name or -1 if the name is not in the dictionary.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return the id or -1
+	 */
+	public int indexOf(String name) {
+		int hash = name.hashCode();
+		int mask = table.length - 1;
+		for (int i = mix(hash) & mask; table[i] != 0; i = (i + 1) & mask) {
+			int id = table[i] - 1;
+			// a frozen view skips the names added after it was taken
+			if (id < size && hashes[id] == hash && equals(id, name)) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns {@code true} if the name is in the dictionary.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return {@code true} if the name is in the dictionary
+	 */
+	public boolean contains(String name) {
+		return indexOf(name) >= 0;
+	}
+
+	/**
+	 * Returns the name of an id (as a new {@code String}).
+	 * 
+	 * @param id
+	 *            the id
+	 * @return the name
+	 */
+	public String get(int id) {
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("id: " + id + ", size: " + size);
+		}
+		return new String(arena, offsets[id], offsets[id + 1] - offsets[id], UTF8);
+	}
+
+	/**
+	 * Returns the (approximate) number of bytes of the dictionary.
+	 * 
+	 * @return the number of bytes
+	 */
+	public long getMemoryUsage() {
+		return arena.length + 4L * (offsets.length + hashes.length + table.length);
+	}
+
+	private void append(String name) {
+		int length = name.length();
+		ensureArena(length);
+		for (int k = 0; k < length; k++) {
+			char c = name.charAt(k);
+			if (c >= 0x80) {
+				byte[] bytes = name.getBytes(UTF8);
+				ensureArena(bytes.length);
+				System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+				arenaSize += bytes.length;
+				return;
+			}
+			arena[arenaSize + k] = (byte) c;
+		}
+		arenaSize += length;
+	}
+
+	private void ensureArena(int length) {
+		if ((long) arenaSize + length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("The names exceed the capacity of the dictionary.");
+		}
+		if (arenaSize + length > arena.length) {
+			long capacity = Math.max(2L * arena.length, (long) arenaSize + length);
+			arena = Arrays.copyOf(arena, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+		}
+	}
+
+	private boolean equals(int id, String name) {
+		int from = offsets[id];
+		int to = offsets[id + 1];
+		int length = name.length();
+		if (to - from < length) {
+			return false;
+		}
+		for (int k = 0; k < length; k++) {
+			char c = name.charAt(k);
+			if (c >= 0x80) {
+				return Arrays.equals(Arrays.copyOfRange(arena, from, to), name.getBytes(UTF8));
+			} else if (arena[from + k] != (byte) c) {
+				return false;
+			}
+		}
+		return to - from == length;
+	}
+
+	private void rehash() {
+		table = new int[2 * table.length];
+		int mask = table.length - 1;
+		for (int id = 0; id < size; id++) {
+			int i = mix(hashes[id]) & mask;
+			while (table[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			table[i] = id + 1;
+		}
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * The {@code Values} map the names of one or more dictionaries (e.g., the
+	 * variables and the constraints of a problem) to numbers that are kept in
+	 * arrays indexed by id. Names that are not in the dictionaries (or added
+	 * after the construction of the map) and numbers other than
+	 * {@code Integer} and {@code Double} are kept in a regular map. If a name
+	 * is in several dictionaries, the last dictionary takes precedence.
+	 * <p>
+	 * The map keeps frozen views of the dictionaries ({@link #freeze()}),
+	 * i.e., it neither sees nor blocks names that are added later. It may
+	 * cover more ids than a dictionary has names yet (names that are
+	 * generated lazily); these names are requested from a
+	 * {@link NameSupplier} when a name is not found among the current names
+	 * (or on iteration) and kept by the map itself.
+	 */
+	public static class Values extends AbstractMap<String, Number> {
+
+		protected static final byte ABSENT = 0;
+		protected static final byte DOUBLE = 1;
+		protected static final byte INTEGER = 2;
+
+		protected final NameDictionary[] dictionaries;
+		protected final NameSupplier[] suppliers;
+		protected final NameDictionary[] tails;
+		protected final int[] starts;
+		protected final double[] values;
+		protected final byte[] states;
+		protected int count = 0;
+		protected Map<String, Number> others = null;
+		protected Map<VariableArray, Integer> arrays = null;
+
+		/**
+		 * Constructs {@code Values} over the current names of the
+		 * dictionaries.
+		 * 
+		 * @param dictionaries
+		 *            the dictionaries
+		 */
+		public Values(NameDictionary... dictionaries) {
+			this(dictionaries, sizes(dictionaries), null);
+		}
+
+		/**
+		 * Constructs {@code Values} over the given number of ids of the
+		 * dictionaries. The names of the ids beyond the current names of a
+		 * dictionary are requested from its supplier (by id).
+		 * 
+		 * @param dictionaries
+		 *            the dictionaries
+		 * @param sizes
+		 *            the number of ids per dictionary
+		 * @param suppliers
+		 *            the suppliers of the missing names per dictionary (or
+		 *            {@code null})
+		 */
+		public Values(NameDictionary[] dictionaries, int[] sizes, NameSupplier[] suppliers) {
+			super();
+			this.dictionaries = new NameDictionary[dictionaries.length];
+			this.suppliers = (suppliers != null ? suppliers.clone() : new NameSupplier[dictionaries.length]);
+			this.tails = new NameDictionary[dictionaries.length];
+			this.starts = new int[dictionaries.length + 1];
+			for (int d = 0; d < dictionaries.length; d++) {
+				this.dictionaries[d] = dictionaries[d].freeze();
+				starts[d + 1] = starts[d] + sizes[d];
+			}
+			this.values = new double[starts[dictionaries.length]];
+			this.states = new byte[values.length];
+		}
+
+		private static int[] sizes(NameDictionary[] dictionaries) {
+			int[] sizes = new int[dictionaries.length];
+			for (int d = 0; d < dictionaries.length; d++) {
+				sizes[d] = dictionaries[d].size();
+			}
+			return sizes;
+		}
+
+		/**
+		 * Returns the names of the ids of a dictionary that are not in the
+		 * dictionary; they are requested from the supplier on the first call,
+		 * i.e., only if a name is not found among the current names.
+		 */
+		private NameDictionary tail(int dictionary) {
+			synchronized (tails) {
+				if (tails[dictionary] == null) {
+					int first = dictionaries[dictionary].size();
+					int last = starts[dictionary + 1] - starts[dictionary];
+					NameDictionary tail = new NameDictionary(Math.max(0, last - first));
+					for (int id = first; id < last && suppliers[dictionary] != null; id++) {
+						String name = suppliers[dictionary].getName(id);
+						if (dictionaries[dictionary].contains(name) || tail.add(name) != id - first) {
+							throw new IllegalArgumentException("The name " + name + " is not unique.");
+						}
+					}
+					tails[dictionary] = tail.freeze();
+				}
+				return tails[dictionary];
+			}
+		}
+
+		/**
+		 * Returns the id of a name in a dictionary (including the names of
+		 * the supplier) or -1.
+		 */
+		private int indexOf(int dictionary, String name) {
+			NameDictionary names = dictionaries[dictionary];
+			int id = names.indexOf(name);
+			if (id < 0 && names.size() < starts[dictionary + 1] - starts[dictionary]) {
+				id = tail(dictionary).indexOf(name);
+				if (id >= 0) {
+					id += names.size();
+				}
+			}
+			return id;
+		}
+
+		/**
+		 * Returns the name of an id in a dictionary.
+		 */
+		private String name(int dictionary, int id) {
+			NameDictionary names = dictionaries[dictionary];
+			return (id < names.size() ? names.get(id) : tail(dictionary).get(id - names.size()));
+		}
+
+		/**
+		 * Sets the value of a name by its id.
+		 * 
+		 * @param dictionary
+		 *            the index of the dictionary
+		 * @param id
+		 *            the id of the name
+		 * @param value
+		 *            the value
+		 */
+		public void set(int dictionary, int id, double value) {
+			set(dictionary, id, value, DOUBLE);
+		}
+
+		/**
+		 * Sets the integer value of a name by its id.
+		 * 
+		 * @param dictionary
+		 *            the index of the dictionary
+		 * @param id
+		 *            the id of the name
+		 * @param value
+		 *            the value
+		 */
+		public void set(int dictionary, int id, int value) {
+			set(dictionary, id, value, INTEGER);
+		}
+
+		private void set(int dictionary, int id, double value, byte state) {
+			int slot = starts[dictionary] + id;
+			if (id < 0 || slot >= starts[dictionary + 1]) {
+				throw new IndexOutOfBoundsException("id: " + id + ", size: " + (starts[dictionary + 1] - starts[dictionary]));
+			}
+			if (states[slot] == ABSENT) {
+				count++;
+			}
+			values[slot] = value;
+			states[slot] = state;
+		}
+
+		/**
+		 * Registers the elements of a variable array, i.e., their ids in a
+		 * dictionary in the order of their offsets, for the lookup by offset
+		 * ({@link #get(VariableArray, int)}).
+		 * 
+		 * @param array
+		 *            the variable array
+		 * @param dictionary
+		 *            the index of the dictionary
+		 * @param first
+		 *            the id of the first element
+		 */
+		public void putArray(VariableArray array, int dictionary, int first) {
+			if (first < 0 || starts[dictionary] + first + array.size() > starts[dictionary + 1]) {
+				throw new IndexOutOfBoundsException("first: " + first + ", size: "
+						+ (starts[dictionary + 1] - starts[dictionary]));
+			}
+			if (arrays == null) {
+				arrays = new IdentityHashMap<VariableArray, Integer>();
+			}
+			arrays.put(array, starts[dictionary] + first);
+		}
+
+		/**
+		 * Returns the value of an element of a variable array. The value of a
+		 * registered array is looked up by the offset, i.e., without the name
+		 * of the element.
+		 * 
+		 * @param array
+		 *            the variable array
+		 * @param offset
+		 *            the offset of the element
+		 * @return the value or {@code null}
+		 */
+		public Number get(VariableArray array, int offset) {
+			Integer start = (arrays != null ? arrays.get(array) : null);
+			if (start == null) {
+				return get(array.getName(offset));
+			}
+			array.checkOffset(offset);
+			int slot = start + offset;
+			return (states[slot] != ABSENT ? value(slot) : null);
+		}
+
+		/**
+		 * Returns the slot of a name or -1.
+		 */
+		protected int slot(Object key) {
+			if (!(key instanceof String)) {
+				return -1;
+			}
+			for (int d = dictionaries.length - 1; d >= 0; d--) {
+				int id = indexOf(d, (String) key);
+				if (id >= 0 && starts[d] + id < starts[d + 1]) {
+					return starts[d] + id;
+				}
+			}
+			return -1;
+		}
+
+		private Number value(int slot) {
+			return (states[slot] == INTEGER ? (Number) (int) values[slot] : (Number) values[slot]);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#get(java.lang.Object)
+		 */
+		@Override
+		public Number get(Object key) {
+			int slot = slot(key);
+			if (slot >= 0 && states[slot] != ABSENT) {
+				return value(slot);
+			}
+			return (others != null ? others.get(key) : null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+		 */
+		@Override
+		public boolean containsKey(Object key) {
+			int slot = slot(key);
+			if (slot >= 0 && states[slot] != ABSENT) {
+				return true;
+			}
+			return (others != null && others.containsKey(key));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+		 */
+		@Override
+		public Number put(String key, Number value) {
+			Number previous = remove(key);
+			int slot = slot(key);
+			if (slot >= 0 && (value instanceof Integer || value instanceof Double)) {
+				values[slot] = value.doubleValue();
+				states[slot] = (value instanceof Integer ? INTEGER : DOUBLE);
+				count++;
+			} else {
+				if (others == null) {
+					others = new LinkedHashMap<String, Number>();
+				}
+				others.put(key, value);
+			}
+			return previous;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#remove(java.lang.Object)
+		 */
+		@Override
+		public Number remove(Object key) {
+			int slot = slot(key);
+			if (slot >= 0 && states[slot] != ABSENT) {
+				Number previous = value(slot);
+				states[slot] = ABSENT;
+				count--;
+				return previous;
+			}
+			return (others != null ? others.remove(key) : null);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#size()
+		 */
+		@Override
+		public int size() {
+			if (dictionaries.length > 1) {
+				// names in several dictionaries are only counted once
+				int size = 0;
+				for (Iterator<Map.Entry<String, Number>> iterator = new EntryIterator(); iterator.hasNext(); iterator.next()) {
+					size++;
+				}
+				return size;
+			}
+			return count + (others != null ? others.size() : 0);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#entrySet()
+		 */
+		@Override
+		public Set<Map.Entry<String, Number>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Number>>() {
+				public int size() {
+					return Values.this.size();
+				}
+
+				public Iterator<Map.Entry<String, Number>> iterator() {
+					return new EntryIterator();
+				}
+			};
+		}
+
+		/**
+		 * Iterates the slots in the order of the dictionaries and ids
+		 * (skipping names that are in a later dictionary), then the other
+		 * names. The names are decoded on demand.
+		 */
+		protected class EntryIterator implements Iterator<Map.Entry<String, Number>> {
+			protected int slot = -1;
+			protected String nextName = null;
+			protected int next = start();
+			protected Iterator<Map.Entry<String, Number>> others = null;
+			protected boolean inOthers = false;
+
+			private int start() {
+				return advance(-1);
+			}
+
+			private int advance(int from) {
+				int s = from + 1;
+				int d = 0;
+				for (; s < states.length; s++) {
+					if (states[s] == ABSENT) {
+						continue;
+					}
+					while (s >= starts[d + 1]) {
+						d++;
+					}
+					nextName = name(d, s - starts[d]);
+					if (d == dictionaries.length - 1 || slot(nextName) == s) {
+						break;
+					}
+				}
+				return s;
+			}
+
+			public boolean hasNext() {
+				if (next < states.length) {
+					return true;
+				}
+				if (others == null && Values.this.others != null) {
+					others = Values.this.others.entrySet().iterator();
+				}
+				return (others != null && others.hasNext());
+			}
+
+			public Map.Entry<String, Number> next() {
+				if (next < states.length) {
+					slot = next;
+					String name = nextName;
+					next = advance(next);
+					return new SimpleImmutableEntry<String, Number>(name, value(slot));
+				} else if (hasNext()) {
+					inOthers = true;
+					return others.next();
+				}
+				throw new NoSuchElementException();
+			}
+
+			public void remove() {
+				if (inOthers) {
+					others.remove();
+				} else if (slot >= 0 && states[slot] != ABSENT) {
+					states[slot] = ABSENT;
+					count--;
+				} else {
+					throw new IllegalStateException();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code NameIndex} maps names to int values with open addressing. Names
+ * can be looked up as {@code String} or as range of Latin-1 bytes in a
+ * {@code ByteBuffer} without creating a {@code String}. Concurrent lookups
+ * are safe as long as no name is put.
+ *
+ * @author fgenoese
+ *
+ */
+class NameIndex {
+
+	/**
+	 * The value of names that are not in the index.
+	 */
+	static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	private String[] keys;
+	private int[] values;
+	private int size = 0;
+
+	/**
+	 * Constructs a {@code NameIndex} for the expected number of names.
+	 * 
+	 * @param capacity
+	 *            the expected number of names
+	 */
+	NameIndex(int capacity) {
+		int length = 16;
+		while (length < 2 * capacity) {
+			length <<= 1;
+		}
+		keys = new String[length];
+		values = new int[length];
+	}
+
+	/**
+	 * Returns the number of names.
+	 * 
+	 * @return the number of names
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value of a name or {@link #NOT_FOUND}.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return the value
+	 */
+	int get(String name) {
+		int mask = keys.length - 1;
+		for (int i = hash(name) & mask;; i = (i + 1) & mask) {
+			String key = keys[i];
+			if (key == null) {
+				return NOT_FOUND;
+			} else if (key.equals(name)) {
+				return values[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of the name in the bytes {@code [from, to)} of a
+	 * buffer or {@link #NOT_FOUND}.
+	 * 
+	 * @param buffer
+	 *            the buffer
+	 * @param from
+	 *            the first byte
+	 * @param to
+	 *            the end (exclusive)
+	 * @return the value
+	 */
+	int get(ByteBuffer buffer, int from, int to) {
+		int mask = keys.length - 1;
+		for (int i = hash(buffer, from, to) & mask;; i = (i + 1) & mask) {
+			String key = keys[i];
+			if (key == null) {
+				return NOT_FOUND;
+			} else if (equals(key, buffer, from, to)) {
+				return values[i];
+			}
+		}
+	}
+
+	/**
+	 * Puts a name with its value (replaces the value of an existing name).
+	 * 
+	 * @param name
+	 *            the name
+	 * @param value
+	 *            the value
+	 */
+	void put(String name, int value) {
+		if (2 * (size + 1) > keys.length) {
+			resize();
+		}
+		int mask = keys.length - 1;
+		for (int i = hash(name) & mask;; i = (i + 1) & mask) {
+			String key = keys[i];
+			if (key == null) {
+				keys[i] = name;
+				values[i] = value;
+				size++;
+				return;
+			} else if (key.equals(name)) {
+				values[i] = value;
+				return;
+			}
+		}
+	}
+
+	private void resize() {
+		String[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new String[2 * oldKeys.length];
+		values = new int[2 * oldKeys.length];
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private static boolean equals(String key, ByteBuffer buffer, int from, int to) {
+		if (key.length() != to - from) {
+			return false;
+		}
+		for (int k = 0; k < key.length(); k++) {
+			if (key.charAt(k) != (char) (buffer.get(from + k) & 0xff)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(String name) {
+		int h = 0;
+		for (int k = 0; k < name.length(); k++) {
+			h = 31 * h + name.charAt(k);
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static int hash(ByteBuffer buffer, int from, int to) {
+		int h = 0;
+		for (int k = from; k < to; k++) {
+			h = 31 * h + (buffer.get(k) & 0xff);
+		}
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,39 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code NameSupplier} generates the names of anonymous constraints by
+ * their ids (see {@link Problem#addConstraint(NameSupplier, Linear, Operator, Number)}).
+ * A name is only requested when it is needed, e.g., for the lookup of a
+ * constraint in a {@link Result} by its name or for a dump of the model;
+ * thus, one supplier can serve all constraints of a generator without
+ * building the names upfront. The names have to be unique.
+ * 
+ * @author fgenoese
+ * 
+ */
+public interface NameSupplier {
+
+	/**
+	 * Returns the name of the constraint with the given id.
+	 * 
+	 * @param id
+	 *            the id of the constraint
+	 * @return the name
+	 */
+	public String getName(int id);
+
+}
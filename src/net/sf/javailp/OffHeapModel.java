@@ -0,0 +1,549 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code OffHeapModel} is a linear model in direct (off-heap) buffers:
+ * the names, types, bounds and objective coefficients of the columns, and
+ * the names, bounds and coefficients of the rows in CSR format (see
+ * {@link CsrModel}). Columns are referenced by their index, thus, the heap
+ * usage does not depend on the size of the model; the buffers are
+ * allocated in chunks such that a model is not limited to 2GB per array.
+ * <p>
+ * A model is loaded into a {@link Problem} with
+ * {@link Problem#load(OffHeapModel)}: GLPK copies the rows directly from the
+ * buffers into its native model, the other backends add one row after
+ * another (as {@link Linear}). The backends keep their own index of the
+ * names. The buffers count against {@code -XX:MaxDirectMemorySize} and are
+ * freed by the garbage collector after {@link #close()}.
+ * <p>
+ * An {@code OffHeapModel} is not thread-safe.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class OffHeapModel implements AutoCloseable {
+
+	protected static final Charset UTF8 = Charset.forName("UTF-8");
+	protected static final VarType[] TYPES = VarType.values();
+
+	protected Segments columnNames = new Segments(8);
+	protected Segments columnTypes = new Segments(1);
+	protected Segments columnLower = new Segments(8);
+	protected Segments columnUpper = new Segments(8);
+	protected Segments objective = new Segments(8);
+	protected Segments rowNames = new Segments(8);
+	protected Segments rowLower = new Segments(8);
+	protected Segments rowUpper = new Segments(8);
+	protected Segments rowStart = new Segments(8);
+	protected Segments columnIndices = new Segments(4);
+	protected Segments values = new Segments(8);
+	protected Segments names = new Segments(1);
+	protected OptType optType = null;
+	protected int columns = 0;
+	protected int rows = 0;
+
+	/**
+	 * Constructs an empty {@code OffHeapModel}.
+	 */
+	public OffHeapModel() {
+		super();
+		rowStart.addLong(0);
+		columnNames.addLong(0);
+		rowNames.addLong(0);
+	}
+
+	/**
+	 * Adds a column and returns its index.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param type
+	 *            the type
+	 * @param lb
+	 *            the lower bound (infinite for none)
+	 * @param ub
+	 *            the upper bound (infinite for none)
+	 * @param objective
+	 *            the objective coefficient
+	 * @return the index
+	 */
+	public int addColumn(String name, VarType type, double lb, double ub, double objective) {
+		checkOpen();
+		if (columns == Integer.MAX_VALUE) {
+			throw new IllegalStateException("The model exceeds the maximal number of columns.");
+		}
+		addName(columnNames, name);
+		columnTypes.addByte((byte) type.ordinal());
+		columnLower.addDouble(lb);
+		columnUpper.addDouble(ub);
+		this.objective.addDouble(objective);
+		return columns++;
+	}
+
+	/**
+	 * Adds a row and returns its index; a row without finite bounds is free.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param lb
+	 *            the lower bound (infinite for none)
+	 * @param ub
+	 *            the upper bound (infinite for none)
+	 * @param columns
+	 *            the column indices of the coefficients
+	 * @param values
+	 *            the coefficients
+	 * @param size
+	 *            the number of coefficients
+	 * @return the index
+	 */
+	public int addRow(String name, double lb, double ub, int[] columns, double[] values, int size) {
+		checkOpen();
+		if (rows == Integer.MAX_VALUE) {
+			throw new IllegalStateException("The model exceeds the maximal number of rows.");
+		}
+		for (int k = 0; k < size; k++) {
+			if (columns[k] < 0 || columns[k] >= this.columns) {
+				throw new IndexOutOfBoundsException("column " + columns[k] + " (columns: " + this.columns
+						+ ") in row " + name);
+			}
+		}
+		for (int k = 0; k < size; k++) {
+			columnIndices.addInt(columns[k]);
+			this.values.addDouble(values[k]);
+		}
+		addName(rowNames, name);
+		rowLower.addDouble(lb);
+		rowUpper.addDouble(ub);
+		rowStart.addLong(columnIndices.size());
+		return rows++;
+	}
+
+	private void addName(Segments offsets, String name) {
+		byte[] bytes = name.getBytes(UTF8);
+		names.addBytes(bytes);
+		offsets.addLong(names.size());
+	}
+
+	/**
+	 * Sets the optimization type ({@code null} if the model has no
+	 * objective).
+	 * 
+	 * @param optType
+	 *            the optimization type
+	 */
+	public void setOptType(OptType optType) {
+		this.optType = optType;
+	}
+
+	/**
+	 * Returns the optimization type or {@code null}.
+	 * 
+	 * @return the optimization type
+	 */
+	public OptType getOptType() {
+		return optType;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnsCount() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRowsCount() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of coefficients.
+	 * 
+	 * @return the number of coefficients
+	 */
+	public long getNonzerosCount() {
+		checkOpen();
+		return columnIndices.size();
+	}
+
+	/**
+	 * Returns the number of allocated off-heap bytes (0 if closed).
+	 * 
+	 * @return the number of bytes
+	 */
+	public long getMemoryUsage() {
+		if (names == null) {
+			return 0;
+		}
+		long bytes = 0;
+		for (Segments segments : new Segments[] { columnNames, columnTypes, columnLower, columnUpper, objective,
+				rowNames, rowLower, rowUpper, rowStart, columnIndices, values, names }) {
+			bytes += segments.capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the name of a column.
+	 * 
+	 * @param j
+	 *            the index of the column
+	 * @return the name
+	 */
+	public String getColumnName(int j) {
+		checkColumn(j);
+		return getName(columnNames, j);
+	}
+
+	/**
+	 * Returns the type of a column.
+	 * 
+	 * @param j
+	 *            the index of the column
+	 * @return the type
+	 */
+	public VarType getColumnType(int j) {
+		checkColumn(j);
+		return TYPES[columnTypes.getByte(j)];
+	}
+
+	/**
+	 * Returns the lower bound of a column.
+	 * 
+	 * @param j
+	 *            the index of the column
+	 * @return the lower bound
+	 */
+	public double getColumnLower(int j) {
+		checkColumn(j);
+		return columnLower.getDouble(j);
+	}
+
+	/**
+	 * Returns the upper bound of a column.
+	 * 
+	 * @param j
+	 *            the index of the column
+	 * @return the upper bound
+	 */
+	public double getColumnUpper(int j) {
+		checkColumn(j);
+		return columnUpper.getDouble(j);
+	}
+
+	/**
+	 * Returns the objective coefficient of a column.
+	 * 
+	 * @param j
+	 *            the index of the column
+	 * @return the objective coefficient
+	 */
+	public double getObjective(int j) {
+		checkColumn(j);
+		return objective.getDouble(j);
+	}
+
+	/**
+	 * Returns the name of a row.
+	 * 
+	 * @param i
+	 *            the index of the row
+	 * @return the name
+	 */
+	public String getRowName(int i) {
+		checkRow(i);
+		return getName(rowNames, i);
+	}
+
+	/**
+	 * Returns the lower bound of a row.
+	 * 
+	 * @param i
+	 *            the index of the row
+	 * @return the lower bound
+	 */
+	public double getRowLower(int i) {
+		checkRow(i);
+		return rowLower.getDouble(i);
+	}
+
+	/**
+	 * Returns the upper bound of a row.
+	 * 
+	 * @param i
+	 *            the index of the row
+	 * @return the upper bound
+	 */
+	public double getRowUpper(int i) {
+		checkRow(i);
+		return rowUpper.getDouble(i);
+	}
+
+	/**
+	 * Returns the start of a row in the coefficients ({@code i = rows} for
+	 * the end of the last row).
+	 * 
+	 * @param i
+	 *            the index of the row
+	 * @return the start
+	 */
+	public long getRowStart(int i) {
+		checkOpen();
+		if (i < 0 || i > rows) {
+			throw new IndexOutOfBoundsException("row " + i + " (rows: " + rows + ")");
+		}
+		return rowStart.getLong(i);
+	}
+
+	/**
+	 * Returns the column index of a coefficient.
+	 * 
+	 * @param k
+	 *            the position of the coefficient
+	 * @return the column index
+	 */
+	public int getColumnIndex(long k) {
+		checkOpen();
+		return columnIndices.getInt(k);
+	}
+
+	/**
+	 * Returns a coefficient.
+	 * 
+	 * @param k
+	 *            the position of the coefficient
+	 * @return the coefficient
+	 */
+	public double getValue(long k) {
+		checkOpen();
+		return values.getDouble(k);
+	}
+
+	/**
+	 * Returns the objective as linear expression (without zero
+	 * coefficients).
+	 * 
+	 * @return the objective
+	 */
+	public Linear getObjectiveLinear() {
+		checkOpen();
+		Linear linear = new Linear();
+		for (int j = 0; j < columns; j++) {
+			double coefficient = objective.getDouble(j);
+			if (coefficient != 0.0) {
+				linear.add(coefficient, getName(columnNames, j));
+			}
+		}
+		return linear;
+	}
+
+	/**
+	 * Adds the model to a problem through the methods of the
+	 * {@link ProblemInterface} (one {@link Linear} per row at a time): first
+	 * the variables, then the constraints, then the objective (if any).
+	 * 
+	 * @param target
+	 *            the target
+	 */
+	public void export(ProblemInterface target) {
+		checkOpen();
+		String[] names = new String[columns];
+		for (int j = 0; j < columns; j++) {
+			names[j] = getName(columnNames, j);
+			target.addVariable(names[j], getColumnType(j), CsrModel.toNumber(columnLower.getDouble(j)),
+					CsrModel.toNumber(columnUpper.getDouble(j)));
+		}
+		for (int i = 0; i < rows; i++) {
+			Linear lhs = new Linear();
+			for (long k = rowStart.getLong(i); k < rowStart.getLong(i + 1); k++) {
+				lhs.add(values.getDouble(k), names[columnIndices.getInt(k)]);
+			}
+			CsrModel.addRow(target, getName(rowNames, i), lhs, rowLower.getDouble(i), rowUpper.getDouble(i));
+		}
+		if (optType != null) {
+			target.setObjective(getObjectiveLinear(), optType);
+		}
+	}
+
+	/**
+	 * Releases the buffers (they are freed by the garbage collector).
+	 */
+	public void close() {
+		columnNames = columnTypes = columnLower = columnUpper = objective = null;
+		rowNames = rowLower = rowUpper = rowStart = columnIndices = values = names = null;
+	}
+
+	private String getName(Segments offsets, int index) {
+		long from = offsets.getLong(index);
+		int length = (int) (offsets.getLong(index + 1) - from);
+		return new String(names.getBytes(from, length), UTF8);
+	}
+
+	private void checkOpen() {
+		if (names == null) {
+			throw new IllegalStateException("The model is closed.");
+		}
+	}
+
+	private void checkColumn(int j) {
+		checkOpen();
+		if (j < 0 || j >= columns) {
+			throw new IndexOutOfBoundsException("column " + j + " (columns: " + columns + ")");
+		}
+	}
+
+	private void checkRow(int i) {
+		checkOpen();
+		if (i < 0 || i >= rows) {
+			throw new IndexOutOfBoundsException("row " + i + " (rows: " + rows + ")");
+		}
+	}
+
+	/**
+	 * A growable array of elements of a fixed width in direct buffers of at
+	 * most {@link #CHUNK} bytes. All chunks but the last are full; the last
+	 * chunk is reallocated with twice its capacity until it is full.
+	 */
+	protected static class Segments {
+		protected static final int CHUNK = 1 << 27; // 128MB
+
+		protected final int width;
+		protected final int perChunk;
+		protected final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+		protected long size = 0;
+
+		/**
+		 * Constructs {@code Segments} with the given width (a power of two)
+		 * of the elements.
+		 */
+		protected Segments(int width) {
+			this.width = width;
+			this.perChunk = CHUNK / width;
+		}
+
+		protected long size() {
+			return size;
+		}
+
+		protected long capacity() {
+			long capacity = 0;
+			for (ByteBuffer chunk : chunks) {
+				capacity += chunk.capacity();
+			}
+			return capacity;
+		}
+
+		/**
+		 * Returns the chunk for the next element (allocating it if needed).
+		 */
+		private ByteBuffer next() {
+			int c = (int) (size / perChunk);
+			int position = (int) (size % perChunk) * width;
+			if (c == chunks.size()) {
+				chunks.add(allocate(Math.min(CHUNK, 4096)));
+			}
+			ByteBuffer chunk = chunks.get(c);
+			if (position + width > chunk.capacity()) {
+				ByteBuffer grown = allocate(Math.min(CHUNK, 2 * chunk.capacity()));
+				ByteBuffer source = chunk.duplicate();
+				source.clear();
+				grown.put(source);
+				chunks.set(c, grown);
+				chunk = grown;
+			}
+			return chunk;
+		}
+
+		private static ByteBuffer allocate(int capacity) {
+			return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+		}
+
+		private int position(long index) {
+			return (int) (index % perChunk) * width;
+		}
+
+		private ByteBuffer chunk(long index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("index " + index + " (size: " + size + ")");
+			}
+			return chunks.get((int) (index / perChunk));
+		}
+
+		protected void addByte(byte value) {
+			next().put(position(size), value);
+			size++;
+		}
+
+		protected void addInt(int value) {
+			next().putInt(position(size), value);
+			size++;
+		}
+
+		protected void addLong(long value) {
+			next().putLong(position(size), value);
+			size++;
+		}
+
+		protected void addDouble(double value) {
+			next().putDouble(position(size), value);
+			size++;
+		}
+
+		protected void addBytes(byte[] bytes) {
+			for (byte b : bytes) {
+				addByte(b);
+			}
+		}
+
+		protected byte getByte(long index) {
+			return chunk(index).get(position(index));
+		}
+
+		protected int getInt(long index) {
+			return chunk(index).getInt(position(index));
+		}
+
+		protected long getLong(long index) {
+			return chunk(index).getLong(position(index));
+		}
+
+		protected double getDouble(long index) {
+			return chunk(index).getDouble(position(index));
+		}
+
+		protected byte[] getBytes(long from, int length) {
+			byte[] bytes = new byte[length];
+			for (int k = 0; k < length; k++) {
+				bytes[k] = getByte(from + k);
+			}
+			return bytes;
+		}
+	}
+
+}
@@ -3,8 +3,36 @@ package net.sf.javailp;
 
 public class OptimizationException extends RuntimeException {
 
+	private final Status status;
+
 	public OptimizationException(String message) {
+		this(message, null);
+	}
+
+	/**
+	 * Constructs an {@code OptimizationException} with the status of the
+	 * problem, e.g., {@link Status#INFEASIBLE} if the backend proved that
+	 * the problem has no feasible solution.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param status
+	 *            the status or {@code null}
+	 */
+	public OptimizationException(String message, Status status) {
 		super(message);
+		this.status = status;
+	}
+
+	/**
+	 * Returns the status of the problem or {@code null} if the solve failed
+	 * for another reason (a limit without a solution, an error of the
+	 * backend, a closed problem, ...).
+	 * 
+	 * @return the status or {@code null}
+	 */
+	public Status getStatus() {
+		return status;
 	}
 
 	private static final long serialVersionUID = 1L;
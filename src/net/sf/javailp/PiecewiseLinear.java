@@ -0,0 +1,181 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class {@code PiecewiseLinear} is a piecewise-linear function of a
+ * single variable, given by its breakpoints in increasing order and the
+ * values of the function at the breakpoints. The function is defined between
+ * the first and the last breakpoint. It is added to a problem by
+ * {@link ProblemInterface#addPiecewiseLinear(String, PiecewiseLinear)} as a
+ * variable that can be used in the objective and constraints like any other
+ * variable.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class PiecewiseLinear {
+
+	protected final String variableName;
+	protected final List<Number> points = new ArrayList<Number>();
+	protected final List<Number> values = new ArrayList<Number>();
+
+	/**
+	 * Constructs a piecewise-linear function without breakpoints.
+	 * 
+	 * @param variableName
+	 *            the variable name
+	 */
+	public PiecewiseLinear(String variableName) {
+		super();
+		this.variableName = variableName;
+	}
+
+	/**
+	 * Constructs a piecewise-linear function with the predefined breakpoints
+	 * and values.
+	 * 
+	 * @param variableName
+	 *            the variable name
+	 * @param points
+	 *            the breakpoints
+	 * @param values
+	 *            the values at the breakpoints
+	 */
+	public PiecewiseLinear(String variableName, List<Number> points, List<Number> values) {
+		this(variableName);
+		if (points.size() != values.size()) {
+			throw new IllegalArgumentException(
+					"The size of the breakpoints and values must be equal.");
+		}
+		for (int i = 0; i < points.size(); i++) {
+			add(points.get(i), values.get(i));
+		}
+	}
+
+	/**
+	 * Adds a breakpoint. The breakpoints have to be strictly increasing.
+	 * 
+	 * @param point
+	 *            the breakpoint
+	 * @param value
+	 *            the value of the function at the breakpoint
+	 */
+	public void add(Number point, Number value) {
+		if (point == null || value == null) {
+			throw new IllegalArgumentException("The breakpoint " + point + " has no valid value.");
+		}
+		if (!points.isEmpty() && point.doubleValue() <= points.get(points.size() - 1).doubleValue()) {
+			throw new IllegalArgumentException("The breakpoints must be strictly increasing. (breakpoint: "
+					+ point + ")");
+		}
+		points.add(point);
+		values.add(value);
+	}
+
+	/**
+	 * Returns the variable name.
+	 * 
+	 * @return the variable name
+	 */
+	public String getVariableName() {
+		return variableName;
+	}
+
+	/**
+	 * Returns the number of breakpoints.
+	 * 
+	 * @return the number of breakpoints
+	 */
+	public int size() {
+		return points.size();
+	}
+
+	/**
+	 * Returns the {@code i}-th breakpoint.
+	 * 
+	 * @param i
+	 *            the index
+	 * @return the breakpoint
+	 */
+	public Number getPoint(int i) {
+		return points.get(i);
+	}
+
+	/**
+	 * Returns the value of the function at the {@code i}-th breakpoint.
+	 * 
+	 * @param i
+	 *            the index
+	 * @return the value
+	 */
+	public Number getValue(int i) {
+		return values.get(i);
+	}
+
+	/**
+	 * Returns the slope of the {@code i}-th segment, i.e., between the
+	 * breakpoints {@code i} and {@code i+1}.
+	 * 
+	 * @param i
+	 *            the index of the segment
+	 * @return the slope
+	 */
+	public double getSlope(int i) {
+		return (values.get(i + 1).doubleValue() - values.get(i).doubleValue())
+				/ (points.get(i + 1).doubleValue() - points.get(i).doubleValue());
+	}
+
+	/**
+	 * Evaluates the function.
+	 * 
+	 * @param point
+	 *            the value of the variable
+	 * @return the value of the function
+	 */
+	public double evaluate(double point) {
+		if (points.isEmpty() || point < points.get(0).doubleValue()
+				|| point > points.get(points.size() - 1).doubleValue()) {
+			throw new IllegalArgumentException("The value " + point + " of the variable " + variableName
+					+ " is outside of the breakpoints.");
+		}
+		int i = 0;
+		while (i < points.size() - 2 && point > points.get(i + 1).doubleValue()) {
+			i++;
+		}
+		if (points.size() == 1) {
+			return values.get(0).doubleValue();
+		}
+		return values.get(i).doubleValue() + getSlope(i) * (point - points.get(i).doubleValue());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuffer s = new StringBuffer("pwl(").append(variableName).append(")");
+		for (int i = 0; i < points.size(); i++) {
+			s.append(" (").append(points.get(i)).append(", ").append(values.get(i)).append(")");
+		}
+		return s.toString();
+	}
+
+}
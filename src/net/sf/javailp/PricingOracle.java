@@ -0,0 +1,46 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Map;
+
+/**
+ * The {@code PricingOracle} is the pricing problem of a
+ * {@link ColumnGeneration}. It generates new columns with a negative (for
+ * minimization) or positive (for maximization) reduced cost based on the dual
+ * values of the restricted master problem.
+ * <p>
+ * Pricing oracles of one column generation may be called concurrently and
+ * must not modify the master problem.
+ *
+ * @author fgenoese
+ *
+ */
+public interface PricingOracle {
+
+	/**
+	 * Returns the new columns for the given solution of the restricted master
+	 * problem as a map from the variable names to the columns. An empty map
+	 * (or {@code null}) signals that this oracle found no improving column.
+	 *
+	 * @param master
+	 *            the solution of the restricted master problem (the dual
+	 *            values of the constraints are available by
+	 *            {@link Result#getDualValue(String)})
+	 * @return the new columns
+	 */
+	public Map<String, Column> price(Result master);
+
+}
@@ -1,22 +1,385 @@
 package net.sf.javailp;
 
-public abstract class Problem implements ProblemInterface {
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public abstract class Problem implements ProblemInterface, AutoCloseable {
+	
+	/**
+	 * The estimated native bytes per constraint, variable and nonzero.
+	 */
+	protected static final long CONSTRAINT_BYTES = 160;
+	protected static final long VARIABLE_BYTES = 160;
+	protected static final long NONZERO_BYTES = 48;
+	
+	protected String identifier;
+	protected AbstractSolver solver = null;
+	protected Reclaimer.Cleanup cleanup = null;
+	protected volatile boolean closed = false;
+	protected volatile boolean solving = false;
+	protected volatile boolean building = false;
+	protected long nonzeros = 0;
+	protected ProgressMonitor progressMonitor = ProgressMonitor.NONE;
+	protected MetricsRecorder metricsRecorder = MetricsRecorder.NONE;
+	protected Deadline deadline = null;
+	protected boolean nativeNames = true;
+	protected final Map<String, GeneralConstraint> generalConstraints = new LinkedHashMap<String, GeneralConstraint>();
 
 	/**
 	 * Starts the optimization and returns its solution.
 	 * @param postSolve
 	 *            performs an LP relaxation with fixed integers if true
 	 * @param activateLog
-	 * 			  activates logging (.lp) if true
+	 * 			  dumps the model (.lp.gz and .mps.gz) if true
 	 * @return the solution
 	 */
 	protected abstract Result optimize(boolean postSolve, boolean activateLog);
 	
+	/**
+	 * Exports the model to a target: first the variables with their types and
+	 * bounds, then the constraints, then the objective (if set).
+	 * @param target
+	 *            the target (e.g., a {@link ModelSnapshot} writer)
+	 */
+	protected abstract void export(ProblemInterface target);
+	
+	/**
+	 * Dumps the model to {@code identifier.lp.gz} and
+	 * {@code identifier.mps.gz} in the background (for {@code activateLog}).
+	 * Only the snapshot of the model is taken on the calling thread.
+	 */
+	protected void dumpModel() {
+		ModelWriter.getDefault().submit(this, new File(identifier + ".lp.gz"), new File(identifier + ".mps.gz"));
+	}
+	
+	/**
+	 * Returns the identifier of the problem.
+	 * @return the identifier
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+	
+	/**
+	 * Sets the monitor that receives the progress of the next optimization.
+	 * @param progressMonitor
+	 *            the progress monitor
+	 */
+	protected void setProgressMonitor(ProgressMonitor progressMonitor) {
+		this.progressMonitor = progressMonitor;
+	}
+	
+	/**
+	 * Sets the recorder of the metrics of this problem.
+	 * @param metricsRecorder
+	 *            the metrics recorder
+	 */
+	protected void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+	
+	/**
+	 * Sets the deadline of the next optimization.
+	 * @param deadline
+	 *            the deadline or {@code null} for no deadline
+	 */
+	protected void setDeadline(Deadline deadline) {
+		this.deadline = deadline;
+	}
+	
+	/**
+	 * Sets whether the names of the variables and constraints are passed to
+	 * the native model (default: {@code true}). Without native names, the
+	 * names are only kept once on the Java side, which saves memory for
+	 * huge models; however, files written by the backend itself use
+	 * generated names. Applies to the variables and constraints added
+	 * afterwards. Gurobi reads the names back from its model and always
+	 * keeps them.
+	 * @param nativeNames
+	 *            {@code true} to pass the names to the native model
+	 */
+	public void setNativeNames(boolean nativeNames) {
+		this.nativeNames = nativeNames;
+	}
+	
+	/**
+	 * Closes the problem: deletes it from its solver and releases its native
+	 * model. Closing a closed problem has no effect; any other use of a
+	 * closed problem throws an {@code OptimizationException}. Problems that
+	 * become unreachable without being closed are released on the next
+	 * creation of a problem.
+	 */
+	public void close() {
+		AbstractSolver solver = this.solver;
+		if (solver != null) {
+			solver.release(this);
+		}
+		dispose();
+	}
+	
+	/**
+	 * Returns {@code true} if the problem is closed.
+	 * @return {@code true} if the problem is closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * Returns the estimated native memory of the model in bytes (0 if the
+	 * problem is closed).
+	 * @return the estimated native memory
+	 */
+	public long getNativeMemory() {
+		if (closed) {
+			return 0;
+		}
+		return getConstraintsCount() * CONSTRAINT_BYTES + getVariablesCount() * VARIABLE_BYTES
+				+ nonzeros * NONZERO_BYTES;
+	}
+	
+	/**
+	 * Registers the action that releases the native model. The action must
+	 * not reference this problem.
+	 * @param action
+	 *            the release action
+	 */
+	protected void setReleaseAction(Runnable action) {
+		this.cleanup = Reclaimer.register(this, action);
+	}
+	
+	/**
+	 * Releases the native model (once).
+	 */
+	protected void dispose() {
+		closed = true;
+		if (cleanup != null) {
+			cleanup.clean();
+		}
+	}
+	
+	/**
+	 * Throws an {@code OptimizationException} if the problem is closed.
+	 */
+	protected void checkOpen() {
+		if (closed) {
+			throw new OptimizationException("The problem " + identifier + " is closed.");
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, java.lang.Number, net.sf.javailp.Linear, java.lang.Number)
+	 */
+	public void addConstraint(String name, Number lb, Linear lhs, Number ub) {
+		if (lb == null && ub == null) {
+			throw new IllegalArgumentException("A range constraint needs at least one bound. (in constraint: " + name + ")");
+		} else if (lb == null) {
+			addConstraint(name, lhs, Operator.LE, ub);
+		} else if (ub == null) {
+			addConstraint(name, lhs, Operator.GE, lb);
+		} else if (lb.doubleValue() == ub.doubleValue()) {
+			addConstraint(name, lhs, Operator.EQ, lb);
+		} else if (lb.doubleValue() > ub.doubleValue()) {
+			throw new IllegalArgumentException("The lower bound of a range constraint exceeds its upper bound. (in constraint: " + name + ")");
+		} else {
+			addRange(name, lhs, lb.doubleValue(), ub.doubleValue());
+		}
+	}
+	
+	/**
+	 * Adds an anonymous constraint and returns its id, i.e., the number of
+	 * constraints before it was added. Its name is {@code _r<id>}; see
+	 * {@link #addConstraint(NameSupplier, Linear, Operator, Number)}.
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 * @return the id of the constraint or -1 if its name already exists
+	 */
+	public int addConstraint(Linear lhs, Operator operator, Number rhs) {
+		return addConstraint((NameSupplier) null, lhs, operator, rhs);
+	}
+	
+	/**
+	 * Adds a constraint whose name is generated by a supplier and returns its
+	 * id, i.e., the number of constraints before it was added. GLPK keeps
+	 * the names on the Java side and only requests them from the supplier
+	 * when they are needed (e.g., for a lookup in a result by name, an
+	 * export or the addition of a named constraint); the other backends
+	 * request the name immediately. A constraint whose name already exists
+	 * is not added (GLPK reports and deletes it when its name is requested).
+	 * @param names
+	 *            the supplier of the name or {@code null} for {@code _r<id>}
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 * @return the id of the constraint or -1 if its name already exists
+	 */
+	public int addConstraint(NameSupplier names, Linear lhs, Operator operator, Number rhs) {
+		checkOpen();
+		int id = getConstraintsCount();
+		addConstraint(getConstraintName(names, id), lhs, operator, rhs);
+		return (getConstraintsCount() > id ? id : -1);
+	}
+	
+	/**
+	 * Returns the name of an anonymous constraint.
+	 * @param names
+	 *            the supplier of the name or {@code null}
+	 * @param id
+	 *            the id of the constraint
+	 * @return the name
+	 */
+	protected static String getConstraintName(NameSupplier names, int id) {
+		return (names != null ? names.getName(id) : "_r" + id);
+	}
+	
+	/**
+	 * Adds a range constraint with finite bounds {@code lb < ub} as a
+	 * single row of the backend.
+	 * @param name
+	 *            the name of the constraint
+	 * @param lhs
+	 *            the linear expression
+	 * @param lb
+	 *            the lower bound
+	 * @param ub
+	 *            the upper bound
+	 */
+	protected abstract void addRange(String name, Linear lhs, double lb, double ub);
+	
+	/**
+	 * Loads a model in primitive arrays (bulk path): its columns are added as
+	 * variables, its rows as constraints and its objective (if any) is set.
+	 * Backends override this to transfer the arrays without intermediate
+	 * {@link Linear} objects.
+	 * @param model
+	 *            the model
+	 */
+	public void load(CsrModel model) {
+		checkOpen();
+		model.export(this);
+	}
+	
+	/**
+	 * Loads an off-heap model: its columns are added as variables, its rows
+	 * as constraints and its objective (if any) is set. Backends override
+	 * this to copy the rows directly from the buffers.
+	 * @param model
+	 *            the model
+	 */
+	public void load(OffHeapModel model) {
+		checkOpen();
+		model.export(this);
+	}
+	
+	/**
+	 * Updates the data of a model that was loaded with {@link #load(CsrModel)}
+	 * to the data of another model with the same structure (see
+	 * {@link ModelTemplate}), pushing only the changed values to the native
+	 * model. Returns {@code false} if the backend cannot update the model in
+	 * place (default); the problem is unchanged in this case.
+	 * 
+	 * @param previous
+	 *            the model that was loaded
+	 * @param model
+	 *            the model with the new data
+	 * @return {@code true} if the model was updated
+	 */
+	protected boolean update(CsrModel previous, CsrModel model) {
+		return false;
+	}
+	
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType)
 	 */
 	public void addVariable(String name, VarType type) {
 		addVariable(name, type, null, null);
 	}
+	
+	/**
+	 * Adds a family of variables with a multi-dimensional index and the same
+	 * type and bounds, e.g., {@code x[i][j][t]} for the dimensions
+	 * {@code (I, J, T)}. Its elements are referenced in linear expressions
+	 * by their offsets (see {@link Linear#add(Number, VariableArray, int)}).
+	 * GLPK adds the variables as one range of columns and only derives their
+	 * names when they are needed (e.g., for a lookup in a result by name or
+	 * an export); the other backends add them as named variables.
+	 * @param prefix
+	 *            the prefix of the names
+	 * @param type
+	 *            the type of the variables
+	 * @param lb
+	 *            the lower bound of the variables
+	 * @param ub
+	 *            the upper bound of the variables
+	 * @param dimensions
+	 *            the dimensions
+	 * @return the variable array
+	 */
+	public VariableArray addVariableArray(String prefix, VarType type, Number lb, Number ub, int... dimensions) {
+		checkOpen();
+		VariableArray array = new VariableArray(prefix, dimensions);
+		for (int k = 0; k < array.size(); k++) {
+			addVariable(array.getName(k), type, lb, ub);
+		}
+		return array;
+	}
+
+	/**
+	 * Exports the recorded piecewise-linear functions (after the variables,
+	 * before the constraints that may use them).
+	 * 
+	 * @param target
+	 *            the target
+	 */
+	protected void exportPiecewiseLinears(ProblemInterface target) {
+		for (GeneralConstraint constraint : generalConstraints.values()) {
+			if (constraint.function != null) {
+				target.addPiecewiseLinear(constraint.name, constraint.function);
+			}
+		}
+	}
+	
+	/**
+	 * Exports the recorded special ordered sets and indicator constraints.
+	 * 
+	 * @param target
+	 *            the target
+	 */
+	protected void exportGeneralConstraints(ProblemInterface target) {
+		for (GeneralConstraint constraint : generalConstraints.values()) {
+			if (constraint.function != null) {
+				continue;
+			} else if (constraint.type != null) {
+				target.addSOS(constraint.name, constraint.type, constraint.lhs);
+			} else {
+				target.addIndicatorConstraint(constraint.name, constraint.indicator, constraint.value, constraint.lhs,
+						constraint.operator, constraint.rhs);
+			}
+		}
+	}
+	
+	/**
+	 * A piecewise-linear function ({@code function} is set), a special ordered
+	 * set ({@code type} is set) or an indicator constraint that the backend
+	 * holds natively (thus, it is not exported with the rows of the model).
+	 */
+	protected static class GeneralConstraint {
+		protected String name;
+		protected SOSType type;
+		protected String indicator;
+		protected int value;
+		protected Linear lhs;
+		protected Operator operator;
+		protected Number rhs;
+		protected PiecewiseLinear function;
+	}
 
-}
+}
\ No newline at end of file
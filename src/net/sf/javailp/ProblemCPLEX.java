@@ -1,12 +1,20 @@
 package net.sf.javailp;
 
+import ilog.concert.IloColumn;
 import ilog.concert.IloException;
+import ilog.concert.IloLinearNumExpr;
+import ilog.concert.IloLinearNumExprIterator;
 import ilog.concert.IloNumExpr;
 import ilog.concert.IloNumVar;
 import ilog.concert.IloNumVarType;
+import ilog.concert.IloObjective;
+import ilog.concert.IloObjectiveSense;
+import ilog.concert.IloRange;
+import ilog.concert.IloSemiContVar;
 import ilog.cplex.IloCplex;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,22 +27,29 @@ import java.util.Map.Entry;
 public class ProblemCPLEX extends Problem {
 	private IloCplex model;
 	private Map<String, IloNumVar> nameToVar 	= new LinkedHashMap<String, IloNumVar>();
-	private List<String> conNames				= new ArrayList<String>();
+	private Map<String, IloRange> nameToCon		= new LinkedHashMap<String, IloRange>();
+	private IloObjective objective;
 	private Linear objectiveFunction;
+	// the native calls since the last begin of a measured phase
+	private long calls = 0;
 	
 	/**
 	 * Constructs a {@code ProblemCPLEX}.
 	 * 
 	 */
-	protected ProblemCPLEX(IloCplex model) {
+	protected ProblemCPLEX(IloCplex model, String identifier) {
 		this.model = model;
+		this.identifier = identifier;
+		setReleaseAction(new Release(model));
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear, net.sf.javailp.OptType)
 	 */
 	public void setObjective(Linear objective, OptType optType) {
+		checkOpen();
 		try {
+			begin();
 			List<IloNumExpr> expressions = new ArrayList<IloNumExpr>();
 			IloNumExpr expr = model.linearNumExpr();
 			for (Term term : objective.terms) {
@@ -47,12 +62,20 @@ public class ProblemCPLEX extends Problem {
 				expressions.add(model.prod(term.getCoefficient().doubleValue(), var));
 			}
 			expr = model.sum(expressions.toArray(new IloNumExpr[0]));
+			calls += 2 + expressions.size();
 	
+			if (this.objective != null) {
+				// a model holds only one objective: replace the previous one
+				model.remove(this.objective);
+				calls++;
+			}
 			if (optType == OptType.MIN) {
-				model.addMinimize(expr);
+				this.objective = model.addMinimize(expr);
 			} else {
-				model.addMaximize(expr);
+				this.objective = model.addMaximize(expr);
 			}
+			calls++;
+			end(Phase.BUILD, objective.size());
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		} 
@@ -64,6 +87,7 @@ public class ProblemCPLEX extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#setStartingSolution(java.util.Map)
 	 */
 	public void setStartingSolution(Map<String, Number> startingSolution) {
+		checkOpen();
 		System.err.println("usage of a starting solution not yet implemented for CPLEX");
 	}
 
@@ -71,7 +95,7 @@ public class ProblemCPLEX extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#getConstraintsCount()
 	 */
 	public int getConstraintsCount() {
-		return conNames.size();
+		return nameToCon.size();
 	}
 
 	/* (non-Javadoc)
@@ -85,35 +109,214 @@ public class ProblemCPLEX extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
 	 */
 	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
-		if (conNames.contains(name)) {
+		checkOpen();
+		if (nameToCon.containsKey(name)) {
 			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
 			return;
 		}
 		try {
-			List<IloNumExpr> expressions = new ArrayList<IloNumExpr>();
-			IloNumExpr expr = model.linearNumExpr();
-			for (Term term : lhs.terms) {
-				IloNumVar var = nameToVar.get(term.getVariableName());
-				if (var == null) {
+			begin();
+			IloNumExpr expr = toExpr(lhs);
+
+			final IloRange range;
+			switch (operator) {
+				case LE:
+					range = model.addLe(expr, rhs.doubleValue(), nativeName(name));
+					break;
+				case GE:
+					range = model.addGe(expr, rhs.doubleValue(), nativeName(name));
+					break;
+				default:
+					range = model.addEq(expr, rhs.doubleValue(), nativeName(name));
+			}
+			nameToCon.put(name, range);
+			calls++;
+			nonzeros += lhs.size();
+			end(Phase.BUILD, lhs.size());
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		} 
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#addRange(java.lang.String, net.sf.javailp.Linear, double, double)
+	 */
+	protected void addRange(String name, Linear lhs, double lb, double ub) {
+		checkOpen();
+		if (nameToCon.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		try {
+			begin();
+			nameToCon.put(name, model.addRange(lb, toExpr(lhs), ub, nativeName(name)));
+			calls++;
+			nonzeros += lhs.size();
+			end(Phase.BUILD, lhs.size());
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		} 
+	}
+	
+	/**
+	 * Returns the name that is passed to the native model ({@code null} if
+	 * native names are off).
+	 */
+	private String nativeName(String name) {
+		return (nativeNames ? name : null);
+	}
+	
+	/**
+	 * Converts the linear expression of a constraint.
+	 */
+	private IloNumExpr toExpr(Linear lhs) throws IloException {
+		List<IloNumExpr> expressions = new ArrayList<IloNumExpr>();
+		for (Term term : lhs.terms) {
+			IloNumVar var = nameToVar.get(term.getVariableName());
+			if (var == null) {
+				throw new IllegalArgumentException(
+				"Variables in a linear expression must be added to the problem first. " +
+				"(missing: "+term.getVariableName()+")");
+			}
+			expressions.add(model.prod(term.getCoefficient().doubleValue(), var));
+		}
+		calls += 1 + expressions.size();
+		return model.sum(expressions.toArray(new IloNumExpr[0]));
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String, net.sf.javailp.SOSType, net.sf.javailp.Linear)
+	 */
+	public void addSOS(String name, SOSType type, Linear weights) {
+		checkOpen();
+		if (generalConstraints.containsKey(name)) {
+			System.err.println("cannot add SOS '"+name+"': an SOS with this name already exists");
+			return;
+		}
+		try {
+			begin();
+			IloNumVar[] vars = new IloNumVar[weights.size()];
+			double[] values = new double[weights.size()];
+			for (int k = 0; k < weights.size(); k++) {
+				Term term = weights.get(k);
+				vars[k] = nameToVar.get(term.getVariableName());
+				if (vars[k] == null) {
 					throw new IllegalArgumentException(
 					"Variables in a linear expression must be added to the problem first. " +
 					"(missing: "+term.getVariableName()+")");
 				}
-				expressions.add(model.prod(term.getCoefficient().doubleValue(), var));
+				values[k] = term.getCoefficient().doubleValue();
 			}
-			expr = model.sum(expressions.toArray(new IloNumExpr[0]));
+			if (type == SOSType.SOS1) {
+				model.addSOS1(vars, values, nativeName(name));
+			} else {
+				model.addSOS2(vars, values, nativeName(name));
+			}
+			calls++;
+			GeneralConstraint constraint = new GeneralConstraint();
+			constraint.name = name;
+			constraint.type = type;
+			constraint.lhs = new Linear(weights);
+			generalConstraints.put(name, constraint);
+			nonzeros += weights.size();
+			end(Phase.BUILD, weights.size());
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		} 
+	}
 
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String, java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+	 */
+	public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+			Number rhs) {
+		checkOpen();
+		if (generalConstraints.containsKey(name) || nameToCon.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		Reformulation.checkIndicatorValue(name, value);
+		IloNumVar var = nameToVar.get(indicator);
+		if (var == null) {
+			throw new IllegalArgumentException(
+			"Variables must be added to the problem before they can be used as indicator. " +
+			"(missing: "+indicator+")");
+		}
+		try {
+			begin();
+			IloNumExpr expr = toExpr(lhs);
+
+			final IloRange range;
 			switch (operator) {
 				case LE:
-					model.addLe(expr, rhs.doubleValue());
+					range = model.le(expr, rhs.doubleValue());
 					break;
 				case GE:
-					model.addGe(expr, rhs.doubleValue());
+					range = model.ge(expr, rhs.doubleValue());
 					break;
 				default:
-					model.addEq(expr, rhs.doubleValue());
+					range = model.eq(expr, rhs.doubleValue());
+			}
+			model.add(model.ifThen(model.eq(var, value), range, nativeName(name)));
+			calls += 4;
+			GeneralConstraint constraint = new GeneralConstraint();
+			constraint.name = name;
+			constraint.indicator = indicator;
+			constraint.value = value;
+			constraint.lhs = new Linear(lhs);
+			constraint.operator = operator;
+			constraint.rhs = rhs;
+			generalConstraints.put(name, constraint);
+			nonzeros += lhs.size() + 1;
+			end(Phase.BUILD, lhs.size() + 1);
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		} 
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String, net.sf.javailp.PiecewiseLinear)
+	 */
+	public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+		checkOpen();
+		if (nameToVar.containsKey(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		Reformulation.checkPiecewiseLinear(name, function);
+		IloNumVar var = nameToVar.get(function.getVariableName());
+		if (var == null) {
+			throw new IllegalArgumentException(
+			"Variables in a piecewise-linear function must be added to the problem first. " +
+			"(missing: "+function.getVariableName()+")");
+		}
+		try {
+			begin();
+			int n = function.size();
+			double[] points = new double[n];
+			double[] slopes = new double[n + 1];
+			for (int i = 0; i < n; i++) {
+				points[i] = function.getPoint(i).doubleValue();
 			}
-			conNames.add(name);
+			for (int i = 0; i < n - 1; i++) {
+				slopes[i + 1] = function.getSlope(i);
+			}
+			// outside of the breakpoints (excluded by the range below)
+			slopes[0] = slopes[1];
+			slopes[n] = slopes[n - 1];
+			
+			IloNumVar value = model.numVar(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, nativeName(name));
+			model.addEq(value, model.piecewiseLinear(var, points, slopes, points[0], function.getValue(0).doubleValue()), nativeName(name));
+			model.addRange(points[0], var, points[n - 1]);
+			calls += 4;
+			nameToVar.put(name, value);
+			
+			GeneralConstraint constraint = new GeneralConstraint();
+			constraint.name = name;
+			constraint.function = function;
+			generalConstraints.put(name, constraint);
+			nonzeros += n;
+			end(Phase.BUILD, n);
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		} 
@@ -123,12 +326,14 @@ public class ProblemCPLEX extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
 	 */
 	public void addVariable(String name, VarType type, Number lb, Number ub) {
+		checkOpen();
 		if (nameToVar.containsKey(name)) {
 			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
 			return;
 		}
 		try {
-			double lowerBound = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
+			begin();
+			double lowerBound = (lb != null ? lb.doubleValue() : (type.isSemiContinuous() ? 0 : Double.NEGATIVE_INFINITY));
 			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
 			
 			final IloNumVarType varType;
@@ -137,31 +342,126 @@ public class ProblemCPLEX extends Problem {
 					varType = IloNumVarType.Bool;
 					break;
 				case INT:
+				case SEMIINT:
 					varType = IloNumVarType.Int;
 					break;
 				default:
 					varType = IloNumVarType.Float;
 			}
 	
-			nameToVar.put(name, model.numVar(lowerBound, upperBound, varType));
+			if (type.isSemiContinuous()) {
+				nameToVar.put(name, model.semiContVar(lowerBound, upperBound, varType));
+			} else {
+				nameToVar.put(name, model.numVar(lowerBound, upperBound, varType));
+			}
+			calls++;
+			end(Phase.BUILD, 0);
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		} 
 	}
 	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, net.sf.javailp.Column)
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+		checkOpen();
+		if (nameToVar.containsKey(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		double coeff = column.getObjectiveCoefficient().doubleValue();
+		if (coeff != 0.0 && objective == null) {
+			throw new IllegalArgumentException(
+			"The objective must be set before a column with an objective coefficient is added. " +
+			"(column of: "+name+")");
+		}
+		try {
+			begin();
+			IloColumn col = null;
+			if (objective != null) {
+				col = model.column(objective, coeff);
+				calls++;
+			}
+			for (int i = 0; i < column.size(); i++) {
+				IloRange range = nameToCon.get(column.getConstraintName(i));
+				if (range == null) {
+					throw new IllegalArgumentException(
+					"Constraints in a column must be added to the problem first. " +
+					"(missing: "+column.getConstraintName(i)+", in column of: "+name+")");
+				}
+				IloColumn entry = model.column(range, column.getCoefficient(i).doubleValue());
+				calls++;
+				if (col != null) {
+					col = col.and(entry);
+					calls++;
+				} else {
+					col = entry;
+				}
+			}
+			
+			double lowerBound = (lb != null ? lb.doubleValue() : (type.isSemiContinuous() ? 0 : Double.NEGATIVE_INFINITY));
+			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
+			
+			final IloNumVarType varType;
+			switch (type) {
+				case BOOL:
+					varType = IloNumVarType.Bool;
+					break;
+				case INT:
+				case SEMIINT:
+					varType = IloNumVarType.Int;
+					break;
+				default:
+					varType = IloNumVarType.Float;
+			}
+			
+			if (type.isSemiContinuous()) {
+				if (col != null) {
+					nameToVar.put(name, model.semiContVar(col, lowerBound, upperBound, varType, nativeName(name)));
+				} else {
+					nameToVar.put(name, model.semiContVar(lowerBound, upperBound, varType, nativeName(name)));
+				}
+			} else if (col != null) {
+				nameToVar.put(name, model.numVar(col, lowerBound, upperBound, varType, nativeName(name)));
+			} else {
+				nameToVar.put(name, model.numVar(lowerBound, upperBound, varType, nativeName(name)));
+			}
+			calls++;
+			
+			if (coeff != 0.0) {
+				Linear objective = new Linear(objectiveFunction);
+				objective.add(column.getObjectiveCoefficient(), name);
+				this.objectiveFunction = objective;
+			}
+			nonzeros += column.size();
+			end(Phase.BUILD, column.size());
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableLowerBound(String name, Number lb) {
+		checkOpen();
 		try {
+			begin();
 			IloNumVar var = nameToVar.get(name);
 			if (var == null) {
 				throw new IllegalArgumentException(
 				"Variables must be added to the problem before a bound can be set. " +
 				"(missing: "+name+")");
 			}
-			double lowerBound = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
-			var.setLB(lowerBound);
+			if (var instanceof IloSemiContVar) {
+				((IloSemiContVar) var).setSemiContLB(lb != null ? lb.doubleValue() : 0);
+			} else {
+				double lowerBound = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
+				var.setLB(lowerBound);
+			}
+			calls++;
+			end(Phase.BUILD, 0);
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		} 
@@ -171,7 +471,9 @@ public class ProblemCPLEX extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableUpperBound(String name, Number ub) {
+		checkOpen();
 		try {
+			begin();
 			IloNumVar var = nameToVar.get(name);
 			if (var == null) {
 				throw new IllegalArgumentException(
@@ -180,26 +482,139 @@ public class ProblemCPLEX extends Problem {
 			}
 			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
 			var.setUB(upperBound);
+			calls++;
+			end(Phase.BUILD, 0);
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		} 
 	}
 
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#export(net.sf.javailp.ProblemInterface)
+	 */
+	protected void export(ProblemInterface target) {
+		checkOpen();
+		try {
+			Map<IloNumVar, String> names = new HashMap<IloNumVar, String>();
+			for (Entry<String, IloNumVar> entry : nameToVar.entrySet()) {
+				IloNumVar var = entry.getValue();
+				names.put(var, entry.getKey());
+				if (generalConstraints.containsKey(entry.getKey())) {
+					// the value of a piecewise-linear function
+					continue;
+				}
+				IloNumVarType varType = var.getType();
+				VarType type = (varType == IloNumVarType.Bool ? VarType.BOOL : (varType == IloNumVarType.Int ? VarType.INT : VarType.REAL));
+				Number lb = (var.getLB() > -Double.MAX_VALUE ? var.getLB() : null);
+				if (var instanceof IloSemiContVar) {
+					type = (varType == IloNumVarType.Int ? VarType.SEMIINT : VarType.SEMICONT);
+					lb = ((IloSemiContVar) var).getSemiContLB();
+				}
+				Number ub = (var.getUB() < Double.MAX_VALUE ? var.getUB() : null);
+				target.addVariable(entry.getKey(), type, lb, ub);
+			}
+			
+			exportPiecewiseLinears(target);
+			
+			for (Entry<String, IloRange> entry : nameToCon.entrySet()) {
+				IloRange range = entry.getValue();
+				if (!(range.getExpr() instanceof IloLinearNumExpr)) {
+					throw new OptimizationException("Cannot export the non-linear constraint " + entry.getKey() + ".");
+				}
+				Linear lhs = new Linear();
+				IloLinearNumExprIterator iterator = ((IloLinearNumExpr) range.getExpr()).linearIterator();
+				while (iterator.hasNext()) {
+					IloNumVar var = iterator.nextNumVar();
+					lhs.add(iterator.getValue(), names.get(var));
+				}
+				if (range.getLB() == range.getUB()) {
+					target.addConstraint(entry.getKey(), lhs, Operator.EQ, range.getUB());
+				} else if (range.getLB() <= -Double.MAX_VALUE) {
+					target.addConstraint(entry.getKey(), lhs, Operator.LE, range.getUB());
+				} else if (range.getUB() >= Double.MAX_VALUE) {
+					target.addConstraint(entry.getKey(), lhs, Operator.GE, range.getLB());
+				} else {
+					target.addConstraint(entry.getKey(), range.getLB(), lhs, range.getUB());
+				}
+			}
+			
+			exportGeneralConstraints(target);
+			
+			if (objectiveFunction != null) {
+				OptType optType = (objective.getSense() == IloObjectiveSense.Maximize ? OptType.MAX : OptType.MIN);
+				target.setObjective(objectiveFunction, optType);
+			}
+		} catch (IloException e) {
+			throw new OptimizationException(e.getMessage());
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.AbstractProblem#optimize(boolean, boolean)
 	 */
 	protected Result optimize(boolean postSolve, boolean activateLog) {
+		checkOpen();
+		if (activateLog) {
+			dumpModel();
+		}
 		try {
-			if (!model.solve()) {
-				throw new OptimizationException("No optimal solution found.");
+			if (progressMonitor.isActive()) {
+				model.use(new ProgressCallback());
+			}
+			double timeLimit = model.getParam(IloCplex.DoubleParam.TiLim);
+			if (deadline != null) {
+				model.setParam(IloCplex.DoubleParam.TiLim, deadline.getTimeLimit(timeLimit));
+			}
+			boolean solved;
+			double start = model.getCplexTime();
+			begin();
+			try {
+				solved = model.solve();
+				calls++;
+			} finally {
+				if (progressMonitor.isActive()) {
+					model.clearCallbacks();
+					calls++;
+				}
+				if (deadline != null) {
+					model.setParam(IloCplex.DoubleParam.TiLim, timeLimit);
+					calls++;
+				}
+			}
+			end(Phase.SOLVE, 0);
+			if (!solved) {
+				boolean infeasible = (model.getStatus() == IloCplex.Status.Infeasible);
+				throw new OptimizationException("No optimal solution found.", (infeasible ? Status.INFEASIBLE : null));
 			}
 	
-			Result result = new ResultImpl(this.objectiveFunction);
+			// limits and aborts keep the incumbent
+			ResultImpl result = new ResultImpl(this.objectiveFunction);
+			boolean isOptimal = (model.getStatus() == IloCplex.Status.Optimal);
+			if (isOptimal) {
+				result.setStatus(Status.OPTIMAL);
+			} else if (model.getCplexStatus() == IloCplex.CplexStatus.AbortTimeLim) {
+				result.setStatus(Status.TIME_LIMIT);
+			} else if (model.getCplexStatus() == IloCplex.CplexStatus.AbortUser) {
+				result.setStatus(Status.INTERRUPTED);
+			} else {
+				result.setStatus(Status.FEASIBLE);
+			}
 			
 			if (postSolve) {
 				System.err.println("lp relaxation with fixed integers not yet implemented for CPLEX");
 			}
+			boolean isMIP = model.isMIP();
+			result.setRuntime(model.getCplexTime() - start);
+			result.setIterationCount(model.getNiterations());
+			if (isMIP) {
+				result.setBestBound(model.getBestObjValue());
+				result.setNodeCount(model.getNnodes());
+			} else if (isOptimal) {
+				result.setBestBound(model.getObjValue());
+			}
+			boolean hasDuals = (!isMIP && isOptimal);
 			
+			begin();
 			for (Entry<String, IloNumVar> entry : nameToVar.entrySet()) {
 				String variableName = entry.getKey();
 				IloNumVar var = entry.getValue();
@@ -211,7 +626,19 @@ public class ProblemCPLEX extends Problem {
 				} else {
 					result.putPrimalValue(variableName, value);
 				}
+				if (hasDuals) {
+					result.putDualValue(variableName, model.getReducedCost(var));
+				}
 			}
+			
+			// pure LP: shadow prices are available without a post-solve
+			if (hasDuals) {
+				for (Entry<String, IloRange> entry : nameToCon.entrySet()) {
+					result.putDualValue(entry.getKey(), model.getDual(entry.getValue()));
+				}
+			}
+			calls += (hasDuals ? 3 * nameToVar.size() + nameToCon.size() : 2 * nameToVar.size());
+			end(Phase.EXTRACT, 0);
 	
 			return result;
 		} catch (IloException e) {
@@ -219,4 +646,93 @@ public class ProblemCPLEX extends Problem {
 		} 
 	}
 
+	/**
+	 * Starts the measurement of a phase and its native calls.
+	 */
+	private void begin() {
+		calls = 0;
+		metricsRecorder.begin();
+	}
+	
+	/**
+	 * Ends the measurement of a phase with the native calls since
+	 * {@link #begin()}.
+	 */
+	private void end(Phase phase, long nnz) {
+		metricsRecorder.end(phase, calls, nnz);
+	}
+
+	/**
+	 * The {@code ProgressCallback} reports the progress of the branch-and-cut
+	 * to the progress monitor and aborts the optimization on request.
+	 */
+	private class ProgressCallback extends IloCplex.MIPInfoCallback {
+		
+		private IloNumVar[] variables = null;
+		private String[] variableNames = null;
+		private double lastIncumbent = Double.NaN;
+		
+		/* (non-Javadoc)
+		 * @see ilog.cplex.IloCplex.Callback#main()
+		 */
+		protected void main() throws IloException {
+			Number incumbent = null;
+			boolean newIncumbent = false;
+			Map<String, Number> solution = null;
+			calls++;
+			if (hasIncumbent()) {
+				double value = getIncumbentObjValue();
+				calls++;
+				incumbent = value;
+				if (value != lastIncumbent) {
+					lastIncumbent = value;
+					newIncumbent = true;
+					solution = getIncumbent();
+				}
+			}
+			calls += 2;
+			if (progressMonitor.report(incumbent, getBestObjValue(), getNnodes(), newIncumbent, solution)) {
+				abort();
+				calls++;
+			}
+		}
+		
+		private Map<String, Number> getIncumbent() throws IloException {
+			if (variables == null) {
+				variables = nameToVar.values().toArray(new IloNumVar[nameToVar.size()]);
+				variableNames = nameToVar.keySet().toArray(new String[nameToVar.size()]);
+			}
+			double[] values = getIncumbentValues(variables);
+			calls += 1 + variables.length;
+			Map<String, Number> solution = new LinkedHashMap<String, Number>();
+			for (int i = 0; i < variables.length; i++) {
+				if (variables[i].getType() != IloNumVarType.Float) {
+					solution.put(variableNames[i], (int) Math.round(values[i]));
+				} else {
+					solution.put(variableNames[i], values[i]);
+				}
+			}
+			return solution;
+		}
+	}
+
+	/**
+	 * The {@code Release} ends the model of a closed or unreachable problem.
+	 */
+	private static class Release implements Runnable {
+		
+		private final IloCplex model;
+		
+		Release(IloCplex model) {
+			this.model = model;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run() {
+			model.end();
+		}
+	}
+	
 }
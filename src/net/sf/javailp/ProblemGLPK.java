@@ -3,18 +3,25 @@
  */
 package net.sf.javailp;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
+import org.gnu.glpk.GlpkCallback;
+import org.gnu.glpk.GlpkCallbackListener;
 import org.gnu.glpk.SWIGTYPE_p_double;
 import org.gnu.glpk.SWIGTYPE_p_int;
 import org.gnu.glpk.glp_iocp;
 import org.gnu.glpk.glp_prob;
 import org.gnu.glpk.glp_smcp;
+import org.gnu.glpk.glp_tree;
 
 /**
  * @author fgenoese
@@ -25,28 +32,44 @@ public class ProblemGLPK extends Problem {
 	private glp_prob model;
 	private glp_smcp simplexParameters;
 	private glp_iocp integerParameters;
-	private Map<String, Integer> varNameToIndex = new LinkedHashMap<String, Integer>();
-	private Map<String, Integer> conNameToIndex = new HashMap<String, Integer>();
+	private Memory memory;
+	// the index of a column (row) is the id of its name plus one
+	private NameDictionary variableNames = new NameDictionary();
+	private NameDictionary constraintNames = new NameDictionary();
+	// the suppliers of the rows after the named ones (anonymous constraints)
+	private List<NameSupplier> pendingNames = new ArrayList<NameSupplier>();
+	// the variable arrays with their first column; the names of the columns
+	// of the pending arrays follow the named ones
+	private Map<VariableArray, Integer> arrays = new IdentityHashMap<VariableArray, Integer>();
+	private List<VariableArray> pendingArrays = new ArrayList<VariableArray>();
+	private Map<String, SemiContinuous> semiContinuous = new HashMap<String, SemiContinuous>();
 	private Linear objectiveFunction;
 	private int numberOfIntegerVariables 		= 0;
 	private int numberOfVariables 				= 0;
 	private int numberOfConstraints				= 0;
+	// the native calls since the last begin of a measured phase
+	private long calls = 0;
 	
 	/**
 	 * Constructs a {@code ProblemGLPK}.
 	 * 
 	 */
-	protected ProblemGLPK(glp_prob model, glp_smcp simplexParameters, glp_iocp integerParameters) {
+	protected ProblemGLPK(glp_prob model, glp_smcp simplexParameters, glp_iocp integerParameters, String identifier) {
 		this.model = model;
+		this.identifier = identifier;
 		GLPK.glp_set_prob_name(model, "GLPK");
 		this.simplexParameters = simplexParameters;
 		this.integerParameters = integerParameters;
+		this.memory = new Memory(model);
+		setReleaseAction(memory);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear, net.sf.javailp.OptType)
 	 */
 	public void setObjective(Linear objective, OptType optType) {
+		checkOpen();
+		begin();
 		if (optType == OptType.MAX) {
 			GLPK.glp_set_obj_dir(model, GLPKConstants.GLP_MAX);
 		} else {
@@ -54,27 +77,24 @@ public class ProblemGLPK extends Problem {
 		}
 
 		GLPK.glp_set_obj_coef(model, 0, 0);
+		calls += 2;
 
-		final Map<String, Double> obj = new HashMap<String, Double>();
+		// variables that are not in the problem are ignored
+		final double[] coefficients = new double[numberOfVariables + 1];
 		for (Term term : objective) {
-			String variableName = term.getVariableName();
-			double coeff = term.getCoefficient().doubleValue();
-			obj.put(variableName, coeff);
+			int variableIndex = findColumn(term);
+			if (variableIndex > 0) {
+				coefficients[variableIndex] = term.getCoefficient().doubleValue();
+			}
 		}
 
-		for (Entry<String, Integer> entry : varNameToIndex.entrySet()) {
-			String variableName = entry.getKey();
-			int variableIndex = entry.getValue();
-			
-			if (obj.containsKey(variableName)) {
-				double coeff = obj.get(variableName);
-				GLPK.glp_set_obj_coef(model, variableIndex, coeff);
-			} else {
-				GLPK.glp_set_obj_coef(model, variableIndex, 0);
-			}
+		for (int variableIndex = 1; variableIndex <= numberOfVariables; variableIndex++) {
+			GLPK.glp_set_obj_coef(model, variableIndex, coefficients[variableIndex]);
 		}
+		calls += numberOfVariables;
 		
 		this.objectiveFunction = objective;
+		end(Phase.BUILD, objective.size());
 	}
 
 	/* (non-Javadoc)
@@ -102,57 +122,177 @@ public class ProblemGLPK extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
 	 */
 	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
-		if (conNameToIndex.containsKey(name)) {
-			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
-			return;
+		final int op;
+		switch (operator) {
+			case LE:
+				op = GLPKConstants.GLP_UP;
+				break;
+			case GE:
+				op = GLPKConstants.GLP_LO;
+				break;
+			default:
+				op = GLPKConstants.GLP_FX;
+		}
+		addRow(name, null, lhs, op, rhs.doubleValue(), rhs.doubleValue());
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#addConstraint(net.sf.javailp.NameSupplier, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+	 */
+	public int addConstraint(NameSupplier names, Linear lhs, Operator operator, Number rhs) {
+		final int op;
+		switch (operator) {
+			case LE:
+				op = GLPKConstants.GLP_UP;
+				break;
+			case GE:
+				op = GLPKConstants.GLP_LO;
+				break;
+			default:
+				op = GLPKConstants.GLP_FX;
+		}
+		int id = numberOfConstraints;
+		addRow(null, names, lhs, op, rhs.doubleValue(), rhs.doubleValue());
+		return id;
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#addRange(java.lang.String, net.sf.javailp.Linear, double, double)
+	 */
+	protected void addRange(String name, Linear lhs, double lb, double ub) {
+		addRow(name, null, lhs, GLPKConstants.GLP_DB, lb, ub);
+	}
+	
+	/**
+	 * Adds a row with the given bound type and bounds. Without a name, the
+	 * row is anonymous and its name is requested from the supplier when it
+	 * is needed.
+	 */
+	private void addRow(String name, NameSupplier names, Linear lhs, int boundType, double lb, double ub) {
+		checkOpen();
+		if (name != null) {
+			resolveNames();
+			if (constraintNames.contains(name)) {
+				System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+				return;
+			}
 		}
+		begin();
 		GLPK.glp_add_rows(model, 1);
+		calls++;
 		numberOfConstraints++;
-		conNameToIndex.put(name, numberOfConstraints);
+		if (name != null) {
+			constraintNames.add(name);
+		} else {
+			pendingNames.add(names);
+		}
 		
 		int size = lhs.size();
-		SWIGTYPE_p_int variableIndices = GLPK.new_intArray(size + 1);
-		SWIGTYPE_p_double coefficients = GLPK.new_doubleArray(size + 1);
+		calls += memory.reserve(size);
+		SWIGTYPE_p_int variableIndices = memory.indices;
+		SWIGTYPE_p_double coefficients = memory.values;
 
 		int j = 1;
 		for (Term term : lhs) {
-			String variableName = term.getVariableName();
-			int variableIndex = varNameToIndex.get(variableName);
+			int variableIndex = getColumn(term);
 			double coefficient = term.getCoefficient().doubleValue();
 			GLPK.intArray_setitem(variableIndices, j, variableIndex);
 			GLPK.doubleArray_setitem(coefficients, j, coefficient);
 			j++;
 		}
+		calls += 2 * size;
 
-		final int op;
-		switch (operator) {
-			case LE:
-				op = GLPKConstants.GLP_UP;
-				break;
-			case GE:
-				op = GLPKConstants.GLP_LO;
-				break;
-			default:
-				op = GLPKConstants.GLP_FX;
+		if (nativeNames && name != null) {
+			GLPK.glp_set_row_name(model, numberOfConstraints, name);
+			calls++;
 		}
-
-		GLPK.glp_set_row_name(model, numberOfConstraints, name);
 		GLPK.glp_set_mat_row(model, numberOfConstraints, size, variableIndices, coefficients);
-		GLPK.glp_set_row_bnds(model, numberOfConstraints, op, rhs.doubleValue(), rhs.doubleValue());
+		GLPK.glp_set_row_bnds(model, numberOfConstraints, boundType, lb, ub);
+		calls += 2;
+		nonzeros += size;
+		end(Phase.BUILD, size);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String, net.sf.javailp.SOSType, net.sf.javailp.Linear)
+	 */
+	public void addSOS(String name, SOSType type, Linear weights) {
+		checkOpen();
+		// GLPK has no special ordered sets
+		Reformulation.addSOS(this, new ColumnBounds(), name, type, weights);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String, java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+	 */
+	public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+			Number rhs) {
+		checkOpen();
+		// GLPK has no indicator constraints
+		Reformulation.addIndicatorConstraint(this, new ColumnBounds(), name, indicator, value, lhs, operator, rhs);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String, net.sf.javailp.PiecewiseLinear)
+	 */
+	public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+		checkOpen();
+		// GLPK has no piecewise-linear functions
+		Reformulation.addPiecewiseLinear(this, name, function);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
 	 */
 	public void addVariable(String name, VarType type, Number lb, Number ub) {
-		if (varNameToIndex.containsKey(name)) {
+		checkOpen();
+		resolveVariableNames();
+		if (variableNames.contains(name)) {
 			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
 			return;
 		}
+		if (type.isSemiContinuous()) {
+			addSemiContinuous(name, type, lb, ub, null);
+			return;
+		}
+		begin();
 		GLPK.glp_add_cols(model, 1);
+		calls++;
 		numberOfVariables++;
-		varNameToIndex.put(name, numberOfVariables);
+		variableNames.add(name);
 		
+		setColumn(numberOfVariables, name, type, lb, ub);
+		end(Phase.BUILD, 0);
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#addVariableArray(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, int[])
+	 */
+	public VariableArray addVariableArray(String prefix, VarType type, Number lb, Number ub, int... dimensions) {
+		checkOpen();
+		if (type.isSemiContinuous()) {
+			// semi-continuous variables are reformulated by their names
+			return super.addVariableArray(prefix, type, lb, ub, dimensions);
+		}
+		VariableArray array = new VariableArray(prefix, dimensions);
+		begin();
+		int size = array.size();
+		GLPK.glp_add_cols(model, size);
+		calls++;
+		arrays.put(array, numberOfVariables + 1);
+		pendingArrays.add(array);
+		for (int k = 0; k < size; k++) {
+			numberOfVariables++;
+			setColumn(numberOfVariables, null, type, lb, ub);
+		}
+		end(Phase.BUILD, 0);
+		return array;
+	}
+
+	/**
+	 * Sets the name, kind and bounds of a column.
+	 */
+	private void setColumn(int j, String name, VarType type, Number lb, Number ub) {
 		final int varType;
 		switch (type) {
 			case BOOL:
@@ -167,6 +307,19 @@ public class ProblemGLPK extends Problem {
 				varType = GLPKConstants.GLP_CV;
 		}
 		
+		if (nativeNames && name != null) {
+			GLPK.glp_set_col_name(model, j, name);
+			calls++;
+		}
+		GLPK.glp_set_col_kind(model, j, varType);
+		calls++;
+		setColumnBounds(j, type, lb, ub);
+	}
+	
+	/**
+	 * Sets the bounds of a column.
+	 */
+	private void setColumnBounds(int j, VarType type, Number lb, Number ub) {
 		double lowerBound;
 		double upperBound;
 		final int boundType;
@@ -197,21 +350,407 @@ public class ProblemGLPK extends Problem {
 			}
 		}
 
-		GLPK.glp_set_col_name(model, numberOfVariables, name);
-		GLPK.glp_set_col_kind(model, numberOfVariables, varType);
-		GLPK.glp_set_col_bnds(model, numberOfVariables, boundType, lowerBound, upperBound);
+		GLPK.glp_set_col_bnds(model, j, boundType, lowerBound, upperBound);
+		calls++;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, net.sf.javailp.Column)
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+		checkOpen();
+		resolveVariableNames();
+		if (variableNames.contains(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		if (type.isSemiContinuous()) {
+			addSemiContinuous(name, type, lb, ub, column);
+			return;
+		}
+		int size = column.size();
+		resolveNames();
+		for (int i = 0; i < size; i++) {
+			if (!constraintNames.contains(column.getConstraintName(i))) {
+				throw new IllegalArgumentException(
+						"Constraints in a column must be added to the problem first. " +
+						"(missing: "+column.getConstraintName(i)+", in column of: "+name+")");
+			}
+		}
+		
+		addVariable(name, type, lb, ub);
+		
+		begin();
+		calls += memory.reserve(size);
+		SWIGTYPE_p_int constraintIndices = memory.indices;
+		SWIGTYPE_p_double coefficients = memory.values;
+		for (int i = 0; i < size; i++) {
+			int constraintIndex = constraintNames.indexOf(column.getConstraintName(i)) + 1;
+			GLPK.intArray_setitem(constraintIndices, i + 1, constraintIndex);
+			GLPK.doubleArray_setitem(coefficients, i + 1, column.getCoefficient(i).doubleValue());
+		}
+		GLPK.glp_set_mat_col(model, numberOfVariables, size, constraintIndices, coefficients);
+		calls += 1 + 2 * size;
+		nonzeros += size;
+		
+		double coeff = column.getObjectiveCoefficient().doubleValue();
+		if (coeff != 0.0) {
+			GLPK.glp_set_obj_coef(model, numberOfVariables, coeff);
+			calls++;
+			Linear objective = (objectiveFunction != null ? new Linear(objectiveFunction) : new Linear());
+			objective.add(column.getObjectiveCoefficient(), name);
+			this.objectiveFunction = objective;
+		}
+		end(Phase.BUILD, size);
+	}
+
+	/**
+	 * Adds a semi-continuous (semi-integer) variable as a continuous (integer)
+	 * column with its bounds widened to zero and a binary column
+	 * {@code name_z} that switches it on: {@code lb z <= x <= ub z} (rows
+	 * {@code name_lb} and {@code name_ub}).
+	 */
+	private void addSemiContinuous(String name, VarType type, Number lb, Number ub, Column column) {
+		if (ub == null) {
+			throw new IllegalArgumentException(
+					"Semi-continuous variables need an upper bound in GLPK. " +
+					"(in variable: "+name+")");
+		}
+		SemiContinuous semi = new SemiContinuous();
+		semi.type = type;
+		semi.lb = (lb != null ? lb.doubleValue() : 0.0);
+		semi.ub = ub.doubleValue();
+		semi.indicator = name + "_z";
+		semi.lowerRow = name + "_lb";
+		semi.upperRow = name + "_ub";
+		
+		VarType base = (type == VarType.SEMIINT ? VarType.INT : VarType.REAL);
+		if (column != null) {
+			addVariable(name, base, Math.min(semi.lb, 0.0), Math.max(semi.ub, 0.0), column);
+		} else {
+			addVariable(name, base, Math.min(semi.lb, 0.0), Math.max(semi.ub, 0.0));
+		}
+		addVariable(semi.indicator, VarType.BOOL, 0, 1);
+		Linear upper = new Linear();
+		upper.add(1, name);
+		upper.add(-semi.ub, semi.indicator);
+		addConstraint(semi.upperRow, upper, Operator.LE, 0);
+		Linear lower = new Linear();
+		lower.add(1, name);
+		lower.add(-semi.lb, semi.indicator);
+		addConstraint(semi.lowerRow, lower, Operator.GE, 0);
+		semiContinuous.put(name, semi);
+	}
+	
+	/**
+	 * Sets the bounds of a semi-continuous variable, i.e., the bounds of its
+	 * column and the coefficients of its binary column in the linking rows.
+	 */
+	private void setSemiContinuousBounds(String name, SemiContinuous semi, double lb, double ub) {
+		begin();
+		semi.lb = lb;
+		semi.ub = ub;
+		int j = variableNames.indexOf(name) + 1;
+		double lowerBound = Math.min(lb, 0.0);
+		double upperBound = Math.max(ub, 0.0);
+		int boundType = (lowerBound == upperBound ? GLPKConstants.GLP_FX : GLPKConstants.GLP_DB);
+		GLPK.glp_set_col_bnds(model, j, boundType, lowerBound, upperBound);
+		
+		calls += memory.reserve(2);
+		GLPK.intArray_setitem(memory.indices, 1, j);
+		GLPK.intArray_setitem(memory.indices, 2, variableNames.indexOf(semi.indicator) + 1);
+		GLPK.doubleArray_setitem(memory.values, 1, 1.0);
+		GLPK.doubleArray_setitem(memory.values, 2, -ub);
+		GLPK.glp_set_mat_row(model, constraintNames.indexOf(semi.upperRow) + 1, 2, memory.indices, memory.values);
+		GLPK.doubleArray_setitem(memory.values, 2, -lb);
+		GLPK.glp_set_mat_row(model, constraintNames.indexOf(semi.lowerRow) + 1, 2, memory.indices, memory.values);
+		calls += 8;
+		end(Phase.BUILD, 4);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#load(net.sf.javailp.CsrModel)
+	 */
+	public void load(CsrModel data) {
+		checkOpen();
+		resolveNames();
+		resolveVariableNames();
+		for (int j = 0; j < data.columnNames.length; j++) {
+			if (data.columnTypes[j].isSemiContinuous() || variableNames.contains(data.columnNames[j])) {
+				// semi-continuous variables and duplicates take the regular path
+				super.load(data);
+				return;
+			}
+		}
+		for (String name : data.rowNames) {
+			if (constraintNames.contains(name)) {
+				super.load(data);
+				return;
+			}
+		}
+		
+		begin();
+		int n = data.columnNames.length;
+		int first = numberOfVariables + 1;
+		if (n > 0) {
+			GLPK.glp_add_cols(model, n);
+			calls++;
+		}
+		for (int j = 0; j < n; j++) {
+			numberOfVariables++;
+			if (variableNames.add(data.columnNames[j]) != numberOfVariables - 1) {
+				throw new IllegalArgumentException("The column " + data.columnNames[j] + " is not unique.");
+			}
+			setColumn(numberOfVariables, data.columnNames[j], data.columnTypes[j],
+					CsrModel.toNumber(data.columnLower[j]), CsrModel.toNumber(data.columnUpper[j]));
+		}
+		
+		int rows = 0;
+		for (int i = 0; i < data.rowNames.length; i++) {
+			if (!Double.isInfinite(data.rowLower[i]) || !Double.isInfinite(data.rowUpper[i])) {
+				rows++;
+			}
+		}
+		if (rows > 0) {
+			GLPK.glp_add_rows(model, rows);
+			calls++;
+		}
+		for (int i = 0; i < data.rowNames.length; i++) {
+			if (isFree(data, i)) {
+				// free rows are skipped
+				continue;
+			}
+			numberOfConstraints++;
+			if (constraintNames.add(data.rowNames[i]) != numberOfConstraints - 1) {
+				throw new IllegalArgumentException("The row " + data.rowNames[i] + " is not unique.");
+			}
+			
+			int start = data.rowStart[i];
+			int size = data.rowStart[i + 1] - start;
+			calls += memory.reserve(size);
+			for (int k = 0; k < size; k++) {
+				GLPK.intArray_setitem(memory.indices, k + 1, first + data.columnIndices[start + k]);
+				GLPK.doubleArray_setitem(memory.values, k + 1, data.values[start + k]);
+			}
+			calls += 2 * size;
+			if (nativeNames) {
+				GLPK.glp_set_row_name(model, numberOfConstraints, data.rowNames[i]);
+				calls++;
+			}
+			GLPK.glp_set_mat_row(model, numberOfConstraints, size, memory.indices, memory.values);
+			calls++;
+			setRowBounds(numberOfConstraints, data.rowLower[i], data.rowUpper[i]);
+			nonzeros += size;
+		}
+		int nnz = data.getNonzerosCount();
+		end(Phase.BUILD, nnz);
+		
+		if (data.optType != null) {
+			setObjective(data.getObjectiveLinear(), data.optType);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#load(net.sf.javailp.OffHeapModel)
+	 */
+	public void load(OffHeapModel data) {
+		checkOpen();
+		boolean empty = (numberOfVariables == 0 && numberOfConstraints == 0);
+		for (int j = 0; j < data.getColumnsCount() && empty; j++) {
+			empty = !data.getColumnType(j).isSemiContinuous();
+		}
+		if (!empty) {
+			// semi-continuous variables and names of the problem take the regular path
+			super.load(data);
+			return;
+		}
+		
+		begin();
+		int n = data.getColumnsCount();
+		if (n > 0) {
+			GLPK.glp_add_cols(model, n);
+			calls++;
+		}
+		for (int j = 0; j < n; j++) {
+			String name = data.getColumnName(j);
+			numberOfVariables++;
+			if (variableNames.add(name) != numberOfVariables - 1) {
+				throw new IllegalArgumentException("The column " + name + " is not unique.");
+			}
+			setColumn(numberOfVariables, name, data.getColumnType(j), CsrModel.toNumber(data.getColumnLower(j)),
+					CsrModel.toNumber(data.getColumnUpper(j)));
+		}
+		
+		int rows = 0;
+		for (int i = 0; i < data.getRowsCount(); i++) {
+			if (!Double.isInfinite(data.getRowLower(i)) || !Double.isInfinite(data.getRowUpper(i))) {
+				rows++;
+			}
+		}
+		if (rows > 0) {
+			GLPK.glp_add_rows(model, rows);
+			calls++;
+		}
+		for (int i = 0; i < data.getRowsCount(); i++) {
+			double lb = data.getRowLower(i);
+			double ub = data.getRowUpper(i);
+			if (Double.isInfinite(lb) && Double.isInfinite(ub)) {
+				// free rows are skipped
+				continue;
+			}
+			String name = data.getRowName(i);
+			numberOfConstraints++;
+			if (constraintNames.add(name) != numberOfConstraints - 1) {
+				throw new IllegalArgumentException("The row " + name + " is not unique.");
+			}
+			
+			long start = data.getRowStart(i);
+			int size = (int) (data.getRowStart(i + 1) - start);
+			calls += memory.reserve(size);
+			for (int k = 0; k < size; k++) {
+				GLPK.intArray_setitem(memory.indices, k + 1, 1 + data.getColumnIndex(start + k));
+				GLPK.doubleArray_setitem(memory.values, k + 1, data.getValue(start + k));
+			}
+			calls += 2 * size;
+			if (nativeNames) {
+				GLPK.glp_set_row_name(model, numberOfConstraints, name);
+				calls++;
+			}
+			GLPK.glp_set_mat_row(model, numberOfConstraints, size, memory.indices, memory.values);
+			calls++;
+			setRowBounds(numberOfConstraints, lb, ub);
+			nonzeros += size;
+		}
+		long nnz = data.getNonzerosCount();
+		end(Phase.BUILD, nnz);
+		
+		if (data.getOptType() != null) {
+			setObjective(data.getObjectiveLinear(), data.getOptType());
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#update(net.sf.javailp.CsrModel, net.sf.javailp.CsrModel)
+	 */
+	protected boolean update(CsrModel previous, CsrModel data) {
+		checkOpen();
+		if (previous.columnNames != data.columnNames || previous.rowNames != data.rowNames
+				|| previous.rowStart != data.rowStart || previous.columnIndices != data.columnIndices
+				|| previous.columnTypes != data.columnTypes || previous.optType != data.optType) {
+			return false;
+		}
+		for (VarType type : data.columnTypes) {
+			if (type.isSemiContinuous()) {
+				return false;
+			}
+		}
+		for (int i = 0; i < data.rowNames.length; i++) {
+			if (isFree(previous, i) != isFree(data, i)) {
+				// free rows are not part of the model
+				return false;
+			}
+		}
+		resolveNames();
+		
+		begin();
+		int n = data.columnNames.length;
+		int[] columns = new int[n];
+		boolean objectiveChanged = false;
+		for (int j = 0; j < n; j++) {
+			columns[j] = getColumn(data.columnNames[j]);
+			// the bounds of integer columns are also reset after a post-solve
+			boolean boundsChanged = (previous.columnLower[j] != data.columnLower[j]
+					|| previous.columnUpper[j] != data.columnUpper[j]);
+			if (!boundsChanged) {
+				boundsChanged = (GLPK.glp_get_col_kind(model, columns[j]) != GLPKConstants.GLP_CV);
+				calls++;
+			}
+			if (boundsChanged) {
+				setColumnBounds(columns[j], data.columnTypes[j], CsrModel.toNumber(data.columnLower[j]),
+						CsrModel.toNumber(data.columnUpper[j]));
+			}
+			if (previous.objective[j] != data.objective[j]) {
+				GLPK.glp_set_obj_coef(model, columns[j], data.objective[j]);
+				objectiveChanged = true;
+				calls++;
+			}
+		}
+		
+		int changed = 0;
+		for (int i = 0; i < data.rowNames.length; i++) {
+			if (isFree(data, i)) {
+				continue;
+			}
+			int row = constraintNames.indexOf(data.rowNames[i]) + 1;
+			if (previous.rowLower[i] != data.rowLower[i] || previous.rowUpper[i] != data.rowUpper[i]) {
+				setRowBounds(row, data.rowLower[i], data.rowUpper[i]);
+			}
+			int start = data.rowStart[i];
+			int size = data.rowStart[i + 1] - start;
+			for (int k = start; k < start + size; k++) {
+				if (previous.values[k] != data.values[k]) {
+					// GLPK replaces whole rows
+					calls += memory.reserve(size);
+					for (int l = 0; l < size; l++) {
+						GLPK.intArray_setitem(memory.indices, l + 1, columns[data.columnIndices[start + l]]);
+						GLPK.doubleArray_setitem(memory.values, l + 1, data.values[start + l]);
+					}
+					GLPK.glp_set_mat_row(model, row, size, memory.indices, memory.values);
+					changed += size;
+					calls += 1 + 2 * size;
+					break;
+				}
+			}
+		}
+		if (objectiveChanged) {
+			this.objectiveFunction = data.getObjectiveLinear();
+		}
+		end(Phase.BUILD, changed);
+		return true;
+	}
+	
+	/**
+	 * Returns {@code true} if a row of a model has no finite bound.
+	 */
+	private static boolean isFree(CsrModel data, int i) {
+		return Double.isInfinite(data.rowLower[i]) && Double.isInfinite(data.rowUpper[i]);
+	}
+	
+	/**
+	 * Sets the bounds of a row that has at least one finite bound.
+	 */
+	private void setRowBounds(int i, double lb, double ub) {
+		final int boundType;
+		if (lb == ub) {
+			boundType = GLPKConstants.GLP_FX;
+		} else if (!Double.isInfinite(lb) && !Double.isInfinite(ub)) {
+			boundType = GLPKConstants.GLP_DB;
+		} else if (!Double.isInfinite(ub)) {
+			boundType = GLPKConstants.GLP_UP;
+		} else {
+			boundType = GLPKConstants.GLP_LO;
+		}
+		GLPK.glp_set_row_bnds(model, i, boundType, (Double.isInfinite(lb) ? 0.0 : lb), (Double.isInfinite(ub) ? 0.0 : ub));
+		calls++;
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableLowerBound(String name, Number lb) {
-		Integer variableIndex = varNameToIndex.get(name);
-		if (variableIndex == null) {
+		checkOpen();
+		int variableIndex = findColumn(name);
+		if (variableIndex == 0) {
 			throw new IllegalArgumentException(
 					"Variables must be added to the problem before a bound can be set. " +
 					"(missing: "+name+")");
 		}
+		SemiContinuous semi = semiContinuous.get(name);
+		if (semi != null) {
+			setSemiContinuousBounds(name, semi, (lb != null ? lb.doubleValue() : 0.0), semi.ub);
+			return;
+		}
+		begin();
 		double lowerBound;
 		double upperBound = GLPK.glp_get_col_ub(model, variableIndex);
 		
@@ -233,18 +772,32 @@ public class ProblemGLPK extends Problem {
 		}
 		
 		GLPK.glp_set_col_bnds(model, variableIndex, boundType, lowerBound, upperBound);
+		calls += 3;
+		end(Phase.BUILD, 0);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableUpperBound(String name, Number ub) {
-		Integer variableIndex = varNameToIndex.get(name);
-		if (variableIndex == null) {
+		checkOpen();
+		int variableIndex = findColumn(name);
+		if (variableIndex == 0) {
 			throw new IllegalArgumentException(
 					"Variables must be added to the problem before a bound can be set. " +
 					"(missing: "+name+")");
 		}
+		SemiContinuous semi = semiContinuous.get(name);
+		if (semi != null) {
+			if (ub == null) {
+				throw new IllegalArgumentException(
+						"Semi-continuous variables need an upper bound in GLPK. " +
+						"(in variable: "+name+")");
+			}
+			setSemiContinuousBounds(name, semi, semi.lb, ub.doubleValue());
+			return;
+		}
+		begin();
 		double lowerBound = GLPK.glp_get_col_lb(model, variableIndex);
 		double upperBound;
 		
@@ -266,129 +819,644 @@ public class ProblemGLPK extends Problem {
 		}
 		
 		GLPK.glp_set_col_bnds(model, variableIndex, boundType, lowerBound, upperBound);
+		calls += 3;
+		end(Phase.BUILD, 0);
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#export(net.sf.javailp.ProblemInterface)
+	 */
+	protected void export(ProblemInterface target) {
+		checkOpen();
+		resolveNames();
+		resolveVariableNames();
+		// the binary columns and linking rows of semi-continuous variables are implicit
+		Set<String> implicit = new HashSet<String>();
+		for (SemiContinuous semi : semiContinuous.values()) {
+			implicit.add(semi.indicator);
+			implicit.add(semi.lowerRow);
+			implicit.add(semi.upperRow);
+		}
+		for (int j = 1; j <= numberOfVariables; j++) {
+			String name = variableNames.get(j - 1);
+			
+			SemiContinuous semi = semiContinuous.get(name);
+			if (semi != null) {
+				target.addVariable(name, semi.type, semi.lb, semi.ub);
+				continue;
+			} else if (implicit.contains(name)) {
+				continue;
+			}
+			
+			int kind = GLPK.glp_get_col_kind(model, j);
+			VarType type = (kind == GLPKConstants.GLP_BV ? VarType.BOOL : (kind == GLPKConstants.GLP_IV ? VarType.INT : VarType.REAL));
+			int boundType = GLPK.glp_get_col_type(model, j);
+			Number lb = null;
+			Number ub = null;
+			if (boundType == GLPKConstants.GLP_LO || boundType == GLPKConstants.GLP_DB || boundType == GLPKConstants.GLP_FX) {
+				lb = GLPK.glp_get_col_lb(model, j);
+			}
+			if (boundType == GLPKConstants.GLP_UP || boundType == GLPKConstants.GLP_DB || boundType == GLPKConstants.GLP_FX) {
+				ub = GLPK.glp_get_col_ub(model, j);
+			}
+			target.addVariable(name, type, lb, ub);
+		}
+		
+		for (int i = 1; i <= numberOfConstraints; i++) {
+			String name = constraintNames.get(i - 1);
+			if (implicit.contains(name)) {
+				continue;
+			}
+			// the length of the row first (GLPK skips null arrays)
+			int size = GLPK.glp_get_mat_row(model, i, null, null);
+			memory.reserve(size);
+			GLPK.glp_get_mat_row(model, i, memory.indices, memory.values);
+			Linear lhs = new Linear();
+			for (int k = 1; k <= size; k++) {
+				lhs.add(GLPK.doubleArray_getitem(memory.values, k), variableNames.get(GLPK.intArray_getitem(memory.indices, k) - 1));
+			}
+			
+			int rowType = GLPK.glp_get_row_type(model, i);
+			if (rowType == GLPKConstants.GLP_UP) {
+				target.addConstraint(name, lhs, Operator.LE, GLPK.glp_get_row_ub(model, i));
+			} else if (rowType == GLPKConstants.GLP_LO) {
+				target.addConstraint(name, lhs, Operator.GE, GLPK.glp_get_row_lb(model, i));
+			} else if (rowType == GLPKConstants.GLP_FX) {
+				target.addConstraint(name, lhs, Operator.EQ, GLPK.glp_get_row_lb(model, i));
+			} else if (rowType == GLPKConstants.GLP_DB) {
+				target.addConstraint(name, GLPK.glp_get_row_lb(model, i), lhs, GLPK.glp_get_row_ub(model, i));
+			} else {
+				throw new OptimizationException("Cannot export the constraint " + name + " of type " + rowType + ".");
+			}
+		}
+		
+		if (objectiveFunction != null) {
+			OptType optType = (GLPK.glp_get_obj_dir(model) == GLPKConstants.GLP_MAX ? OptType.MAX : OptType.MIN);
+			target.setObjective(objectiveFunction, optType);
+		}
 	}
 	
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.AbstractProblem#optimize(boolean, boolean)
 	 */
 	protected Result optimize(boolean postSolve, boolean activateLog) {
+		checkOpen();
+		if (activateLog) {
+			dumpModel();
+		}
 		int status;
-		Result result = new ResultImpl(this.objectiveFunction);
+		// the values keep frozen views of the names and copies of the pending suppliers
+		NameDictionary[] dictionaries = { variableNames, constraintNames };
+		int[] sizes = { numberOfVariables, numberOfConstraints };
+		NameSupplier[] suppliers = { new ArrayNames(variableNames.size(), pendingArrays),
+				new RowNames(constraintNames.size(), pendingNames) };
+		NameDictionary.Values primalValues = new NameDictionary.Values(dictionaries, sizes, suppliers);
+		NameDictionary.Values dualValues = new NameDictionary.Values(dictionaries, sizes, suppliers);
+		for (Entry<VariableArray, Integer> entry : arrays.entrySet()) {
+			primalValues.putArray(entry.getKey(), 0, entry.getValue() - 1);
+			dualValues.putArray(entry.getKey(), 0, entry.getValue() - 1);
+		}
+		ResultImpl result = new ResultImpl(this.objectiveFunction, primalValues, dualValues);
+		long start = System.nanoTime();
 		
 		if (numberOfIntegerVariables == 0) {
-			GLPK.glp_simplex(model, simplexParameters);
+			begin();
+			int ret = simplex();
+			end(Phase.SOLVE, 0);
 			status = GLPK.glp_get_status(model);
 			if (status != GLPKConstants.GLP_OPT && status != GLPKConstants.GLP_FEAS) {
-				throw new OptimizationException("No optimal or feasible solution found.");
+				boolean infeasible = (ret == GLPKConstants.GLP_ENOPFS || status == GLPKConstants.GLP_NOFEAS);
+				throw new OptimizationException("No optimal or feasible solution found.",
+						(infeasible ? Status.INFEASIBLE : null));
+			}
+			boolean isOptimal = (status == GLPKConstants.GLP_OPT);
+			result.setStatus(isOptimal ? Status.OPTIMAL : toStatus(ret));
+			result.setRuntime((System.nanoTime() - start) / 1e9);
+			if (isOptimal) {
+				result.setBestBound(GLPK.glp_get_obj_val(model));
 			}
 			
-			for (Entry<String, Integer> entry : varNameToIndex.entrySet()) {
-				String variableName = entry.getKey();
-				int variableIndex = entry.getValue();
-				
-				double primalValue = GLPK.glp_get_col_prim(model, variableIndex);
-				double dualValue = GLPK.glp_get_col_dual(model, variableIndex);
-
-				if (GLPK.glp_get_col_kind(model, variableIndex) == GLPKConstants.GLP_IV) {
-					int v = (int) Math.round(primalValue);
-					result.putPrimalValue(variableName, v);
+			begin();
+			for (int j = 0; j < numberOfVariables; j++) {
+				double primalValue = GLPK.glp_get_col_prim(model, j + 1);
+				int kind = GLPK.glp_get_col_kind(model, j + 1);
+				if (kind == GLPKConstants.GLP_IV) {
+					primalValues.set(0, j, (int) Math.round(primalValue));
 				} else {
-					result.putPrimalValue(variableName, primalValue);
+					primalValues.set(0, j, primalValue);
+				}
+				if (isOptimal) {
+					dualValues.set(0, j, GLPK.glp_get_col_dual(model, j + 1));
 				}
-				result.putDualValue(variableName, dualValue);
 			}
 
-			for (Entry<String, Integer> entry : conNameToIndex.entrySet()) {
-				String constraintName = entry.getKey();
-				int constraintIndex = entry.getValue();
-				
-				double primalValue = GLPK.glp_get_row_prim(model, constraintIndex);
-				double dualValue = GLPK.glp_get_row_dual(model, constraintIndex);
-				
-				result.putPrimalValue(constraintName, primalValue);
-				result.putDualValue(constraintName, dualValue);
+			for (int i = 0; i < numberOfConstraints; i++) {
+				primalValues.set(1, i, GLPK.glp_get_row_prim(model, i + 1));
+				if (isOptimal) {
+					dualValues.set(1, i, GLPK.glp_get_row_dual(model, i + 1));
+				}
 			}
+			calls += (isOptimal ? 3 : 2) * numberOfVariables + (isOptimal ? 2 : 1) * numberOfConstraints;
+			end(Phase.EXTRACT, 0);
 			
 			return result;
 		}
 		
 		integerParameters.setPresolve(GLPKConstants.GLP_ON);
-		GLPK.glp_intopt(model, integerParameters);
+		// the callback also tracks the bound and the node count
+		ProgressCallback callback = new ProgressCallback(Thread.currentThread());
+		GlpkCallback.addListener(callback);
+		int timeLimit = integerParameters.getTm_lim();
+		if (deadline != null) {
+			integerParameters.setTm_lim(toTimeLimit(timeLimit));
+		}
+		int ret;
+		begin();
+		try {
+			ret = GLPK.glp_intopt(model, integerParameters);
+			calls++;
+		} finally {
+			GlpkCallback.removeListener(callback);
+			integerParameters.setTm_lim(timeLimit);
+		}
+		end(Phase.SOLVE, 0);
 		status = GLPK.glp_mip_status(model);
 		if (status == GLPKConstants.GLP_OPT || status == GLPKConstants.GLP_FEAS) {
-			// post-solve: LP relaxation with fixed integers
-			if (postSolve) {
+			// limits and stops keep the incumbent
+			boolean isOptimal = (status == GLPKConstants.GLP_OPT || ret == GLPKConstants.GLP_EMIPGAP);
+			result.setStatus(isOptimal ? Status.OPTIMAL : toStatus(ret));
+			result.setRuntime((System.nanoTime() - start) / 1e9);
+			result.setBestBound(status == GLPKConstants.GLP_OPT ? GLPK.glp_mip_obj_val(model) : callback.bound);
+			result.setNodeCount(callback.nodes);
+			
+			// post-solve: LP relaxation with fixed integers (skipped if the deadline has passed)
+			if (postSolve && (deadline == null || !deadline.isExpired())) {
+				begin();
 				for (int i = 1; i <= numberOfVariables; i++) {
 					int kind = GLPK.glp_get_col_kind(model, i);
+					calls++;
 					if (kind == GLPKConstants.GLP_IV || kind == GLPKConstants.GLP_BV) {
 						double x = GLPK.glp_mip_col_val(model, i);
 						GLPK.glp_set_col_bnds(model, i, GLPKConstants.GLP_FX, x, x);
+						calls += 2;
 					}
 				}
-				GLPK.glp_simplex(model, simplexParameters);
+				simplex();
 				status = GLPK.glp_get_status(model);
+				calls++;
+				end(Phase.POSTSOLVE, 0);
 				
-				if (status != GLPKConstants.GLP_OPT && status != GLPKConstants.GLP_FEAS) {
+				// without duals if the deadline interrupted the post-solve
+				boolean hasDuals = (status == GLPKConstants.GLP_OPT || status == GLPKConstants.GLP_FEAS);
+				if (!hasDuals && (deadline == null || !deadline.isExpired())) {
 					throw new OptimizationException("No optimal or feasible solution found.");
 				}
 				
-				for (Entry<String, Integer> entry : varNameToIndex.entrySet()) {
-					String variableName = entry.getKey();
-					int variableIndex = entry.getValue();
-					
-					double primalValue = GLPK.glp_mip_col_val(model, variableIndex);
-					double dualValue = GLPK.glp_get_col_dual(model, variableIndex);
-
-					if (GLPK.glp_get_col_kind(model, variableIndex) == GLPKConstants.GLP_IV) {
-						int v = (int) Math.round(primalValue);
-						result.putPrimalValue(variableName, v);
+				begin();
+				for (int j = 0; j < numberOfVariables; j++) {
+					double primalValue = GLPK.glp_mip_col_val(model, j + 1);
+					int kind = GLPK.glp_get_col_kind(model, j + 1);
+					if (kind == GLPKConstants.GLP_IV) {
+						primalValues.set(0, j, (int) Math.round(primalValue));
 					} else {
-						result.putPrimalValue(variableName, primalValue);
+						primalValues.set(0, j, primalValue);
+					}
+					if (hasDuals) {
+						dualValues.set(0, j, GLPK.glp_get_col_dual(model, j + 1));
 					}
-					result.putDualValue(variableName, dualValue);
 				}
 
-				for (Entry<String, Integer> entry : conNameToIndex.entrySet()) {
-					String constraintName = entry.getKey();
-					int constraintIndex = entry.getValue();
-					
-					double primalValue = GLPK.glp_mip_row_val(model, constraintIndex);
-					double dualValue = GLPK.glp_get_row_dual(model, constraintIndex);
-					
-					result.putPrimalValue(constraintName, primalValue);
-					result.putDualValue(constraintName, dualValue);
+				for (int i = 0; i < numberOfConstraints; i++) {
+					primalValues.set(1, i, GLPK.glp_mip_row_val(model, i + 1));
+					if (hasDuals) {
+						dualValues.set(1, i, GLPK.glp_get_row_dual(model, i + 1));
+					}
 				}
+				calls += (hasDuals ? 3 : 2) * numberOfVariables + (hasDuals ? 2 : 1) * numberOfConstraints;
+				end(Phase.EXTRACT, 0);
 				
 				return result;
 			} // end post-solve
 		} else {
-			throw new OptimizationException("No optimal or feasible solution found.");
+			boolean infeasible = (ret == GLPKConstants.GLP_ENOPFS || status == GLPKConstants.GLP_NOFEAS);
+			throw new OptimizationException("No optimal or feasible solution found.",
+					(infeasible ? Status.INFEASIBLE : null));
 		}
 		
-		for (Entry<String, Integer> entry : varNameToIndex.entrySet()) {
-			String variableName = entry.getKey();
-			int variableIndex = entry.getValue();
-			
-			double primalValue = GLPK.glp_mip_col_val(model, variableIndex);
-			
-			if (GLPK.glp_get_col_kind(model, variableIndex) == GLPKConstants.GLP_IV || GLPK.glp_get_col_kind(model, variableIndex) == GLPKConstants.GLP_BV) {
-				int v = (int) Math.round(primalValue);
-				result.putPrimalValue(variableName, v);
+		begin();
+		for (int j = 0; j < numberOfVariables; j++) {
+			double primalValue = GLPK.glp_mip_col_val(model, j + 1);
+			int kind = GLPK.glp_get_col_kind(model, j + 1);
+			if (kind == GLPKConstants.GLP_IV || kind == GLPKConstants.GLP_BV) {
+				primalValues.set(0, j, (int) Math.round(primalValue));
 			} else {
-				result.putPrimalValue(variableName, primalValue);
+				primalValues.set(0, j, primalValue);
 			}
 		}
 
-		for (Entry<String, Integer> entry : conNameToIndex.entrySet()) {
-			String constraintName = entry.getKey();
-			int constraintIndex = entry.getValue();
-			
-			double primalValue = GLPK.glp_mip_row_val(model, constraintIndex);
-			
-			result.putPrimalValue(constraintName, primalValue);
+		for (int i = 0; i < numberOfConstraints; i++) {
+			primalValues.set(1, i, GLPK.glp_mip_row_val(model, i + 1));
 		}
+		calls += 2 * numberOfVariables + numberOfConstraints;
+		end(Phase.EXTRACT, 0);
 
 		return result;
 	}
 
+	/**
+	 * Requests the names of the anonymous rows from their suppliers and adds
+	 * them to the dictionary (and to the native model). All names are
+	 * checked first: a row whose name already exists is reported and deleted
+	 * (the anonymous rows are the last rows of the model, thus, the rows
+	 * after it move up).
+	 */
+	private void resolveNames() {
+		if (pendingNames.isEmpty()) {
+			return;
+		}
+		int first = constraintNames.size();
+		int size = pendingNames.size();
+		String[] names = new String[size];
+		Set<String> added = new HashSet<String>();
+		int duplicates = 0;
+		for (int k = 0; k < size; k++) {
+			String name = getConstraintName(pendingNames.get(k), first + k);
+			if (constraintNames.contains(name) || !added.add(name)) {
+				System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+				duplicates++;
+			} else {
+				names[k] = name;
+			}
+		}
+		pendingNames.clear();
+		
+		if (duplicates > 0 && !closed) {
+			calls += memory.reserve(duplicates);
+			int d = 1;
+			for (int k = 0; k < size; k++) {
+				if (names[k] == null) {
+					nonzeros -= GLPK.glp_get_mat_row(model, first + k + 1, null, null);
+					GLPK.intArray_setitem(memory.indices, d++, first + k + 1);
+					calls += 2;
+				}
+			}
+			GLPK.glp_del_rows(model, duplicates, memory.indices);
+			calls++;
+		}
+		numberOfConstraints -= duplicates;
+		for (String name : names) {
+			if (name == null) {
+				continue;
+			}
+			int id = constraintNames.add(name);
+			if (nativeNames && !closed) {
+				GLPK.glp_set_row_name(model, id + 1, name);
+				calls++;
+			}
+		}
+	}
+	
+	/**
+	 * Derives the names of the columns of the pending variable arrays and
+	 * adds them to the dictionary (and to the native model).
+	 */
+	private void resolveVariableNames() {
+		if (pendingArrays.isEmpty()) {
+			return;
+		}
+		for (VariableArray array : pendingArrays) {
+			for (int k = 0; k < array.size(); k++) {
+				int id = variableNames.size();
+				String name = array.getName(k);
+				if (variableNames.add(name) != id) {
+					throw new IllegalArgumentException("The variable name " + name + " is not unique.");
+				}
+				if (nativeNames && !closed) {
+					GLPK.glp_set_col_name(model, id + 1, name);
+					calls++;
+				}
+			}
+		}
+		pendingArrays.clear();
+	}
+	
+	/**
+	 * Returns the index of the column of a variable or 0 if the variable is
+	 * not in the problem.
+	 */
+	private int findColumn(String name) {
+		int j = variableNames.indexOf(name);
+		if (j < 0 && !pendingArrays.isEmpty()) {
+			resolveVariableNames();
+			j = variableNames.indexOf(name);
+		}
+		return j + 1;
+	}
+	
+	/**
+	 * Returns the index of the column of the variable of a term (by index
+	 * arithmetic for the elements of variable arrays) or 0 if the variable
+	 * is not in the problem.
+	 */
+	private int findColumn(Term term) {
+		if (term.getArray() != null) {
+			Integer first = arrays.get(term.getArray());
+			if (first != null) {
+				return first + term.getOffset();
+			}
+		}
+		return findColumn(term.getVariableName());
+	}
+	
+	/**
+	 * Returns the index of the column of the variable of a term.
+	 */
+	private int getColumn(Term term) {
+		int j = findColumn(term);
+		if (j == 0) {
+			throw new IllegalArgumentException(
+					"Variables in a linear expression must be added to the problem first. " +
+					"(missing: "+term.getVariableName()+")");
+		}
+		return j;
+	}
+	
+	/**
+	 * Returns the index of the column of a variable.
+	 */
+	private int getColumn(String name) {
+		int j = findColumn(name);
+		if (j == 0) {
+			throw new IllegalArgumentException(
+					"Variables in a linear expression must be added to the problem first. " +
+					"(missing: "+name+")");
+		}
+		return j;
+	}
+	
+	/**
+	 * Runs the simplex with the time limit of the deadline (if any).
+	 */
+	private int simplex() {
+		int timeLimit = simplexParameters.getTm_lim();
+		if (deadline != null) {
+			simplexParameters.setTm_lim(toTimeLimit(timeLimit));
+		}
+		try {
+			calls++;
+			return GLPK.glp_simplex(model, simplexParameters);
+		} finally {
+			simplexParameters.setTm_lim(timeLimit);
+		}
+	}
+	
+	/**
+	 * Returns the time limit in milliseconds with respect to the deadline.
+	 */
+	private int toTimeLimit(int timeLimit) {
+		double remaining = deadline.getTimeLimit(timeLimit / 1000.0) * 1000;
+		return (int) Math.max(1, Math.ceil(remaining));
+	}
+	
+	/**
+	 * Starts the measurement of a phase and its native calls.
+	 */
+	private void begin() {
+		calls = 0;
+		metricsRecorder.begin();
+	}
+	
+	/**
+	 * Ends the measurement of a phase with the native calls since
+	 * {@link #begin()}.
+	 */
+	private void end(Phase phase, long nnz) {
+		metricsRecorder.end(phase, calls, nnz);
+	}
+	
+	/**
+	 * Returns the status of a feasible but not optimal solution for the
+	 * return code of the simplex or the branch-and-cut.
+	 */
+	private static Status toStatus(int ret) {
+		if (ret == GLPKConstants.GLP_ETMLIM) {
+			return Status.TIME_LIMIT;
+		} else if (ret == GLPKConstants.GLP_ESTOP) {
+			return Status.INTERRUPTED;
+		}
+		return Status.FEASIBLE;
+	}
+	
+	/**
+	 * A semi-continuous (semi-integer) variable with its binary column and
+	 * linking rows.
+	 */
+	private static class SemiContinuous {
+		private VarType type;
+		private double lb;
+		private double ub;
+		private String indicator;
+		private String lowerRow;
+		private String upperRow;
+	}
+	
+	/**
+	 * The names of the columns of the pending variable arrays (for the
+	 * values of a result, independent of the problem).
+	 */
+	private static class ArrayNames implements NameSupplier {
+		private final int first;
+		private final VariableArray[] arrays;
+
+		private ArrayNames(int first, List<VariableArray> arrays) {
+			this.first = first;
+			this.arrays = arrays.toArray(new VariableArray[arrays.size()]);
+		}
+
+		public String getName(int id) {
+			int offset = id - first;
+			for (VariableArray array : arrays) {
+				if (offset < array.size()) {
+					return array.getName(offset);
+				}
+				offset -= array.size();
+			}
+			throw new IndexOutOfBoundsException("column: " + id);
+		}
+	}
+	
+	/**
+	 * The names of the pending anonymous rows (for the values of a result,
+	 * independent of the problem).
+	 */
+	private static class RowNames implements NameSupplier {
+		private final int first;
+		private final NameSupplier[] names;
+
+		private RowNames(int first, List<NameSupplier> names) {
+			this.first = first;
+			this.names = names.toArray(new NameSupplier[names.size()]);
+		}
+
+		public String getName(int id) {
+			return getConstraintName(names[id - first], id);
+		}
+	}
+	
+	/**
+	 * The bounds of the columns of the model.
+	 */
+	private class ColumnBounds implements Reformulation.Bounds {
+		public double getLowerBound(String name) {
+			int j = getColumn(name);
+			int boundType = GLPK.glp_get_col_type(model, j);
+			if (boundType == GLPKConstants.GLP_LO || boundType == GLPKConstants.GLP_DB || boundType == GLPKConstants.GLP_FX) {
+				return GLPK.glp_get_col_lb(model, j);
+			}
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		public double getUpperBound(String name) {
+			int j = getColumn(name);
+			int boundType = GLPK.glp_get_col_type(model, j);
+			if (boundType == GLPKConstants.GLP_UP || boundType == GLPKConstants.GLP_DB || boundType == GLPKConstants.GLP_FX) {
+				return GLPK.glp_get_col_ub(model, j);
+			}
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+	
+	/**
+	 * The {@code ProgressCallback} tracks the best bound and the node count of
+	 * the branch-and-cut, reports the progress to the progress monitor and
+	 * terminates the search on request. The listeners of GLPK are global,
+	 * thus, only calls on the solving thread are handled. The search tree
+	 * works on the presolved problem, thus, new incumbents are reported
+	 * without their solution.
+	 */
+	private class ProgressCallback implements GlpkCallbackListener {
+		
+		private final Thread thread;
+		private boolean hasIncumbent = false;
+		private Number bound = null;
+		private long nodes = 0;
+		
+		ProgressCallback(Thread thread) {
+			this.thread = thread;
+		}
+		
+		/* (non-Javadoc)
+		 * @see org.gnu.glpk.GlpkCallbackListener#callback(org.gnu.glpk.glp_tree)
+		 */
+		public void callback(glp_tree tree) {
+			if (Thread.currentThread() != thread) {
+				return;
+			}
+			int reason = GLPK.glp_ios_reason(tree);
+			calls++;
+			boolean newIncumbent = (reason == GLPKConstants.GLP_IBINGO);
+			if (!newIncumbent && reason != GLPKConstants.GLP_ISELECT) {
+				return;
+			}
+			hasIncumbent |= newIncumbent;
+			
+			int node = GLPK.glp_ios_best_node(tree);
+			calls++;
+			if (node != 0) {
+				bound = GLPK.glp_ios_node_bound(tree, node);
+				calls++;
+			}
+			
+			// only the total count is needed (GLPK skips null pointers)
+			GLPK.glp_ios_tree_size(tree, null, null, memory.count);
+			nodes = GLPK.intArray_getitem(memory.count, 0);
+			calls += 2;
+			
+			if (!progressMonitor.isActive()) {
+				return;
+			}
+			Number incumbent = null;
+			if (hasIncumbent) {
+				incumbent = GLPK.glp_mip_obj_val(GLPK.glp_ios_get_prob(tree));
+				calls += 2;
+			}
+			if (progressMonitor.report(incumbent, bound, nodes, newIncumbent, null)) {
+				GLPK.glp_ios_terminate(tree);
+				calls++;
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#getNativeMemory()
+	 */
+	@Override
+	public long getNativeMemory() {
+		if (closed) {
+			return 0;
+		}
+		return super.getNativeMemory() + memory.getBytes();
+	}
+	
+	/**
+	 * The {@code Memory} holds the native model and the scratch arrays that
+	 * pass rows and columns to GLPK. The arrays are reused and grow to the
+	 * largest row or column. Running it deletes the arrays and the model; it
+	 * does not reference the problem (see {@link Reclaimer}).
+	 */
+	private static class Memory implements Runnable {
+		
+		private glp_prob model;
+		private SWIGTYPE_p_int indices = null;
+		private SWIGTYPE_p_double values = null;
+		private SWIGTYPE_p_int count = GLPK.new_intArray(1);
+		private int capacity = 0;
+		
+		Memory(glp_prob model) {
+			this.model = model;
+		}
+		
+		/**
+		 * Ensures that the arrays hold {@code size} elements (GLPK arrays
+		 * start at index 1) and returns the number of native calls.
+		 */
+		int reserve(int size) {
+			if (size + 1 <= capacity) {
+				return 0;
+			}
+			int calls = deleteArrays();
+			capacity = Math.max(size + 1, Math.max(16, 2 * capacity));
+			indices = GLPK.new_intArray(capacity);
+			values = GLPK.new_doubleArray(capacity);
+			return calls + 2;
+		}
+		
+		long getBytes() {
+			return capacity * 12L + 4L;
+		}
+		
+		private int deleteArrays() {
+			capacity = 0;
+			if (indices == null) {
+				return 0;
+			}
+			GLPK.delete_intArray(indices);
+			GLPK.delete_doubleArray(values);
+			indices = null;
+			values = null;
+			return 2;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run() {
+			deleteArrays();
+			GLPK.delete_intArray(count);
+			GLPK.glp_delete_prob(model);
+			count = null;
+			model = null;
+		}
+	}
+	
 }
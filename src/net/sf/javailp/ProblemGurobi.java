@@ -1,9 +1,14 @@
 package net.sf.javailp;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import gurobi.GRB;
+import gurobi.GRBCallback;
+import gurobi.GRBColumn;
 import gurobi.GRBConstr;
 import gurobi.GRBEnv;
 import gurobi.GRBException;
@@ -19,11 +24,14 @@ import gurobi.GRB.DoubleAttr;
 public class ProblemGurobi extends Problem {
 	
 	private GRBModel model;
-	private String identifier;
 	private boolean hasChanged 					= false;
 	private Map<String, GRBVar> nameToVar 		= new HashMap<String, GRBVar>();
 	private Map<String, GRBConstr> nameToCon 	= new HashMap<String, GRBConstr>();
+	private Map<String, double[]> ranges		= new HashMap<String, double[]>();
 	private Linear objectiveFunction;
+	private OptType optType						= OptType.MIN;
+	// the native calls since the last begin of a measured phase
+	private long calls = 0;
 	
 	/**
 	 * Constructs a {@code ProblemGurobi}.
@@ -32,16 +40,20 @@ public class ProblemGurobi extends Problem {
 	protected ProblemGurobi(GRBEnv env, GRBModel model, String identifier) {
 		this.model = model;
 		this.identifier = identifier;
+		setReleaseAction(new Release(model));
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setObjective(net.sf.javailp.Linear, net.sf.javailp.OptType)
 	 */
 	public void setObjective(Linear objective, OptType optType) {
+		checkOpen();
 		try {
+			begin();
 			if (hasChanged) {
 				model.update();
 				hasChanged = false;
+				calls++;
 			}
 			for (Term term : objective.terms) {
 				GRBVar var = nameToVar.get(term.getVariableName());
@@ -55,8 +67,11 @@ public class ProblemGurobi extends Problem {
 				} else {
 					var.set(GRB.DoubleAttr.Obj, -term.getCoefficient().doubleValue());
 				}
+				calls++;
 			}
 			this.objectiveFunction = objective;
+			this.optType = optType;
+			end(Phase.BUILD, objective.size());
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
@@ -67,6 +82,7 @@ public class ProblemGurobi extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#setStartingSolution(java.util.Map)
 	 */
 	public void setStartingSolution(Map<String, Number> startingSolution) {
+		checkOpen();
 		try {
 			for (String variableName : startingSolution.keySet()) {
 				GRBVar var = nameToVar.get(variableName);
@@ -100,27 +116,20 @@ public class ProblemGurobi extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#addConstraint(java.lang.String, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
 	 */
 	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs) {
+		checkOpen();
 		if (nameToCon.containsKey(name)) {
 			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
 			return;
 		}
 		try {
+			begin();
 			if (hasChanged) {
 				model.update();
 				hasChanged = false;
+				calls++;
 			}
 			
-			GRBLinExpr expr = new GRBLinExpr();
-			for (Term term : lhs.terms) {
-				GRBVar var = nameToVar.get(term.getVariableName());
-				if (var == null) {
-					throw new IllegalArgumentException(
-					"Variables in a linear expression must be added to the problem first. " +
-					"(missing: "+term.getVariableName()+
-					", in constraint: "+name+")");
-				}
-				expr.addTerm(term.getCoefficient().doubleValue(), var);
-			}
+			GRBLinExpr expr = toExpr(lhs, name);
 
 			final char op;
 			switch (operator) {
@@ -135,24 +144,197 @@ public class ProblemGurobi extends Problem {
 			}
 
 			nameToCon.put(name, model.addConstr(expr, op, rhs.doubleValue(), name));
+			calls++;
+			hasChanged = true;
+			nonzeros += lhs.size();
+			end(Phase.BUILD, lhs.size());
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
 
 	}
 
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#addRange(java.lang.String, net.sf.javailp.Linear, double, double)
+	 */
+	protected void addRange(String name, Linear lhs, double lb, double ub) {
+		checkOpen();
+		if (nameToCon.containsKey(name)) {
+			System.err.println("cannot add constraint '"+name+"': a constraint with this name already exists");
+			return;
+		}
+		try {
+			begin();
+			if (hasChanged) {
+				model.update();
+				hasChanged = false;
+				calls++;
+			}
+			
+			// Gurobi adds a range variable for each range constraint
+			nameToCon.put(name, model.addRange(toExpr(lhs, name), lb, ub, name));
+			calls++;
+			ranges.put(name, new double[] { lb, ub });
+			hasChanged = true;
+			nonzeros += lhs.size();
+			end(Phase.BUILD, lhs.size());
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Converts the linear expression of a constraint.
+	 */
+	private GRBLinExpr toExpr(Linear lhs, String name) {
+		GRBLinExpr expr = new GRBLinExpr();
+		for (Term term : lhs.terms) {
+			GRBVar var = nameToVar.get(term.getVariableName());
+			if (var == null) {
+				throw new IllegalArgumentException(
+				"Variables in a linear expression must be added to the problem first. " +
+				"(missing: "+term.getVariableName()+
+				", in constraint: "+name+")");
+			}
+			expr.addTerm(term.getCoefficient().doubleValue(), var);
+		}
+		return expr;
+	}
+	
+	/**
+	 * Returns the variables of the model without the range variables of the
+	 * range constraints.
+	 */
+	private GRBVar[] getVariables() throws GRBException {
+		GRBVar[] variables = model.getVars();
+		calls++;
+		if (ranges.isEmpty()) {
+			return variables;
+		}
+		String[] variableNames = model.get(GRB.StringAttr.VarName, variables);
+		calls++;
+		List<GRBVar> own = new ArrayList<GRBVar>(nameToVar.size());
+		for (int j = 0; j < variables.length; j++) {
+			if (nameToVar.containsKey(variableNames[j])) {
+				own.add(variables[j]);
+			}
+		}
+		return own.toArray(new GRBVar[own.size()]);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addSOS(java.lang.String, net.sf.javailp.SOSType, net.sf.javailp.Linear)
+	 */
+	public void addSOS(String name, SOSType type, Linear weights) {
+		checkOpen();
+		if (generalConstraints.containsKey(name)) {
+			System.err.println("cannot add SOS '"+name+"': an SOS with this name already exists");
+			return;
+		}
+		try {
+			begin();
+			if (hasChanged) {
+				model.update();
+				hasChanged = false;
+				calls++;
+			}
+			GRBVar[] vars = new GRBVar[weights.size()];
+			double[] values = new double[weights.size()];
+			for (int k = 0; k < weights.size(); k++) {
+				Term term = weights.get(k);
+				vars[k] = nameToVar.get(term.getVariableName());
+				if (vars[k] == null) {
+					throw new IllegalArgumentException(
+					"Variables in a linear expression must be added to the problem first. " +
+					"(missing: "+term.getVariableName()+
+					", in SOS: "+name+")");
+				}
+				values[k] = term.getCoefficient().doubleValue();
+			}
+			model.addSOS(vars, values, (type == SOSType.SOS1 ? GRB.SOS_TYPE1 : GRB.SOS_TYPE2));
+			calls++;
+			GeneralConstraint constraint = new GeneralConstraint();
+			constraint.name = name;
+			constraint.type = type;
+			constraint.lhs = new Linear(weights);
+			generalConstraints.put(name, constraint);
+			hasChanged = true;
+			nonzeros += weights.size();
+			end(Phase.BUILD, weights.size());
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addIndicatorConstraint(java.lang.String, java.lang.String, int, net.sf.javailp.Linear, net.sf.javailp.Operator, java.lang.Number)
+	 */
+	public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+			Number rhs) {
+		checkOpen();
+		// the Gurobi 5.0 API has no general constraints
+		Reformulation.addIndicatorConstraint(this, new Reformulation.Bounds() {
+			public double getLowerBound(String name) {
+				return getBound(name, GRB.DoubleAttr.LB);
+			}
+
+			public double getUpperBound(String name) {
+				return getBound(name, GRB.DoubleAttr.UB);
+			}
+		}, name, indicator, value, lhs, operator, rhs);
+	}
+	
+	/**
+	 * Returns a bound of a variable (infinite if unbounded).
+	 */
+	private double getBound(String name, DoubleAttr attribute) {
+		GRBVar var = nameToVar.get(name);
+		if (var == null) {
+			throw new IllegalArgumentException(
+			"Variables in a linear expression must be added to the problem first. " +
+			"(missing: "+name+")");
+		}
+		try {
+			if (hasChanged) {
+				model.update();
+				hasChanged = false;
+				calls++;
+			}
+			double bound = var.get(attribute);
+			if (bound <= -GRB.INFINITY) {
+				return Double.NEGATIVE_INFINITY;
+			} else if (bound >= GRB.INFINITY) {
+				return Double.POSITIVE_INFINITY;
+			}
+			return bound;
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addPiecewiseLinear(java.lang.String, net.sf.javailp.PiecewiseLinear)
+	 */
+	public void addPiecewiseLinear(String name, PiecewiseLinear function) {
+		checkOpen();
+		// the Gurobi 5.0 API has no piecewise-linear functions (the SOS2 set is native)
+		Reformulation.addPiecewiseLinear(this, name, function);
+	}
+
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number)
 	 */
 	public void addVariable(String name, VarType type, Number lb, Number ub) {
+		checkOpen();
 		if (nameToVar.containsKey(name)) {
 			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
 			return;
 		}
 		try {
+			begin();
 			hasChanged = true;
 			
-			double lowerBound = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
+			double lowerBound = (lb != null ? lb.doubleValue() : (type.isSemiContinuous() ? 0 : Double.NEGATIVE_INFINITY));
 			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
 			
 			final char varType;
@@ -163,24 +345,200 @@ public class ProblemGurobi extends Problem {
 				case INT:
 					varType = GRB.INTEGER;
 					break;
+				case SEMICONT:
+					varType = GRB.SEMICONT;
+					break;
+				case SEMIINT:
+					varType = GRB.SEMIINT;
+					break;
 				default:
 					varType = GRB.CONTINUOUS;
 			}
 			
 			nameToVar.put(name, model.addVar(lowerBound, upperBound, 0, varType, name));
+			calls++;
+			end(Phase.BUILD, 0);
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.ProblemInterface#addVariable(java.lang.String, net.sf.javailp.VarType, java.lang.Number, java.lang.Number, net.sf.javailp.Column)
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub, Column column) {
+		checkOpen();
+		if (nameToVar.containsKey(name)) {
+			System.err.println("cannot add variable '"+name+"': a variable with this name already exists");
+			return;
+		}
+		try {
+			begin();
+			if (hasChanged) {
+				model.update();
+				hasChanged = false;
+				calls++;
+			}
+			
+			GRBColumn col = new GRBColumn();
+			for (int i = 0; i < column.size(); i++) {
+				GRBConstr con = nameToCon.get(column.getConstraintName(i));
+				if (con == null) {
+					throw new IllegalArgumentException(
+					"Constraints in a column must be added to the problem first. " +
+					"(missing: "+column.getConstraintName(i)+
+					", in column of: "+name+")");
+				}
+				col.addTerm(column.getCoefficient(i).doubleValue(), con);
+			}
+			
+			double lowerBound = (lb != null ? lb.doubleValue() : (type.isSemiContinuous() ? 0 : Double.NEGATIVE_INFINITY));
+			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
+			double coeff = column.getObjectiveCoefficient().doubleValue();
+			
+			final char varType;
+			switch (type) {
+				case BOOL:
+					varType = GRB.BINARY;
+					break;
+				case INT:
+					varType = GRB.INTEGER;
+					break;
+				case SEMICONT:
+					varType = GRB.SEMICONT;
+					break;
+				case SEMIINT:
+					varType = GRB.SEMIINT;
+					break;
+				default:
+					varType = GRB.CONTINUOUS;
+			}
+			
+			// the model is always minimized, see setObjective
+			double obj = (optType == OptType.MIN ? +coeff : -coeff);
+			nameToVar.put(name, model.addVar(lowerBound, upperBound, obj, varType, col, name));
+			calls++;
+			hasChanged = true;
+			
+			if (coeff != 0.0) {
+				Linear objective = (objectiveFunction != null ? new Linear(objectiveFunction) : new Linear());
+				objective.add(column.getObjectiveCoefficient(), name);
+				this.objectiveFunction = objective;
+			}
+			nonzeros += column.size();
+			end(Phase.BUILD, column.size());
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#load(net.sf.javailp.CsrModel)
+	 */
+	public void load(CsrModel data) {
+		checkOpen();
+		for (String name : data.columnNames) {
+			if (nameToVar.containsKey(name)) {
+				super.load(data);
+				return;
+			}
+		}
+		for (String name : data.rowNames) {
+			if (nameToCon.containsKey(name)) {
+				super.load(data);
+				return;
+			}
+		}
+		try {
+			begin();
+			int n = data.columnNames.length;
+			double[] lbs = new double[n];
+			char[] types = new char[n];
+			for (int j = 0; j < n; j++) {
+				VarType type = data.columnTypes[j];
+				lbs[j] = (type.isSemiContinuous() && Double.isInfinite(data.columnLower[j]) ? 0 : data.columnLower[j]);
+				switch (type) {
+					case BOOL:
+						types[j] = GRB.BINARY;
+						break;
+					case INT:
+						types[j] = GRB.INTEGER;
+						break;
+					case SEMICONT:
+						types[j] = GRB.SEMICONT;
+						break;
+					case SEMIINT:
+						types[j] = GRB.SEMIINT;
+						break;
+					default:
+						types[j] = GRB.CONTINUOUS;
+				}
+			}
+			GRBVar[] vars = model.addVars(lbs, data.columnUpper, null, types, data.columnNames);
+			model.update();
+			hasChanged = false;
+			calls += 2;
+			for (int j = 0; j < n; j++) {
+				if (nameToVar.put(data.columnNames[j], vars[j]) != null) {
+					throw new IllegalArgumentException("The column " + data.columnNames[j] + " is not unique.");
+				}
+			}
+			
+			// the variables of the coefficients in CSR order
+			int nnz = data.getNonzerosCount();
+			GRBVar[] entries = new GRBVar[nnz];
+			for (int k = 0; k < nnz; k++) {
+				entries[k] = vars[data.columnIndices[k]];
+			}
+			for (int i = 0; i < data.rowNames.length; i++) {
+				double lb = data.rowLower[i];
+				double ub = data.rowUpper[i];
+				if (Double.isInfinite(lb) && Double.isInfinite(ub)) {
+					// free rows are skipped
+					continue;
+				}
+				String name = data.rowNames[i];
+				GRBLinExpr expr = new GRBLinExpr();
+				expr.addTerms(data.values, entries, data.rowStart[i], data.rowStart[i + 1] - data.rowStart[i]);
+				final GRBConstr constr;
+				if (lb == ub) {
+					constr = model.addConstr(expr, GRB.EQUAL, lb, name);
+				} else if (!Double.isInfinite(lb) && !Double.isInfinite(ub)) {
+					constr = model.addRange(expr, lb, ub, name);
+					ranges.put(name, new double[] { lb, ub });
+				} else if (!Double.isInfinite(ub)) {
+					constr = model.addConstr(expr, GRB.LESS_EQUAL, ub, name);
+				} else {
+					constr = model.addConstr(expr, GRB.GREATER_EQUAL, lb, name);
+				}
+				calls++;
+				if (nameToCon.put(name, constr) != null) {
+					throw new IllegalArgumentException("The row " + name + " is not unique.");
+				}
+			}
+			hasChanged = true;
+			nonzeros += nnz;
+			end(Phase.BUILD, nnz);
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
+		
+		if (data.optType != null) {
+			setObjective(data.getObjectiveLinear(), data.optType);
+		}
 	}
 
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.ProblemInterface#setVariableLowerBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableLowerBound(String name, Number lb) {
+		checkOpen();
 		try {
+			begin();
 			if (hasChanged) {
 				model.update();
 				hasChanged = false;
+				calls++;
 			}
 			GRBVar var = nameToVar.get(name);
 			if (var == null) {
@@ -190,6 +548,8 @@ public class ProblemGurobi extends Problem {
 			}
 			double lowerBound = (lb != null ? lb.doubleValue() : Double.NEGATIVE_INFINITY);
 			var.set(GRB.DoubleAttr.LB, lowerBound);
+			calls++;
+			end(Phase.BUILD, 0);
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
@@ -199,10 +559,13 @@ public class ProblemGurobi extends Problem {
 	 * @see net.sf.javailp.ProblemInterface#setVariableUpperBound(java.lang.String, java.lang.Number)
 	 */
 	public void setVariableUpperBound(String name, Number ub) {
+		checkOpen();
 		try {
+			begin();
 			if (hasChanged) {
 				model.update();
 				hasChanged = false;
+				calls++;
 			}
 			GRBVar var = nameToVar.get(name);
 			if (var == null) {
@@ -212,6 +575,81 @@ public class ProblemGurobi extends Problem {
 			}
 			double upperBound = (ub != null ? ub.doubleValue() : Double.POSITIVE_INFINITY);
 			var.set(GRB.DoubleAttr.UB, upperBound);
+			calls++;
+			end(Phase.BUILD, 0);
+		} catch (GRBException e) {
+			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.Problem#export(net.sf.javailp.ProblemInterface)
+	 */
+	protected void export(ProblemInterface target) {
+		checkOpen();
+		try {
+			if (hasChanged) {
+				model.update();
+				hasChanged = false;
+				calls++;
+			}
+			GRBVar[] vars = getVariables();
+			String[] variableNames = model.get(GRB.StringAttr.VarName, vars);
+			char[] types = model.get(GRB.CharAttr.VType, vars);
+			double[] lbs = model.get(GRB.DoubleAttr.LB, vars);
+			double[] ubs = model.get(GRB.DoubleAttr.UB, vars);
+			Map<GRBVar, String> names = new HashMap<GRBVar, String>();
+			for (int j = 0; j < vars.length; j++) {
+				names.put(vars[j], variableNames[j]);
+				final VarType type;
+				switch (types[j]) {
+					case GRB.BINARY:
+						type = VarType.BOOL;
+						break;
+					case GRB.INTEGER:
+						type = VarType.INT;
+						break;
+					case GRB.SEMICONT:
+						type = VarType.SEMICONT;
+						break;
+					case GRB.SEMIINT:
+						type = VarType.SEMIINT;
+						break;
+					default:
+						type = VarType.REAL;
+				}
+				Number lb = (lbs[j] > -GRB.INFINITY ? lbs[j] : null);
+				Number ub = (ubs[j] < GRB.INFINITY ? ubs[j] : null);
+				target.addVariable(variableNames[j], type, lb, ub);
+			}
+			
+			GRBConstr[] constrs = model.getConstrs();
+			String[] constraintNames = model.get(GRB.StringAttr.ConstrName, constrs);
+			char[] senses = model.get(GRB.CharAttr.Sense, constrs);
+			double[] rhs = model.get(GRB.DoubleAttr.RHS, constrs);
+			for (int i = 0; i < constrs.length; i++) {
+				GRBLinExpr row = model.getRow(constrs[i]);
+				Linear lhs = new Linear();
+				for (int k = 0; k < row.size(); k++) {
+					String name = names.get(row.getVar(k));
+					if (name != null) {
+						lhs.add(row.getCoeff(k), name);
+					}
+				}
+				double[] range = ranges.get(constraintNames[i]);
+				if (range != null) {
+					target.addConstraint(constraintNames[i], range[0], lhs, range[1]);
+					continue;
+				}
+				Operator operator = (senses[i] == GRB.LESS_EQUAL ? Operator.LE : (senses[i] == GRB.GREATER_EQUAL ? Operator.GE : Operator.EQ));
+				target.addConstraint(constraintNames[i], lhs, operator, rhs[i]);
+			}
+			
+			exportGeneralConstraints(target);
+			
+			if (objectiveFunction != null) {
+				target.setObjective(objectiveFunction, optType);
+			}
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
@@ -221,37 +659,104 @@ public class ProblemGurobi extends Problem {
 	 * @see net.sf.javailp.AbstractProblem#optimize(boolean, boolean)
 	 */
 	protected Result optimize(boolean postSolve, boolean activateLog) {
+		checkOpen();
+		if (activateLog) {
+			dumpModel();
+		}
 		int i;
 		try {
-			model.optimize();
-			if (activateLog) {
-				model.write(this.identifier+".lp.bz2");
-				model.write(this.identifier+".mps.bz2");
+			if (progressMonitor.isActive()) {
+				model.setCallback(new ProgressCallback());
 			}
-			if (model.get(GRB.IntAttr.Status) != GRB.OPTIMAL) {
+			GRBEnv env = model.getEnv();
+			double timeLimit = env.get(GRB.DoubleParam.TimeLimit);
+			if (deadline != null) {
+				env.set(GRB.DoubleParam.TimeLimit, deadline.getTimeLimit(timeLimit));
+			}
+			begin();
+			try {
+				model.optimize();
+				calls++;
+			} finally {
+				if (progressMonitor.isActive()) {
+					model.setCallback(null);
+					calls++;
+				}
+				if (deadline != null) {
+					env.set(GRB.DoubleParam.TimeLimit, timeLimit);
+					calls++;
+				}
+			}
+			end(Phase.SOLVE, 0);
+			// limits and interrupts keep the incumbent (if any)
+			int status = model.get(GRB.IntAttr.Status);
+			if (status != GRB.OPTIMAL && model.get(GRB.IntAttr.SolCount) == 0) {
 				//model.computeIIS();
 				//model.write(this.identifier+".ilp.bz2");
-				throw new OptimizationException("No optimal solution found [status: "+model.get(GRB.IntAttr.Status)+"].");
+				throw new OptimizationException("No optimal solution found [status: "+model.get(GRB.IntAttr.Status)+"].",
+						(status == GRB.INFEASIBLE ? Status.INFEASIBLE : null));
 			}
+			boolean isMIP			= model.get(GRB.IntAttr.IsMIP) != 0;
 			
-			Result result = new ResultImpl(this.objectiveFunction);
+			ResultImpl result = new ResultImpl(this.objectiveFunction);
+			switch (status) {
+			case GRB.OPTIMAL:
+				result.setStatus(Status.OPTIMAL);
+				break;
+			case GRB.TIME_LIMIT:
+				result.setStatus(Status.TIME_LIMIT);
+				break;
+			case GRB.INTERRUPTED:
+				result.setStatus(Status.INTERRUPTED);
+				break;
+			default:
+				result.setStatus(Status.FEASIBLE);
+			}
+			result.setRuntime(model.get(GRB.DoubleAttr.Runtime));
+			result.setIterationCount((long) model.get(GRB.DoubleAttr.IterCount));
+			if (isMIP) {
+				result.setBestBound(toObjective(model.get(GRB.DoubleAttr.ObjBound)));
+				result.setNodeCount((long) model.get(GRB.DoubleAttr.NodeCount));
+			} else if (status == GRB.OPTIMAL) {
+				result.setBestBound(toObjective(model.get(GRB.DoubleAttr.ObjVal)));
+			}
 			
-			// post-solve: LP relaxation with fixed integers
-			if (postSolve) {
+			// post-solve: LP relaxation with fixed integers (skipped if the deadline has passed)
+			if (postSolve && (deadline == null || !deadline.isExpired())) {
+				begin();
 				GRBModel fixed = model.fixedModel();
 				fixed.getEnv().set(GRB.IntParam.Presolve, 0);
+				calls += 3;
+				if (deadline != null) {
+					fixed.getEnv().set(GRB.DoubleParam.TimeLimit, deadline.getTimeLimit(timeLimit));
+					calls += 2;
+				}
 				fixed.optimize();
+				calls++;
+				end(Phase.POSTSOLVE, 0);
 				if (fixed.get(GRB.IntAttr.Status) != GRB.OPTIMAL) {
+					fixed.dispose();
+					if (deadline != null && deadline.isExpired()) {
+						return extract(result, isMIP, status);
+					}
 					throw new OptimizationException("No optimal solution found [status: "+model.get(GRB.IntAttr.Status)+"].");
 				}
 				
+				begin();
 				GRBVar[] variables		  	= fixed.getVars();
 				double[] primalValues     	= fixed.get(GRB.DoubleAttr.X, variables);
 				double[] dualValues			= fixed.get(GRB.DoubleAttr.RC, variables);
 			    String[] variableNames		= fixed.get(GRB.StringAttr.VarName, variables);
+			    calls += 4;
 				
 			    for (i = 0; i < variables.length; i++) {
-			    	if (variables[i].get(GRB.CharAttr.VType) != GRB.CONTINUOUS && variables[i].get(GRB.CharAttr.VType) != GRB.SEMICONT) {
+			    	// skip the internal variables Gurobi adds for range constraints
+			    	if (!nameToVar.containsKey(variableNames[i])) {
+			    		continue;
+			    	}
+			    	char type = variables[i].get(GRB.CharAttr.VType);
+			    	calls++;
+			    	if (type != GRB.CONTINUOUS && type != GRB.SEMICONT) {
 			    		int v = (int) Math.round(primalValues[i]);
 			    		result.putPrimalValue(variableNames[i], v);
 			    	} else {
@@ -269,27 +774,160 @@ public class ProblemGurobi extends Problem {
 			    }
 			    
 			    fixed.dispose();
+			    calls += 4;
+			    end(Phase.EXTRACT, 0);
 			    
 			    return result;
 			} // end post-solve
 			
-			GRBVar[] variables 		= model.getVars();
-			double[] primalValues	= model.get(GRB.DoubleAttr.X, variables);
-			String[] variableNames 	= model.get(GRB.StringAttr.VarName, variables);
-			
-			for (i = 0; i < variables.length; i++) {
-				if (variables[i].get(GRB.CharAttr.VType) != GRB.CONTINUOUS && variables[i].get(GRB.CharAttr.VType) != GRB.SEMICONT) {
-		    		int v = (int) Math.round(primalValues[i]);
-		    		result.putPrimalValue(variableNames[i], v);
-		    	} else {
-		    		result.putPrimalValue(variableNames[i], primalValues[i]);
-		    	}
-			}
-									
-			return result;
+			return extract(result, isMIP, status);
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Puts the values of the solution of the model into the result.
+	 */
+	private Result extract(ResultImpl result, boolean isMIP, int status) throws GRBException {
+		int i;
+		begin();
+		GRBVar[] variables 		= getVariables();
+		double[] primalValues	= model.get(GRB.DoubleAttr.X, variables);
+		String[] variableNames 	= model.get(GRB.StringAttr.VarName, variables);
+		boolean hasDuals		= (!isMIP && status == GRB.OPTIMAL);
+		double[] dualValues		= (hasDuals ? model.get(GRB.DoubleAttr.RC, variables) : null);
+		calls += (hasDuals ? 3 : 2);
+		
+		for (i = 0; i < variables.length; i++) {
+			char type = variables[i].get(GRB.CharAttr.VType);
+			calls++;
+			if (type != GRB.CONTINUOUS && type != GRB.SEMICONT) {
+	    		int v = (int) Math.round(primalValues[i]);
+	    		result.putPrimalValue(variableNames[i], v);
+	    	} else {
+	    		result.putPrimalValue(variableNames[i], primalValues[i]);
+	    	}
+			if (hasDuals) {
+				result.putDualValue(variableNames[i], dualValues[i]);
+			}
+		}
+		
+		// pure LP: shadow prices are available without a post-solve
+		if (hasDuals) {
+			GRBConstr[] constraints		= model.getConstrs();
+			double[] shadowPrices		= model.get(GRB.DoubleAttr.Pi, constraints);
+			String[] constraintNames	= model.get(GRB.StringAttr.ConstrName, constraints);
+			calls += 3;
+			
+			for (i = 0; i < constraints.length; i++) {
+				result.putDualValue(constraintNames[i], shadowPrices[i]);
+			}
+		}
+								
+		end(Phase.EXTRACT, 0);
+		return result;
+	}
+	
+	/**
+	 * Starts the measurement of a phase and its native calls.
+	 */
+	private void begin() {
+		calls = 0;
+		metricsRecorder.begin();
+	}
+	
+	/**
+	 * Ends the measurement of a phase with the native calls since
+	 * {@link #begin()}.
+	 */
+	private void end(Phase phase, long nnz) {
+		metricsRecorder.end(phase, calls, nnz);
+	}
+	
+	/**
+	 * Converts an objective value of the (always minimized) model to the
+	 * objective value of the problem.
+	 */
+	private Number toObjective(double value) {
+		if (Math.abs(value) >= GRB.INFINITY) {
+			return null;
+		}
+		return (optType == OptType.MIN ? value : -value);
+	}
+	
+	/**
+	 * The {@code ProgressCallback} reports the progress of the branch-and-cut
+	 * to the progress monitor and aborts the optimization on request.
+	 */
+	private class ProgressCallback extends GRBCallback {
+		
+		private GRBVar[] variables = null;
+		private String[] variableNames = null;
+		private char[] variableTypes = null;
+		
+		/* (non-Javadoc)
+		 * @see gurobi.GRBCallback#callback()
+		 */
+		protected void callback() {
+			try {
+				boolean stop = false;
+				if (where == GRB.CB_MIP) {
+					Number incumbent = toObjective(getDoubleInfo(GRB.CB_MIP_OBJBST));
+					Number bound = toObjective(getDoubleInfo(GRB.CB_MIP_OBJBND));
+					long nodes = (long) getDoubleInfo(GRB.CB_MIP_NODCNT);
+					calls += 3;
+					stop = progressMonitor.report(incumbent, bound, nodes, false, null);
+				} else if (where == GRB.CB_MIPSOL) {
+					if (variables == null) {
+						variables = getVariables();
+						variableNames = model.get(GRB.StringAttr.VarName, variables);
+						variableTypes = model.get(GRB.CharAttr.VType, variables);
+						calls += 2;
+					}
+					double[] values = getSolution(variables);
+					calls++;
+					Map<String, Number> solution = new LinkedHashMap<String, Number>();
+					for (int i = 0; i < variables.length; i++) {
+						if (variableTypes[i] != GRB.CONTINUOUS && variableTypes[i] != GRB.SEMICONT) {
+							solution.put(variableNames[i], (int) Math.round(values[i]));
+						} else {
+							solution.put(variableNames[i], values[i]);
+						}
+					}
+					Number incumbent = toObjective(getDoubleInfo(GRB.CB_MIPSOL_OBJ));
+					Number bound = toObjective(getDoubleInfo(GRB.CB_MIPSOL_OBJBND));
+					long nodes = (long) getDoubleInfo(GRB.CB_MIPSOL_NODCNT);
+					calls += 3;
+					stop = progressMonitor.report(incumbent, bound, nodes, true, solution);
+				}
+				if (stop) {
+					abort();
+					calls++;
+				}
+			} catch (GRBException e) {
+				System.err.println("progress callback failed: error code " + e.getErrorCode() + ". " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * The {@code Release} disposes the model of a closed or unreachable problem.
+	 */
+	private static class Release implements Runnable {
+		
+		private final GRBModel model;
+		
+		Release(GRBModel model) {
+			this.model = model;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run() {
+			model.dispose();
+		}
+	}
+	
 }
@@ -71,6 +71,75 @@ public interface ProblemInterface {
 	 */
 	public void addConstraint(String name, Linear lhs, Operator operator, Number rhs);
 
+	/**
+	 * Adds a range constraint {@code lb <= lhs <= ub} as a single row. A
+	 * {@code null} bound is infinite (at most one); equal bounds add an
+	 * equality. The primal and dual values of the row are reported once
+	 * under the name of the constraint.
+	 * 
+	 * @param name
+	 *            the name of the constraint
+	 * @param lb
+	 *            the lower bound or {@code null}
+	 * @param lhs
+	 *            the linear expression
+	 * @param ub
+	 *            the upper bound or {@code null}
+	 */
+	public void addConstraint(String name, Number lb, Linear lhs, Number ub);
+
+	/**
+	 * Adds a special ordered set. The coefficients of the linear expression
+	 * are the (distinct) weights that order the variables. Backends without
+	 * native support use a binary formulation with big-M values derived from
+	 * the variable bounds (which must be finite).
+	 * 
+	 * @param name
+	 *            the name of the set
+	 * @param type
+	 *            the type of the set
+	 * @param weights
+	 *            the variables with their weights
+	 */
+	public void addSOS(String name, SOSType type, Linear weights);
+
+	/**
+	 * Adds an indicator constraint: if the binary variable {@code indicator}
+	 * equals {@code value}, the constraint {@code lhs operator rhs} holds.
+	 * Backends without native support use a big-M formulation with the
+	 * tightest M derived from the variable bounds (which must be finite).
+	 * 
+	 * @param name
+	 *            the name of the constraint
+	 * @param indicator
+	 *            the binary indicator variable
+	 * @param value
+	 *            the value (0 or 1) of the indicator that activates the
+	 *            constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 */
+	public void addIndicatorConstraint(String name, String indicator, int value, Linear lhs, Operator operator,
+			Number rhs);
+
+	/**
+	 * Adds a variable that equals a piecewise-linear function of another
+	 * variable; the other variable is restricted to the interval of the
+	 * breakpoints. The new variable can be used in the objective and the
+	 * constraints like any other variable. Backends without native support use
+	 * a convex-combination formulation with an SOS2 set.
+	 * 
+	 * @param name
+	 *            the name of the new variable
+	 * @param function
+	 *            the function (at least two breakpoints)
+	 */
+	public void addPiecewiseLinear(String name, PiecewiseLinear function);
+
 	/**
 	 * Adds a variable to the map of constraints.
 	 * 
@@ -85,6 +154,23 @@ public interface ProblemInterface {
 	 */
 	public void addVariable(String name, VarType type, Number lb, Number ub);
 	
+	/**
+	 * Adds a variable together with its column, i.e., its coefficients in
+	 * existing constraints and its objective coefficient.
+	 * 
+	 * @param name
+	 *            the name of the variable
+	 * @param type
+	 *            the variable type
+	 * @param lb
+	 *            the lower bound
+	 * @param ub
+	 *            the upper bound
+	 * @param column
+	 *            the column of the variable
+	 */
+	public void addVariable(String name, VarType type, Number lb, Number ub, Column column);
+	
 	/**
 	 * Adds variable to the map of variables.
 	 * 
@@ -0,0 +1,148 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Map;
+
+/**
+ * The class {@code Progress} is a snapshot of a running optimization that is
+ * passed to the {@link ProgressListener}s of a {@link Solver}.
+ *
+ * @author fgenoese
+ *
+ */
+public class Progress {
+
+	protected final Number incumbent;
+	protected final Number bestBound;
+	protected final long nodeCount;
+	protected final double elapsedTime;
+	protected final boolean newIncumbent;
+	protected final Map<String, Number> solution;
+
+	/**
+	 * Constructs a {@code Progress}.
+	 *
+	 * @param incumbent
+	 *            the objective value of the incumbent or {@code null}
+	 * @param bestBound
+	 *            the best bound or {@code null}
+	 * @param nodeCount
+	 *            the number of explored nodes
+	 * @param elapsedTime
+	 *            the elapsed time in seconds
+	 * @param newIncumbent
+	 *            {@code true} if a new incumbent was found
+	 * @param solution
+	 *            the new incumbent solution or {@code null}
+	 */
+	public Progress(Number incumbent, Number bestBound, long nodeCount, double elapsedTime,
+			boolean newIncumbent, Map<String, Number> solution) {
+		super();
+		this.incumbent = incumbent;
+		this.bestBound = bestBound;
+		this.nodeCount = nodeCount;
+		this.elapsedTime = elapsedTime;
+		this.newIncumbent = newIncumbent;
+		this.solution = solution;
+	}
+
+	/**
+	 * Returns the objective value of the incumbent or {@code null} if no
+	 * feasible solution is known yet.
+	 *
+	 * @return the objective value of the incumbent
+	 */
+	public Number getIncumbent() {
+		return incumbent;
+	}
+
+	/**
+	 * Returns the best bound of the objective value or {@code null} if not
+	 * known.
+	 *
+	 * @return the best bound
+	 */
+	public Number getBestBound() {
+		return bestBound;
+	}
+
+	/**
+	 * Returns the relative gap between the incumbent and the best bound or
+	 * {@code null} if one of them is unknown.
+	 *
+	 * @return the relative gap
+	 */
+	public Double getGap() {
+		if (incumbent == null || bestBound == null) {
+			return null;
+		}
+		double value = incumbent.doubleValue();
+		double gap = Math.abs(value - bestBound.doubleValue());
+		return gap / Math.max(Math.abs(value), 1e-10);
+	}
+
+	/**
+	 * Returns the number of explored branch-and-bound nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Returns the elapsed time since the start of the optimization in
+	 * seconds.
+	 *
+	 * @return the elapsed time
+	 */
+	public double getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns the values of the variables of a new incumbent or {@code null}
+	 * if this progress does not report a new incumbent or the backend cannot
+	 * map the incumbent of its (presolved) search tree back to the variables
+	 * (GLPK).
+	 *
+	 * @return the new incumbent solution
+	 */
+	public Map<String, Number> getSolution() {
+		return solution;
+	}
+
+	/**
+	 * Returns {@code true} if this progress reports a new incumbent.
+	 *
+	 * @return {@code true} if this progress reports a new incumbent
+	 */
+	public boolean isNewIncumbent() {
+		return newIncumbent;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Incumbent: " + incumbent + " Bound: " + bestBound + " Gap: " + getGap() + " Nodes: " + nodeCount
+				+ " Time: " + elapsedTime;
+	}
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code ProgressListener} receives the {@link Progress} of a running
+ * optimization from the callback of the backend. It is called on the solving
+ * thread and should return quickly.
+ *
+ * @author fgenoese
+ *
+ */
+public interface ProgressListener {
+
+	/**
+	 * Receives the progress of the optimization. The optimization is stopped
+	 * as soon as a listener returns {@code false}; the best known solution is
+	 * returned in this case.
+	 *
+	 * @param progress
+	 *            the progress
+	 * @return {@code true} to continue, {@code false} to stop the optimization
+	 */
+	public boolean progress(Progress progress);
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code ProgressMonitor} forwards the progress reported by the callback
+ * of a backend to the {@link ProgressListener}s of a solve. Reports without a
+ * new incumbent or bound are throttled to one per interval.
+ *
+ * @author fgenoese
+ *
+ */
+public class ProgressMonitor {
+
+	/**
+	 * A monitor without listeners.
+	 */
+	public static final ProgressMonitor NONE = new ProgressMonitor(Collections.<ProgressListener> emptyList());
+
+	protected final List<ProgressListener> listeners;
+	protected final long start = System.nanoTime();
+	protected double interval = 1.0;
+
+	protected Number lastIncumbent = null;
+	protected Number lastBound = null;
+	protected double lastReport = Double.NEGATIVE_INFINITY;
+	protected volatile boolean stopped = false;
+
+	/**
+	 * Constructs a {@code ProgressMonitor}.
+	 *
+	 * @param listeners
+	 *            the listeners
+	 */
+	public ProgressMonitor(List<ProgressListener> listeners) {
+		super();
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Sets the minimal interval in seconds between two reports without a new
+	 * incumbent or bound.
+	 *
+	 * @param interval
+	 *            the interval in seconds
+	 */
+	public void setInterval(double interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * Returns {@code true} if there are listeners, i.e., if the backend
+	 * should install its callback.
+	 *
+	 * @return {@code true} if there are listeners
+	 */
+	public boolean isActive() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Returns {@code true} if a listener requested to stop the optimization.
+	 *
+	 * @return {@code true} if the optimization was stopped
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Returns the elapsed time since the construction of this monitor in
+	 * seconds.
+	 *
+	 * @return the elapsed time
+	 */
+	public double getElapsedTime() {
+		return (System.nanoTime() - start) / 1e9;
+	}
+
+	/**
+	 * Reports the progress to the listeners. Returns {@code true} if the
+	 * optimization should be stopped.
+	 *
+	 * @param incumbent
+	 *            the objective value of the incumbent or {@code null}
+	 * @param bestBound
+	 *            the best bound or {@code null}
+	 * @param nodeCount
+	 *            the number of explored nodes
+	 * @param newIncumbent
+	 *            {@code true} if a new incumbent was found
+	 * @param solution
+	 *            the new incumbent solution or {@code null}
+	 * @return {@code true} if the optimization should be stopped
+	 */
+	public synchronized boolean report(Number incumbent, Number bestBound, long nodeCount, boolean newIncumbent,
+			Map<String, Number> solution) {
+		if (stopped || listeners.isEmpty()) {
+			return stopped;
+		}
+		double elapsed = getElapsedTime();
+		boolean changed = newIncumbent || !equals(incumbent, lastIncumbent) || !equals(bestBound, lastBound);
+		if (!changed && elapsed - lastReport < interval) {
+			return false;
+		}
+		lastIncumbent = incumbent;
+		lastBound = bestBound;
+		lastReport = elapsed;
+
+		Progress progress = new Progress(incumbent, bestBound, nodeCount, elapsed, newIncumbent, solution);
+		for (ProgressListener listener : listeners) {
+			if (!listener.progress(progress)) {
+				stopped = true;
+			}
+		}
+		return stopped;
+	}
+
+	private static boolean equals(Number n1, Number n2) {
+		if (n1 == null || n2 == null) {
+			return n1 == n2;
+		}
+		return n1.doubleValue() == n2.doubleValue();
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The {@code Reclaimer} releases the native models of problems that became
+ * unreachable without being closed (e.g., together with their solver). The
+ * release action of a problem must not reference the problem itself.
+ * <p>
+ * The native libraries are not safe to be called from a background thread
+ * while another thread solves, thus, the actions of unreachable problems are
+ * run by {@link #reclaim()} on the next creation of a problem.
+ *
+ * @author fgenoese
+ *
+ */
+class Reclaimer {
+
+	private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private static final Set<Cleanup> cleanups = Collections.synchronizedSet(new HashSet<Cleanup>());
+
+	private Reclaimer() {
+		super();
+	}
+
+	/**
+	 * Registers the release action of a referent.
+	 *
+	 * @param referent
+	 *            the referent (the problem)
+	 * @param action
+	 *            the release action
+	 * @return the cleanup that runs the action at most once
+	 */
+	static Cleanup register(Object referent, Runnable action) {
+		Cleanup cleanup = new Cleanup(referent, action);
+		cleanups.add(cleanup);
+		return cleanup;
+	}
+
+	/**
+	 * Runs the release actions of all unreachable referents.
+	 */
+	static void reclaim() {
+		Cleanup cleanup;
+		while ((cleanup = (Cleanup) queue.poll()) != null) {
+			cleanup.clean();
+		}
+	}
+
+	/**
+	 * The {@code Cleanup} runs the release action either explicitly (on
+	 * close) or once the referent became unreachable.
+	 */
+	static class Cleanup extends PhantomReference<Object> {
+
+		private Runnable action;
+
+		private Cleanup(Object referent, Runnable action) {
+			super(referent, queue);
+			this.action = action;
+		}
+
+		/**
+		 * Runs the release action if it was not run before.
+		 */
+		void clean() {
+			Runnable action;
+			synchronized (this) {
+				action = this.action;
+				this.action = null;
+			}
+			if (action != null) {
+				cleanups.remove(this);
+				action.run();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,303 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The class {@code Reformulation} adds special ordered sets, indicator
+ * constraints and piecewise-linear functions as binary variables and linear
+ * constraints to problems without native support. The big-M values are the
+ * tightest values that the bounds of the variables allow, thus, the bounds
+ * of the involved variables have to be finite where they are needed.
+ * 
+ * @author fgenoese
+ * 
+ */
+class Reformulation {
+
+	/**
+	 * The bounds of the variables of a problem.
+	 */
+	interface Bounds {
+
+		/**
+		 * Returns the lower bound of a variable or
+		 * {@code Double.NEGATIVE_INFINITY} if it is unbounded.
+		 * 
+		 * @param name
+		 *            the name of the variable
+		 * @return the lower bound
+		 */
+		public double getLowerBound(String name);
+
+		/**
+		 * Returns the upper bound of a variable or
+		 * {@code Double.POSITIVE_INFINITY} if it is unbounded.
+		 * 
+		 * @param name
+		 *            the name of the variable
+		 * @return the upper bound
+		 */
+		public double getUpperBound(String name);
+
+	}
+
+	private Reformulation() {
+		super();
+	}
+
+	/**
+	 * Adds a special ordered set with one binary variable {@code name_z<i>}
+	 * per variable (SOS1) or per pair of consecutive variables (SOS2) and the
+	 * constraints {@code name_ub<i>}, {@code name_lb<i>} (linking) and
+	 * {@code name_card} (at most one binary variable is one).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param bounds
+	 *            the bounds of the variables
+	 * @param name
+	 *            the name of the set
+	 * @param type
+	 *            the type of the set
+	 * @param weights
+	 *            the variables with their weights
+	 */
+	static void addSOS(ProblemInterface problem, Bounds bounds, String name, SOSType type, Linear weights) {
+		List<Term> terms = new ArrayList<Term>();
+		for (Term term : weights) {
+			terms.add(term);
+		}
+		Collections.sort(terms, new Comparator<Term>() {
+			public int compare(Term t1, Term t2) {
+				return Double.compare(t1.getCoefficient().doubleValue(), t2.getCoefficient().doubleValue());
+			}
+		});
+		int n = terms.size();
+		int segments = (type == SOSType.SOS1 ? n : n - 1);
+		if ((type == SOSType.SOS1 && n <= 1) || (type == SOSType.SOS2 && n <= 2)) {
+			// every assignment satisfies the set
+			return;
+		}
+
+		Linear cardinality = new Linear();
+		for (int k = 0; k < segments; k++) {
+			problem.addVariable(name + "_z" + k, VarType.BOOL, 0, 1);
+			cardinality.add(1, name + "_z" + k);
+		}
+		for (int i = 0; i < n; i++) {
+			String variable = terms.get(i).getVariableName();
+			double lb = bounds.getLowerBound(variable);
+			double ub = bounds.getUpperBound(variable);
+			// the binary variables that allow the variable to be non-zero
+			List<String> covering = new ArrayList<String>();
+			if (type == SOSType.SOS1) {
+				covering.add(name + "_z" + i);
+			} else {
+				if (i > 0) {
+					covering.add(name + "_z" + (i - 1));
+				}
+				if (i < n - 1) {
+					covering.add(name + "_z" + i);
+				}
+			}
+			if (ub > 0) {
+				if (Double.isInfinite(ub)) {
+					throw new IllegalArgumentException("The variable " + variable
+							+ " has no finite upper bound (in SOS: " + name + ").");
+				}
+				Linear linear = new Linear();
+				linear.add(1, variable);
+				for (String z : covering) {
+					linear.add(-ub, z);
+				}
+				problem.addConstraint(name + "_ub" + i, linear, Operator.LE, 0);
+			}
+			if (lb < 0) {
+				if (Double.isInfinite(lb)) {
+					throw new IllegalArgumentException("The variable " + variable
+							+ " has no finite lower bound (in SOS: " + name + ").");
+				}
+				Linear linear = new Linear();
+				linear.add(1, variable);
+				for (String z : covering) {
+					linear.add(-lb, z);
+				}
+				problem.addConstraint(name + "_lb" + i, linear, Operator.GE, 0);
+			}
+		}
+		problem.addConstraint(name + "_card", cardinality, Operator.LE, 1);
+	}
+
+	/**
+	 * Adds an indicator constraint as big-M constraint. Equalities are split
+	 * into the constraints {@code name_ub} and {@code name_lb}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param bounds
+	 *            the bounds of the variables
+	 * @param name
+	 *            the name of the constraint
+	 * @param indicator
+	 *            the binary indicator variable
+	 * @param value
+	 *            the value of the indicator that activates the constraint
+	 * @param lhs
+	 *            the left-hand-side linear expression
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side number
+	 */
+	static void addIndicatorConstraint(ProblemInterface problem, Bounds bounds, String name, String indicator,
+			int value, Linear lhs, Operator operator, Number rhs) {
+		checkIndicatorValue(name, value);
+		double b = rhs.doubleValue();
+		switch (operator) {
+		case LE:
+			addBigM(problem, bounds, name, indicator, value, lhs, Operator.LE, b);
+			break;
+		case GE:
+			addBigM(problem, bounds, name, indicator, value, lhs, Operator.GE, b);
+			break;
+		default: // EQ
+			addBigM(problem, bounds, name + "_ub", indicator, value, lhs, Operator.LE, b);
+			addBigM(problem, bounds, name + "_lb", indicator, value, lhs, Operator.GE, b);
+		}
+	}
+
+	/**
+	 * Adds a piecewise-linear function as convex combination of its
+	 * breakpoints: the weights {@code name_l<i>} sum up to one (constraint
+	 * {@code name_conv}), the variable and the function value {@code name}
+	 * are the combinations of the breakpoints and values (constraints
+	 * {@code name_x} and {@code name_y}), and at most two consecutive weights
+	 * are non-zero (SOS2 {@code name_sos}, which the problem may reformulate
+	 * in turn).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param name
+	 *            the name of the function value variable
+	 * @param function
+	 *            the function
+	 */
+	static void addPiecewiseLinear(ProblemInterface problem, String name, PiecewiseLinear function) {
+		checkPiecewiseLinear(name, function);
+		int n = function.size();
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			min = Math.min(min, function.getValue(i).doubleValue());
+			max = Math.max(max, function.getValue(i).doubleValue());
+		}
+		problem.addVariable(name, VarType.REAL, min, max);
+
+		Linear convexity = new Linear();
+		Linear point = new Linear();
+		Linear value = new Linear();
+		Linear weights = new Linear();
+		for (int i = 0; i < n; i++) {
+			String lambda = name + "_l" + i;
+			problem.addVariable(lambda, VarType.REAL, 0, 1);
+			convexity.add(1, lambda);
+			point.add(function.getPoint(i), lambda);
+			value.add(function.getValue(i), lambda);
+			weights.add(i + 1, lambda);
+		}
+		point.add(-1, function.getVariableName());
+		value.add(-1, name);
+		problem.addConstraint(name + "_conv", convexity, Operator.EQ, 1);
+		problem.addConstraint(name + "_x", point, Operator.EQ, 0);
+		problem.addConstraint(name + "_y", value, Operator.EQ, 0);
+		problem.addSOS(name + "_sos", SOSType.SOS2, weights);
+	}
+
+	/**
+	 * Throws an {@code IllegalArgumentException} if a piecewise-linear
+	 * function has less than two breakpoints.
+	 * 
+	 * @param name
+	 *            the name of the function value variable
+	 * @param function
+	 *            the function
+	 */
+	static void checkPiecewiseLinear(String name, PiecewiseLinear function) {
+		if (function.size() < 2) {
+			throw new IllegalArgumentException("A piecewise-linear function needs at least two breakpoints (in variable: "
+					+ name + ").");
+		}
+	}
+
+	/**
+	 * Throws an {@code IllegalArgumentException} if the value of an indicator
+	 * is neither 0 nor 1.
+	 * 
+	 * @param name
+	 *            the name of the constraint
+	 * @param value
+	 *            the value
+	 */
+	static void checkIndicatorValue(String name, int value) {
+		if (value != 0 && value != 1) {
+			throw new IllegalArgumentException("The value of an indicator has to be 0 or 1 (in constraint: " + name
+					+ ").");
+		}
+	}
+
+	private static void addBigM(ProblemInterface problem, Bounds bounds, String name, String indicator, int value,
+			Linear lhs, Operator operator, double b) {
+		// the tightest M: the maximal violation of lhs <= b (lhs >= b)
+		double activity = 0;
+		for (Term term : lhs) {
+			String variable = term.getVariableName();
+			double a = term.getCoefficient().doubleValue();
+			boolean upper = (a > 0) == (operator == Operator.LE);
+			double bound = (upper ? bounds.getUpperBound(variable) : bounds.getLowerBound(variable));
+			if (a != 0 && Double.isInfinite(bound)) {
+				throw new IllegalArgumentException("The variable " + variable + " has no finite "
+						+ (upper ? "upper" : "lower") + " bound (in constraint: " + name + ").");
+			}
+			activity += (a != 0 ? a * bound : 0);
+		}
+		double m = (operator == Operator.LE ? activity - b : b - activity);
+
+		Linear linear = new Linear();
+		for (Term term : lhs) {
+			linear.add(term);
+		}
+		if (m <= 0) {
+			// the constraint holds for all values of the variables
+			problem.addConstraint(name, linear, operator, b);
+			return;
+		}
+		double sign = (operator == Operator.LE ? 1 : -1);
+		if (value == 1) {
+			// lhs <= b + M (1 - z) resp. lhs >= b - M (1 - z)
+			linear.add(sign * m, indicator);
+			problem.addConstraint(name, linear, operator, b + sign * m);
+		} else {
+			// lhs <= b + M z resp. lhs >= b - M z
+			linear.add(-sign * m, indicator);
+			problem.addConstraint(name, linear, operator, b);
+		}
+	}
+
+}
@@ -76,4 +76,51 @@ public interface Result {
 	 */
 	public Boolean containsVar(String variableName);
 
+	/**
+	 * Returns the status of the solution.
+	 * 
+	 * @return the status
+	 */
+	public Status getStatus();
+
+	/**
+	 * Returns the best bound of the objective value or {@code null} if not
+	 * known. For optimal linear programs, this is the objective value.
+	 * 
+	 * @return the best bound
+	 */
+	public Number getBestBound();
+
+	/**
+	 * Returns the relative gap between the objective value and the best bound
+	 * or {@code null} if the bound is not known.
+	 * 
+	 * @return the relative gap
+	 */
+	public Number getGap();
+
+	/**
+	 * Returns the runtime of the optimization in seconds or {@code null} if
+	 * not known.
+	 * 
+	 * @return the runtime
+	 */
+	public Number getRuntime();
+
+	/**
+	 * Returns the number of simplex (or barrier) iterations or {@code null}
+	 * if not known.
+	 * 
+	 * @return the number of iterations
+	 */
+	public Number getIterationCount();
+
+	/**
+	 * Returns the number of explored branch-and-bound nodes or {@code null}
+	 * if not known.
+	 * 
+	 * @return the number of nodes
+	 */
+	public Number getNodeCount();
+
 }
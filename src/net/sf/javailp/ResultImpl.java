@@ -31,6 +31,11 @@ public class ResultImpl implements Result {
 	protected Map<String, Number> dualValues;
 	protected Number objectiveValue = null;
 	protected Linear objectiveFunction = null;
+	protected Status status = Status.OPTIMAL;
+	protected Number bestBound = null;
+	protected Number runtime = null;
+	protected Number iterationCount = null;
+	protected Number nodeCount = null;
 
 	/**
 	 * Constructs a {@code ResultImpl} for a {@code Problem} with an objective
@@ -43,6 +48,29 @@ public class ResultImpl implements Result {
 		this.objectiveFunction = objectiveFunction;
 	}
 
+	/**
+	 * Constructs a {@code ResultImpl} for a {@code Problem} with an objective
+	 * function whose values are kept by the ids of the names in the
+	 * dictionaries (see {@link NameDictionary.Values}).
+	 */
+	public ResultImpl(Linear objectiveFunction, NameDictionary... dictionaries) {
+		super();
+		this.primalValues = new NameDictionary.Values(dictionaries);
+		this.dualValues = new NameDictionary.Values(dictionaries);
+		this.objectiveFunction = objectiveFunction;
+	}
+
+	/**
+	 * Constructs a {@code ResultImpl} for a {@code Problem} with an objective
+	 * function and the given maps of the primal and dual values.
+	 */
+	public ResultImpl(Linear objectiveFunction, Map<String, Number> primalValues, Map<String, Number> dualValues) {
+		super();
+		this.primalValues = primalValues;
+		this.dualValues = dualValues;
+		this.objectiveFunction = objectiveFunction;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -104,6 +132,116 @@ public class ResultImpl implements Result {
 		return primalValues.containsKey(variableName);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getStatus()
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Sets the status.
+	 * 
+	 * @param status
+	 *            the status
+	 */
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getBestBound()
+	 */
+	public Number getBestBound() {
+		return bestBound;
+	}
+
+	/**
+	 * Sets the best bound.
+	 * 
+	 * @param bestBound
+	 *            the best bound
+	 */
+	public void setBestBound(Number bestBound) {
+		this.bestBound = bestBound;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getGap()
+	 */
+	public Number getGap() {
+		Number objective = getObjective();
+		if (objective == null || bestBound == null) {
+			return null;
+		}
+		double value = objective.doubleValue();
+		double gap = Math.abs(value - bestBound.doubleValue());
+		return gap / Math.max(Math.abs(value), 1e-10);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getRuntime()
+	 */
+	public Number getRuntime() {
+		return runtime;
+	}
+
+	/**
+	 * Sets the runtime in seconds.
+	 * 
+	 * @param runtime
+	 *            the runtime
+	 */
+	public void setRuntime(Number runtime) {
+		this.runtime = runtime;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getIterationCount()
+	 */
+	public Number getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * Sets the number of iterations.
+	 * 
+	 * @param iterationCount
+	 *            the number of iterations
+	 */
+	public void setIterationCount(Number iterationCount) {
+		this.iterationCount = iterationCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getNodeCount()
+	 */
+	public Number getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Sets the number of explored nodes.
+	 * 
+	 * @param nodeCount
+	 *            the number of nodes
+	 */
+	public void setNodeCount(Number nodeCount) {
+		this.nodeCount = nodeCount;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -111,7 +249,7 @@ public class ResultImpl implements Result {
 	 */
 	@Override
 	public String toString() {
-		return "Objective: " + getObjective() + " " + primalValues.toString();
+		return "Status: " + status + " Objective: " + getObjective() + " " + primalValues.toString();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The type of a special ordered set (SOS).
+ * 
+ * @author fgenoese
+ * 
+ */
+public enum SOSType {
+	/**
+	 * At most one variable of the set is non-zero.
+	 */
+	SOS1,
+	/**
+	 * At most two variables of the set are non-zero and they are consecutive
+	 * in the order of the weights.
+	 */
+	SOS2;
+
+}
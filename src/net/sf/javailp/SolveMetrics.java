@@ -0,0 +1,163 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code SolveMetrics} contains the measurements of a solve of a
+ * problem per {@link Phase}: wall time, CPU time and allocated bytes of the
+ * calling thread, the number of native calls, and the number of nonzeros
+ * transferred to the backend. The {@link Phase#BUILD} phase covers all
+ * modifications of the problem since its previous solve.
+ * <p>
+ * CPU time and allocated bytes are -1 if the JVM does not support their
+ * measurement. The CPU time of threads of the backend is not included.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class SolveMetrics {
+
+	protected final String identifier;
+	protected final long[] wallTime;
+	protected final long[] cpuTime;
+	protected final long[] allocatedBytes;
+	protected final long[] nativeCalls;
+	protected final long[] nonzeros;
+
+	/**
+	 * Constructs a {@code SolveMetrics}. The arrays are indexed by the
+	 * ordinal of the {@link Phase}.
+	 * 
+	 * @param identifier
+	 *            the identifier of the problem
+	 * @param wallTime
+	 *            the wall times in nanoseconds
+	 * @param cpuTime
+	 *            the CPU times in nanoseconds
+	 * @param allocatedBytes
+	 *            the allocated bytes
+	 * @param nativeCalls
+	 *            the numbers of native calls
+	 * @param nonzeros
+	 *            the numbers of transferred nonzeros
+	 */
+	public SolveMetrics(String identifier, long[] wallTime, long[] cpuTime, long[] allocatedBytes,
+			long[] nativeCalls, long[] nonzeros) {
+		super();
+		this.identifier = identifier;
+		this.wallTime = wallTime;
+		this.cpuTime = cpuTime;
+		this.allocatedBytes = allocatedBytes;
+		this.nativeCalls = nativeCalls;
+		this.nonzeros = nonzeros;
+	}
+
+	/**
+	 * Returns the identifier of the problem.
+	 * 
+	 * @return the identifier
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * Returns the wall time of a phase in nanoseconds.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the wall time
+	 */
+	public long getWallTime(Phase phase) {
+		return wallTime[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the wall time of all phases in nanoseconds.
+	 * 
+	 * @return the total wall time
+	 */
+	public long getWallTime() {
+		long sum = 0;
+		for (long value : wallTime) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the CPU time of the calling thread in a phase in nanoseconds
+	 * or -1 if not supported.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the CPU time
+	 */
+	public long getCpuTime(Phase phase) {
+		return cpuTime[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the bytes allocated by the calling thread in a phase or -1 if
+	 * not supported.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the allocated bytes
+	 */
+	public long getAllocatedBytes(Phase phase) {
+		return allocatedBytes[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the number of native calls in a phase.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the number of native calls
+	 */
+	public long getNativeCalls(Phase phase) {
+		return nativeCalls[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the number of nonzeros transferred to the backend in a phase.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the number of nonzeros
+	 */
+	public long getNonzeros(Phase phase) {
+		return nonzeros[phase.ordinal()];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(identifier);
+		for (Phase phase : Phase.values()) {
+			int i = phase.ordinal();
+			sb.append(" ").append(phase).append(": [wall: ").append(wallTime[i]).append("ns cpu: ")
+					.append(cpuTime[i]).append("ns alloc: ").append(allocatedBytes[i]).append("B native: ")
+					.append(nativeCalls[i]).append(" nnz: ").append(nonzeros[i]).append("]");
+		}
+		return sb.toString();
+	}
+
+}
@@ -14,6 +14,7 @@
  */
 package net.sf.javailp;
 
+import java.io.File;
 import java.util.Map;
 import java.util.Set;
 
@@ -90,6 +91,7 @@ public interface Solver {
 	
 	/**
 	 * Returns the optimization problem for this solver identified by the parameter identifier.
+	 * An evicted problem is rehydrated from its snapshot (see {@link #setSpillDirectory(File)}).
 	 * 
 	 * @param identifier
 	 *            the identifier of the problem
@@ -106,7 +108,8 @@ public interface Solver {
 	public Set<String> getProblemIdentifiers();
 	
 	/**
-	 * Deletes the optimization problem for this solver identified by the parameter identifier.
+	 * Deletes the optimization problem for this solver identified by the parameter identifier
+	 * and releases its native model (see {@link Problem#close()}).
 	 * 
 	 * @param identifier
 	 *            the identifier of the problem
@@ -135,6 +138,114 @@ public interface Solver {
 	 */
 	public Result solve(Problem problem, boolean activateLog);
 	
+	/**
+	 * Solves the optimization problem within the remaining time of a
+	 * deadline. Returns {@code null} if there exists no feasible solution for
+	 * the problem.
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param deadline
+	 * 			  the deadline or {@code null} for no deadline
+	 * @return the result
+	 */
+	public Result solve(Problem problem, Deadline deadline);
+	
+	/**
+	 * Solves the optimization problem within the remaining time of a
+	 * deadline. Returns {@code null} if there exists no feasible solution for
+	 * the problem.
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param activateLog
+	 * 			  a switch to activate/deactivate the logging
+	 * @param deadline
+	 * 			  the deadline or {@code null} for no deadline
+	 * @return the result
+	 */
+	public Result solve(Problem problem, boolean activateLog, Deadline deadline);
+	
+	/**
+	 * Adds a listener that receives the progress (incumbents, bounds, node
+	 * counts) of the optimizations of this solver. A listener may stop an
+	 * optimization, in which case the best known solution is returned.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addProgressListener(ProgressListener listener);
+	
+	/**
+	 * Removes a progress listener.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void removeProgressListener(ProgressListener listener);
+	
+	/**
+	 * Sets the metrics that record the phases (see {@link Phase}) of all
+	 * problems of this solver. Metrics are disabled by default (
+	 * {@code null}).
+	 * 
+	 * @param metrics
+	 *            the metrics or {@code null} to disable the metrics
+	 */
+	public void setMetrics(Metrics metrics);
+	
+	/**
+	 * Returns the metrics of this solver or {@code null} if disabled.
+	 * 
+	 * @return the metrics
+	 */
+	public Metrics getMetrics();
+	
+	/**
+	 * Returns the estimated native memory of the problems of this solver in
+	 * bytes (see {@link Problem#getNativeMemory()}).
+	 * 
+	 * @return the estimated native memory
+	 */
+	public long getNativeMemory();
+	
+	/**
+	 * Sets the maximal number of problems that are held with their native
+	 * model (0 for no limit, default). If the limit is exceeded, the least
+	 * recently used idle problems (not solving and solved at least once
+	 * since their creation) are evicted: they are closed and either deleted
+	 * or spilled to a snapshot (see
+	 * {@link #setSpillDirectory(File)}). A problem is used by its creation,
+	 * {@link #getProblem(String)} and its solve; callers of evicted problems
+	 * get the rehydrated problem from {@link #getProblem(String)}.
+	 * 
+	 * @param maxProblems
+	 *            the maximal number of problems
+	 */
+	public void setMaxProblems(int maxProblems);
+	
+	/**
+	 * Sets the maximal estimated native memory of the held problems in bytes
+	 * (0 for no limit, default; see {@link #getNativeMemory()}). The least
+	 * recently used problems are evicted as described in
+	 * {@link #setMaxProblems(int)}.
+	 * 
+	 * @param maxNativeMemory
+	 *            the maximal native memory in bytes
+	 */
+	public void setMaxNativeMemory(long maxNativeMemory);
+	
+	/**
+	 * Sets the directory for the snapshots of evicted problems (see
+	 * {@link ModelSnapshot}). An evicted problem is rehydrated on the next
+	 * {@link #getProblem(String)} of its identifier. Without a directory
+	 * (default), evicted problems are deleted.
+	 * 
+	 * @param spillDirectory
+	 *            the directory or {@code null}
+	 */
+	public void setSpillDirectory(File spillDirectory);
+	
 	/**
 	 * Returns the solver-specific parameter value for an ID.
 	 * 
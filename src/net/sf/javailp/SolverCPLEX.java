@@ -16,7 +16,6 @@ package net.sf.javailp;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 import ilog.concert.IloException;
 import ilog.cplex.IloCplex;
@@ -32,7 +31,6 @@ import ilog.cplex.IloCplex.IntParam;
 public class SolverCPLEX extends AbstractSolver {
 	
 	private Map<String, IloCplex> models = new HashMap<String, IloCplex>();
-	private Map<String, Problem> problems = new HashMap<String, Problem>();
 	
 	/**
 	 * Constructs a {@code SolverCPLEX}.
@@ -49,52 +47,31 @@ public class SolverCPLEX extends AbstractSolver {
 	 */
 	public synchronized Problem createProblem(String identifier) {
 		try {
-			if (this.models.containsKey(identifier)) {
+			if (this.models.containsKey(identifier) || this.snapshots.containsKey(identifier)) {
 				throw new OptimizationException("A problem with this identifier already exists.");
 			}
 			IloCplex model = new IloCplex();
 			updateParameters(model);
 			this.models.put(identifier, model);
-			Problem problem = new ProblemCPLEX(model);
-			this.problems.put(identifier, problem);
+			Problem problem = new ProblemCPLEX(model, identifier);
+			register(problem);
 			return problem;
 		} catch (IloException e) {
 			throw new OptimizationException(e.getMessage());
 		}
 	}
 	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblem(String)
-	 */
-	public synchronized Problem getProblem(String identifier) {
-		if (!this.problems.containsKey(identifier)) {
-			return this.createProblem(identifier);
-		}
-		return this.problems.get(identifier);
-	}
-	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblemNames()
-	 */
-	public synchronized Set<String> getProblemIdentifiers() {
-		return this.problems.keySet();
-	}
-	
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see net.sf.javailp.Solver#deleteProblem(String)
 	 */
 	public synchronized void deleteProblem(String identifier) {
+		discardSnapshot(identifier);
 		if (this.problems.containsKey(identifier)) {
-			IloCplex model = this.models.get(identifier);
-			model.end();
-			this.problems.remove(identifier);
+			Problem problem = this.problems.remove(identifier);
 			this.models.remove(identifier);
+			problem.dispose();
 		}
 	}
 
@@ -107,14 +84,35 @@ public class SolverCPLEX extends AbstractSolver {
 		return this.solve(problem, false);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean)
+	 */
 	public Result solve(Problem problem, boolean activateLog) {
+		return this.solve(problem, activateLog, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean, net.sf.javailp.Deadline)
+	 */
+	public Result solve(Problem problem, boolean activateLog, Deadline deadline) {
 		boolean postSolve = false;
 		Number postsolve = this.parameters.get(Solver.POSTSOLVE);
 		if (postsolve != null && postsolve.intValue() != 0 ) postSolve = true;
 		
-		Result result = problem.optimize(postSolve, activateLog);
-		
-		return result;
+		problem.setProgressMonitor(createProgressMonitor());
+		problem.setDeadline(deadline);
+		problem.setMetricsRecorder(getMetricsRecorder(problem));
+		beginSolve(problem);
+		try {
+			return problem.optimize(postSolve, activateLog);
+		} finally {
+			endSolve(problem);
+			problem.metricsRecorder.publish();
+		}
 	}
 
 	protected void updateParameters(IloCplex model) throws IloException {
@@ -16,7 +16,6 @@ package net.sf.javailp;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
@@ -33,7 +32,6 @@ import org.gnu.glpk.glp_smcp;
 public class SolverGLPK extends AbstractSolver {
 	
 	private Map<String, glp_prob> models = new HashMap<String, glp_prob>();
-	private Map<String, Problem> problems = new HashMap<String, Problem>();
 	
 	/**
 	 * Constructs a {@code SolverGLPK}.
@@ -49,7 +47,7 @@ public class SolverGLPK extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#createProblem(String)
 	 */
 	public synchronized Problem createProblem(String identifier) {
-		if (this.models.containsKey(identifier)) {
+		if (this.models.containsKey(identifier) || this.snapshots.containsKey(identifier)) {
 			throw new OptimizationException("A problem with this identifier already exists.");
 		}
 		glp_prob model = GLPK.glp_create_prob();
@@ -59,41 +57,22 @@ public class SolverGLPK extends AbstractSolver {
 		GLPK.glp_init_smcp(simplexParameters);
 		GLPK.glp_init_iocp(integerParameters);
 		this.updateParameters(simplexParameters, integerParameters);
-		Problem problem = new ProblemGLPK(model, simplexParameters, integerParameters);
-		this.problems.put(identifier, problem);
+		Problem problem = new ProblemGLPK(model, simplexParameters, integerParameters, identifier);
+		register(problem);
 		return problem;
 	}
 	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblem(String)
-	 */
-	public synchronized Problem getProblem(String identifier) {
-		if (!this.problems.containsKey(identifier)) {
-			return this.createProblem(identifier);
-		}
-		return this.problems.get(identifier);
-	}
-	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblemNames()
-	 */
-	public synchronized Set<String> getProblemIdentifiers() {
-		return this.problems.keySet();
-	}
-	
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see net.sf.javailp.Solver#deleteProblem(String)
 	 */
 	public synchronized void deleteProblem(String identifier) {
+		discardSnapshot(identifier);
 		if (this.problems.containsKey(identifier)) {
-			this.problems.remove(identifier);
+			Problem problem = this.problems.remove(identifier);
 			this.models.remove(identifier);
+			problem.dispose();
 		}
 	}
 
@@ -106,14 +85,35 @@ public class SolverGLPK extends AbstractSolver {
 		return this.solve(problem, false);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean)
+	 */
 	public Result solve(Problem problem, boolean activateLog) {
+		return this.solve(problem, activateLog, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean, net.sf.javailp.Deadline)
+	 */
+	public Result solve(Problem problem, boolean activateLog, Deadline deadline) {
 		boolean postSolve = false;
 		Number postsolve = this.parameters.get(Solver.POSTSOLVE);
 		if (postsolve != null && postsolve.intValue() != 0 ) postSolve = true;
 		
-		Result result = problem.optimize(postSolve, activateLog);
-				
-		return result;
+		problem.setProgressMonitor(createProgressMonitor());
+		problem.setDeadline(deadline);
+		problem.setMetricsRecorder(getMetricsRecorder(problem));
+		beginSolve(problem);
+		try {
+			return problem.optimize(postSolve, activateLog);
+		} finally {
+			endSolve(problem);
+			problem.metricsRecorder.publish();
+		}
 	}
 	
 	protected void updateParameters(glp_smcp simplexParameters, glp_iocp integerParameters) {
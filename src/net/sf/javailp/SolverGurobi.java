@@ -16,7 +16,6 @@ package net.sf.javailp;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 
 import gurobi.GRB;
 import gurobi.GRBEnv;
@@ -33,7 +32,6 @@ public class SolverGurobi extends AbstractSolver {
 	
 	private GRBEnv env;
 	private Map<String, GRBModel> models = new HashMap<String, GRBModel>();
-	private Map<String, Problem> problems = new HashMap<String, Problem>();
 	
 	/**
 	 * Constructs a {@code SolverGurobi}.
@@ -56,51 +54,30 @@ public class SolverGurobi extends AbstractSolver {
 	public synchronized Problem createProblem(String identifier) {
 		try {
 			updateParameters();
-			if (this.models.containsKey(identifier)) {
+			if (this.models.containsKey(identifier) || this.snapshots.containsKey(identifier)) {
 				throw new OptimizationException("A problem with this identifier already exists.");
 			}
 			GRBModel model = new GRBModel(this.env);
 			this.models.put(identifier, model);
 			Problem problem = new ProblemGurobi(this.env, model, identifier);
-			this.problems.put(identifier, problem);
+			register(problem);
 			return problem;
 		} catch (GRBException e) {
 			throw new OptimizationException("Error code: " + e.getErrorCode() + ". " + e.getMessage());
 		}
 	}
 	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblem(String)
-	 */
-	public synchronized Problem getProblem(String identifier) {
-		if (!this.problems.containsKey(identifier)) {
-			return this.createProblem(identifier);
-		}
-		return this.problems.get(identifier);
-	}
-	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see net.sf.javailp.Solver#getProblemNames()
-	 */
-	public synchronized Set<String> getProblemIdentifiers() {
-		return this.problems.keySet();
-	}
-	
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see net.sf.javailp.Solver#deleteProblem(String)
 	 */
 	public synchronized void deleteProblem(String identifier) {
+		discardSnapshot(identifier);
 		if (this.problems.containsKey(identifier)) {
-			GRBModel model = this.models.get(identifier);
-			model.dispose();
-			this.problems.remove(identifier);
+			Problem problem = this.problems.remove(identifier);
 			this.models.remove(identifier);
+			problem.dispose();
 		}
 	}
 
@@ -113,7 +90,21 @@ public class SolverGurobi extends AbstractSolver {
 		return this.solve(problem, false);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean)
+	 */
 	public Result solve(Problem problem, boolean activateLog) {
+		return this.solve(problem, activateLog, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, boolean, net.sf.javailp.Deadline)
+	 */
+	public Result solve(Problem problem, boolean activateLog, Deadline deadline) {
 		
 		if (this.env == null) {
 			throw new OptimizationException("GRBEnv must be initialized before any problem can be solved.");
@@ -123,9 +114,16 @@ public class SolverGurobi extends AbstractSolver {
 		Number postsolve = this.parameters.get(Solver.POSTSOLVE);
 		if (postsolve != null && postsolve.intValue() != 0 ) postSolve = true;
 		
-		Result result = problem.optimize(postSolve, activateLog);
-		
-		return result;
+		problem.setProgressMonitor(createProgressMonitor());
+		problem.setDeadline(deadline);
+		problem.setMetricsRecorder(getMetricsRecorder(problem));
+		beginSolve(problem);
+		try {
+			return problem.optimize(postSolve, activateLog);
+		} finally {
+			endSolve(problem);
+			problem.metricsRecorder.publish();
+		}
 	}
 
 	protected void updateParameters() throws GRBException {
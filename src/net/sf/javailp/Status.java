@@ -0,0 +1,58 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The status of a {@link Result}. Problems without a feasible solution raise
+ * an {@link OptimizationException}, thus, each status of a result refers to a
+ * solution; the exception of a problem that is proven infeasible carries the
+ * status {@link #INFEASIBLE}.
+ * 
+ * @author fgenoese
+ * 
+ */
+public enum Status {
+	/**
+	 * Optimal (within the set MIP gap)
+	 */
+	OPTIMAL,
+	/**
+	 * Feasible, stopped by another limit (nodes, iterations, solutions) or
+	 * with a suboptimal termination of the backend
+	 */
+	FEASIBLE,
+	/**
+	 * Feasible, stopped by the time limit
+	 */
+	TIME_LIMIT,
+	/**
+	 * Feasible, stopped by a {@link ProgressListener}
+	 */
+	INTERRUPTED,
+	/**
+	 * Proven infeasible (only reported by an {@link OptimizationException})
+	 */
+	INFEASIBLE;
+
+	/**
+	 * Returns {@code true} if the solution is proven optimal.
+	 * 
+	 * @return {@code true} if the solution is optimal
+	 */
+	public boolean isOptimal() {
+		return this == OPTIMAL;
+	}
+
+}
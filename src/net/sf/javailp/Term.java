@@ -25,6 +25,8 @@ public class Term {
 
 	protected final String variableName;
 	protected final Number coefficient;
+	protected final VariableArray array;
+	protected final int offset;
 
 	/**
 	 * Constructs a {@code Term}.
@@ -42,6 +44,32 @@ public class Term {
 		}
 		this.variableName = variableName;
 		this.coefficient = coefficient;
+		this.array = null;
+		this.offset = -1;
+	}
+
+	/**
+	 * Constructs a {@code Term} of an element of a variable array (whose
+	 * name is derived on demand).
+	 * 
+	 * @param array
+	 *            the variable array
+	 * @param offset
+	 *            the offset of the element
+	 * @param coefficient
+	 *            the coefficient
+	 */
+	public Term(VariableArray array, int offset, Number coefficient) {
+		super();
+		array.checkOffset(offset);
+		if (coefficient == null) {
+			throw new IllegalArgumentException("The variable " + array.getName(offset)
+					+ " has no valid coefficient.");
+		}
+		this.variableName = null;
+		this.coefficient = coefficient;
+		this.array = array;
+		this.offset = offset;
 	}
 
 	/**
@@ -50,7 +78,27 @@ public class Term {
 	 * @return the variable name
 	 */
 	public String getVariableName() {
-		return variableName;
+		return (array != null ? array.getName(offset) : variableName);
+	}
+
+	/**
+	 * Returns the variable array or {@code null} if the variable is
+	 * referenced by its name.
+	 * 
+	 * @return the variable array
+	 */
+	public VariableArray getArray() {
+		return array;
+	}
+
+	/**
+	 * Returns the offset in the variable array or -1 if the variable is
+	 * referenced by its name.
+	 * 
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return offset;
 	}
 
 	/**
@@ -33,12 +33,33 @@ public enum VarType {
 	/**
 	 * Real
 	 */
-	REAL;
+	REAL,
+	/**
+	 * Semi-continuous: zero or real between the bounds (a missing lower
+	 * bound is zero)
+	 */
+	SEMICONT,
+	/**
+	 * Semi-integer: zero or integer between the bounds (a missing lower bound
+	 * is zero)
+	 */
+	SEMIINT;
 
 	public boolean isInt() {
 		switch (this) {
 		case BOOL:
 		case INT:
+		case SEMIINT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	public boolean isSemiContinuous() {
+		switch (this) {
+		case SEMICONT:
+		case SEMIINT:
 			return true;
 		default:
 			return false;
@@ -52,6 +73,10 @@ public enum VarType {
 			return "binary";
 		case INT:
 			return "integer";
+		case SEMICONT:
+			return "semi-continuous";
+		case SEMIINT:
+			return "semi-integer";
 		default: // REAL
 			return "continuous";
 		}
@@ -0,0 +1,181 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code VariableArray} is a family of variables with a
+ * multi-dimensional index, e.g., {@code x[i][j][t]}, that is added with
+ * {@link Problem#addVariableArray(String, VarType, Number, Number, int...)}.
+ * Its elements are addressed by their offset in row-major order (see
+ * {@link #offset(int...)}) and referenced in a {@link Linear} without a name
+ * ({@link Linear#add(Number, VariableArray, int)}). The name of an element
+ * is only derived when it is needed, e.g., {@code x(1,2,3)} for the index
+ * {@code (1, 2, 3)} of the prefix {@code x}.
+ * 
+ * @author fgenoese
+ * 
+ */
+public class VariableArray {
+
+	protected final String prefix;
+	protected final int[] dimensions;
+	protected final int[] strides;
+	protected final int size;
+
+	/**
+	 * Constructs a {@code VariableArray}.
+	 * 
+	 * @param prefix
+	 *            the prefix of the names
+	 * @param dimensions
+	 *            the dimensions
+	 */
+	public VariableArray(String prefix, int... dimensions) {
+		super();
+		if (dimensions.length == 0) {
+			throw new IllegalArgumentException("A variable array needs at least one dimension. (in: " + prefix + ")");
+		}
+		this.prefix = prefix;
+		this.dimensions = dimensions.clone();
+		this.strides = new int[dimensions.length];
+		long size = 1;
+		for (int d = dimensions.length - 1; d >= 0; d--) {
+			if (dimensions[d] <= 0) {
+				throw new IllegalArgumentException("The dimensions of a variable array must be positive. (in: "
+						+ prefix + ")");
+			}
+			strides[d] = (int) size;
+			size *= dimensions[d];
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("The variable array " + prefix + " is too large.");
+			}
+		}
+		this.size = (int) size;
+	}
+
+	/**
+	 * Returns the prefix of the names.
+	 * 
+	 * @return the prefix
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+
+	/**
+	 * Returns the dimensions.
+	 * 
+	 * @return the dimensions
+	 */
+	public int[] getDimensions() {
+		return dimensions.clone();
+	}
+
+	/**
+	 * Returns the number of variables.
+	 * 
+	 * @return the number of variables
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the offset of an index.
+	 * 
+	 * @param index
+	 *            the index (one value per dimension)
+	 * @return the offset
+	 */
+	public int offset(int... index) {
+		if (index.length != dimensions.length) {
+			throw new IllegalArgumentException("The variable array " + prefix + " has " + dimensions.length
+					+ " dimensions, not " + index.length + ".");
+		}
+		int offset = 0;
+		for (int d = 0; d < index.length; d++) {
+			if (index[d] < 0 || index[d] >= dimensions[d]) {
+				throw new IndexOutOfBoundsException("index " + index[d] + " of dimension " + d + " (size "
+						+ dimensions[d] + ") in variable array " + prefix);
+			}
+			offset += index[d] * strides[d];
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the index of an offset.
+	 * 
+	 * @param offset
+	 *            the offset
+	 * @return the index
+	 */
+	public int[] index(int offset) {
+		checkOffset(offset);
+		int[] index = new int[dimensions.length];
+		for (int d = 0; d < dimensions.length; d++) {
+			index[d] = offset / strides[d];
+			offset %= strides[d];
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the name of the variable at an offset.
+	 * 
+	 * @param offset
+	 *            the offset
+	 * @return the name
+	 */
+	public String getName(int offset) {
+		checkOffset(offset);
+		StringBuilder name = new StringBuilder(prefix.length() + 4 * dimensions.length + 2);
+		name.append(prefix).append('(');
+		for (int d = 0; d < dimensions.length; d++) {
+			if (d > 0) {
+				name.append(',');
+			}
+			name.append(offset / strides[d]);
+			offset %= strides[d];
+		}
+		return name.append(')').toString();
+	}
+
+	/**
+	 * Throws an {@code IndexOutOfBoundsException} if the offset is not in
+	 * the array.
+	 */
+	protected void checkOffset(int offset) {
+		if (offset < 0 || offset >= size) {
+			throw new IndexOutOfBoundsException("offset " + offset + " (size " + size + ") in variable array "
+					+ prefix);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(prefix);
+		for (int dimension : dimensions) {
+			s.append('[').append(dimension).append(']');
+		}
+		return s.toString();
+	}
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A capacitated facility location instance: minimize the fixed costs of the
+ * opened facilities plus the transportation costs such that the demand of
+ * each customer is served and the capacity of each opened facility is
+ * respected. Facilities and customers are placed uniformly in the unit
+ * square; the transportation cost per unit is proportional to the distance.
+ * The total capacity is three times the total demand.
+ * <p>
+ * Variables {@code y_i} (open) and {@code x_i_j} (fraction of the demand of
+ * customer {@code j} served by facility {@code i}); constraints
+ * {@code demand_j} and {@code capacity_i}; nonzeros
+ * {@code 2 * facilities * customers + facilities}.
+ *
+ * @author fgenoese
+ *
+ */
+public class FacilityLocationGenerator extends InstanceGenerator {
+
+	protected final int[] fixedCosts;
+	protected final int[] capacities;
+	protected final int[] demands;
+	protected final int[][] costs;
+
+	/**
+	 * Constructs a {@code FacilityLocationGenerator}.
+	 *
+	 * @param facilities
+	 *            the number of facilities
+	 * @param customers
+	 *            the number of customers
+	 * @param seed
+	 *            the seed
+	 */
+	public FacilityLocationGenerator(int facilities, int customers, long seed) {
+		super();
+		Random random = new Random(seed);
+		fixedCosts = new int[facilities];
+		capacities = new int[facilities];
+		demands = new int[customers];
+		costs = new int[facilities][customers];
+
+		double[][] positions = new double[facilities + customers][2];
+		for (double[] position : positions) {
+			position[0] = random.nextDouble();
+			position[1] = random.nextDouble();
+		}
+		long totalDemand = 0;
+		for (int j = 0; j < customers; j++) {
+			demands[j] = uniform(random, 5, 35);
+			totalDemand += demands[j];
+		}
+		double[] shares = new double[facilities];
+		double sum = 0;
+		for (int i = 0; i < facilities; i++) {
+			shares[i] = 0.5 + random.nextDouble();
+			sum += shares[i];
+			fixedCosts[i] = uniform(random, 1000, 2000);
+		}
+		for (int i = 0; i < facilities; i++) {
+			capacities[i] = (int) Math.min(Integer.MAX_VALUE, Math.ceil(3 * totalDemand * shares[i] / sum));
+			for (int j = 0; j < customers; j++) {
+				double dx = positions[i][0] - positions[facilities + j][0];
+				double dy = positions[i][1] - positions[facilities + j][1];
+				costs[i][j] = (int) Math.round(100 * Math.sqrt(dx * dx + dy * dy));
+			}
+		}
+	}
+
+	protected FacilityLocationGenerator(int[] fixedCosts, int[] capacities, int[] demands, int[][] costs) {
+		super();
+		this.fixedCosts = fixedCosts;
+		this.capacities = capacities;
+		this.demands = demands;
+		this.costs = costs;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros and ten
+	 * times as many customers as facilities.
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static FacilityLocationGenerator withNonzeros(long nonzeros, long seed) {
+		int facilities = square(nonzeros, 2 * 10);
+		return new FacilityLocationGenerator(facilities, 10 * facilities, seed);
+	}
+
+	/**
+	 * Returns an instance with 2 facilities and 3 customers with the optimal
+	 * objective 24 (both facilities are opened).
+	 *
+	 * @return the generator
+	 */
+	public static FacilityLocationGenerator example() {
+		int[] fixedCosts = { 10, 10 };
+		int[] capacities = { 3, 3 };
+		int[] demands = { 1, 1, 1 };
+		int[][] costs = { { 1, 2, 20 }, { 20, 15, 1 } };
+		FacilityLocationGenerator generator = new FacilityLocationGenerator(fixedCosts, capacities, demands, costs);
+		generator.optimalObjective = 24;
+		return generator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		int facilities = fixedCosts.length;
+		int customers = demands.length;
+		Linear objective = new Linear();
+		for (int i = 0; i < facilities; i++) {
+			problem.addVariable("y_" + i, VarType.BOOL, 0, 1);
+			objective.add(fixedCosts[i], "y_" + i);
+			for (int j = 0; j < customers; j++) {
+				problem.addVariable("x_" + i + "_" + j, VarType.REAL, 0, 1);
+				objective.add(costs[i][j] * demands[j], "x_" + i + "_" + j);
+			}
+		}
+		for (int j = 0; j < customers; j++) {
+			Linear linear = new Linear();
+			for (int i = 0; i < facilities; i++) {
+				linear.add(1, "x_" + i + "_" + j);
+			}
+			problem.addConstraint("demand_" + j, linear, Operator.EQ, 1);
+		}
+		for (int i = 0; i < facilities; i++) {
+			Linear linear = new Linear();
+			for (int j = 0; j < customers; j++) {
+				linear.add(demands[j], "x_" + i + "_" + j);
+			}
+			linear.add(-capacities[i], "y_" + i);
+			problem.addConstraint("capacity_" + i, linear, Operator.LE, 0);
+		}
+		problem.setObjective(objective, OptType.MIN);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		return 2L * fixedCosts.length * demands.length + fixedCosts.length;
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.ProblemInterface;
+
+/**
+ * The {@code InstanceGenerator} builds a benchmark instance in a
+ * {@link ProblemInterface}. The data of an instance is drawn once from a
+ * {@link Random} with the given seed, thus, the same seed always generates
+ * the same instance and the instance can be built into several problems
+ * (e.g., of different solvers).
+ * <p>
+ * The {@code example()} factory methods of the generators return small
+ * instances with a known optimal objective value (see
+ * {@link #getOptimalObjective()}) for correctness cross-checks.
+ *
+ * @author fgenoese
+ *
+ */
+public abstract class InstanceGenerator {
+
+	protected Number optimalObjective = null;
+
+	/**
+	 * Adds the variables, constraints and the objective of the instance to
+	 * the problem.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	public abstract void generate(ProblemInterface problem);
+
+	/**
+	 * Returns the number of nonzeros of the constraint matrix.
+	 * 
+	 * @return the number of nonzeros
+	 */
+	public abstract long getNonzeros();
+
+	/**
+	 * Returns the optimal objective value or {@code null} if not known.
+	 * 
+	 * @return the optimal objective value
+	 */
+	public Number getOptimalObjective() {
+		return optimalObjective;
+	}
+
+	/**
+	 * Returns a random integer in {@code [min, max]}.
+	 */
+	protected static int uniform(Random random, int min, int max) {
+		return min + random.nextInt(max - min + 1);
+	}
+
+	/**
+	 * Returns the dimension that yields about the given number of nonzeros
+	 * if the nonzeros grow with {@code factor * dimension^2}.
+	 */
+	protected static int square(long nonzeros, double factor) {
+		return (int) Math.max(1, Math.round(Math.sqrt(nonzeros / factor)));
+	}
+
+}
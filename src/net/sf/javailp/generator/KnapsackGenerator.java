@@ -0,0 +1,141 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A multi-dimensional 0-1 knapsack instance: maximize the profit of the
+ * selected items subject to one capacity constraint per dimension. The
+ * weights are uniform in {@code [1, 1000]}, the profits are correlated with
+ * the weights, and the capacities are half of the total weights.
+ * <p>
+ * Variables {@code x_i}; constraints {@code capacity_k}; nonzeros
+ * {@code items * dimensions}.
+ *
+ * @author fgenoese
+ *
+ */
+public class KnapsackGenerator extends InstanceGenerator {
+
+	protected final int[] profits;
+	protected final int[][] weights;
+	protected final int[] capacities;
+
+	/**
+	 * Constructs a {@code KnapsackGenerator}.
+	 *
+	 * @param items
+	 *            the number of items
+	 * @param dimensions
+	 *            the number of capacity constraints
+	 * @param seed
+	 *            the seed
+	 */
+	public KnapsackGenerator(int items, int dimensions, long seed) {
+		super();
+		Random random = new Random(seed);
+		profits = new int[items];
+		weights = new int[dimensions][items];
+		capacities = new int[dimensions];
+		for (int k = 0; k < dimensions; k++) {
+			long sum = 0;
+			for (int i = 0; i < items; i++) {
+				weights[k][i] = uniform(random, 1, 1000);
+				sum += weights[k][i];
+			}
+			capacities[k] = (int) Math.min(Integer.MAX_VALUE, sum / 2);
+		}
+		for (int i = 0; i < items; i++) {
+			profits[i] = weights[0][i] + uniform(random, 1, 500);
+		}
+	}
+
+	protected KnapsackGenerator(int[] profits, int[][] weights, int[] capacities) {
+		super();
+		this.profits = profits;
+		this.weights = weights;
+		this.capacities = capacities;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros and 10
+	 * dimensions (fewer for small sizes).
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static KnapsackGenerator withNonzeros(long nonzeros, long seed) {
+		int dimensions = (int) Math.max(1, Math.min(10, nonzeros / 100));
+		int items = (int) Math.max(1, nonzeros / dimensions);
+		return new KnapsackGenerator(items, dimensions, seed);
+	}
+
+	/**
+	 * Returns a single knapsack with 5 items and the optimal objective 15.
+	 *
+	 * @return the generator
+	 */
+	public static KnapsackGenerator example() {
+		int[] profits = { 4, 2, 1, 2, 10 };
+		int[][] weights = { { 12, 2, 1, 1, 4 } };
+		int[] capacities = { 15 };
+		KnapsackGenerator generator = new KnapsackGenerator(profits, weights, capacities);
+		generator.optimalObjective = 15;
+		return generator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		Linear objective = new Linear();
+		for (int i = 0; i < profits.length; i++) {
+			problem.addVariable("x_" + i, VarType.BOOL, 0, 1);
+			objective.add(profits[i], "x_" + i);
+		}
+		for (int k = 0; k < capacities.length; k++) {
+			Linear linear = new Linear();
+			for (int i = 0; i < profits.length; i++) {
+				linear.add(weights[k][i], "x_" + i);
+			}
+			problem.addConstraint("capacity_" + k, linear, Operator.LE, capacities[k]);
+		}
+		problem.setObjective(objective, OptType.MAX);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		return (long) profits.length * capacities.length;
+	}
+
+}
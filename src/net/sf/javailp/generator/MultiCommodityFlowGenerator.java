@@ -0,0 +1,199 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A multi-commodity min-cost flow instance: route the demand of each
+ * commodity from its source to its sink at minimal cost such that the total
+ * flow on each arc respects the arc capacity. The network consists of random
+ * arcs with capacities uniform in {@code [10, 100]} and a ring of expensive
+ * arcs with enough capacity for all demands, thus, each instance is
+ * feasible.
+ * <p>
+ * Variables {@code f_k_a} (flow of commodity {@code k} on arc {@code a});
+ * constraints {@code flow_k_v} and {@code capacity_a}; nonzeros
+ * {@code 3 * arcs * commodities}.
+ *
+ * @author fgenoese
+ *
+ */
+public class MultiCommodityFlowGenerator extends InstanceGenerator {
+
+	protected final int nodes;
+	protected final int[] tails;
+	protected final int[] heads;
+	protected final int[] costs;
+	protected final int[] capacities;
+	protected final int[] sources;
+	protected final int[] sinks;
+	protected final int[] demands;
+
+	/**
+	 * Constructs a {@code MultiCommodityFlowGenerator}.
+	 *
+	 * @param nodes
+	 *            the number of nodes (at least 2)
+	 * @param degree
+	 *            the number of random outgoing arcs per node
+	 * @param commodities
+	 *            the number of commodities
+	 * @param seed
+	 *            the seed
+	 */
+	public MultiCommodityFlowGenerator(int nodes, int degree, int commodities, long seed) {
+		super();
+		if (nodes < 2) {
+			throw new IllegalArgumentException("The network needs at least 2 nodes.");
+		}
+		Random random = new Random(seed);
+		this.nodes = nodes;
+		sources = new int[commodities];
+		sinks = new int[commodities];
+		demands = new int[commodities];
+		int totalDemand = 0;
+		for (int k = 0; k < commodities; k++) {
+			sources[k] = random.nextInt(nodes);
+			sinks[k] = (sources[k] + 1 + random.nextInt(nodes - 1)) % nodes;
+			demands[k] = uniform(random, 1, 20);
+			totalDemand += demands[k];
+		}
+
+		int arcs = nodes * (degree + 1);
+		tails = new int[arcs];
+		heads = new int[arcs];
+		costs = new int[arcs];
+		capacities = new int[arcs];
+		int a = 0;
+		for (int v = 0; v < nodes; v++) {
+			tails[a] = v;
+			heads[a] = (v + 1) % nodes;
+			costs[a] = 1000;
+			capacities[a] = totalDemand;
+			a++;
+			for (int d = 0; d < degree; d++) {
+				tails[a] = v;
+				heads[a] = (v + 1 + random.nextInt(nodes - 1)) % nodes;
+				costs[a] = uniform(random, 1, 100);
+				capacities[a] = uniform(random, 10, 100);
+				a++;
+			}
+		}
+	}
+
+	protected MultiCommodityFlowGenerator(int nodes, int[] tails, int[] heads, int[] costs, int[] capacities,
+			int[] sources, int[] sinks, int[] demands) {
+		super();
+		this.nodes = nodes;
+		this.tails = tails;
+		this.heads = heads;
+		this.costs = costs;
+		this.capacities = capacities;
+		this.sources = sources;
+		this.sinks = sinks;
+		this.demands = demands;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros, 5 random
+	 * arcs per node, and a tenth as many commodities as nodes.
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static MultiCommodityFlowGenerator withNonzeros(long nonzeros, long seed) {
+		int nodes = Math.max(2, square(nonzeros, 3 * 6 * 0.1));
+		int commodities = Math.max(1, nodes / 10);
+		return new MultiCommodityFlowGenerator(nodes, 5, commodities, seed);
+	}
+
+	/**
+	 * Returns a network of 3 nodes and 3 arcs with one commodity and the
+	 * optimal objective 26 (the cheap path is saturated).
+	 *
+	 * @return the generator
+	 */
+	public static MultiCommodityFlowGenerator example() {
+		// arcs 0->1, 1->2, 0->2
+		int[] tails = { 0, 1, 0 };
+		int[] heads = { 1, 2, 2 };
+		int[] costs = { 1, 1, 3 };
+		int[] capacities = { 10, 10, 5 };
+		MultiCommodityFlowGenerator generator = new MultiCommodityFlowGenerator(3, tails, heads, costs, capacities,
+				new int[] { 0 }, new int[] { 2 }, new int[] { 12 });
+		generator.optimalObjective = 26;
+		return generator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		int arcs = tails.length;
+		Linear objective = new Linear();
+		for (int k = 0; k < demands.length; k++) {
+			for (int a = 0; a < arcs; a++) {
+				problem.addVariable("f_" + k + "_" + a, VarType.REAL, 0, null);
+				objective.add(costs[a], "f_" + k + "_" + a);
+			}
+		}
+		for (int k = 0; k < demands.length; k++) {
+			Linear[] balance = new Linear[nodes];
+			for (int v = 0; v < nodes; v++) {
+				balance[v] = new Linear();
+			}
+			for (int a = 0; a < arcs; a++) {
+				balance[tails[a]].add(1, "f_" + k + "_" + a);
+				balance[heads[a]].add(-1, "f_" + k + "_" + a);
+			}
+			for (int v = 0; v < nodes; v++) {
+				int rhs = (v == sources[k] ? demands[k] : (v == sinks[k] ? -demands[k] : 0));
+				problem.addConstraint("flow_" + k + "_" + v, balance[v], Operator.EQ, rhs);
+			}
+		}
+		for (int a = 0; a < arcs; a++) {
+			Linear linear = new Linear();
+			for (int k = 0; k < demands.length; k++) {
+				linear.add(1, "f_" + k + "_" + a);
+			}
+			problem.addConstraint("capacity_" + a, linear, Operator.LE, capacities[a]);
+		}
+		problem.setObjective(objective, OptType.MIN);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		return 3L * tails.length * demands.length;
+	}
+
+}
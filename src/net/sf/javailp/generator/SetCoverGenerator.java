@@ -0,0 +1,162 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A weighted set cover instance: minimize the cost of the selected sets such
+ * that each element is covered by at least one set. Each set contains each
+ * element with the given density; each element is contained in at least one
+ * set. The costs are uniform in {@code [1, 100]}.
+ * <p>
+ * Variables {@code x_j}; constraints {@code cover_i}; nonzeros about
+ * {@code elements * sets * density}.
+ *
+ * @author fgenoese
+ *
+ */
+public class SetCoverGenerator extends InstanceGenerator {
+
+	protected final int sets;
+	protected final int[] costs;
+	protected final int[][] covers;
+
+	/**
+	 * Constructs a {@code SetCoverGenerator}.
+	 *
+	 * @param elements
+	 *            the number of elements (rows)
+	 * @param sets
+	 *            the number of sets (columns)
+	 * @param density
+	 *            the probability that a set contains an element
+	 * @param seed
+	 *            the seed
+	 */
+	public SetCoverGenerator(int elements, int sets, double density, long seed) {
+		super();
+		Random random = new Random(seed);
+		this.sets = sets;
+		costs = new int[sets];
+		for (int j = 0; j < sets; j++) {
+			costs[j] = uniform(random, 1, 100);
+		}
+		covers = new int[elements][];
+		int[] buffer = new int[sets];
+		for (int i = 0; i < elements; i++) {
+			int count = 0;
+			// geometric skipping instead of one draw per set
+			long j = skip(random, density) - 1;
+			while (j < sets) {
+				buffer[count++] = (int) j;
+				j += skip(random, density);
+			}
+			if (count == 0) {
+				buffer[count++] = random.nextInt(sets);
+			}
+			covers[i] = new int[count];
+			System.arraycopy(buffer, 0, covers[i], 0, count);
+		}
+	}
+
+	protected SetCoverGenerator(int[] costs, int[][] covers) {
+		super();
+		this.sets = costs.length;
+		this.costs = costs;
+		this.covers = covers;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros, twice as
+	 * many sets as elements, and a density of 5%.
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static SetCoverGenerator withNonzeros(long nonzeros, long seed) {
+		int elements = square(nonzeros, 2 * 0.05);
+		return new SetCoverGenerator(elements, 2 * elements, 0.05, seed);
+	}
+
+	/**
+	 * Returns a set cover of 5 elements by 5 unit cost sets with the optimal
+	 * objective 2.
+	 *
+	 * @return the generator
+	 */
+	public static SetCoverGenerator example() {
+		// sets {0,1,2} {1,3} {2,3} {3,4} {4}
+		int[] costs = { 1, 1, 1, 1, 1 };
+		int[][] covers = { { 0 }, { 0, 1 }, { 0, 2 }, { 1, 2, 3 }, { 3, 4 } };
+		SetCoverGenerator generator = new SetCoverGenerator(costs, covers);
+		generator.optimalObjective = 2;
+		return generator;
+	}
+
+	private static int skip(Random random, double density) {
+		if (density >= 1.0) {
+			return 1;
+		}
+		double u = 1.0 - random.nextDouble();
+		return 1 + (int) Math.min(Integer.MAX_VALUE / 2, Math.floor(Math.log(u) / Math.log(1.0 - density)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		Linear objective = new Linear();
+		for (int j = 0; j < sets; j++) {
+			problem.addVariable("x_" + j, VarType.BOOL, 0, 1);
+			objective.add(costs[j], "x_" + j);
+		}
+		for (int i = 0; i < covers.length; i++) {
+			Linear linear = new Linear();
+			for (int j : covers[i]) {
+				linear.add(1, "x_" + j);
+			}
+			problem.addConstraint("cover_" + i, linear, Operator.GE, 1);
+		}
+		problem.setObjective(objective, OptType.MIN);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		long nonzeros = 0;
+		for (int[] cover : covers) {
+			nonzeros += cover.length;
+		}
+		return nonzeros;
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A transportation instance: ship the supplies of the sources to the sinks
+ * at minimal cost such that each demand is met. The costs are uniform in
+ * {@code [1, 100]}; the total supply is at least the total demand.
+ * <p>
+ * Variables {@code x_i_j}; constraints {@code supply_i} and
+ * {@code demand_j}; nonzeros {@code 2 * sources * sinks}.
+ *
+ * @author fgenoese
+ *
+ */
+public class TransportationGenerator extends InstanceGenerator {
+
+	protected final int[] supplies;
+	protected final int[] demands;
+	protected final int[][] costs;
+
+	/**
+	 * Constructs a {@code TransportationGenerator}.
+	 *
+	 * @param sources
+	 *            the number of sources
+	 * @param sinks
+	 *            the number of sinks
+	 * @param seed
+	 *            the seed
+	 */
+	public TransportationGenerator(int sources, int sinks, long seed) {
+		super();
+		Random random = new Random(seed);
+		supplies = new int[sources];
+		demands = new int[sinks];
+		costs = new int[sources][sinks];
+		long totalDemand = 0;
+		for (int j = 0; j < sinks; j++) {
+			demands[j] = uniform(random, 10, 100);
+			totalDemand += demands[j];
+		}
+		// distribute the total demand plus 10% slack over the sources
+		long totalSupply = totalDemand + totalDemand / 10;
+		for (int i = 0; i < sources; i++) {
+			supplies[i] = (int) (totalSupply / sources + (i < totalSupply % sources ? 1 : 0));
+			for (int j = 0; j < sinks; j++) {
+				costs[i][j] = uniform(random, 1, 100);
+			}
+		}
+	}
+
+	protected TransportationGenerator(int[] supplies, int[] demands, int[][] costs) {
+		super();
+		this.supplies = supplies;
+		this.demands = demands;
+		this.costs = costs;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros and twice
+	 * as many sinks as sources.
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static TransportationGenerator withNonzeros(long nonzeros, long seed) {
+		int sources = square(nonzeros, 2 * 2);
+		return new TransportationGenerator(sources, 2 * sources, seed);
+	}
+
+	/**
+	 * Returns a balanced instance with 2 sources and 2 sinks with the optimal
+	 * objective 405.
+	 *
+	 * @return the generator
+	 */
+	public static TransportationGenerator example() {
+		int[] supplies = { 20, 30 };
+		int[] demands = { 25, 25 };
+		int[][] costs = { { 8, 6 }, { 9, 12 } };
+		TransportationGenerator generator = new TransportationGenerator(supplies, demands, costs);
+		generator.optimalObjective = 405;
+		return generator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		Linear objective = new Linear();
+		for (int i = 0; i < supplies.length; i++) {
+			for (int j = 0; j < demands.length; j++) {
+				problem.addVariable("x_" + i + "_" + j, VarType.REAL, 0, null);
+				objective.add(costs[i][j], "x_" + i + "_" + j);
+			}
+		}
+		for (int i = 0; i < supplies.length; i++) {
+			Linear linear = new Linear();
+			for (int j = 0; j < demands.length; j++) {
+				linear.add(1, "x_" + i + "_" + j);
+			}
+			problem.addConstraint("supply_" + i, linear, Operator.LE, supplies[i]);
+		}
+		for (int j = 0; j < demands.length; j++) {
+			Linear linear = new Linear();
+			for (int i = 0; i < supplies.length; i++) {
+				linear.add(1, "x_" + i + "_" + j);
+			}
+			problem.addConstraint("demand_" + j, linear, Operator.GE, demands[j]);
+		}
+		problem.setObjective(objective, OptType.MIN);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		return 2L * supplies.length * demands.length;
+	}
+
+}
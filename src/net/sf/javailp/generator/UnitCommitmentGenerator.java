@@ -0,0 +1,187 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.generator;
+
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.ProblemInterface;
+import net.sf.javailp.VarType;
+
+/**
+ * A unit-commitment-style scheduling instance: decide which units run in
+ * each period and their output such that the demand of each period is met at
+ * minimal fixed, variable and startup costs. A running unit produces between
+ * its minimal and maximal output; all units are off before the first period.
+ * The demand follows a daily profile between 45% and 75% of the total
+ * capacity.
+ * <p>
+ * Variables {@code u_g_t} (on), {@code p_g_t} (output) and {@code s_g_t}
+ * (startup); constraints {@code demand_t}, {@code max_g_t}, {@code min_g_t}
+ * and {@code startup_g_t}; nonzeros about {@code 8 * units * periods}.
+ *
+ * @author fgenoese
+ *
+ */
+public class UnitCommitmentGenerator extends InstanceGenerator {
+
+	protected final int[] minOutputs;
+	protected final int[] maxOutputs;
+	protected final int[] fixedCosts;
+	protected final int[] variableCosts;
+	protected final int[] startupCosts;
+	protected final int[] demands;
+
+	/**
+	 * Constructs a {@code UnitCommitmentGenerator}.
+	 *
+	 * @param units
+	 *            the number of units
+	 * @param periods
+	 *            the number of periods (hours)
+	 * @param seed
+	 *            the seed
+	 */
+	public UnitCommitmentGenerator(int units, int periods, long seed) {
+		super();
+		Random random = new Random(seed);
+		minOutputs = new int[units];
+		maxOutputs = new int[units];
+		fixedCosts = new int[units];
+		variableCosts = new int[units];
+		startupCosts = new int[units];
+		long capacity = 0;
+		for (int g = 0; g < units; g++) {
+			maxOutputs[g] = uniform(random, 50, 500);
+			minOutputs[g] = maxOutputs[g] * uniform(random, 10, 50) / 100;
+			fixedCosts[g] = uniform(random, 100, 1000);
+			variableCosts[g] = uniform(random, 10, 50);
+			startupCosts[g] = uniform(random, 500, 5000);
+			capacity += maxOutputs[g];
+		}
+		demands = new int[periods];
+		for (int t = 0; t < periods; t++) {
+			double profile = 0.6 + 0.15 * Math.sin(2 * Math.PI * t / 24) + 0.02 * random.nextGaussian();
+			demands[t] = (int) Math.round(capacity * Math.max(0.45, Math.min(0.75, profile)));
+		}
+	}
+
+	protected UnitCommitmentGenerator(int[] minOutputs, int[] maxOutputs, int[] fixedCosts, int[] variableCosts,
+			int[] startupCosts, int[] demands) {
+		super();
+		this.minOutputs = minOutputs;
+		this.maxOutputs = maxOutputs;
+		this.fixedCosts = fixedCosts;
+		this.variableCosts = variableCosts;
+		this.startupCosts = startupCosts;
+		this.demands = demands;
+	}
+
+	/**
+	 * Returns a generator with about the given number of nonzeros and 24
+	 * periods (one day).
+	 *
+	 * @param nonzeros
+	 *            the number of nonzeros
+	 * @param seed
+	 *            the seed
+	 * @return the generator
+	 */
+	public static UnitCommitmentGenerator withNonzeros(long nonzeros, long seed) {
+		int units = (int) Math.max(1, nonzeros / (8 * 24));
+		return new UnitCommitmentGenerator(units, 24, seed);
+	}
+
+	/**
+	 * Returns an instance with 2 units and 2 periods with the optimal
+	 * objective 275 (the cheap unit runs in both periods, the expensive unit
+	 * only in the peak period).
+	 *
+	 * @return the generator
+	 */
+	public static UnitCommitmentGenerator example() {
+		UnitCommitmentGenerator generator = new UnitCommitmentGenerator(new int[] { 0, 0 }, new int[] { 100, 100 },
+				new int[] { 10, 0 }, new int[] { 1, 2 }, new int[] { 5, 0 }, new int[] { 50, 150 });
+		generator.optimalObjective = 275;
+		return generator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#generate(net.sf.javailp.ProblemInterface)
+	 */
+	@Override
+	public void generate(ProblemInterface problem) {
+		int units = maxOutputs.length;
+		Linear objective = new Linear();
+		for (int g = 0; g < units; g++) {
+			for (int t = 0; t < demands.length; t++) {
+				String suffix = "_" + g + "_" + t;
+				problem.addVariable("u" + suffix, VarType.BOOL, 0, 1);
+				problem.addVariable("p" + suffix, VarType.REAL, 0, maxOutputs[g]);
+				problem.addVariable("s" + suffix, VarType.REAL, 0, 1);
+				objective.add(fixedCosts[g], "u" + suffix);
+				objective.add(variableCosts[g], "p" + suffix);
+				objective.add(startupCosts[g], "s" + suffix);
+			}
+		}
+		for (int t = 0; t < demands.length; t++) {
+			Linear linear = new Linear();
+			for (int g = 0; g < units; g++) {
+				linear.add(1, "p_" + g + "_" + t);
+			}
+			problem.addConstraint("demand_" + t, linear, Operator.GE, demands[t]);
+		}
+		for (int g = 0; g < units; g++) {
+			for (int t = 0; t < demands.length; t++) {
+				String suffix = "_" + g + "_" + t;
+
+				Linear max = new Linear();
+				max.add(1, "p" + suffix);
+				max.add(-maxOutputs[g], "u" + suffix);
+				problem.addConstraint("max" + suffix, max, Operator.LE, 0);
+
+				Linear min = new Linear();
+				min.add(1, "p" + suffix);
+				min.add(-minOutputs[g], "u" + suffix);
+				problem.addConstraint("min" + suffix, min, Operator.GE, 0);
+
+				Linear startup = new Linear();
+				startup.add(1, "s" + suffix);
+				startup.add(-1, "u" + suffix);
+				if (t > 0) {
+					startup.add(1, "u_" + g + "_" + (t - 1));
+				}
+				problem.addConstraint("startup" + suffix, startup, Operator.GE, 0);
+			}
+		}
+		problem.setObjective(objective, OptType.MIN);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see net.sf.javailp.generator.InstanceGenerator#getNonzeros()
+	 */
+	@Override
+	public long getNonzeros() {
+		long cells = (long) maxOutputs.length * demands.length;
+		return 8 * cells - maxOutputs.length;
+	}
+
+}
@@ -0,0 +1,317 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.ResultImpl;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverCPLEX;
+import net.sf.javailp.SolverGLPK;
+import net.sf.javailp.SolverGurobi;
+import net.sf.javailp.VarType;
+
+/**
+ * Micro benchmarks of the hot paths: {@code Linear} construction and
+ * evaluation, {@code ResultImpl} population, model building
+ * ({@code addVariable}/{@code addConstraint}) including the transfer to the
+ * backend, and solve latency. The instances are covering LPs generated with
+ * a fixed seed per size, thus, numbers are comparable between runs.
+ * <p>
+ * Usage: {@code Benchmark [none|glpk|gurobi|cplex] [size...]} (default:
+ * {@code glpk 100 1000 10000}). With {@code none}, only the Java-side
+ * benchmarks are run. Each case is warmed up before it is measured; the
+ * reported times are per operation.
+ *
+ * @author fgenoese
+ *
+ */
+public class Benchmark {
+
+	protected static final int WARMUP_ITERATIONS = 5;
+	protected static final int MEASUREMENT_ITERATIONS = 10;
+	protected static final long MIN_ITERATION_TIME = 100000000L; // 100ms
+	protected static final int NONZEROS_PER_ROW = 10;
+
+	/**
+	 * Consumes the results of the benchmarks such that the JIT cannot remove
+	 * them.
+	 */
+	protected static volatile double sink;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		String backend = (args.length > 0 ? args[0] : "glpk");
+		List<Integer> sizes = new ArrayList<Integer>();
+		for (int i = 1; i < args.length; i++) {
+			sizes.add(Integer.parseInt(args[i]));
+		}
+		if (sizes.isEmpty()) {
+			sizes.addAll(Arrays.asList(100, 1000, 10000));
+		}
+
+		System.out.println(String.format(Locale.US, "%-12s %8s %14s %14s %14s", "benchmark", "size", "mean [us/op]",
+				"min [us/op]", "ops/s"));
+		for (int size : sizes) {
+			Instance instance = new Instance(size, size);
+			run("linear", size, linear(instance));
+			run("evaluate", size, evaluate(instance));
+			run("result", size, result(instance));
+			Solver solver = createSolver(backend);
+			if (solver != null) {
+				run("build", size, build(solver, instance));
+				run("solve", size, solve(solver, instance));
+			}
+		}
+	}
+
+	/**
+	 * Returns the solver for a backend name or {@code null} for
+	 * {@code none}.
+	 */
+	protected static Solver createSolver(String backend) {
+		Solver solver;
+		if (backend.equals("none")) {
+			return null;
+		} else if (backend.equals("glpk")) {
+			solver = new SolverGLPK();
+		} else if (backend.equals("gurobi")) {
+			solver = new SolverGurobi();
+		} else if (backend.equals("cplex")) {
+			solver = new SolverCPLEX();
+		} else {
+			throw new IllegalArgumentException("unknown backend: " + backend);
+		}
+		solver.setParameter(Solver.VERBOSE, 0);
+		return solver;
+	}
+
+	/**
+	 * Constructs the linear expressions of all rows.
+	 */
+	protected static Case linear(final Instance instance) {
+		return new Case() {
+			void run() {
+				double sum = 0;
+				for (int i = 0; i < instance.rows; i++) {
+					Linear linear = new Linear();
+					for (int k = 0; k < instance.indices[i].length; k++) {
+						linear.add(instance.coefficients[i][k], instance.names[instance.indices[i][k]]);
+					}
+					sum += linear.size();
+				}
+				sink += sum;
+			}
+		};
+	}
+
+	/**
+	 * Evaluates the objective for a solution.
+	 */
+	protected static Case evaluate(final Instance instance) {
+		final Linear objective = instance.getObjective();
+		final Map<String, Number> values = new HashMap<String, Number>();
+		for (int j = 0; j < instance.columns; j++) {
+			values.put(instance.names[j], 1.0);
+		}
+		return new Case() {
+			void run() {
+				sink += objective.evaluate(values).doubleValue();
+			}
+		};
+	}
+
+	/**
+	 * Populates a result with the values of all variables and evaluates its
+	 * objective.
+	 */
+	protected static Case result(final Instance instance) {
+		final Linear objective = instance.getObjective();
+		return new Case() {
+			void run() {
+				Result result = new ResultImpl(objective);
+				for (int j = 0; j < instance.columns; j++) {
+					result.putPrimalValue(instance.names[j], 1.0);
+				}
+				sink += result.getObjective().doubleValue();
+			}
+		};
+	}
+
+	/**
+	 * Builds the problem in the backend (including its deletion).
+	 */
+	protected static Case build(final Solver solver, final Instance instance) {
+		return new Case() {
+			void run() {
+				Problem problem = solver.createProblem("benchmark");
+				try {
+					instance.build(problem);
+					sink += problem.getConstraintsCount();
+				} finally {
+					solver.deleteProblem("benchmark");
+				}
+			}
+		};
+	}
+
+	/**
+	 * Solves the problem in the backend; the problem is built (untimed)
+	 * before each solve.
+	 */
+	protected static Case solve(final Solver solver, final Instance instance) {
+		return new Case() {
+			Problem problem;
+
+			void setup() {
+				problem = solver.createProblem("benchmark");
+				instance.build(problem);
+			}
+
+			void run() {
+				sink += solver.solve(problem).getObjective().doubleValue();
+			}
+
+			void teardown() {
+				solver.deleteProblem("benchmark");
+			}
+		};
+	}
+
+	/**
+	 * Runs and reports a benchmark case.
+	 */
+	protected static void run(String name, int size, Case c) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iteration(c);
+		}
+		double mean = 0;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+			double time = iteration(c);
+			mean += time / MEASUREMENT_ITERATIONS;
+			min = Math.min(min, time);
+		}
+		System.out.println(String.format(Locale.US, "%-12s %8d %14.3f %14.3f %14.1f", name, size, mean / 1e3,
+				min / 1e3, 1e9 / mean));
+	}
+
+	/**
+	 * Runs the case repeatedly for at least {@link #MIN_ITERATION_TIME} and
+	 * returns the mean time per operation in nanoseconds.
+	 */
+	protected static double iteration(Case c) {
+		long total = 0;
+		int operations = 0;
+		while (total < MIN_ITERATION_TIME) {
+			c.setup();
+			long start = System.nanoTime();
+			c.run();
+			total += System.nanoTime() - start;
+			c.teardown();
+			operations++;
+		}
+		return (double) total / operations;
+	}
+
+	/**
+	 * A benchmark case; only {@link #run()} is timed.
+	 */
+	protected static abstract class Case {
+		void setup() {
+		}
+
+		abstract void run();
+
+		void teardown() {
+		}
+	}
+
+	/**
+	 * A covering LP: minimize c x subject to A x >= b, 0 <= x <= 10, with
+	 * {@link Benchmark#NONZEROS_PER_ROW} nonzeros per row.
+	 */
+	protected static class Instance {
+		protected final int rows;
+		protected final int columns;
+		protected final String[] names;
+		protected final double[] costs;
+		protected final int[][] indices;
+		protected final double[][] coefficients;
+		protected final double[] rhs;
+
+		protected Instance(int rows, int columns) {
+			this.rows = rows;
+			this.columns = columns;
+			Random random = new Random(rows * 31L + columns);
+			names = new String[columns];
+			costs = new double[columns];
+			for (int j = 0; j < columns; j++) {
+				names[j] = "x" + j;
+				costs[j] = 1 + random.nextInt(100);
+			}
+			int nonzeros = Math.min(NONZEROS_PER_ROW, columns);
+			indices = new int[rows][nonzeros];
+			coefficients = new double[rows][nonzeros];
+			rhs = new double[rows];
+			for (int i = 0; i < rows; i++) {
+				// distinct columns per row
+				int offset = random.nextInt(columns);
+				int stride = 1 + random.nextInt(Math.max(1, columns / nonzeros));
+				for (int k = 0; k < nonzeros; k++) {
+					indices[i][k] = (offset + k * stride) % columns;
+					coefficients[i][k] = 1 + random.nextInt(10);
+				}
+				rhs[i] = 1 + random.nextInt(10 * nonzeros);
+			}
+		}
+
+		protected Linear getObjective() {
+			Linear objective = new Linear();
+			for (int j = 0; j < columns; j++) {
+				objective.add(costs[j], names[j]);
+			}
+			return objective;
+		}
+
+		protected void build(Problem problem) {
+			for (int j = 0; j < columns; j++) {
+				problem.addVariable(names[j], VarType.REAL, 0, 10);
+			}
+			for (int i = 0; i < rows; i++) {
+				Linear linear = new Linear();
+				for (int k = 0; k < indices[i].length; k++) {
+					linear.add(coefficients[i][k], names[indices[i][k]]);
+				}
+				problem.addConstraint("c" + i, linear, Operator.GE, rhs[i]);
+			}
+			problem.setObjective(getObjective(), OptType.MIN);
+		}
+	}
+
+}
@@ -14,6 +14,9 @@
  */
 package net.sf.javailp.test;
 
+import java.util.Arrays;
+
+import net.sf.javailp.ModelTemplate;
 import net.sf.javailp.Problem;
 import net.sf.javailp.Linear;
 import net.sf.javailp.Operator;
@@ -82,6 +85,8 @@ public class Test {
 
 		System.out.println(result);
 
+		testTemplate(solver, problem);
+
 		/**
 		 * Extend the problem with x <= 16 and solve it again
 		 */
@@ -94,4 +99,26 @@ public class Test {
 
 	}
 
+	/**
+	 * Instantiates a template of the problem, sets x <= 16 in the same
+	 * array, binds it again, and solves the updated instance.
+	 */
+	public static void testTemplate(Solver solver, Problem problem) {
+		ModelTemplate template = new ModelTemplate(problem);
+		double[] columnUpper = new double[template.getColumnsCount()];
+		Arrays.fill(columnUpper, Double.POSITIVE_INFINITY);
+		ModelTemplate.Instance instance = template.instantiate(solver, "Template",
+				template.bind(null, null, columnUpper, null, null));
+		System.out.println(instance.solve());
+
+		columnUpper[Arrays.asList(template.getColumnNames()).indexOf("x")] = 16;
+		instance.update(template.bind(null, null, columnUpper, null, null));
+		Result result = instance.solve();
+		System.out.println(result);
+		if (result.getPrimalValue("x").doubleValue() > 16) {
+			throw new IllegalStateException("The rebound upper bound of x was not applied.");
+		}
+		instance.close();
+	}
+
 }